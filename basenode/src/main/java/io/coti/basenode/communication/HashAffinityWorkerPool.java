@@ -0,0 +1,128 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.communication.data.WorkerStatisticsData;
+import io.coti.basenode.data.Hash;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class HashAffinityWorkerPool {
+
+    private final String name;
+    private final List<Worker> workers = new ArrayList<>();
+
+    public HashAffinityWorkerPool(String name, int workerCount) {
+        this.name = name;
+        for (int i = 0; i < Math.max(workerCount, 1); i++) {
+            workers.add(new Worker(i));
+        }
+    }
+
+    public static Map<String, Integer> getWorkerCounts(String workerCountsProperty) {
+        Map<String, Integer> workerCounts = new HashMap<>();
+        if (workerCountsProperty == null || workerCountsProperty.trim().isEmpty()) {
+            return workerCounts;
+        }
+        for (String workerCount : workerCountsProperty.split(",")) {
+            String[] nameAndWorkerCount = workerCount.trim().split(":");
+            if (nameAndWorkerCount.length != 2) {
+                throw new IllegalArgumentException(String.format("Invalid handler worker count %s. Expected format is <Name>:<Workers>", workerCount));
+            }
+            workerCounts.put(nameAndWorkerCount[0].trim(), Integer.parseInt(nameAndWorkerCount[1].trim()));
+        }
+        return workerCounts;
+    }
+
+    public void start() {
+        workers.forEach(worker -> worker.thread.start());
+    }
+
+    public void execute(Hash hash, Runnable handler) throws InterruptedException {
+        workers.get(getWorkerIndex(hash)).queue.put(handler);
+    }
+
+    private int getWorkerIndex(Hash hash) {
+        return hash == null || workers.size() == 1 ? 0 : Math.floorMod(hash.hashCode(), workers.size());
+    }
+
+    public int getQueueSize() {
+        return workers.stream().mapToInt(worker -> worker.queue.size()).sum();
+    }
+
+    public List<WorkerStatisticsData> getStatistics() {
+        List<WorkerStatisticsData> workerStatistics = new ArrayList<>();
+        workers.forEach(worker -> workerStatistics.add(worker.getStatistics()));
+        return workerStatistics;
+    }
+
+    public void shutdown() {
+        workers.forEach(worker -> worker.thread.interrupt());
+        workers.forEach(worker -> {
+            try {
+                worker.thread.join();
+            } catch (InterruptedException e) {
+                log.error("Interrupted shutdown of {} workers", name);
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    private class Worker {
+
+        private final int index;
+        private final BlockingQueue<Runnable> queue = new LinkedBlockingQueue<>();
+        private final Thread thread;
+        private final AtomicLong handledMessages = new AtomicLong(0);
+        private final AtomicLong totalHandleTimeInNanos = new AtomicLong(0);
+        private final AtomicLong maxHandleTimeInNanos = new AtomicLong(0);
+
+        private Worker(int index) {
+            this.index = index;
+            this.thread = new Thread(this::handleMessages, name + "-" + index);
+        }
+
+        private void handleMessages() {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    handle(queue.take());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            LinkedList<Runnable> remainingHandlers = new LinkedList<>();
+            queue.drainTo(remainingHandlers);
+            if (!remainingHandlers.isEmpty()) {
+                log.info("Please wait to process {} remaining messages of {}", remainingHandlers.size(), thread.getName());
+                remainingHandlers.forEach(this::handle);
+            }
+        }
+
+        private void handle(Runnable handler) {
+            long startTime = System.nanoTime();
+            try {
+                handler.run();
+            } catch (Exception e) {
+                log.error("{} message handler error", name, e);
+            }
+            long handleTimeInNanos = System.nanoTime() - startTime;
+            handledMessages.incrementAndGet();
+            totalHandleTimeInNanos.addAndGet(handleTimeInNanos);
+            maxHandleTimeInNanos.accumulateAndGet(handleTimeInNanos, Math::max);
+        }
+
+        private WorkerStatisticsData getStatistics() {
+            WorkerStatisticsData workerStatisticsData = new WorkerStatisticsData();
+            long handled = handledMessages.get();
+            workerStatisticsData.setWorker(index);
+            workerStatisticsData.setQueueSize(queue.size());
+            workerStatisticsData.setHandledMessages(handled);
+            workerStatisticsData.setAverageHandleMillis(handled > 0 ? totalHandleTimeInNanos.get() / (handled * 1e6) : 0);
+            workerStatisticsData.setMaxHandleMillis(maxHandleTimeInNanos.get() / 1e6);
+            return workerStatisticsData;
+        }
+    }
+}
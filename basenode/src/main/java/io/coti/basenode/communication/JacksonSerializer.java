@@ -1,23 +1,34 @@
 package io.coti.basenode.communication;
 
 import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.coti.basenode.communication.interfaces.ISerializer;
 import io.coti.basenode.data.interfaces.IPropagatable;
+import io.coti.basenode.exceptions.SerializationException;
+import io.coti.basenode.model.codec.PropagatableCodecs;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
 import java.io.IOException;
+import java.io.OutputStream;
 
 @Slf4j
 @Service
 public class JacksonSerializer implements ISerializer {
 
     private ObjectMapper serializer;
+    private ObjectWriter streamWriter;
+    private final PropagatableCodecs propagatableCodecs = new PropagatableCodecs();
+    // Both formats are always deserialized, so the binary format is enabled once every node reads it
+    @Value("${propagation.serializer.binary.enabled}")
+    private boolean binaryEnabled;
 
     @PostConstruct
     private void init() {
@@ -25,15 +36,41 @@ public class JacksonSerializer implements ISerializer {
         serializer.registerModule(new JavaTimeModule());
         serializer.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
         serializer.setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        streamWriter = serializer.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
     }
 
     @Override
     public byte[] serialize(IPropagatable entity) {
+        if (binaryEnabled) {
+            byte[] bytes = encode(entity);
+            if (bytes != null) {
+                return bytes;
+            }
+        }
+        return serializeAsJson(entity);
+    }
+
+    public byte[] serializeAsJson(IPropagatable entity) {
         try {
             return serializer.writeValueAsBytes(entity);
         } catch (JsonProcessingException e) {
-            log.error("Error at jackson byte array serializer", e);
-            return null;
+            throw new SerializationException(String.format("Error at serializing %s", entity.getClass().getName()), e);
+        }
+    }
+
+    public void serializeAsJson(IPropagatable entity, OutputStream output) throws IOException {
+        try {
+            streamWriter.writeValue(output, entity);
+        } catch (JsonProcessingException e) {
+            throw new SerializationException(String.format("Error at serializing %s", entity.getClass().getName()), e);
+        }
+    }
+
+    private byte[] encode(IPropagatable entity) {
+        try {
+            return propagatableCodecs.encode(entity);
+        } catch (RuntimeException e) {
+            throw new SerializationException(String.format("Error at encoding %s", entity.getClass().getName()), e);
         }
     }
 
@@ -42,24 +79,37 @@ public class JacksonSerializer implements ISerializer {
         try {
             return serializer.writeValueAsString(entity);
         } catch (JsonProcessingException e) {
-            log.error("Error at jackson serializer", e);
-            return null;
+            throw new SerializationException(String.format("Error at serializing %s", entity.getClass().getName()), e);
         }
     }
 
+    @Override
     public <T extends IPropagatable> T deserialize(byte[] bytes) {
+        if (bytes == null || bytes.length == 0) {
+            throw new SerializationException("Empty message");
+        }
+        if (PropagatableCodecs.isEncoded(bytes)) {
+            try {
+                return propagatableCodecs.decode(bytes);
+            } catch (SerializationException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                throw new SerializationException("Error at decoding binary message", e);
+            }
+        }
         try {
             return (T) serializer.readValue(bytes, IPropagatable.class);
         } catch (IOException e) {
-            return null;
+            throw new SerializationException("Error at deserializing message", e);
         }
     }
 
+    @Override
     public <T extends IPropagatable> T deserialize(String string) {
         try {
             return (T) serializer.readValue(string, IPropagatable.class);
         } catch (IOException e) {
-            return null;
+            throw new SerializationException("Error at deserializing message", e);
         }
     }
 }
@@ -0,0 +1,7 @@
+package io.coti.basenode.communication;
+
+public enum PublishQueuePolicy {
+    Block,
+    DropOldest,
+    Reject
+}
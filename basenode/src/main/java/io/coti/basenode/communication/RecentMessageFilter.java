@@ -0,0 +1,35 @@
+package io.coti.basenode.communication;
+
+import java.nio.ByteBuffer;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class RecentMessageFilter {
+
+    // An exact set, as a false positive of a bloom filter would drop a message which was never received
+    private final Set<ByteBuffer> messageKeys = ConcurrentHashMap.newKeySet();
+    private final AtomicReferenceArray<ByteBuffer> recentMessageKeys;
+    private final AtomicLong nextSlot = new AtomicLong();
+
+    public RecentMessageFilter(int capacity) {
+        recentMessageKeys = new AtomicReferenceArray<>(Math.max(capacity, 1));
+    }
+
+    public boolean add(ByteBuffer messageKey) {
+        if (!messageKeys.add(messageKey)) {
+            return false;
+        }
+        int slot = (int) (nextSlot.getAndIncrement() % recentMessageKeys.length());
+        ByteBuffer evictedMessageKey = recentMessageKeys.getAndSet(slot, messageKey);
+        if (evictedMessageKey != null) {
+            messageKeys.remove(evictedMessageKey);
+        }
+        return true;
+    }
+
+    public int size() {
+        return messageKeys.size();
+    }
+}
@@ -0,0 +1,34 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.communication.data.ZeroMQChannelData;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class ZeroMQChannelRegistry {
+
+    private final Map<ByteBuffer, ZeroMQChannelData> channelBytesToChannelDataMap = new ConcurrentHashMap<>();
+
+    public void register(ZeroMQChannelData channelData) {
+        channelBytesToChannelDataMap.put(ByteBuffer.wrap(channelData.getChannelBytes()), channelData);
+    }
+
+    public void unregister(String channel) {
+        channelBytesToChannelDataMap.remove(ByteBuffer.wrap(channel.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public ZeroMQChannelData get(byte[] channelBytes) {
+        return channelBytesToChannelDataMap.get(ByteBuffer.wrap(channelBytes));
+    }
+
+    public Collection<ZeroMQChannelData> getChannels() {
+        return channelBytesToChannelDataMap.values();
+    }
+
+    public int size() {
+        return channelBytesToChannelDataMap.size();
+    }
+}
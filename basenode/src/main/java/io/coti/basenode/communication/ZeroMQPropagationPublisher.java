@@ -1,11 +1,13 @@
 package io.coti.basenode.communication;
 
-import io.coti.basenode.communication.data.ZeroMQMessageData;
+import io.coti.basenode.communication.data.ZeroMQChannelData;
+import io.coti.basenode.communication.data.ZeroMQPublishData;
 import io.coti.basenode.communication.interfaces.IPropagationPublisher;
 import io.coti.basenode.communication.interfaces.ISerializer;
 import io.coti.basenode.data.NodeType;
 import io.coti.basenode.data.PublisherHeartBeatData;
 import io.coti.basenode.data.interfaces.IPropagatable;
+import io.coti.basenode.exceptions.SerializationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
@@ -15,10 +17,12 @@ import org.zeromq.SocketType;
 import org.zeromq.ZMQ;
 import org.zeromq.ZMQException;
 
-import java.util.LinkedList;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
@@ -33,15 +37,26 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
     @Value("${server.ip}")
     private String publisherIp;
     private Thread publishMessageThread;
-    private BlockingQueue<ZeroMQMessageData> publishMessageQueue;
+    private BlockingQueue<ZeroMQPublishData> publishMessageQueue;
+    @Value("${propagation.publish.queue.capacity}")
+    private int publishQueueCapacity;
+    @Value("${propagation.publish.queue.policy}")
+    private PublishQueuePolicy publishQueuePolicy;
+    private final AtomicLong droppedMessages = new AtomicLong(0);
+    private final AtomicLong rejectedMessages = new AtomicLong(0);
     private boolean contextTerminated;
     @Autowired
     private ISerializer serializer;
+    private String serverAddress;
+    private ZeroMQChannelData heartBeatChannelData;
+    private final Map<Class<?>, Map<NodeType, ZeroMQChannelData>> messageTypeToChannelDataMap = new ConcurrentHashMap<>();
 
     public void init(String propagationPort, NodeType publisherNodeType) {
-        publishMessageQueue = new LinkedBlockingQueue<>();
+        publishMessageQueue = new ArrayBlockingQueue<>(publishQueueCapacity);
         this.publisherNodeType = publisherNodeType;
         this.propagationPort = propagationPort;
+        serverAddress = "tcp://" + publisherIp + ":" + propagationPort;
+        heartBeatChannelData = new ZeroMQChannelData(Channel.getChannelString(PublisherHeartBeatData.class, serverAddress));
         init();
         contextTerminated = false;
         log.info("ZeroMQ Publisher is up");
@@ -56,27 +71,93 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
     }
 
     public <T extends IPropagatable> void propagate(T toPropagate, List<NodeType> subscriberNodeTypes) {
+        ZeroMQPublishData publishData = getPublishData(toPropagate, subscriberNodeTypes);
+        if (publishData != null) {
+            addToPublishQueue(publishData);
+        }
+    }
 
-        subscriberNodeTypes.forEach(subscriberNodeType -> propagateToNode(toPropagate, subscriberNodeType));
+    public <T extends IPropagatable> boolean tryPropagate(T toPropagate, List<NodeType> subscriberNodeTypes) {
+        if (subscriberNodeTypes.isEmpty()) {
+            return true;
+        }
+        ZeroMQPublishData publishData = getPublishData(toPropagate, subscriberNodeTypes);
+        return publishData != null && offerToPublishQueue(publishData);
+    }
 
+    private <T extends IPropagatable> ZeroMQPublishData getPublishData(T toPropagate, List<NodeType> subscriberNodeTypes) {
+        if (subscriberNodeTypes.isEmpty()) {
+            return null;
+        }
+        List<ZeroMQChannelData> channelDataList = new ArrayList<>(subscriberNodeTypes.size());
+        subscriberNodeTypes.forEach(subscriberNodeType -> {
+            ZeroMQChannelData channelData = getChannelData(toPropagate.getClass(), subscriberNodeType);
+            log.debug("Propagating {} to {}", toPropagate.getHash(), channelData.getChannel());
+            channelDataList.add(channelData);
+        });
+        byte[] message;
+        try {
+            message = serializer.serialize(toPropagate);
+        } catch (SerializationException e) {
+            log.error("Failed to propagate {}: {}", toPropagate.getHash(), e.getMessage());
+            return null;
+        }
+        return zeroMQContext.isClosed() ? null : new ZeroMQPublishData(channelDataList, message);
     }
 
-    private <T extends IPropagatable> void propagateToNode(T toPropagate, NodeType subscriberNodeType) {
-        String serverAddress = "tcp://" + publisherIp + ":" + propagationPort;
-        log.debug("Propagating {} to {}", toPropagate.getHash(), Channel.getChannelString(toPropagate.getClass(), serverAddress, publisherNodeType, subscriberNodeType));
-        byte[] message = serializer.serialize(toPropagate);
-        if (!zeroMQContext.isClosed()) {
-            publishMessageQueue.add(new ZeroMQMessageData(Channel.getChannelString(toPropagate.getClass(), serverAddress, publisherNodeType, subscriberNodeType), message));
+    private boolean offerToPublishQueue(ZeroMQPublishData publishData) {
+        if (publishQueuePolicy == PublishQueuePolicy.DropOldest) {
+            addToPublishQueue(publishData);
+            return true;
+        }
+        if (!publishMessageQueue.offer(publishData)) {
+            rejectedMessages.incrementAndGet();
+            return false;
         }
+        return true;
+    }
+
+    private void addToPublishQueue(ZeroMQPublishData publishData) {
+        switch (publishQueuePolicy) {
+            case Block:
+                try {
+                    while (!publishMessageQueue.offer(publishData, 1, TimeUnit.SECONDS)) {
+                        if (zeroMQContext.isClosed()) {
+                            return;
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                break;
+            case DropOldest:
+                while (!publishMessageQueue.offer(publishData)) {
+                    if (publishMessageQueue.poll() != null) {
+                        droppedMessages.incrementAndGet();
+                    }
+                }
+                break;
+            default:
+                if (!publishMessageQueue.offer(publishData)) {
+                    rejectedMessages.incrementAndGet();
+                }
+        }
+    }
+
+    private ZeroMQChannelData getChannelData(Class<?> messageType, NodeType subscriberNodeType) {
+        return messageTypeToChannelDataMap.computeIfAbsent(messageType, type -> {
+            Map<NodeType, ZeroMQChannelData> subscriberNodeTypeToChannelDataMap = new EnumMap<>(NodeType.class);
+            for (NodeType nodeType : NodeType.values()) {
+                subscriberNodeTypeToChannelDataMap.put(nodeType, new ZeroMQChannelData(Channel.getChannelString(type, serverAddress, publisherNodeType, nodeType)));
+            }
+            return subscriberNodeTypeToChannelDataMap;
+        }).get(subscriberNodeType);
     }
 
     @Scheduled(initialDelay = INITIAL_DELAY, fixedDelay = HEARTBEAT_INTERVAL)
     public void propagateHeartBeatMessage() {
-        if (propagator != null) {
-            String serverAddress = "tcp://" + publisherIp + ":" + propagationPort;
-            if (!zeroMQContext.isClosed()) {
-                publishMessageQueue.add(new ZeroMQMessageData(Channel.getChannelString(PublisherHeartBeatData.class, serverAddress), serializer.serialize(new PublisherHeartBeatData(serverAddress))));
-            }
+        if (propagator != null && !zeroMQContext.isClosed()) {
+            offerToPublishQueue(new ZeroMQPublishData(Collections.singletonList(heartBeatChannelData), serializer.serialize(new PublisherHeartBeatData(serverAddress))));
         }
     }
 
@@ -85,8 +166,8 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
         publishMessageThread = new Thread(() -> {
             while (!contextTerminated && !Thread.currentThread().isInterrupted()) {
                 try {
-                    ZeroMQMessageData messageData = publishMessageQueue.take();
-                    publish(messageData);
+                    ZeroMQPublishData publishData = publishMessageQueue.take();
+                    publish(publishData);
                 } catch (InterruptedException e) {
                     log.info("Publisher thread interrupted");
                     Thread.currentThread().interrupt();
@@ -104,13 +185,16 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
         publishMessageThread.start();
     }
 
-    private void publish(ZeroMQMessageData messageData) {
-        propagator.sendMore(messageData.getChannel().getBytes());
-        propagator.send(messageData.getMessage());
+    private void publish(ZeroMQPublishData publishData) {
+        byte[] message = publishData.getMessage();
+        publishData.getChannelDataList().forEach(channelData -> {
+            propagator.sendMore(channelData.getChannelBytes());
+            propagator.send(message);
+        });
     }
 
     private void publishRemainingMessages() {
-        LinkedList<ZeroMQMessageData> remainingMessages = new LinkedList<>();
+        LinkedList<ZeroMQPublishData> remainingMessages = new LinkedList<>();
         publishMessageQueue.drainTo(remainingMessages);
         if (!remainingMessages.isEmpty()) {
             log.info("Please wait to publish {} remaining messages", remainingMessages.size());
@@ -118,6 +202,21 @@ public class ZeroMQPropagationPublisher implements IPropagationPublisher {
         }
     }
 
+    @Override
+    public int getQueueSize() {
+        return publishMessageQueue != null ? publishMessageQueue.size() : 0;
+    }
+
+    @Override
+    public long getDroppedMessages() {
+        return droppedMessages.get();
+    }
+
+    @Override
+    public long getRejectedMessages() {
+        return rejectedMessages.get();
+    }
+
     public void shutdown() {
         if (propagator != null) {
             log.info("Shutting down {}", this.getClass().getSimpleName());
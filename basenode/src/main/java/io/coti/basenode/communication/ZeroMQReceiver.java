@@ -1,17 +1,19 @@
 package io.coti.basenode.communication;
 
+import io.coti.basenode.communication.data.WorkerStatisticsData;
 import io.coti.basenode.communication.data.ZeroMQMessageData;
 import io.coti.basenode.communication.interfaces.IReceiver;
 import io.coti.basenode.communication.interfaces.ISerializer;
+import io.coti.basenode.data.interfaces.IPropagatable;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.zeromq.SocketType;
 import org.zeromq.ZMQ;
 import org.zeromq.ZMQException;
 
-import java.util.HashMap;
-import java.util.LinkedList;
+import java.util.*;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.function.Consumer;
@@ -26,8 +28,11 @@ public class ZeroMQReceiver implements IReceiver {
     private BlockingQueue<ZeroMQMessageData> messageQueue;
     private Thread receiverThread;
     private Thread messagesQueueHandlerThread;
+    private Map<String, HashAffinityWorkerPool> classNameToWorkerPoolMapping;
     @Autowired
     private ISerializer serializer;
+    @Value("${receiver.handler.workers}")
+    private String handlerWorkers;
 
     @Override
     public void init(String receivingPort, HashMap<String, Consumer<Object>> classNameToHandlerMapping) {
@@ -37,6 +42,12 @@ public class ZeroMQReceiver implements IReceiver {
         receiver.bind("tcp://*:" + receivingPort);
         log.info("Zero MQ Client Connected!");
         messageQueue = new LinkedBlockingQueue<>();
+        Map<String, Integer> workerCounts = HashAffinityWorkerPool.getWorkerCounts(handlerWorkers);
+        classNameToWorkerPoolMapping = new HashMap<>();
+        classNameToHandlerMapping.keySet().forEach(className -> {
+            String simpleClassName = className.substring(className.lastIndexOf('.') + 1);
+            classNameToWorkerPoolMapping.put(className, new HashAffinityWorkerPool("receiver-" + simpleClassName, workerCounts.getOrDefault(simpleClassName, 1)));
+        });
     }
 
     @Override
@@ -76,6 +87,7 @@ public class ZeroMQReceiver implements IReceiver {
 
     @Override
     public void initReceiverHandler() {
+        classNameToWorkerPoolMapping.values().forEach(HashAffinityWorkerPool::start);
         messagesQueueHandlerThread = new Thread(this::handleMessagesQueueTask);
         messagesQueueHandlerThread.start();
     }
@@ -84,10 +96,7 @@ public class ZeroMQReceiver implements IReceiver {
         while (!Thread.currentThread().isInterrupted()) {
             try {
                 ZeroMQMessageData zeroMQMessageData = messageQueue.take();
-                Consumer<Object> consumer = classNameToHandlerMapping.get(zeroMQMessageData.getChannel());
-                if (consumer != null) {
-                    consumer.accept(serializer.deserialize(zeroMQMessageData.getMessage()));
-                }
+                dispatchMessage(zeroMQMessageData);
             } catch (InterruptedException e) {
                 log.info("ZMQ receiver message handler interrupted");
                 Thread.currentThread().interrupt();
@@ -101,10 +110,9 @@ public class ZeroMQReceiver implements IReceiver {
             log.info("Please wait to process {} remaining messages", remainingMessages.size());
             remainingMessages.forEach(zeroMQMessageData -> {
                 try {
-                    Consumer<Object> consumer = classNameToHandlerMapping.get(zeroMQMessageData.getChannel());
-                    if (consumer != null) {
-                        consumer.accept(serializer.deserialize(zeroMQMessageData.getMessage()));
-                    }
+                    dispatchMessage(zeroMQMessageData);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 } catch (Exception e) {
                     log.error("ZMQ receiver message handler task error", e);
                 }
@@ -112,6 +120,23 @@ public class ZeroMQReceiver implements IReceiver {
         }
     }
 
+    private void dispatchMessage(ZeroMQMessageData zeroMQMessageData) throws InterruptedException {
+        Consumer<Object> consumer = classNameToHandlerMapping.get(zeroMQMessageData.getChannel());
+        if (consumer != null) {
+            IPropagatable messageData = serializer.deserialize(zeroMQMessageData.getMessage());
+            classNameToWorkerPoolMapping.get(zeroMQMessageData.getChannel()).execute(messageData.getHash(), () -> consumer.accept(messageData));
+        }
+    }
+
+    @Override
+    public Map<String, List<WorkerStatisticsData>> getHandlerStatistics() {
+        Map<String, List<WorkerStatisticsData>> handlerStatistics = new TreeMap<>();
+        if (classNameToWorkerPoolMapping != null) {
+            classNameToWorkerPoolMapping.forEach((className, workerPool) -> handlerStatistics.put(className, workerPool.getStatistics()));
+        }
+        return handlerStatistics;
+    }
+
     @Override
     public void shutdown() {
         try {
@@ -120,8 +145,11 @@ public class ZeroMQReceiver implements IReceiver {
                 zeroMQContext.term();
                 receiverThread.interrupt();
                 receiverThread.join();
-                messagesQueueHandlerThread.interrupt();
-                messagesQueueHandlerThread.join();
+                if (messagesQueueHandlerThread != null) {
+                    messagesQueueHandlerThread.interrupt();
+                    messagesQueueHandlerThread.join();
+                }
+                classNameToWorkerPoolMapping.values().forEach(HashAffinityWorkerPool::shutdown);
             }
         } catch (InterruptedException e) {
             log.error("Interrupted shutdown ZeroMQ receiver");
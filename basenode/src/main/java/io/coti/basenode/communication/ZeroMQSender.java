@@ -1,17 +1,20 @@
 package io.coti.basenode.communication;
 
+import io.coti.basenode.communication.data.SenderStatisticsData;
 import io.coti.basenode.communication.interfaces.ISender;
 import io.coti.basenode.communication.interfaces.ISerializer;
 import io.coti.basenode.data.NodeType;
 import io.coti.basenode.data.interfaces.IPropagatable;
+import io.coti.basenode.exceptions.SerializationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.zeromq.SocketType;
 import org.zeromq.ZMQ;
-import org.zeromq.ZMQException;
 
 import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -20,7 +23,9 @@ import java.util.concurrent.ConcurrentHashMap;
 public class ZeroMQSender implements ISender {
 
     private ZMQ.Context zeroMQContext;
-    private Map<String, ZMQ.Socket> receivingAddressToSenderSocketMapping;
+    private Map<String, ZeroMQSenderActor> receivingAddressToSenderActorMapping;
+    @Value("${sender.queue.capacity}")
+    private int senderQueueCapacity;
 
     @Autowired
     private ISerializer serializer;
@@ -28,49 +33,66 @@ public class ZeroMQSender implements ISender {
     @PostConstruct
     private void init() {
         zeroMQContext = ZMQ.context(1);
-        receivingAddressToSenderSocketMapping = new ConcurrentHashMap<>();
+        receivingAddressToSenderActorMapping = new ConcurrentHashMap<>();
     }
 
     @Override
     public void connectToNode(String receivingServerAddress) {
-        initializeSenderSocket(receivingServerAddress);
+        initializeSenderActor(receivingServerAddress);
     }
 
     @Override
     public <T extends IPropagatable> void send(T toSend, String address) {
-        byte[] message = serializer.serialize(toSend);
-        synchronized (zeroMQContext) {
-            try {
-                receivingAddressToSenderSocketMapping.get(address).sendMore(toSend.getClass().getName());
-                receivingAddressToSenderSocketMapping.get(address).send(message);
-                log.debug("Message {} was sent to {}", toSend, toSend.getClass().getName());
-            } catch (ZMQException exception) {
-                log.error("Exception in sending", exception);
-            }
+        ZeroMQSenderActor senderActor = receivingAddressToSenderActorMapping.get(address);
+        if (senderActor == null) {
+            log.error("No sender is connected to {}", address);
+            return;
+        }
+        byte[] message;
+        try {
+            message = serializer.serialize(toSend);
+        } catch (SerializationException e) {
+            log.error("Failed to send {} to {}: {}", toSend.getClass().getName(), address, e.getMessage());
+            return;
+        }
+        if (!senderActor.send(toSend.getClass().getName(), message)) {
+            log.error("Sending queue to {} is full, message {} was rejected", address, toSend.getClass().getName());
         }
     }
 
     @Override
     public void disconnectFromNode(String receivingFullAddress, NodeType nodeType) {
-        ZMQ.Socket sender = receivingAddressToSenderSocketMapping.get(receivingFullAddress);
-        if (sender != null) {
+        ZeroMQSenderActor senderActor = receivingAddressToSenderActorMapping.remove(receivingFullAddress);
+        if (senderActor != null) {
             log.debug("{} with address  {} is about to be removed from sending to zmq", nodeType, receivingFullAddress);
-            if (!sender.disconnect(receivingFullAddress)) {
-                log.error("{} with address  {} sender failed to be removed from zmq", nodeType, receivingFullAddress);
-            }
-            receivingAddressToSenderSocketMapping.remove(receivingFullAddress);
+            senderActor.stop();
         } else {
-            log.error("{} with address  {} was about to be removed but doesn't exit in receivingAddressToSenderSocketMapping ",
+            log.error("{} with address  {} was about to be removed but doesn't exit in receivingAddressToSenderActorMapping ",
                     nodeType, receivingFullAddress);
         }
 
     }
 
-    private void initializeSenderSocket(String addressAndPort) {
-        ZMQ.Socket sender = zeroMQContext.socket(SocketType.DEALER);
-        ZeroMQUtils.bindToRandomPort(sender);
-        sender.connect(addressAndPort);
-        receivingAddressToSenderSocketMapping.putIfAbsent(addressAndPort, sender);
-        log.debug("Receiver  {} is about to be removed from sending to zmq", addressAndPort);
+    @Override
+    public List<SenderStatisticsData> getStatistics() {
+        List<SenderStatisticsData> senderStatistics = new ArrayList<>();
+        receivingAddressToSenderActorMapping.values().forEach(senderActor -> senderStatistics.add(senderActor.getStatistics()));
+        return senderStatistics;
+    }
+
+    @Override
+    public void shutdown() {
+        log.info("Shutting down {}", this.getClass().getSimpleName());
+        receivingAddressToSenderActorMapping.values().forEach(ZeroMQSenderActor::stop);
+        receivingAddressToSenderActorMapping.clear();
+    }
+
+    private void initializeSenderActor(String addressAndPort) {
+        receivingAddressToSenderActorMapping.computeIfAbsent(addressAndPort, address -> {
+            ZeroMQSenderActor senderActor = new ZeroMQSenderActor(address, zeroMQContext, senderQueueCapacity);
+            senderActor.start();
+            log.debug("Sender to {} is started", address);
+            return senderActor;
+        });
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,137 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.communication.data.SenderStatisticsData;
+import lombok.extern.slf4j.Slf4j;
+import org.zeromq.SocketType;
+import org.zeromq.ZMQ;
+import org.zeromq.ZMQException;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+class ZeroMQSenderActor {
+
+    private static final long POLL_TIMEOUT_MILLIS = 100;
+    private static final long STOP_TIMEOUT_MILLIS = 5000;
+    private final String address;
+    private final ZMQ.Context zeroMQContext;
+    private final BlockingQueue<SendRequest> sendQueue;
+    private final Thread senderThread;
+    private volatile boolean running = true;
+    private final AtomicLong sentMessages = new AtomicLong(0);
+    private final AtomicLong rejectedMessages = new AtomicLong(0);
+    private final AtomicLong failedMessages = new AtomicLong(0);
+    private final AtomicLong reconnections = new AtomicLong(0);
+    private final AtomicLong totalSendLatencyInNanos = new AtomicLong(0);
+    private final AtomicLong maxSendLatencyInNanos = new AtomicLong(0);
+
+    ZeroMQSenderActor(String address, ZMQ.Context zeroMQContext, int queueCapacity) {
+        this.address = address;
+        this.zeroMQContext = zeroMQContext;
+        this.sendQueue = new ArrayBlockingQueue<>(queueCapacity);
+        this.senderThread = new Thread(this::sendMessages, "ZeroMQSender-" + address);
+    }
+
+    void start() {
+        senderThread.start();
+    }
+
+    boolean send(String messageType, byte[] message) {
+        if (running && sendQueue.offer(new SendRequest(messageType, message))) {
+            return true;
+        }
+        rejectedMessages.incrementAndGet();
+        return false;
+    }
+
+    void stop() {
+        running = false;
+        try {
+            senderThread.join(STOP_TIMEOUT_MILLIS);
+            if (senderThread.isAlive()) {
+                log.error("Sender to {} did not stop with {} queued messages", address, sendQueue.size());
+            }
+        } catch (InterruptedException e) {
+            log.error("Interrupted stop of sender to {}", address);
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sendMessages() {
+        ZMQ.Socket sender = createSocket();
+        try {
+            while (running || !sendQueue.isEmpty()) {
+                SendRequest sendRequest = sendQueue.poll(POLL_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+                if (sendRequest != null) {
+                    sender = send(sender, sendRequest);
+                }
+            }
+        } catch (InterruptedException e) {
+            log.info("Sender to {} interrupted", address);
+            Thread.currentThread().interrupt();
+        } catch (ZMQException e) {
+            log.info("Sender to {} stopped by terminated context", address);
+        } finally {
+            sender.close();
+        }
+    }
+
+    private ZMQ.Socket send(ZMQ.Socket sender, SendRequest sendRequest) {
+        try {
+            sender.sendMore(sendRequest.messageType);
+            sender.send(sendRequest.message);
+            long sendLatencyInNanos = System.nanoTime() - sendRequest.queueTimeInNanos;
+            sentMessages.incrementAndGet();
+            totalSendLatencyInNanos.addAndGet(sendLatencyInNanos);
+            maxSendLatencyInNanos.accumulateAndGet(sendLatencyInNanos, Math::max);
+            log.debug("Message {} was sent to {}", sendRequest.messageType, address);
+            return sender;
+        } catch (ZMQException e) {
+            if (e.getErrorCode() == ZMQ.Error.ETERM.getCode()) {
+                throw e;
+            }
+            failedMessages.incrementAndGet();
+            log.error("Exception in sending to {}, reconnecting", address, e);
+            sender.close();
+            reconnections.incrementAndGet();
+            return createSocket();
+        }
+    }
+
+    private ZMQ.Socket createSocket() {
+        ZMQ.Socket sender = zeroMQContext.socket(SocketType.DEALER);
+        ZeroMQUtils.bindToRandomPort(sender);
+        sender.connect(address);
+        return sender;
+    }
+
+    SenderStatisticsData getStatistics() {
+        SenderStatisticsData senderStatisticsData = new SenderStatisticsData();
+        senderStatisticsData.setAddress(address);
+        senderStatisticsData.setQueueSize(sendQueue.size());
+        long sent = sentMessages.get();
+        senderStatisticsData.setSentMessages(sent);
+        senderStatisticsData.setRejectedMessages(rejectedMessages.get());
+        senderStatisticsData.setFailedMessages(failedMessages.get());
+        senderStatisticsData.setReconnections(reconnections.get());
+        senderStatisticsData.setAverageSendLatencyMillis(sent > 0 ? totalSendLatencyInNanos.get() / (sent * 1e6) : 0);
+        senderStatisticsData.setMaxSendLatencyMillis(maxSendLatencyInNanos.get() / 1e6);
+        return senderStatisticsData;
+    }
+
+    private static class SendRequest {
+
+        private final String messageType;
+        private final byte[] message;
+        private final long queueTimeInNanos;
+
+        private SendRequest(String messageType, byte[] message) {
+            this.messageType = messageType;
+            this.message = message;
+            this.queueTimeInNanos = System.nanoTime();
+        }
+    }
+}
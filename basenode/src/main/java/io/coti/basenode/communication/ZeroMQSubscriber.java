@@ -1,6 +1,9 @@
 package io.coti.basenode.communication;
 
+import io.coti.basenode.communication.data.ChannelStatisticsData;
 import io.coti.basenode.communication.data.ConnectedNodeData;
+import io.coti.basenode.communication.data.WorkerStatisticsData;
+import io.coti.basenode.communication.data.ZeroMQChannelData;
 import io.coti.basenode.communication.data.ZeroMQMessageData;
 import io.coti.basenode.communication.interfaces.IPropagationSubscriber;
 import io.coti.basenode.communication.interfaces.ISerializer;
@@ -8,19 +11,23 @@ import io.coti.basenode.communication.interfaces.ISubscriberHandler;
 import io.coti.basenode.data.NodeType;
 import io.coti.basenode.data.PublisherHeartBeatData;
 import io.coti.basenode.data.interfaces.IPropagatable;
+import io.coti.basenode.model.codec.PropagatableCodecs;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.zeromq.SocketType;
 import org.zeromq.ZMQ;
 import org.zeromq.ZMQException;
 
+import java.nio.ByteBuffer;
 import java.time.Duration;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -37,16 +44,27 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
     private ISerializer serializer;
     private EnumMap<NodeType, List<Class<? extends IPropagatable>>> publisherNodeTypeToMessageTypesMap;
     private Map<String, Thread> queueNameToThreadMap = new HashMap<>();
+    private Map<String, HashAffinityWorkerPool> queueNameToWorkerPoolMap = new HashMap<>();
     private NodeType subscriberNodeType;
     @Autowired
     private ISubscriberHandler subscriberHandler;
+    private final ZeroMQChannelRegistry channelRegistry = new ZeroMQChannelRegistry();
+    @Value("${subscriber.handler.workers}")
+    private String handlerWorkers;
+    @Value("${subscriber.duplicate.filter.capacity}")
+    private int duplicateFilterCapacity;
+    private RecentMessageFilter recentMessageFilter;
+    private final PropagatableCodecs propagatableCodecs = new PropagatableCodecs();
 
 
     @Override
     public void init() {
+        if (duplicateFilterCapacity > 0) {
+            recentMessageFilter = new RecentMessageFilter(duplicateFilterCapacity);
+        }
         initSockets();
         BlockingQueue<ZeroMQMessageData> messageQueue = ZeroMQSubscriberQueue.HEARTBEAT.getQueue();
-        queueNameToThreadMap.put(ZeroMQSubscriberQueue.HEARTBEAT.name(), new Thread(() -> this.handleMessagesQueueTask(messageQueue)));
+        queueNameToThreadMap.put(ZeroMQSubscriberQueue.HEARTBEAT.name(), new Thread(() -> this.handleMessagesQueueTask(messageQueue, null)));
         subscriberHandler.init();
     }
 
@@ -65,9 +83,12 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
     @Override
     public void setPublisherNodeTypeToMessageTypesMap(EnumMap<NodeType, List<Class<? extends IPropagatable>>> publisherNodeTypeToMessageTypesMap) {
         this.publisherNodeTypeToMessageTypesMap = publisherNodeTypeToMessageTypesMap;
+        Map<String, Integer> workerCounts = HashAffinityWorkerPool.getWorkerCounts(handlerWorkers);
         publisherNodeTypeToMessageTypesMap.forEach(((nodeType, classes) -> classes.forEach(messageType -> {
             ZeroMQSubscriberQueue queueEnum = ZeroMQSubscriberQueue.getQueueEnum(messageType);
-            queueNameToThreadMap.putIfAbsent(queueEnum.toString(), new Thread(() -> this.handleMessagesQueueTask(queueEnum.getQueue())));
+            HashAffinityWorkerPool workerPool = queueNameToWorkerPoolMap.computeIfAbsent(queueEnum.toString(),
+                    queueName -> new HashAffinityWorkerPool("subscriber-" + queueName, workerCounts.getOrDefault(queueName, 1)));
+            queueNameToThreadMap.putIfAbsent(queueEnum.toString(), new Thread(() -> this.handleMessagesQueueTask(queueEnum.getQueue(), workerPool)));
         })));
     }
 
@@ -95,31 +116,48 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
 
     }
 
-    private void addToMessageQueue() throws ClassNotFoundException {
+    private void addToMessageQueue() {
         try {
-            String channel = propagationReceiver.recvStr();
-            log.debug("Received a new message on channel: {}", channel);
-            String[] channelArray = channel.split("-");
-            Class<? extends IPropagatable> propagatedMessageType = (Class<? extends IPropagatable>) Class.forName(channelArray[0]);
+            byte[] channel = propagationReceiver.recv();
             byte[] message = propagationReceiver.recv();
-            ZeroMQSubscriberQueue.getQueue(propagatedMessageType).put(new ZeroMQMessageData(channel, message));
+            ZeroMQChannelData channelData = channelRegistry.get(channel);
+            if (channelData == null) {
+                log.error("Received a message on unknown channel: {}", new String(channel));
+                return;
+            }
+            log.debug("Received a new message on channel: {}", channelData.getChannel());
+            channelData.getReceivedMessages().incrementAndGet();
+            if (isDuplicateMessage(message)) {
+                channelData.getDuplicateMessages().incrementAndGet();
+                return;
+            }
+            channelData.getQueue().put(new ZeroMQMessageData(channelData, message));
         } catch (InterruptedException e) {
             log.info("ZMQ subscriber propagation receiver interrupted");
             Thread.currentThread().interrupt();
         }
     }
 
+    private boolean isDuplicateMessage(byte[] message) {
+        if (recentMessageFilter == null) {
+            return false;
+        }
+        ByteBuffer messageKey = propagatableCodecs.getMessageKey(message);
+        return messageKey != null && !recentMessageFilter.add(messageKey);
+    }
+
     @Override
     public void initPropagationHandler() {
+        queueNameToWorkerPoolMap.values().forEach(HashAffinityWorkerPool::start);
         queueNameToThreadMap.values().forEach(Thread::start);
     }
 
-    private void handleMessagesQueueTask(BlockingQueue<ZeroMQMessageData> messageQueue) {
+    private void handleMessagesQueueTask(BlockingQueue<ZeroMQMessageData> messageQueue, HashAffinityWorkerPool workerPool) {
         while (!Thread.currentThread().isInterrupted()) {
             try {
                 ZeroMQMessageData zeroMQMessageData = messageQueue.take();
                 log.debug("ZMQ message arrived: {}", zeroMQMessageData);
-                propagationProcess(zeroMQMessageData);
+                propagationProcess(zeroMQMessageData, workerPool);
             } catch (InterruptedException e) {
                 log.info("ZMQ subscriber message handler interrupted");
                 Thread.currentThread().interrupt();
@@ -133,7 +171,9 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
             log.info("Please wait to process {} remaining messages", remainingMessages.size());
             remainingMessages.forEach(zeroMQMessageData -> {
                 try {
-                    propagationProcess(zeroMQMessageData);
+                    propagationProcess(zeroMQMessageData, workerPool);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
                 } catch (Exception e) {
                     log.error("ZMQ subscriber message handler task error", e);
                 }
@@ -142,25 +182,16 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
 
     }
 
-    private void propagationProcess(ZeroMQMessageData zeroMQMessageData) throws ClassNotFoundException {
-        String channel = zeroMQMessageData.getChannel();
+    private void propagationProcess(ZeroMQMessageData zeroMQMessageData, HashAffinityWorkerPool workerPool) throws InterruptedException {
+        ZeroMQChannelData channelData = zeroMQMessageData.getChannelData();
         byte[] message = zeroMQMessageData.getMessage();
         IPropagatable messageData = serializer.deserialize(message);
-        String[] channelArray = channel.split("-");
-        Class<? extends IPropagatable> propagatedMessageType = (Class<? extends IPropagatable>) Class.forName(channelArray[0]);
-        if (propagatedMessageType.equals(PublisherHeartBeatData.class)) {
+        if (channelData.getMessageType().equals(PublisherHeartBeatData.class)) {
             String serverAddress = ((PublisherHeartBeatData) messageData).getServerAddress();
             updatePublisherLastConnectionTime(serverAddress);
         } else {
-            String serverAddress = channelArray[1];
-            NodeType publisherNodeType = NodeType.valueOf(channelArray[2]);
-            updatePublisherLastConnectionTime(serverAddress);
-            publisherNodeTypeToMessageTypesMap.get(publisherNodeType).forEach(messageType -> {
-
-                if (messageType.equals(propagatedMessageType)) {
-                    handleMessageData(messageData, propagatedMessageType, publisherNodeType);
-                }
-            });
+            updatePublisherLastConnectionTime(channelData.getPublisherAddressAndPort());
+            workerPool.execute(messageData.getHash(), () -> handleMessageData(messageData, channelData.getHandler()));
         }
     }
 
@@ -171,9 +202,9 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
         }
     }
 
-    private void handleMessageData(IPropagatable messageData, Class<? extends IPropagatable> propagatedMessageType, NodeType publisherNodeType) {
+    private void handleMessageData(IPropagatable messageData, Consumer<Object> handler) {
         try {
-            subscriberHandler.get(propagatedMessageType.getSimpleName()).apply(publisherNodeType).accept(messageData);
+            handler.accept(messageData);
         } catch (ClassCastException e) {
             log.error("Invalid request received: " + e.getMessage());
         } catch (Exception e) {
@@ -195,10 +226,15 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
     }
 
     private void subscribeAll(String publisherAddressAndPort, NodeType publisherNodeType) {
-        propagationReceiver.subscribe(Channel.getChannelString(PublisherHeartBeatData.class, publisherAddressAndPort));
+        String heartBeatChannel = Channel.getChannelString(PublisherHeartBeatData.class, publisherAddressAndPort);
+        channelRegistry.register(new ZeroMQChannelData(heartBeatChannel, PublisherHeartBeatData.class, publisherAddressAndPort, publisherNodeType,
+                ZeroMQSubscriberQueue.getQueue(PublisherHeartBeatData.class), null));
+        propagationReceiver.subscribe(heartBeatChannel);
         publisherNodeTypeToMessageTypesMap.get(publisherNodeType).forEach(messageType ->
         {
             String channel = Channel.getChannelString(messageType, publisherAddressAndPort, publisherNodeType, subscriberNodeType);
+            channelRegistry.register(new ZeroMQChannelData(channel, messageType, publisherAddressAndPort, publisherNodeType,
+                    ZeroMQSubscriberQueue.getQueue(messageType), subscriberHandler.get(messageType.getSimpleName()).apply(publisherNodeType)));
             if (propagationReceiver.subscribe(channel)) {
                 log.info("Subscribed to server {} and channel {}", publisherAddressAndPort, channel);
             } else {
@@ -218,10 +254,13 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
     }
 
     private void unsubscribeAll(String publisherAddressAndPort, NodeType publisherNodeType) {
-        propagationReceiver.unsubscribe(Channel.getChannelString(PublisherHeartBeatData.class, publisherAddressAndPort));
+        String heartBeatChannel = Channel.getChannelString(PublisherHeartBeatData.class, publisherAddressAndPort);
+        propagationReceiver.unsubscribe(heartBeatChannel);
+        channelRegistry.unregister(heartBeatChannel);
         publisherNodeTypeToMessageTypesMap.get(publisherNodeType).forEach(messageType ->
         {
             String channel = Channel.getChannelString(messageType, publisherAddressAndPort, publisherNodeType, subscriberNodeType);
+            channelRegistry.unregister(channel);
             if (propagationReceiver.unsubscribe(channel)) {
                 log.info("Unsubscribed from server {} and channel {}", publisherAddressAndPort, channel);
             } else {
@@ -244,7 +283,24 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
 
     @Override
     public int getMessageQueueSize(ZeroMQSubscriberQueue zeroMQSubscriberQueue) {
-        return zeroMQSubscriberQueue.getQueue().size();
+        HashAffinityWorkerPool workerPool = queueNameToWorkerPoolMap.get(zeroMQSubscriberQueue.toString());
+        return zeroMQSubscriberQueue.getQueue().size() + (workerPool != null ? workerPool.getQueueSize() : 0);
+    }
+
+    @Override
+    public List<ChannelStatisticsData> getChannelStatistics() {
+        List<ChannelStatisticsData> channelStatistics = new ArrayList<>();
+        channelRegistry.getChannels().forEach(channelData -> channelStatistics.add(
+                new ChannelStatisticsData(channelData.getChannel(), channelData.getReceivedMessages().get(), channelData.getDuplicateMessages().get())));
+        channelStatistics.sort(Comparator.comparing(ChannelStatisticsData::getChannel));
+        return channelStatistics;
+    }
+
+    @Override
+    public Map<String, List<WorkerStatisticsData>> getHandlerStatistics() {
+        Map<String, List<WorkerStatisticsData>> handlerStatistics = new TreeMap<>();
+        queueNameToWorkerPoolMap.forEach((queueName, workerPool) -> handlerStatistics.put(queueName, workerPool.getStatistics()));
+        return handlerStatistics;
     }
 
     @Override
@@ -264,6 +320,7 @@ public class ZeroMQSubscriber implements IPropagationSubscriber {
                         Thread.currentThread().interrupt();
                     }
                 });
+                queueNameToWorkerPoolMap.values().forEach(HashAffinityWorkerPool::shutdown);
             }
         } catch (InterruptedException e) {
             log.error("Interrupted shutdown ZeroMQ subscriber");
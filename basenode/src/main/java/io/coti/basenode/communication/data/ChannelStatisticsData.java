@@ -0,0 +1,19 @@
+package io.coti.basenode.communication.data;
+
+import lombok.Data;
+
+@Data
+public class ChannelStatisticsData {
+
+    private String channel;
+    private long receivedMessages;
+    private long duplicateMessages;
+    private double duplicateRatio;
+
+    public ChannelStatisticsData(String channel, long receivedMessages, long duplicateMessages) {
+        this.channel = channel;
+        this.receivedMessages = receivedMessages;
+        this.duplicateMessages = duplicateMessages;
+        this.duplicateRatio = receivedMessages > 0 ? (double) duplicateMessages / receivedMessages : 0;
+    }
+}
@@ -0,0 +1,16 @@
+package io.coti.basenode.communication.data;
+
+import lombok.Data;
+
+@Data
+public class SenderStatisticsData {
+
+    private String address;
+    private int queueSize;
+    private long sentMessages;
+    private long rejectedMessages;
+    private long failedMessages;
+    private long reconnections;
+    private double averageSendLatencyMillis;
+    private double maxSendLatencyMillis;
+}
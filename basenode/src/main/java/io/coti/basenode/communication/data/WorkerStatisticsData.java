@@ -0,0 +1,13 @@
+package io.coti.basenode.communication.data;
+
+import lombok.Data;
+
+@Data
+public class WorkerStatisticsData {
+
+    private int worker;
+    private int queueSize;
+    private long handledMessages;
+    private double averageHandleMillis;
+    private double maxHandleMillis;
+}
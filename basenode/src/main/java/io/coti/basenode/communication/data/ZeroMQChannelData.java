@@ -0,0 +1,39 @@
+package io.coti.basenode.communication.data;
+
+import io.coti.basenode.data.NodeType;
+import io.coti.basenode.data.interfaces.IPropagatable;
+import lombok.Data;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+@Data
+public class ZeroMQChannelData {
+
+    private String channel;
+    private byte[] channelBytes;
+    private Class<? extends IPropagatable> messageType;
+    private String publisherAddressAndPort;
+    private NodeType publisherNodeType;
+    private BlockingQueue<ZeroMQMessageData> queue;
+    private Consumer<Object> handler;
+    private final AtomicLong receivedMessages = new AtomicLong();
+    private final AtomicLong duplicateMessages = new AtomicLong();
+
+    public ZeroMQChannelData(String channel) {
+        this.channel = channel;
+        this.channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+    }
+
+    public ZeroMQChannelData(String channel, Class<? extends IPropagatable> messageType, String publisherAddressAndPort, NodeType publisherNodeType,
+                             BlockingQueue<ZeroMQMessageData> queue, Consumer<Object> handler) {
+        this(channel);
+        this.messageType = messageType;
+        this.publisherAddressAndPort = publisherAddressAndPort;
+        this.publisherNodeType = publisherNodeType;
+        this.queue = queue;
+        this.handler = handler;
+    }
+}
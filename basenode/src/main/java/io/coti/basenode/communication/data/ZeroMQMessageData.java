@@ -5,10 +5,17 @@ import lombok.Data;
 @Data
 public class ZeroMQMessageData {
     private String channel;
+    private ZeroMQChannelData channelData;
     private byte[] message;
 
     public ZeroMQMessageData(String channel, byte[] message) {
         this.channel = channel;
         this.message = message;
     }
+
+    public ZeroMQMessageData(ZeroMQChannelData channelData, byte[] message) {
+        this.channel = channelData.getChannel();
+        this.channelData = channelData;
+        this.message = message;
+    }
 }
@@ -0,0 +1,16 @@
+package io.coti.basenode.communication.data;
+
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class ZeroMQPublishData {
+    private List<ZeroMQChannelData> channelDataList;
+    private byte[] message;
+
+    public ZeroMQPublishData(List<ZeroMQChannelData> channelDataList, byte[] message) {
+        this.channelDataList = channelDataList;
+        this.message = message;
+    }
+}
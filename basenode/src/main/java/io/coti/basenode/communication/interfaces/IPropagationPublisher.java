@@ -11,5 +11,13 @@ public interface IPropagationPublisher {
 
     <T extends IPropagatable> void propagate(T toPropagate, List<NodeType> subscriberNodeTypes);
 
+    <T extends IPropagatable> boolean tryPropagate(T toPropagate, List<NodeType> subscriberNodeTypes);
+
+    int getQueueSize();
+
+    long getDroppedMessages();
+
+    long getRejectedMessages();
+
     void shutdown();
 }
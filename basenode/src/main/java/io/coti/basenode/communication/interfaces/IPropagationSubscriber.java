@@ -1,11 +1,14 @@
 package io.coti.basenode.communication.interfaces;
 
 import io.coti.basenode.communication.ZeroMQSubscriberQueue;
+import io.coti.basenode.communication.data.ChannelStatisticsData;
+import io.coti.basenode.communication.data.WorkerStatisticsData;
 import io.coti.basenode.data.NodeType;
 import io.coti.basenode.data.interfaces.IPropagatable;
 
 import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
 
 public interface IPropagationSubscriber {
 
@@ -25,5 +28,9 @@ public interface IPropagationSubscriber {
 
     int getMessageQueueSize(ZeroMQSubscriberQueue zeroMQSubscriberQueue);
 
+    List<ChannelStatisticsData> getChannelStatistics();
+
+    Map<String, List<WorkerStatisticsData>> getHandlerStatistics();
+
     void shutdown();
 }
\ No newline at end of file
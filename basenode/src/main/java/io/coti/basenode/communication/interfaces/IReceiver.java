@@ -1,6 +1,10 @@
 package io.coti.basenode.communication.interfaces;
 
+import io.coti.basenode.communication.data.WorkerStatisticsData;
+
 import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.function.Consumer;
 
 public interface IReceiver {
@@ -10,5 +14,7 @@ public interface IReceiver {
 
     void initReceiverHandler();
 
+    Map<String, List<WorkerStatisticsData>> getHandlerStatistics();
+
     void shutdown();
 }
@@ -1,8 +1,11 @@
 package io.coti.basenode.communication.interfaces;
 
+import io.coti.basenode.communication.data.SenderStatisticsData;
 import io.coti.basenode.data.NodeType;
 import io.coti.basenode.data.interfaces.IPropagatable;
 
+import java.util.List;
+
 public interface ISender {
 
     void connectToNode(String receivingServerAddress);
@@ -10,4 +13,8 @@ public interface ISender {
     <T extends IPropagatable> void send(T toSend, String address);
 
     void disconnectFromNode(String receivingFullAddress, NodeType nodeType);
+
+    List<SenderStatisticsData> getStatistics();
+
+    void shutdown();
 }
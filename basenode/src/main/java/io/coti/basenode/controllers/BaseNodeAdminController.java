@@ -1,8 +1,22 @@
 package io.coti.basenode.controllers;
 
+import io.coti.basenode.communication.interfaces.IPropagationSubscriber;
+import io.coti.basenode.communication.interfaces.IReceiver;
+import io.coti.basenode.communication.interfaces.ISender;
+import io.coti.basenode.data.EntityCacheStatisticsData;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
 import io.coti.basenode.http.AddressFileRequest;
+import io.coti.basenode.http.GetDatabaseStatisticsResponse;
+import io.coti.basenode.http.GetEntityCacheStatisticsResponse;
+import io.coti.basenode.http.GetMessageHandlerStatisticsResponse;
+import io.coti.basenode.http.GetSenderStatisticsResponse;
+import io.coti.basenode.http.GetSubscriberStatisticsResponse;
+import io.coti.basenode.http.GetTransactionSyncStatisticsResponse;
 import io.coti.basenode.http.interfaces.IResponse;
+import io.coti.basenode.model.Collection;
+import io.coti.basenode.services.TransactionIndexDivergenceService;
 import io.coti.basenode.services.interfaces.IAddressService;
+import io.coti.basenode.services.interfaces.ITransactionSynchronizationService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
@@ -10,6 +24,9 @@ import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 @Slf4j
 @RestController
@@ -18,6 +35,20 @@ public class BaseNodeAdminController {
 
     @Autowired
     private IAddressService addressService;
+    @Autowired
+    private IDatabaseConnector databaseConnector;
+    @Autowired
+    private TransactionIndexDivergenceService transactionIndexDivergenceService;
+    @Autowired
+    private ISender sender;
+    @Autowired
+    private IReceiver receiver;
+    @Autowired
+    private IPropagationSubscriber propagationSubscriber;
+    @Autowired
+    private ITransactionSynchronizationService transactionSynchronizationService;
+    @Autowired
+    private List<Collection<?>> collections;
 
     @GetMapping(path = "/address/batch")
     public void getAddressBatch(HttpServletResponse response) {
@@ -28,4 +59,45 @@ public class BaseNodeAdminController {
     public ResponseEntity<IResponse> uploadAddressBatch(@ModelAttribute @Valid AddressFileRequest request) {
         return addressService.uploadAddressBatch(request);
     }
-}
+
+    @GetMapping(path = "/database/statistics")
+    public ResponseEntity<IResponse> getDatabaseStatistics() {
+        return ResponseEntity.ok(new GetDatabaseStatisticsResponse(databaseConnector.getStatistics()));
+    }
+
+    @GetMapping(path = "/database/cache/statistics")
+    public ResponseEntity<IResponse> getEntityCacheStatistics() {
+        Map<String, EntityCacheStatisticsData> entityCacheStatistics = new LinkedHashMap<>();
+        collections.forEach(collection -> {
+            if (collection.getEntityCache() != null) {
+                entityCacheStatistics.put(collection.getClass().getSimpleName(), collection.getEntityCache().getStatistics());
+            }
+        });
+        return ResponseEntity.ok(new GetEntityCacheStatisticsResponse(entityCacheStatistics));
+    }
+
+    @GetMapping(path = "/sender/statistics")
+    public ResponseEntity<IResponse> getSenderStatistics() {
+        return ResponseEntity.ok(new GetSenderStatisticsResponse(sender.getStatistics()));
+    }
+
+    @GetMapping(path = "/subscriber/statistics")
+    public ResponseEntity<IResponse> getSubscriberStatistics() {
+        return ResponseEntity.ok(new GetSubscriberStatisticsResponse(propagationSubscriber.getChannelStatistics()));
+    }
+
+    @GetMapping(path = "/message_handlers/statistics")
+    public ResponseEntity<IResponse> getMessageHandlerStatistics() {
+        return ResponseEntity.ok(new GetMessageHandlerStatisticsResponse(receiver.getHandlerStatistics(), propagationSubscriber.getHandlerStatistics()));
+    }
+
+    @GetMapping(path = "/transaction_sync/statistics")
+    public ResponseEntity<IResponse> getTransactionSyncStatistics() {
+        return ResponseEntity.ok(new GetTransactionSyncStatisticsResponse(transactionSynchronizationService.getStatistics()));
+    }
+
+    @GetMapping(path = "/transaction_index/divergence")
+    public ResponseEntity<IResponse> getFirstDivergentTransactionIndex(@RequestParam String peer_address) {
+        return transactionIndexDivergenceService.getFirstDivergentIndex(peer_address);
+    }
+}
\ No newline at end of file
@@ -1,10 +1,12 @@
 package io.coti.basenode.controllers;
 
+import io.coti.basenode.http.StreamFraming;
 import io.coti.basenode.services.interfaces.ITransactionService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
@@ -21,8 +23,10 @@ public class TransactionBatchController {
     private ITransactionService transactionService;
 
     @GetMapping(value = "/transaction_batch")
-    public void getTransactionBatch(@RequestParam @Valid @NotNull Long starting_index, HttpServletResponse response) {
-        transactionService.getTransactionBatch(starting_index, response);
+    public void getTransactionBatch(@RequestParam @Valid @NotNull Long starting_index, @RequestParam(required = false) Long ending_index,
+                                    @RequestHeader(value = StreamFraming.FRAMING_HEADER, required = false) String framing,
+                                    @RequestHeader(value = StreamFraming.COMPRESSION_HEADER, required = false) String compression, HttpServletResponse response) {
+        transactionService.getTransactionBatch(starting_index, ending_index, StreamFraming.isLengthPrefixed(framing), StreamFraming.isGzipCompressed(compression), response);
     }
 
     @GetMapping(value = "/transaction_batch/reactive", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
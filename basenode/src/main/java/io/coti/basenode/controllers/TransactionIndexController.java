@@ -0,0 +1,31 @@
+package io.coti.basenode.controllers;
+
+import io.coti.basenode.http.interfaces.IResponse;
+import io.coti.basenode.services.TransactionIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotNull;
+
+@RestController
+@RequestMapping("/transaction_index")
+public class TransactionIndexController {
+
+    @Autowired
+    private TransactionIndexService transactionIndexService;
+
+    @GetMapping
+    public ResponseEntity<IResponse> getTransactionIndex(@RequestParam @Valid @NotNull Long index) {
+        return transactionIndexService.getTransactionIndex(index);
+    }
+
+    @GetMapping(path = "/checkpoints")
+    public ResponseEntity<IResponse> getTransactionIndexCheckpoints() {
+        return transactionIndexService.getTransactionIndexCheckpoints();
+    }
+}
@@ -0,0 +1,59 @@
+package io.coti.basenode.crypto;
+
+import io.coti.basenode.data.Hash;
+import org.bouncycastle.crypto.digests.KeccakDigest;
+
+import java.util.Arrays;
+
+public class AccumulatedHashDigest {
+
+    private static final int ACCUMULATED_HASH_LENGTH = 32;
+    private final KeccakDigest digest = new KeccakDigest(256);
+    private final byte[] indexBytes = new byte[Long.BYTES];
+    private byte[] accumulatedHash = new byte[ACCUMULATED_HASH_LENGTH];
+    private byte[] nextAccumulatedHash = new byte[ACCUMULATED_HASH_LENGTH];
+    private int accumulatedHashLength;
+
+    public AccumulatedHashDigest(byte[] initialAccumulatedHash) {
+        reset(initialAccumulatedHash);
+    }
+
+    public void reset(byte[] initialAccumulatedHash) {
+        if (initialAccumulatedHash.length > accumulatedHash.length) {
+            accumulatedHash = new byte[initialAccumulatedHash.length];
+        }
+        System.arraycopy(initialAccumulatedHash, 0, accumulatedHash, 0, initialAccumulatedHash.length);
+        accumulatedHashLength = initialAccumulatedHash.length;
+    }
+
+    public void update(Hash transactionHash, long index) {
+        byte[] transactionHashBytes = transactionHash.getBytes();
+        digest.update(accumulatedHash, 0, accumulatedHashLength);
+        digest.update(transactionHashBytes, 0, transactionHashBytes.length);
+        for (int i = 0; i < Long.BYTES; i++) {
+            indexBytes[i] = (byte) (index >>> (Long.SIZE - Byte.SIZE * (i + 1)));
+        }
+        digest.update(indexBytes, 0, Long.BYTES);
+        digest.doFinal(nextAccumulatedHash, 0);
+        byte[] previousAccumulatedHash = accumulatedHash;
+        accumulatedHash = nextAccumulatedHash;
+        nextAccumulatedHash = previousAccumulatedHash.length == ACCUMULATED_HASH_LENGTH ? previousAccumulatedHash : new byte[ACCUMULATED_HASH_LENGTH];
+        accumulatedHashLength = ACCUMULATED_HASH_LENGTH;
+    }
+
+    public boolean matches(byte[] expectedAccumulatedHash) {
+        if (expectedAccumulatedHash == null || expectedAccumulatedHash.length != accumulatedHashLength) {
+            return false;
+        }
+        for (int i = 0; i < accumulatedHashLength; i++) {
+            if (accumulatedHash[i] != expectedAccumulatedHash[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public byte[] getAccumulatedHash() {
+        return Arrays.copyOf(accumulatedHash, accumulatedHashLength);
+    }
+}
@@ -0,0 +1,7 @@
+package io.coti.basenode.data;
+
+public enum ColumnFamilyProfile {
+    Default,
+    PointLookup,
+    Sequential
+}
@@ -0,0 +1,15 @@
+package io.coti.basenode.data;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Data
+public class DatabaseStatisticsData {
+
+    private long blockCacheCapacity;
+    private Map<String, Long> tickerCounts = new LinkedHashMap<>();
+    private Map<String, Double> hitRates = new LinkedHashMap<>();
+    private Map<String, Map<String, String>> columnFamilies = new LinkedHashMap<>();
+}
@@ -0,0 +1,15 @@
+package io.coti.basenode.data;
+
+import lombok.Data;
+
+@Data
+public class EntityCacheStatisticsData {
+
+    private long maxWeight;
+    private long weight;
+    private long size;
+    private long hits;
+    private long misses;
+    private long evictions;
+    private double hitRate;
+}
@@ -0,0 +1,108 @@
+package io.coti.basenode.data;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+public class HashLockStripes {
+
+    public static final int MAX_STRIPES = 1 << 16;
+    private final ReentrantReadWriteLock[] locks;
+    private final int stripeMask;
+    private final AtomicLongArray acquisitions;
+    private final AtomicLongArray contendedAcquisitions;
+    private final AtomicLongArray waitTimeInNanos;
+
+    public HashLockStripes(int numberOfStripes) {
+        if (numberOfStripes <= 0 || numberOfStripes > MAX_STRIPES || Integer.bitCount(numberOfStripes) != 1) {
+            throw new IllegalArgumentException(String.format("Number of lock stripes should be a power of two up to %s", MAX_STRIPES));
+        }
+        locks = new ReentrantReadWriteLock[numberOfStripes];
+        for (int stripe = 0; stripe < numberOfStripes; stripe++) {
+            locks[stripe] = new ReentrantReadWriteLock();
+        }
+        stripeMask = numberOfStripes - 1;
+        acquisitions = new AtomicLongArray(numberOfStripes);
+        contendedAcquisitions = new AtomicLongArray(numberOfStripes);
+        waitTimeInNanos = new AtomicLongArray(numberOfStripes);
+    }
+
+    public int getStripe(Hash hash) {
+        byte[] bytes = hash.getBytes();
+        if (bytes.length < 2) {
+            throw new IllegalArgumentException("Hash bytes should be of minimum size 2");
+        }
+        return (((bytes[0] & 0xff) << 8) | (bytes[1] & 0xff)) & stripeMask;
+    }
+
+    public void lockWrite(int stripe) {
+        lock(stripe, locks[stripe].writeLock());
+    }
+
+    public void unlockWrite(int stripe) {
+        locks[stripe].writeLock().unlock();
+    }
+
+    public void lockRead(int stripe) {
+        lock(stripe, locks[stripe].readLock());
+    }
+
+    public void unlockRead(int stripe) {
+        locks[stripe].readLock().unlock();
+    }
+
+    private void lock(int stripe, Lock lock) {
+        acquisitions.incrementAndGet(stripe);
+        if (lock.tryLock()) {
+            return;
+        }
+        long waitStartTime = System.nanoTime();
+        lock.lock();
+        contendedAcquisitions.incrementAndGet(stripe);
+        waitTimeInNanos.addAndGet(stripe, System.nanoTime() - waitStartTime);
+    }
+
+    public int getNumberOfStripes() {
+        return locks.length;
+    }
+
+    public long getAcquisitions(int stripe) {
+        return acquisitions.get(stripe);
+    }
+
+    public long getContendedAcquisitions(int stripe) {
+        return contendedAcquisitions.get(stripe);
+    }
+
+    public long getWaitTimeInNanos(int stripe) {
+        return waitTimeInNanos.get(stripe);
+    }
+
+    public long getTotalAcquisitions() {
+        return sum(acquisitions);
+    }
+
+    public long getTotalContendedAcquisitions() {
+        return sum(contendedAcquisitions);
+    }
+
+    public long getTotalWaitTimeInNanos() {
+        return sum(waitTimeInNanos);
+    }
+
+    public long getMaxStripeContendedAcquisitions() {
+        long maxContendedAcquisitions = 0;
+        for (int stripe = 0; stripe < contendedAcquisitions.length(); stripe++) {
+            maxContendedAcquisitions = Math.max(maxContendedAcquisitions, contendedAcquisitions.get(stripe));
+        }
+        return maxContendedAcquisitions;
+    }
+
+    private long sum(AtomicLongArray counters) {
+        long sum = 0;
+        for (int stripe = 0; stripe < counters.length(); stripe++) {
+            sum += counters.get(stripe);
+        }
+        return sum;
+    }
+}
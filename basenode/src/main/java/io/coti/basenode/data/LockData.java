@@ -2,34 +2,132 @@ package io.coti.basenode.data;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class LockData {
 
-    private final Map<Hash, AtomicInteger> lockHashMap = new ConcurrentHashMap<>();
+    private final Map<Hash, HashLock> lockHashMap = new ConcurrentHashMap<>();
+    private final AtomicLong acquisitions = new AtomicLong(0);
+    private final AtomicLong contendedAcquisitions = new AtomicLong(0);
+    private final AtomicLong timedOutAcquisitions = new AtomicLong(0);
+    private final AtomicLong totalWaitTimeInNanos = new AtomicLong(0);
+    private final AtomicLong maxWaitTimeInNanos = new AtomicLong(0);
+    private final AtomicLong totalHoldTimeInNanos = new AtomicLong(0);
+    private final AtomicLong maxHoldTimeInNanos = new AtomicLong(0);
 
-    public AtomicInteger addLockToLockMap(Hash hash) {
-        synchronized (this) {
-            lockHashMap.computeIfPresent(hash, (lockHash, counter) -> {
-                counter.incrementAndGet();
-                return counter;
-            });
-            lockHashMap.putIfAbsent(hash, new AtomicInteger(0));
-            return lockHashMap.get(hash);
+    public void lock(Hash hash) {
+        HashLock hashLock = retain(hash);
+        if (hashLock.lock.tryLock()) {
+            onAcquired(hashLock);
+            return;
         }
+        long waitStartTime = System.nanoTime();
+        hashLock.lock.lock();
+        onContendedAcquired(hashLock, System.nanoTime() - waitStartTime);
     }
 
-    public void removeLockFromLocksMap(Hash hash) {
-        synchronized (this) {
-            lockHashMap.computeIfPresent(hash, (lockHash, counter) -> {
-                counter.decrementAndGet();
-                return counter;
-            });
-            AtomicInteger counter = lockHashMap.get(hash);
-            if (counter != null && counter.get() == 0) {
-                lockHashMap.remove(hash);
+    public boolean tryLock(Hash hash, long timeout, TimeUnit unit) throws InterruptedException {
+        HashLock hashLock = retain(hash);
+        boolean locked = false;
+        try {
+            if (hashLock.lock.tryLock()) {
+                locked = true;
+                onAcquired(hashLock);
+                return true;
+            }
+            long waitStartTime = System.nanoTime();
+            locked = hashLock.lock.tryLock(timeout, unit);
+            if (locked) {
+                onContendedAcquired(hashLock, System.nanoTime() - waitStartTime);
+            } else {
+                timedOutAcquisitions.incrementAndGet();
+            }
+            return locked;
+        } finally {
+            if (!locked) {
+                release(hash);
             }
         }
     }
 
+    public void unlock(Hash hash) {
+        HashLock hashLock = lockHashMap.get(hash);
+        if (hashLock == null || !hashLock.lock.isHeldByCurrentThread()) {
+            throw new IllegalMonitorStateException(String.format("Lock of hash %s is not held by the current thread", hash));
+        }
+        if (hashLock.lock.getHoldCount() == 1) {
+            long holdTimeInNanos = System.nanoTime() - hashLock.acquireTimeInNanos;
+            totalHoldTimeInNanos.addAndGet(holdTimeInNanos);
+            maxHoldTimeInNanos.accumulateAndGet(holdTimeInNanos, Math::max);
+        }
+        hashLock.lock.unlock();
+        release(hash);
+    }
+
+    public int size() {
+        return lockHashMap.size();
+    }
+
+    public long getAcquisitions() {
+        return acquisitions.get();
+    }
+
+    public long getContendedAcquisitions() {
+        return contendedAcquisitions.get();
+    }
+
+    public long getTimedOutAcquisitions() {
+        return timedOutAcquisitions.get();
+    }
+
+    public long getTotalWaitTimeInNanos() {
+        return totalWaitTimeInNanos.get();
+    }
+
+    public long getMaxWaitTimeInNanos() {
+        return maxWaitTimeInNanos.get();
+    }
+
+    public long getTotalHoldTimeInNanos() {
+        return totalHoldTimeInNanos.get();
+    }
+
+    public long getMaxHoldTimeInNanos() {
+        return maxHoldTimeInNanos.get();
+    }
+
+    private HashLock retain(Hash hash) {
+        return lockHashMap.compute(hash, (lockHash, hashLock) -> {
+            HashLock retainedHashLock = hashLock != null ? hashLock : new HashLock();
+            retainedHashLock.references++;
+            return retainedHashLock;
+        });
+    }
+
+    private void release(Hash hash) {
+        lockHashMap.computeIfPresent(hash, (lockHash, hashLock) -> --hashLock.references == 0 ? null : hashLock);
+    }
+
+    private void onAcquired(HashLock hashLock) {
+        acquisitions.incrementAndGet();
+        if (hashLock.lock.getHoldCount() == 1) {
+            hashLock.acquireTimeInNanos = System.nanoTime();
+        }
+    }
+
+    private void onContendedAcquired(HashLock hashLock, long waitTimeInNanos) {
+        contendedAcquisitions.incrementAndGet();
+        totalWaitTimeInNanos.addAndGet(waitTimeInNanos);
+        maxWaitTimeInNanos.accumulateAndGet(waitTimeInNanos, Math::max);
+        onAcquired(hashLock);
+    }
+
+    private static class HashLock {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private int references;
+        private long acquireTimeInNanos;
+    }
 }
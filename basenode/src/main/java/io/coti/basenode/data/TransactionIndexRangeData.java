@@ -0,0 +1,21 @@
+package io.coti.basenode.data;
+
+import lombok.Data;
+
+@Data
+public class TransactionIndexRangeData {
+
+    private int rangeNumber;
+    private long startingIndex;
+    private long endingIndex;
+    private byte[] startingAccumulatedHash;
+    private byte[] endingAccumulatedHash;
+
+    public TransactionIndexRangeData(int rangeNumber, long startingIndex, long endingIndex, byte[] startingAccumulatedHash, byte[] endingAccumulatedHash) {
+        this.rangeNumber = rangeNumber;
+        this.startingIndex = startingIndex;
+        this.endingIndex = endingIndex;
+        this.startingAccumulatedHash = startingAccumulatedHash;
+        this.endingAccumulatedHash = endingAccumulatedHash;
+    }
+}
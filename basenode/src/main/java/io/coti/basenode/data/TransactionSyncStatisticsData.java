@@ -0,0 +1,16 @@
+package io.coti.basenode.data;
+
+import lombok.Data;
+
+@Data
+public class TransactionSyncStatisticsData {
+
+    private boolean active;
+    private long receivedTransactions;
+    private long deserializedTransactions;
+    private long appliedTransactions;
+    private int pendingTransactions;
+    private long elapsedMillis;
+    private double receivedTransactionsPerSecond;
+    private double appliedTransactionsPerSecond;
+}
@@ -0,0 +1,7 @@
+package io.coti.basenode.data;
+
+public enum TrustChainConfirmationMode {
+    Incremental,
+    Full,
+    Verification
+}
@@ -1,5 +1,7 @@
 package io.coti.basenode.database;
 
+import io.coti.basenode.data.ColumnFamilyProfile;
+import io.coti.basenode.data.DatabaseStatisticsData;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.interfaces.IEntity;
 import io.coti.basenode.database.interfaces.IDatabaseConnector;
@@ -23,6 +25,14 @@ import java.util.stream.Collectors;
 @Service
 public class BaseNodeRocksDBConnector implements IDatabaseConnector {
 
+    private static final List<TickerType> STATISTICS_TICKER_TYPES = Arrays.asList(TickerType.BLOCK_CACHE_HIT, TickerType.BLOCK_CACHE_MISS,
+            TickerType.BLOCK_CACHE_INDEX_HIT, TickerType.BLOCK_CACHE_INDEX_MISS, TickerType.BLOCK_CACHE_FILTER_HIT, TickerType.BLOCK_CACHE_FILTER_MISS,
+            TickerType.BLOCK_CACHE_DATA_HIT, TickerType.BLOCK_CACHE_DATA_MISS, TickerType.BLOOM_FILTER_USEFUL, TickerType.MEMTABLE_HIT, TickerType.MEMTABLE_MISS,
+            TickerType.GET_HIT_L0, TickerType.GET_HIT_L1, TickerType.GET_HIT_L2_AND_UP, TickerType.NUMBER_KEYS_READ, TickerType.NUMBER_KEYS_WRITTEN,
+            TickerType.BYTES_READ, TickerType.BYTES_WRITTEN, TickerType.STALL_MICROS);
+    private static final List<String> COLUMN_FAMILY_PROPERTIES = Arrays.asList("rocksdb.estimate-num-keys", "rocksdb.total-sst-files-size",
+            "rocksdb.cur-size-all-mem-tables", "rocksdb.estimate-table-readers-mem", "rocksdb.block-cache-usage", "rocksdb.block-cache-pinned-usage");
+
     @Value("${database.folder.name}")
     private String databaseFolderName;
     @Value("${application.name}")
@@ -31,6 +41,14 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
     private boolean dropNotListedColumnFamilies;
     @Value("${reset.transactions}")
     private boolean resetTransactions;
+    @Value("${db.block.cache.size.mb}")
+    private long blockCacheSizeMb;
+    @Value("${db.bloom.filter.bits.per.key}")
+    private int bloomFilterBitsPerKey;
+    @Value("${db.statistics.enabled}")
+    private boolean statisticsEnabled;
+    @Value("${db.column.family.profiles}")
+    private String columnFamilyProfileOverrides;
     @Autowired
     private ApplicationContext ctx;
     private String dbPath;
@@ -39,6 +57,10 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
     protected List<String> resetColumnFamilyNames = new ArrayList<>();
     private List<String> resetTransactionColumnFamilyNames;
     private Map<String, ColumnFamilyHandle> classNameToColumnFamilyHandleMapping = new LinkedHashMap<>();
+    private Map<String, ColumnFamilyProfile> classNameToColumnFamilyProfileMapping = new HashMap<>();
+    private Map<ColumnFamilyProfile, ColumnFamilyOptions> profileToColumnFamilyOptionsMapping = new EnumMap<>(ColumnFamilyProfile.class);
+    private List<AbstractNativeReference> dbResources = new ArrayList<>();
+    private Statistics statistics;
 
     public void init() {
         setColumnFamily();
@@ -153,7 +175,7 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
                     columnFamilyHandle.close();
                     classNameToColumnFamilyHandleMapping.remove(columnFamilyName);
                     if (create) {
-                        columnFamilyHandle = db.createColumnFamily(new ColumnFamilyDescriptor(columnFamilyName.getBytes()));
+                        columnFamilyHandle = db.createColumnFamily(new ColumnFamilyDescriptor(columnFamilyName.getBytes(), getColumnFamilyOptions(columnFamilyName)));
                         classNameToColumnFamilyHandleMapping.put(columnFamilyName, columnFamilyHandle);
                         log.info("Column family {} reset", columnFamilyName);
                     } else {
@@ -171,30 +193,107 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
     }
 
     private void openDB(List<String> dbColumnFamilies) {
-        try (DBOptions dbOptions = new DBOptions()) {
-
+        try {
+            createDbResources();
+            DBOptions dbOptions = addDbResource(new DBOptions());
             List<ColumnFamilyDescriptor> columnFamilyDescriptors = new ArrayList<>();
             List<ColumnFamilyHandle> columnFamilyHandles = new ArrayList<>();
             initiateColumnFamilyDescriptors(dbColumnFamilies, columnFamilyDescriptors);
             dbOptions.setCreateIfMissing(true);
             dbOptions.setCreateMissingColumnFamilies(true);
             dbOptions.setMaxTotalWalSize(268435456);
+            if (statistics != null) {
+                dbOptions.setStatistics(statistics);
+            }
             db = RocksDB.open(dbOptions, dbPath, columnFamilyDescriptors, columnFamilyHandles);
             populateColumnFamilies(dbColumnFamilies, columnFamilyHandles);
         } catch (Exception e) {
+            closeDbResources();
             throw new DataBaseException("Error opening Rocks DB.", e);
         }
 
     }
 
+    private void createDbResources() {
+        Cache blockCache = addDbResource(new LRUCache(blockCacheSizeMb * 1024 * 1024));
+        statistics = statisticsEnabled ? addDbResource(new Statistics()) : null;
+        for (ColumnFamilyProfile columnFamilyProfile : ColumnFamilyProfile.values()) {
+            profileToColumnFamilyOptionsMapping.put(columnFamilyProfile, createColumnFamilyOptions(columnFamilyProfile, blockCache));
+        }
+    }
+
+    private ColumnFamilyOptions createColumnFamilyOptions(ColumnFamilyProfile columnFamilyProfile, Cache blockCache) {
+        BlockBasedTableConfig tableConfig = new BlockBasedTableConfig()
+                .setBlockCache(blockCache)
+                .setCacheIndexAndFilterBlocks(true)
+                .setPinL0FilterAndIndexBlocksInCache(true);
+        ColumnFamilyOptions columnFamilyOptions = addDbResource(new ColumnFamilyOptions());
+        switch (columnFamilyProfile) {
+            case PointLookup:
+                tableConfig.setFilterPolicy(addDbResource(new BloomFilter(bloomFilterBitsPerKey, false)))
+                        .setDataBlockIndexType(DataBlockIndexType.kDataBlockBinaryAndHash);
+                break;
+            case Sequential:
+                tableConfig.setBlockSize(16 * 1024L);
+                columnFamilyOptions.setLevelCompactionDynamicLevelBytes(true);
+                break;
+            default:
+                break;
+        }
+        columnFamilyOptions.setTableFormatConfig(tableConfig);
+        return columnFamilyOptions;
+    }
+
+    private <R extends AbstractNativeReference> R addDbResource(R dbResource) {
+        dbResources.add(dbResource);
+        return dbResource;
+    }
+
+    private void closeDbResources() {
+        for (int i = dbResources.size() - 1; i >= 0; i--) {
+            dbResources.get(i).close();
+        }
+        dbResources.clear();
+        profileToColumnFamilyOptionsMapping.clear();
+        statistics = null;
+    }
+
+    private ColumnFamilyOptions getColumnFamilyOptions(String columnFamilyName) {
+        return profileToColumnFamilyOptionsMapping.get(getColumnFamilyProfile(columnFamilyName));
+    }
+
+    private ColumnFamilyProfile getColumnFamilyProfile(String columnFamilyName) {
+        return classNameToColumnFamilyProfileMapping.getOrDefault(columnFamilyName, ColumnFamilyProfile.Default);
+    }
+
     private void initColumnFamilyClasses() {
         for (int i = 1; i < columnFamilyClassNames.size(); i++) {
             try {
-                ((Collection) ctx.getBean(Class.forName(columnFamilyClassNames.get(i)))).init();
+                Collection collection = (Collection) ctx.getBean(Class.forName(columnFamilyClassNames.get(i)));
+                collection.init();
+                classNameToColumnFamilyProfileMapping.put(columnFamilyClassNames.get(i), collection.getColumnFamilyProfile());
             } catch (Exception e) {
                 throw new DataBaseException("Error at init column family classes.", e);
             }
         }
+        overrideColumnFamilyProfiles();
+    }
+
+    private void overrideColumnFamilyProfiles() {
+        if (columnFamilyProfileOverrides == null || columnFamilyProfileOverrides.trim().isEmpty()) {
+            return;
+        }
+        for (String columnFamilyProfileOverride : columnFamilyProfileOverrides.split(",")) {
+            String[] collectionNameAndProfile = columnFamilyProfileOverride.trim().split(":");
+            if (collectionNameAndProfile.length != 2) {
+                throw new DataBaseException(String.format("Invalid column family profile %s. Expected format is <Collection>:<Profile>", columnFamilyProfileOverride));
+            }
+            String columnFamilyName = columnFamilyClassNames.stream()
+                    .filter(columnFamilyClassName -> columnFamilyClassName.endsWith("." + collectionNameAndProfile[0].trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new DataBaseException(String.format("Unknown collection %s at column family profiles", collectionNameAndProfile[0])));
+            classNameToColumnFamilyProfileMapping.put(columnFamilyName, ColumnFamilyProfile.valueOf(collectionNameAndProfile[1].trim()));
+        }
     }
 
     private void populateColumnFamilies(List<String> dbColumnFamilyNames, List<ColumnFamilyHandle> columnFamilyHandles) {
@@ -207,7 +306,7 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
 
     private void initiateColumnFamilyDescriptors(List<String> dbColumnFamilies, List<ColumnFamilyDescriptor> columnFamilyDescriptors) {
         List<String> columnFamilyNamesToInit = Optional.ofNullable(dbColumnFamilies).orElse(columnFamilyClassNames);
-        columnFamilyNamesToInit.forEach(columnFamilyName -> columnFamilyDescriptors.add(new ColumnFamilyDescriptor(columnFamilyName.getBytes())));
+        columnFamilyNamesToInit.forEach(columnFamilyName -> columnFamilyDescriptors.add(new ColumnFamilyDescriptor(columnFamilyName.getBytes(), getColumnFamilyOptions(columnFamilyName))));
     }
 
     @Override
@@ -259,6 +358,16 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
         }
     }
 
+    @Override
+    public List<byte[]> multiGet(String columnFamilyName, List<byte[]> keys) {
+        try {
+            ColumnFamilyHandle columnFamilyHandle = classNameToColumnFamilyHandleMapping.get(columnFamilyName);
+            return db.multiGetAsList(Collections.nCopies(keys.size(), columnFamilyHandle), keys);
+        } catch (RocksDBException e) {
+            throw new DataBaseException(String.format("Error at multi getting %s keys from column family %s", keys.size(), columnFamilyName), e);
+        }
+    }
+
     public RocksIterator getIterator(String columnFamilyName) {
         RocksIterator it = null;
         try (ReadOptions readOptions = new ReadOptions()) {
@@ -273,6 +382,24 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
         return it;
     }
 
+    @Override
+    public RocksIterator getIterator(String columnFamilyName, Snapshot snapshot) {
+        try (ReadOptions readOptions = new ReadOptions()) {
+            readOptions.setSnapshot(snapshot);
+            return db.newIterator(classNameToColumnFamilyHandleMapping.get(columnFamilyName), readOptions);
+        }
+    }
+
+    @Override
+    public Snapshot getSnapshot() {
+        return db.getSnapshot();
+    }
+
+    @Override
+    public void releaseSnapshot(Snapshot snapshot) {
+        db.releaseSnapshot(snapshot);
+    }
+
     @Override
     public boolean isEmpty(String columnFamilyName) {
         RocksIterator iterator = getIterator(columnFamilyName);
@@ -380,6 +507,42 @@ public class BaseNodeRocksDBConnector implements IDatabaseConnector {
         }
         db.close();
         db = null;
+        closeDbResources();
+    }
+
+    @Override
+    public DatabaseStatisticsData getStatistics() {
+        DatabaseStatisticsData databaseStatisticsData = new DatabaseStatisticsData();
+        databaseStatisticsData.setBlockCacheCapacity(blockCacheSizeMb * 1024 * 1024);
+        if (statistics != null) {
+            for (TickerType tickerType : STATISTICS_TICKER_TYPES) {
+                databaseStatisticsData.getTickerCounts().put(tickerType.name(), statistics.getTickerCount(tickerType));
+            }
+            databaseStatisticsData.getHitRates().put("blockCache", getHitRate(TickerType.BLOCK_CACHE_HIT, TickerType.BLOCK_CACHE_MISS));
+            databaseStatisticsData.getHitRates().put("blockCacheIndex", getHitRate(TickerType.BLOCK_CACHE_INDEX_HIT, TickerType.BLOCK_CACHE_INDEX_MISS));
+            databaseStatisticsData.getHitRates().put("blockCacheFilter", getHitRate(TickerType.BLOCK_CACHE_FILTER_HIT, TickerType.BLOCK_CACHE_FILTER_MISS));
+            databaseStatisticsData.getHitRates().put("blockCacheData", getHitRate(TickerType.BLOCK_CACHE_DATA_HIT, TickerType.BLOCK_CACHE_DATA_MISS));
+            databaseStatisticsData.getHitRates().put("memTable", getHitRate(TickerType.MEMTABLE_HIT, TickerType.MEMTABLE_MISS));
+        }
+        classNameToColumnFamilyHandleMapping.forEach((columnFamilyName, columnFamilyHandle) -> {
+            Map<String, String> columnFamilyProperties = new LinkedHashMap<>();
+            columnFamilyProperties.put("profile", getColumnFamilyProfile(columnFamilyName).name());
+            for (String columnFamilyProperty : COLUMN_FAMILY_PROPERTIES) {
+                try {
+                    columnFamilyProperties.put(columnFamilyProperty, db.getProperty(columnFamilyHandle, columnFamilyProperty));
+                } catch (RocksDBException e) {
+                    log.debug("Property {} of column family {} is not available", columnFamilyProperty, columnFamilyName);
+                }
+            }
+            databaseStatisticsData.getColumnFamilies().put(columnFamilyName.substring(columnFamilyName.lastIndexOf('.') + 1), columnFamilyProperties);
+        });
+        return databaseStatisticsData;
+    }
+
+    private double getHitRate(TickerType hitTickerType, TickerType missTickerType) {
+        long hits = statistics.getTickerCount(hitTickerType);
+        long total = hits + statistics.getTickerCount(missTickerType);
+        return total == 0 ? 0 : (double) hits / total;
     }
 
     @Override
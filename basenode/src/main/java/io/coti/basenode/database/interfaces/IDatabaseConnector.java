@@ -1,11 +1,15 @@
 package io.coti.basenode.database.interfaces;
 
+import io.coti.basenode.data.DatabaseStatisticsData;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.interfaces.IEntity;
 import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 
+import java.util.List;
+
 public interface IDatabaseConnector {
 
     void init();
@@ -26,14 +30,24 @@ public interface IDatabaseConnector {
 
     byte[] getByKey(String columnFamilyName, byte[] key);
 
+    List<byte[]> multiGet(String columnFamilyName, List<byte[]> keys);
+
     void delete(String columnFamilyName, byte[] key);
 
     RocksIterator getIterator(String columnFamilyName);
 
+    RocksIterator getIterator(String columnFamilyName, Snapshot snapshot);
+
+    Snapshot getSnapshot();
+
+    void releaseSnapshot(Snapshot snapshot);
+
     boolean isEmpty(String columnFamilyName);
 
     IEntity get(Class<?> entityClass, Hash key);
 
+    DatabaseStatisticsData getStatistics();
+
     void shutdown();
 
 }
@@ -0,0 +1,12 @@
+package io.coti.basenode.exceptions;
+
+public class SerializationException extends CotiRunTimeException {
+
+    public SerializationException(String message) {
+        super(message);
+    }
+
+    public SerializationException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
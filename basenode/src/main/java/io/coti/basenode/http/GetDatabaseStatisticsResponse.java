@@ -0,0 +1,14 @@
+package io.coti.basenode.http;
+
+import io.coti.basenode.data.DatabaseStatisticsData;
+import lombok.Data;
+
+@Data
+public class GetDatabaseStatisticsResponse extends BaseResponse {
+
+    private DatabaseStatisticsData databaseStatistics;
+
+    public GetDatabaseStatisticsResponse(DatabaseStatisticsData databaseStatistics) {
+        this.databaseStatistics = databaseStatistics;
+    }
+}
@@ -0,0 +1,16 @@
+package io.coti.basenode.http;
+
+import io.coti.basenode.data.EntityCacheStatisticsData;
+import lombok.Data;
+
+import java.util.Map;
+
+@Data
+public class GetEntityCacheStatisticsResponse extends BaseResponse {
+
+    private Map<String, EntityCacheStatisticsData> entityCacheStatistics;
+
+    public GetEntityCacheStatisticsResponse(Map<String, EntityCacheStatisticsData> entityCacheStatistics) {
+        this.entityCacheStatistics = entityCacheStatistics;
+    }
+}
@@ -0,0 +1,19 @@
+package io.coti.basenode.http;
+
+import io.coti.basenode.communication.data.WorkerStatisticsData;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+public class GetMessageHandlerStatisticsResponse extends BaseResponse {
+
+    private Map<String, List<WorkerStatisticsData>> receiverHandlerStatistics;
+    private Map<String, List<WorkerStatisticsData>> subscriberHandlerStatistics;
+
+    public GetMessageHandlerStatisticsResponse(Map<String, List<WorkerStatisticsData>> receiverHandlerStatistics, Map<String, List<WorkerStatisticsData>> subscriberHandlerStatistics) {
+        this.receiverHandlerStatistics = receiverHandlerStatistics;
+        this.subscriberHandlerStatistics = subscriberHandlerStatistics;
+    }
+}
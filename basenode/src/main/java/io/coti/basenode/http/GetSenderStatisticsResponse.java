@@ -0,0 +1,16 @@
+package io.coti.basenode.http;
+
+import io.coti.basenode.communication.data.SenderStatisticsData;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class GetSenderStatisticsResponse extends BaseResponse {
+
+    private List<SenderStatisticsData> senderStatistics;
+
+    public GetSenderStatisticsResponse(List<SenderStatisticsData> senderStatistics) {
+        this.senderStatistics = senderStatistics;
+    }
+}
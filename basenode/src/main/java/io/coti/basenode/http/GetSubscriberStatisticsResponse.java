@@ -0,0 +1,16 @@
+package io.coti.basenode.http;
+
+import io.coti.basenode.communication.data.ChannelStatisticsData;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class GetSubscriberStatisticsResponse extends BaseResponse {
+
+    private List<ChannelStatisticsData> channelStatistics;
+
+    public GetSubscriberStatisticsResponse(List<ChannelStatisticsData> channelStatistics) {
+        this.channelStatistics = channelStatistics;
+    }
+}
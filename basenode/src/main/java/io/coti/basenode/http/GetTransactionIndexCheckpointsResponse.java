@@ -0,0 +1,25 @@
+package io.coti.basenode.http;
+
+import io.coti.basenode.data.Hash;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class GetTransactionIndexCheckpointsResponse extends BaseResponse {
+
+    private long lastIndex;
+    private long checkpointInterval;
+    private List<String> accumulatedHashes;
+
+    private GetTransactionIndexCheckpointsResponse() {
+    }
+
+    public GetTransactionIndexCheckpointsResponse(long lastIndex, long checkpointInterval, List<byte[]> checkpointAccumulatedHashes) {
+        this.lastIndex = lastIndex;
+        this.checkpointInterval = checkpointInterval;
+        accumulatedHashes = new ArrayList<>(checkpointAccumulatedHashes.size());
+        checkpointAccumulatedHashes.forEach(accumulatedHash -> accumulatedHashes.add(accumulatedHash != null ? new Hash(accumulatedHash).toHexString() : null));
+    }
+}
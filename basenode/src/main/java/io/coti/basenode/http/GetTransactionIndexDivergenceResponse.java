@@ -0,0 +1,19 @@
+package io.coti.basenode.http;
+
+import lombok.Data;
+
+@Data
+public class GetTransactionIndexDivergenceResponse extends BaseResponse {
+
+    private long lastIndex;
+    private long peerLastIndex;
+    private long firstDivergentIndex;
+    private int peerRequests;
+
+    public GetTransactionIndexDivergenceResponse(long lastIndex, long peerLastIndex, long firstDivergentIndex, int peerRequests) {
+        this.lastIndex = lastIndex;
+        this.peerLastIndex = peerLastIndex;
+        this.firstDivergentIndex = firstDivergentIndex;
+        this.peerRequests = peerRequests;
+    }
+}
@@ -0,0 +1,22 @@
+package io.coti.basenode.http;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionIndexData;
+import lombok.Data;
+
+@Data
+public class GetTransactionIndexResponse extends BaseResponse {
+
+    private long index;
+    private String transactionHash;
+    private String accumulatedHash;
+
+    private GetTransactionIndexResponse() {
+    }
+
+    public GetTransactionIndexResponse(TransactionIndexData transactionIndexData) {
+        this.index = transactionIndexData.getIndex();
+        this.transactionHash = transactionIndexData.getTransactionHash().toHexString();
+        this.accumulatedHash = new Hash(transactionIndexData.getAccumulatedHash()).toHexString();
+    }
+}
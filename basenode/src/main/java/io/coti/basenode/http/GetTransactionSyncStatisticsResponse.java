@@ -0,0 +1,14 @@
+package io.coti.basenode.http;
+
+import io.coti.basenode.data.TransactionSyncStatisticsData;
+import lombok.Data;
+
+@Data
+public class GetTransactionSyncStatisticsResponse extends BaseResponse {
+
+    private TransactionSyncStatisticsData transactionSyncStatistics;
+
+    public GetTransactionSyncStatisticsResponse(TransactionSyncStatisticsData transactionSyncStatistics) {
+        this.transactionSyncStatistics = transactionSyncStatistics;
+    }
+}
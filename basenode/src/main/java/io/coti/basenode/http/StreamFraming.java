@@ -0,0 +1,61 @@
+package io.coti.basenode.http;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.web.client.RequestCallback;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.GZIPInputStream;
+
+public class StreamFraming {
+
+    public static final String FRAMING_HEADER = "X-Stream-Framing";
+    public static final String LENGTH_PREFIXED = "length-prefixed";
+    public static final String COMPRESSION_HEADER = "X-Stream-Compression";
+    public static final String GZIP = "gzip";
+
+    private StreamFraming() {
+    }
+
+    public static boolean isLengthPrefixed(String framing) {
+        return LENGTH_PREFIXED.equals(framing);
+    }
+
+    public static boolean isLengthPrefixed(HttpHeaders headers) {
+        return isLengthPrefixed(headers.getFirst(FRAMING_HEADER));
+    }
+
+    public static boolean isGzipCompressed(String compression) {
+        return GZIP.equals(compression);
+    }
+
+    public static RequestCallback getLengthPrefixedRequestCallback(RequestCallback requestCallback) {
+        return getLengthPrefixedRequestCallback(requestCallback, false);
+    }
+
+    public static RequestCallback getLengthPrefixedRequestCallback(RequestCallback requestCallback, boolean gzipCompressed) {
+        return request -> {
+            request.getHeaders().set(FRAMING_HEADER, LENGTH_PREFIXED);
+            if (gzipCompressed) {
+                request.getHeaders().set(COMPRESSION_HEADER, GZIP);
+            }
+            if (requestCallback != null) {
+                requestCallback.doWithRequest(request);
+            }
+        };
+    }
+
+    public static InputStream getBody(ClientHttpResponse response) throws IOException {
+        return isGzipCompressed(response.getHeaders().getFirst(COMPRESSION_HEADER)) ? new GZIPInputStream(response.getBody(), 65536) : response.getBody();
+    }
+
+    public static void writeLengthPrefixedRecord(OutputStream output, byte[] record) throws IOException {
+        output.write(record.length >>> 24);
+        output.write(record.length >>> 16);
+        output.write(record.length >>> 8);
+        output.write(record.length);
+        output.write(record);
+    }
+}
@@ -0,0 +1,123 @@
+package io.coti.basenode.http;
+
+import io.coti.basenode.exceptions.ChunkException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+public class StreamRecordReader {
+
+    private static final int INITIAL_BUFFER_SIZE = 65536;
+    private final InputStream input;
+    private final boolean lengthPrefixed;
+    private final int maxRecordSize;
+    private byte[] buffer;
+    private int bufferEnd;
+    private int scanPosition;
+    private int recordStart = -1;
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+
+    public StreamRecordReader(InputStream input, boolean lengthPrefixed, int maxRecordSize) {
+        this.input = input;
+        this.lengthPrefixed = lengthPrefixed;
+        this.maxRecordSize = maxRecordSize;
+        this.buffer = new byte[Math.min(INITIAL_BUFFER_SIZE, maxRecordSize)];
+    }
+
+    public byte[] read() throws IOException {
+        return lengthPrefixed ? readLengthPrefixedRecord() : readJsonRecord();
+    }
+
+    private byte[] readLengthPrefixedRecord() throws IOException {
+        if (!ensureBuffered(Integer.BYTES)) {
+            return null;
+        }
+        int recordLength = ((buffer[scanPosition] & 0xff) << 24) | ((buffer[scanPosition + 1] & 0xff) << 16)
+                | ((buffer[scanPosition + 2] & 0xff) << 8) | (buffer[scanPosition + 3] & 0xff);
+        if (recordLength < 0 || recordLength > maxRecordSize) {
+            throw new ChunkException(String.format("Invalid stream record length %s", recordLength));
+        }
+        scanPosition += Integer.BYTES;
+        if (!ensureBuffered(recordLength)) {
+            throw new ChunkException("Stream ended in the middle of a record");
+        }
+        byte[] record = Arrays.copyOfRange(buffer, scanPosition, scanPosition + recordLength);
+        scanPosition += recordLength;
+        return record;
+    }
+
+    private boolean ensureBuffered(int length) throws IOException {
+        while (bufferEnd - scanPosition < length) {
+            if (!fill(scanPosition, length)) {
+                if (bufferEnd == scanPosition) {
+                    return false;
+                }
+                throw new ChunkException("Stream ended in the middle of a record");
+            }
+        }
+        return true;
+    }
+
+    private byte[] readJsonRecord() throws IOException {
+        while (true) {
+            while (scanPosition < bufferEnd) {
+                byte currentByte = buffer[scanPosition++];
+                if (recordStart < 0) {
+                    if (currentByte == '{') {
+                        recordStart = scanPosition - 1;
+                        depth = 1;
+                    }
+                } else if (inString) {
+                    if (escaped) {
+                        escaped = false;
+                    } else if (currentByte == '\\') {
+                        escaped = true;
+                    } else if (currentByte == '"') {
+                        inString = false;
+                    }
+                } else if (currentByte == '"') {
+                    inString = true;
+                } else if (currentByte == '{' || currentByte == '[') {
+                    depth++;
+                } else if ((currentByte == '}' || currentByte == ']') && --depth == 0) {
+                    byte[] record = Arrays.copyOfRange(buffer, recordStart, scanPosition);
+                    recordStart = -1;
+                    return record;
+                }
+            }
+            if (!fill(recordStart >= 0 ? recordStart : scanPosition, bufferEnd - scanPosition + 1)) {
+                if (recordStart >= 0) {
+                    throw new ChunkException("Stream ended in the middle of a record");
+                }
+                return null;
+            }
+        }
+    }
+
+    private boolean fill(int keepFrom, int requiredLength) throws IOException {
+        if (keepFrom > 0) {
+            System.arraycopy(buffer, keepFrom, buffer, 0, bufferEnd - keepFrom);
+            bufferEnd -= keepFrom;
+            scanPosition -= keepFrom;
+            if (recordStart >= 0) {
+                recordStart -= keepFrom;
+            }
+        }
+        int requiredCapacity = Math.max(bufferEnd + 1, scanPosition + requiredLength);
+        if (requiredCapacity > buffer.length) {
+            if (requiredCapacity > maxRecordSize + Integer.BYTES) {
+                throw new ChunkException(String.format("Stream record exceeds the maximum size of %s bytes", maxRecordSize));
+            }
+            buffer = Arrays.copyOf(buffer, Math.min(Math.max(buffer.length * 2, requiredCapacity), maxRecordSize + Integer.BYTES));
+        }
+        int readBytes = input.read(buffer, bufferEnd, buffer.length - bufferEnd);
+        if (readBytes < 0) {
+            return false;
+        }
+        bufferEnd += readBytes;
+        return true;
+    }
+}
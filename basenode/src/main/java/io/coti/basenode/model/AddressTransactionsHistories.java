@@ -1,9 +1,13 @@
 package io.coti.basenode.model;
 
 import io.coti.basenode.data.AddressTransactionsHistory;
+import io.coti.basenode.model.codec.AddressTransactionsHistoryCodec;
 import org.springframework.stereotype.Service;
 
 @Service
 public class AddressTransactionsHistories extends Collection<AddressTransactionsHistory> {
 
+    public AddressTransactionsHistories() {
+        entityCodec = new AddressTransactionsHistoryCodec();
+    }
 }
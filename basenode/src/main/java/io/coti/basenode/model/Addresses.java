@@ -1,9 +1,15 @@
 package io.coti.basenode.model;
 
+import io.coti.basenode.data.ColumnFamilyProfile;
 import io.coti.basenode.data.AddressData;
+import io.coti.basenode.model.codec.AddressDataCodec;
 import org.springframework.stereotype.Service;
 
 @Service
 public class Addresses extends Collection<AddressData> {
 
+    public Addresses() {
+        entityCodec = new AddressDataCodec();
+        columnFamilyProfile = ColumnFamilyProfile.PointLookup;
+    }
 }
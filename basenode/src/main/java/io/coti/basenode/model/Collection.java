@@ -1,51 +1,86 @@
 package io.coti.basenode.model;
 
+import io.coti.basenode.data.ColumnFamilyProfile;
 import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.HashLockStripes;
 import io.coti.basenode.data.interfaces.IEntity;
 import io.coti.basenode.database.interfaces.IDatabaseConnector;
+import io.coti.basenode.exceptions.DataBaseException;
+import io.coti.basenode.model.codec.EntityCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.rocksdb.RocksIterator;
 import org.rocksdb.WriteBatch;
 import org.rocksdb.WriteOptions;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.util.SerializationUtils;
 
-import java.util.Arrays;
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.*;
+import java.util.function.BiConsumer;
 import java.util.function.Consumer;
+import java.util.stream.IntStream;
 
 @Slf4j
 public abstract class Collection<T extends IEntity> {
 
-    private static final int LOCK_BYTE_ARRAY_SIZE = 2;
+    private static final int MIGRATION_BATCH_SIZE = 10000;
+    public static final int MULTI_GET_BATCH_SIZE = 1000;
+    private static final int PARALLEL_DESERIALIZATION_THRESHOLD = 64;
     @Autowired
     public IDatabaseConnector databaseConnector;
     protected String columnFamilyName = getClass().getName();
-    private Map<Hash, byte[]> lockByteArrayMap;
+    @Value("${db.entity.codec.enabled}")
+    private boolean entityCodecEnabled;
+    protected EntityCodec<T> entityCodec;
+    protected ColumnFamilyProfile columnFamilyProfile = ColumnFamilyProfile.Default;
+    private HashLockStripes lockStripes;
+    protected EntityCache<T> entityCache;
 
     public void init() {
         log.info("Collection init running. Class: " + columnFamilyName);
     }
 
     public void put(IEntity entity) {
-        databaseConnector.put(columnFamilyName, entity.getHash().getBytes(), SerializationUtils.serialize(entity));
+        byte[] bytes = serialize(entity);
+        write(entity, bytes, () -> databaseConnector.put(columnFamilyName, entity.getHash().getBytes(), bytes));
     }
 
     public void put(WriteOptions writeOptions, IEntity entity) {
-        databaseConnector.put(columnFamilyName, writeOptions, entity.getHash().getBytes(), SerializationUtils.serialize(entity));
+        byte[] bytes = serialize(entity);
+        write(entity, bytes, () -> databaseConnector.put(columnFamilyName, writeOptions, entity.getHash().getBytes(), bytes));
+    }
+
+    public void put(WriteBatch writeBatch, IEntity entity) {
+        databaseConnector.put(columnFamilyName, writeBatch, entity.getHash().getBytes(), serialize(entity));
+        // The batch may still fail, so the caller invalidates the hash again once the batch is stored
+        invalidate(entity.getHash());
+    }
+
+    private void write(IEntity entity, byte[] bytes, Runnable databaseWrite) {
+        if (entityCache != null) {
+            entityCache.write(entity.getHash(), (T) entity, bytes.length, databaseWrite);
+        } else {
+            databaseWrite.run();
+        }
     }
 
     public void putBatch(Map<Hash, ? extends IEntity> entities) {
         WriteBatch writeBatch = new WriteBatch();
         entities.forEach((hash, entity) ->
-                databaseConnector.put(columnFamilyName, writeBatch, hash.getBytes(), SerializationUtils.serialize(entity))
+                databaseConnector.put(columnFamilyName, writeBatch, hash.getBytes(), serialize(entity))
         );
         databaseConnector.putBatch(writeBatch);
+        entities.keySet().forEach(this::invalidate);
+    }
+
+    public void invalidate(Hash hash) {
+        if (entityCache != null) {
+            entityCache.invalidate(hash);
+        }
     }
 
     public void delete(IEntity entity) {
-        databaseConnector.delete(columnFamilyName, entity.getHash().getBytes());
+        deleteByHash(entity.getHash());
     }
 
     public T getByHash(String hashStringInHexRepresentation) {
@@ -53,20 +88,99 @@ public abstract class Collection<T extends IEntity> {
     }
 
     public T getByHash(Hash hash) {
+        long cacheVersion = 0;
+        if (entityCache != null) {
+            cacheVersion = entityCache.getVersion(hash);
+            T cached = entityCache.get(hash);
+            if (cached != null) {
+                return cached;
+            }
+        }
         byte[] bytes = databaseConnector.getByKey(columnFamilyName, hash.getBytes());
-        T deserialized = (T) SerializationUtils.deserialize(bytes);
+        T deserialized = deserialize(bytes);
         if (deserialized instanceof IEntity) {
             deserialized.setHash(hash);
+            if (entityCache != null) {
+                entityCache.putIfUnchanged(hash, deserialized, bytes.length, cacheVersion);
+            }
         }
         return deserialized;
     }
 
+    public List<T> multiGetByHashes(List<Hash> hashes) {
+        return multiGetByHashes(hashes, false);
+    }
+
+    public List<T> multiGetByHashes(List<Hash> hashes, boolean parallelDeserialization) {
+        if (hashes.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<T> entities = new ArrayList<>(Collections.nCopies(hashes.size(), null));
+        List<Hash> lookupHashes = new ArrayList<>(hashes.size());
+        int[] lookupPositions = new int[hashes.size()];
+        long[] cacheVersions = new long[hashes.size()];
+        for (int i = 0; i < hashes.size(); i++) {
+            Hash hash = hashes.get(i);
+            if (entityCache != null) {
+                cacheVersions[lookupHashes.size()] = entityCache.getVersion(hash);
+                T cached = entityCache.get(hash);
+                if (cached != null) {
+                    entities.set(i, cached);
+                    continue;
+                }
+            }
+            lookupPositions[lookupHashes.size()] = i;
+            lookupHashes.add(hash);
+        }
+        if (lookupHashes.isEmpty()) {
+            return entities;
+        }
+        List<byte[]> keys = new ArrayList<>(lookupHashes.size());
+        lookupHashes.forEach(hash -> keys.add(hash.getBytes()));
+        List<byte[]> values = databaseConnector.multiGet(columnFamilyName, keys);
+        IntStream indexes = IntStream.range(0, lookupHashes.size());
+        if (parallelDeserialization && lookupHashes.size() >= PARALLEL_DESERIALIZATION_THRESHOLD) {
+            indexes = indexes.parallel();
+        }
+        indexes.forEach(i -> {
+            byte[] value = values.get(i);
+            if (value != null) {
+                T entity = deserialize(value);
+                entity.setHash(lookupHashes.get(i));
+                if (entityCache != null) {
+                    entityCache.putIfUnchanged(lookupHashes.get(i), entity, value.length, cacheVersions[i]);
+                }
+                entities.set(lookupPositions[i], entity);
+            }
+        });
+        return entities;
+    }
+
+    public void forEachByHashes(Iterable<Hash> hashes, boolean parallelDeserialization, BiConsumer<Hash, T> consumer) {
+        List<Hash> hashBatch = new ArrayList<>(MULTI_GET_BATCH_SIZE);
+        for (Hash hash : hashes) {
+            hashBatch.add(hash);
+            if (hashBatch.size() == MULTI_GET_BATCH_SIZE) {
+                acceptBatch(hashBatch, parallelDeserialization, consumer);
+                hashBatch.clear();
+            }
+        }
+        acceptBatch(hashBatch, parallelDeserialization, consumer);
+    }
+
+    private void acceptBatch(List<Hash> hashBatch, boolean parallelDeserialization, BiConsumer<Hash, T> consumer) {
+        List<T> entities = multiGetByHashes(hashBatch, parallelDeserialization);
+        for (int i = 0; i < hashBatch.size(); i++) {
+            consumer.accept(hashBatch.get(i), entities.get(i));
+        }
+    }
+
     public void forEach(Consumer<T> consumer) {
         RocksIterator iterator = databaseConnector.getIterator(columnFamilyName);
         try {
             iterator.seekToFirst();
             while (iterator.isValid()) {
-                T deserialized = (T) SerializationUtils.deserialize(iterator.value());
+                T deserialized = deserialize(iterator.value());
                 deserialized.setHash(new Hash(iterator.key()));
                 consumer.accept(deserialized);
                 iterator.next();
@@ -76,21 +190,133 @@ public abstract class Collection<T extends IEntity> {
         }
     }
 
+    public void forEachInParallel(int parallelism, Consumer<T> consumer) {
+        new ParallelCollectionReader<>(this, databaseConnector, columnFamilyName, parallelism).forEach(consumer);
+    }
+
     public void lockAndGetByHash(Hash hash, Consumer<T> consumer) {
-        if (lockByteArrayMap == null) {
+        int stripe = getLockStripes().getStripe(hash);
+        lockStripes.lockWrite(stripe);
+        try {
+            T entity = getByHash(hash);
+            consumer.accept(entity);
+        } finally {
+            lockStripes.unlockWrite(stripe);
+        }
+    }
+
+    public void readLockAndGetByHash(Hash hash, Consumer<T> consumer) {
+        int stripe = getLockStripes().getStripe(hash);
+        lockStripes.lockRead(stripe);
+        try {
+            T entity = getByHash(hash);
+            consumer.accept(entity);
+        } finally {
+            lockStripes.unlockRead(stripe);
+        }
+    }
+
+    public void lockAndGetByHashes(Set<Hash> hashes, Consumer<Map<Hash, T>> consumer) {
+        int[] stripes = new int[hashes.size()];
+        int i = 0;
+        for (Hash hash : hashes) {
+            stripes[i++] = getLockStripes().getStripe(hash);
+        }
+        Arrays.sort(stripes);
+        int lockedStripes = 0;
+        try {
+            for (; lockedStripes < stripes.length; lockedStripes++) {
+                if (lockedStripes == 0 || stripes[lockedStripes] != stripes[lockedStripes - 1]) {
+                    lockStripes.lockWrite(stripes[lockedStripes]);
+                }
+            }
+            List<Hash> hashList = new ArrayList<>(hashes);
+            List<T> entityList = multiGetByHashes(hashList);
+            Map<Hash, T> entities = new LinkedHashMap<>();
+            for (int j = 0; j < hashList.size(); j++) {
+                entities.put(hashList.get(j), entityList.get(j));
+            }
+            consumer.accept(entities);
+        } finally {
+            for (int j = lockedStripes - 1; j >= 0; j--) {
+                if (j == 0 || stripes[j] != stripes[j - 1]) {
+                    lockStripes.unlockWrite(stripes[j]);
+                }
+            }
+        }
+    }
+
+    public HashLockStripes getLockStripes() {
+        if (lockStripes == null) {
             throw new IllegalArgumentException(String.format("Collection %s is not lockable", columnFamilyName));
         }
-        if (hash.getBytes().length < LOCK_BYTE_ARRAY_SIZE) {
-            throw new IllegalArgumentException(String.format("Hash bytes should be of minimum size %s", LOCK_BYTE_ARRAY_SIZE));
+        return lockStripes;
+    }
+
+    public EntityCache<T> getEntityCache() {
+        return entityCache;
+    }
+
+    public ColumnFamilyProfile getColumnFamilyProfile() {
+        return columnFamilyProfile;
+    }
+
+    public byte[] serialize(IEntity entity) {
+        if (entityCodecEnabled && entityCodec != null) {
+            byte[] bytes = entityCodec.encode((T) entity);
+            if (bytes != null) {
+                return bytes;
+            }
         }
+        return SerializationUtils.serialize(entity);
+    }
 
-        byte[] lockByteArray = lockByteArrayMap.get(new Hash(Arrays.copyOfRange(hash.getBytes(), 0, LOCK_BYTE_ARRAY_SIZE)));
-        if (lockByteArray == null) {
-            throw new IllegalArgumentException("Hash lock object doesn't exist");
+    public T deserialize(byte[] bytes) {
+        if (entityCodec != null && entityCodec.isEncoded(bytes)) {
+            return entityCodec.decode(bytes);
         }
-        synchronized (lockByteArray) {
-            T entity = getByHash(hash);
-            consumer.accept(entity);
+        return (T) SerializationUtils.deserialize(bytes);
+    }
+
+    public long migrateEntityCodec() {
+        if (!entityCodecEnabled || entityCodec == null) {
+            return 0;
+        }
+        log.info("Starting to migrate column family {} to the entity codec", columnFamilyName);
+        long migratedRecords = 0;
+        WriteBatch writeBatch = new WriteBatch();
+        RocksIterator iterator = databaseConnector.getIterator(columnFamilyName);
+        try {
+            iterator.seekToFirst();
+            while (iterator.isValid()) {
+                byte[] value = iterator.value();
+                if (!entityCodec.isCurrentVersion(value)) {
+                    T entity = deserialize(value);
+                    byte[] encoded = entityCodec.encode(entity);
+                    if (encoded != null) {
+                        databaseConnector.put(columnFamilyName, writeBatch, iterator.key(), encoded);
+                        migratedRecords++;
+                    }
+                }
+                if (writeBatch.count() >= MIGRATION_BATCH_SIZE) {
+                    putMigrationBatch(writeBatch);
+                    writeBatch.close();
+                    writeBatch = new WriteBatch();
+                }
+                iterator.next();
+            }
+            putMigrationBatch(writeBatch);
+        } finally {
+            writeBatch.close();
+            iterator.close();
+        }
+        log.info("Finished to migrate column family {} to the entity codec. Migrated records: {}", columnFamilyName, migratedRecords);
+        return migratedRecords;
+    }
+
+    private void putMigrationBatch(WriteBatch writeBatch) {
+        if (writeBatch.count() > 0 && !databaseConnector.putBatch(writeBatch)) {
+            throw new DataBaseException(String.format("Error at migrating column family %s to the entity codec", columnFamilyName));
         }
     }
 
@@ -109,7 +335,11 @@ public abstract class Collection<T extends IEntity> {
     }
 
     public void deleteByHash(Hash hash) {
-        databaseConnector.delete(columnFamilyName, hash.getBytes());
+        if (entityCache != null) {
+            entityCache.write(hash, null, 0, () -> databaseConnector.delete(columnFamilyName, hash.getBytes()));
+        } else {
+            databaseConnector.delete(columnFamilyName, hash.getBytes());
+        }
     }
 
     public void deleteAll() {
@@ -122,17 +352,13 @@ public abstract class Collection<T extends IEntity> {
             }
         } finally {
             iterator.close();
+            if (entityCache != null) {
+                entityCache.clear();
+            }
         }
     }
 
     protected void generateLockObjects() {
-        lockByteArrayMap = new LinkedHashMap<>();
-        for (int i = Byte.MIN_VALUE; i <= Byte.MAX_VALUE; i++) {
-            for (int j = Byte.MIN_VALUE; j <= Byte.MAX_VALUE; j++) {
-                byte[] byteArray = new byte[]{(byte) i, (byte) j};
-                lockByteArrayMap.put(new Hash(byteArray), byteArray);
-            }
-        }
+        lockStripes = new HashLockStripes(HashLockStripes.MAX_STRIPES);
     }
-}
-
+}
\ No newline at end of file
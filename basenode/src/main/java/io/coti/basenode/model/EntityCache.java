@@ -0,0 +1,204 @@
+package io.coti.basenode.model;
+
+import io.coti.basenode.data.EntityCacheStatisticsData;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.interfaces.IEntity;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.UnaryOperator;
+
+public class EntityCache<T extends IEntity> {
+
+    private static final int SEGMENTS = 64;
+    private static final int MAX_WRITE_VERSIONS_PER_SEGMENT = 256;
+    private final Segment<T>[] segments;
+    private final long maxWeight;
+    private final UnaryOperator<T> copier;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    @SuppressWarnings("unchecked")
+    public EntityCache(long maxWeight, UnaryOperator<T> copier) {
+        if (maxWeight <= 0) {
+            throw new IllegalArgumentException("Maximum weight of an entity cache should be positive");
+        }
+        this.maxWeight = maxWeight;
+        this.copier = copier;
+        segments = new Segment[SEGMENTS];
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment<>(Math.max(1, maxWeight / SEGMENTS));
+        }
+    }
+
+    public T get(Hash hash) {
+        Segment<T> segment = getSegment(hash);
+        T entity;
+        segment.lock.lock();
+        try {
+            Entry<T> entry = segment.entries.get(hash);
+            entity = entry != null ? entry.entity : null;
+        } finally {
+            segment.lock.unlock();
+        }
+        if (entity == null) {
+            misses.increment();
+            return null;
+        }
+        hits.increment();
+        return copier.apply(entity);
+    }
+
+    public long getVersion(Hash hash) {
+        return getSegment(hash).version;
+    }
+
+    public void putIfUnchanged(Hash hash, T entity, int weight, long version) {
+        Segment<T> segment = getSegment(hash);
+        if (weight > segment.maxWeight) {
+            return;
+        }
+        T copy = copier.apply(entity);
+        segment.lock.lock();
+        try {
+            if (!isWrittenSince(segment, hash, version) && !segment.entries.containsKey(hash)) {
+                put(segment, hash, new Entry<>(copy, weight));
+            }
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void write(Hash hash, T entity, int weight, Runnable databaseWrite) {
+        Segment<T> segment = getSegment(hash);
+        T copy = entity != null && weight <= segment.maxWeight ? copier.apply(entity) : null;
+        segment.lock.lock();
+        try {
+            if (databaseWrite != null) {
+                databaseWrite.run();
+            }
+            remove(segment, hash);
+            if (copy != null) {
+                put(segment, hash, new Entry<>(copy, weight));
+            }
+            addWriteVersion(segment, hash);
+        } finally {
+            segment.lock.unlock();
+        }
+    }
+
+    public void invalidate(Hash hash) {
+        write(hash, null, 0, null);
+    }
+
+    public void clear() {
+        for (Segment<T> segment : segments) {
+            segment.lock.lock();
+            try {
+                segment.entries.clear();
+                segment.weight = 0;
+                segment.writeVersions.clear();
+                segment.untrackedWriteVersion = ++segment.version;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+    }
+
+    public EntityCacheStatisticsData getStatistics() {
+        EntityCacheStatisticsData entityCacheStatisticsData = new EntityCacheStatisticsData();
+        long size = 0;
+        long weight = 0;
+        for (Segment<T> segment : segments) {
+            segment.lock.lock();
+            try {
+                size += segment.entries.size();
+                weight += segment.weight;
+            } finally {
+                segment.lock.unlock();
+            }
+        }
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        entityCacheStatisticsData.setMaxWeight(maxWeight);
+        entityCacheStatisticsData.setWeight(weight);
+        entityCacheStatisticsData.setSize(size);
+        entityCacheStatisticsData.setHits(hitCount);
+        entityCacheStatisticsData.setMisses(missCount);
+        entityCacheStatisticsData.setEvictions(evictions.sum());
+        entityCacheStatisticsData.setHitRate(hitCount + missCount > 0 ? (double) hitCount / (hitCount + missCount) : 0);
+        return entityCacheStatisticsData;
+    }
+
+    private Segment<T> getSegment(Hash hash) {
+        int hashCode = hash.hashCode();
+        return segments[(hashCode ^ (hashCode >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private void put(Segment<T> segment, Hash hash, Entry<T> entry) {
+        segment.entries.put(hash, entry);
+        segment.weight += entry.weight;
+        Iterator<Entry<T>> iterator = segment.entries.values().iterator();
+        while (segment.weight > segment.maxWeight && iterator.hasNext()) {
+            segment.weight -= iterator.next().weight;
+            iterator.remove();
+            evictions.increment();
+        }
+    }
+
+    private boolean isWrittenSince(Segment<T> segment, Hash hash, long version) {
+        // A write which is no longer tracked by hash may be newer than the read
+        if (version < segment.untrackedWriteVersion) {
+            return true;
+        }
+        Long writeVersion = segment.writeVersions.get(hash);
+        return writeVersion != null && writeVersion > version;
+    }
+
+    private void addWriteVersion(Segment<T> segment, Hash hash) {
+        segment.writeVersions.remove(hash);
+        segment.writeVersions.put(hash, ++segment.version);
+        if (segment.writeVersions.size() > MAX_WRITE_VERSIONS_PER_SEGMENT) {
+            Iterator<Long> iterator = segment.writeVersions.values().iterator();
+            segment.untrackedWriteVersion = iterator.next();
+            iterator.remove();
+        }
+    }
+
+    private void remove(Segment<T> segment, Hash hash) {
+        Entry<T> entry = segment.entries.remove(hash);
+        if (entry != null) {
+            segment.weight -= entry.weight;
+        }
+    }
+
+    private static class Segment<T> {
+
+        private final long maxWeight;
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<Hash, Entry<T>> entries = new LinkedHashMap<>(16, 0.75f, true);
+        private final Map<Hash, Long> writeVersions = new LinkedHashMap<>();
+        private long weight;
+        private volatile long version;
+        private long untrackedWriteVersion;
+
+        private Segment(long maxWeight) {
+            this.maxWeight = maxWeight;
+        }
+    }
+
+    private static class Entry<T> {
+
+        private final T entity;
+        private final int weight;
+
+        private Entry(T entity, int weight) {
+            this.entity = entity;
+            this.weight = weight;
+        }
+    }
+}
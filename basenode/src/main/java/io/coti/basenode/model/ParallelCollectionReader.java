@@ -0,0 +1,129 @@
+package io.coti.basenode.model;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.interfaces.IEntity;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
+import io.coti.basenode.exceptions.DataBaseException;
+import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.RocksIterator;
+import org.rocksdb.Snapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+@Slf4j
+class ParallelCollectionReader<T extends IEntity> {
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int QUEUED_BATCHES_PER_RANGE = 4;
+    private static final int KEY_BYTE_VALUES = 256;
+    private final Collection<T> collection;
+    private final IDatabaseConnector databaseConnector;
+    private final String columnFamilyName;
+    private final int rangeCount;
+    private final List<BlockingQueue<List<T>>> rangeQueues = new ArrayList<>();
+    private final AtomicReference<Exception> rangeException = new AtomicReference<>();
+
+    ParallelCollectionReader(Collection<T> collection, IDatabaseConnector databaseConnector, String columnFamilyName, int parallelism) {
+        this.collection = collection;
+        this.databaseConnector = databaseConnector;
+        this.columnFamilyName = columnFamilyName;
+        this.rangeCount = Math.max(1, Math.min(parallelism, KEY_BYTE_VALUES));
+        for (int i = 0; i < rangeCount; i++) {
+            rangeQueues.add(new ArrayBlockingQueue<>(QUEUED_BATCHES_PER_RANGE));
+        }
+    }
+
+    void forEach(Consumer<T> consumer) {
+        Snapshot snapshot = databaseConnector.getSnapshot();
+        ExecutorService executorService = Executors.newFixedThreadPool(rangeCount);
+        try {
+            for (int i = 0; i < rangeCount; i++) {
+                int range = i;
+                executorService.submit(() -> readRange(range, snapshot));
+            }
+            merge(consumer);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DataBaseException(String.format("Interrupted at parallel reading of column family %s", columnFamilyName), e);
+        } finally {
+            executorService.shutdownNow();
+            awaitTermination(executorService);
+            databaseConnector.releaseSnapshot(snapshot);
+        }
+    }
+
+    private void merge(Consumer<T> consumer) throws InterruptedException {
+        boolean[] finishedRanges = new boolean[rangeCount];
+        int remainingRanges = rangeCount;
+        while (remainingRanges > 0) {
+            for (int range = 0; range < rangeCount; range++) {
+                if (finishedRanges[range]) {
+                    continue;
+                }
+                List<T> batch = rangeQueues.get(range).take();
+                if (batch.isEmpty()) {
+                    finishedRanges[range] = true;
+                    remainingRanges--;
+                    if (rangeException.get() != null) {
+                        throw new DataBaseException(String.format("Error at parallel reading of column family %s", columnFamilyName), rangeException.get());
+                    }
+                } else {
+                    batch.forEach(consumer);
+                }
+            }
+        }
+    }
+
+    private void readRange(int range, Snapshot snapshot) {
+        int lowerKeyByte = range * KEY_BYTE_VALUES / rangeCount;
+        int upperKeyByte = (range + 1) * KEY_BYTE_VALUES / rangeCount;
+        try {
+            RocksIterator iterator = databaseConnector.getIterator(columnFamilyName, snapshot);
+            try {
+                iterator.seek(new byte[]{(byte) lowerKeyByte});
+                List<T> batch = new ArrayList<>(BATCH_SIZE);
+                while (iterator.isValid() && (iterator.key()[0] & 0xff) < upperKeyByte) {
+                    T entity = collection.deserialize(iterator.value());
+                    entity.setHash(new Hash(iterator.key()));
+                    batch.add(entity);
+                    if (batch.size() == BATCH_SIZE) {
+                        rangeQueues.get(range).put(batch);
+                        batch = new ArrayList<>(BATCH_SIZE);
+                    }
+                    iterator.next();
+                }
+                if (!batch.isEmpty()) {
+                    rangeQueues.get(range).put(batch);
+                }
+            } finally {
+                iterator.close();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            log.error("Error at reading range {} of column family {}", range, columnFamilyName, e);
+            rangeException.compareAndSet(null, e);
+        }
+        try {
+            rangeQueues.get(range).put(Collections.emptyList());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void awaitTermination(ExecutorService executorService) {
+        try {
+            if (!executorService.awaitTermination(1, TimeUnit.MINUTES)) {
+                log.error("Parallel readers of column family {} did not terminate", columnFamilyName);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -1,9 +1,56 @@
 package io.coti.basenode.model;
 
+import com.google.common.primitives.Longs;
+import io.coti.basenode.data.ColumnFamilyProfile;
+import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TransactionIndexData;
+import io.coti.basenode.model.codec.TransactionIndexDataCodec;
+import org.rocksdb.RocksIterator;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
 @Component
 public class TransactionIndexes extends Collection<TransactionIndexData> {
 
-}
\ No newline at end of file
+    public TransactionIndexes() {
+        entityCodec = new TransactionIndexDataCodec();
+        columnFamilyProfile = ColumnFamilyProfile.Sequential;
+    }
+
+    public long forEachIndexBlock(long startingIndex, long endingIndex, int blockSize, Consumer<List<TransactionIndexData>> consumer) {
+        long nextIndex = startingIndex;
+        while (nextIndex <= endingIndex) {
+            // A fresh iterator per block, closed before the block is consumed, so a slow consumer does not pin it
+            List<TransactionIndexData> transactionIndexBlock = getIndexBlock(nextIndex, endingIndex, blockSize);
+            if (transactionIndexBlock.isEmpty()) {
+                break;
+            }
+            nextIndex = transactionIndexBlock.get(transactionIndexBlock.size() - 1).getIndex() + 1;
+            consumer.accept(transactionIndexBlock);
+        }
+        return nextIndex;
+    }
+
+    private List<TransactionIndexData> getIndexBlock(long startingIndex, long endingIndex, int blockSize) {
+        List<TransactionIndexData> transactionIndexBlock = new ArrayList<>(blockSize);
+        RocksIterator iterator = getIterator();
+        try {
+            iterator.seek(new Hash(startingIndex).getBytes());
+            while (iterator.isValid() && transactionIndexBlock.size() < blockSize) {
+                if (Longs.fromByteArray(iterator.key()) > endingIndex) {
+                    break;
+                }
+                TransactionIndexData transactionIndexData = deserialize(iterator.value());
+                transactionIndexData.setHash(new Hash(iterator.key()));
+                transactionIndexBlock.add(transactionIndexData);
+                iterator.next();
+            }
+        } finally {
+            iterator.close();
+        }
+        return transactionIndexBlock;
+    }
+}
@@ -1,16 +1,31 @@
 package io.coti.basenode.model;
 
+import io.coti.basenode.data.ColumnFamilyProfile;
 import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.model.codec.TransactionDataCodec;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
 public class Transactions extends Collection<TransactionData> {
 
+    private final TransactionDataCodec transactionDataCodec = new TransactionDataCodec();
+    @Value("${db.transactions.cache.size.mb}")
+    private long cacheSizeMb;
+
+    public Transactions() {
+        entityCodec = transactionDataCodec;
+        columnFamilyProfile = ColumnFamilyProfile.PointLookup;
+    }
+
     @Override
     public void init() {
         super.init();
         generateLockObjects();
+        if (cacheSizeMb > 0) {
+            entityCache = new EntityCache<>(cacheSizeMb * 1024 * 1024, transactionDataCodec::copy);
+        }
     }
 }
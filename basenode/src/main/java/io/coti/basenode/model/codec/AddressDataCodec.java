@@ -0,0 +1,29 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.AddressData;
+
+public class AddressDataCodec extends EntityCodec<AddressData> {
+
+    private static final byte CODEC_ID = 1;
+    private static final byte VERSION = 1;
+
+    @Override
+    protected byte getCodecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    protected byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected void write(AddressData addressData, EntityOutput output) {
+        output.writeInstant(addressData.getCreationTime());
+    }
+
+    @Override
+    protected AddressData read(byte version, EntityInput input) {
+        return new AddressData(null, input.readInstant());
+    }
+}
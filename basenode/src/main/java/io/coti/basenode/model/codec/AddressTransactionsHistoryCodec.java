@@ -0,0 +1,38 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.AddressTransactionsHistory;
+import io.coti.basenode.data.Hash;
+
+public class AddressTransactionsHistoryCodec extends EntityCodec<AddressTransactionsHistory> {
+
+    private static final byte CODEC_ID = 3;
+    private static final byte VERSION = 1;
+
+    @Override
+    protected byte getCodecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    protected byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected void write(AddressTransactionsHistory addressTransactionsHistory, EntityOutput output) {
+        output.writeInstant(addressTransactionsHistory.getCreationTime());
+        output.writeCollection(addressTransactionsHistory.getTransactionsHistory(), EntityOutput::writeHash);
+    }
+
+    @Override
+    protected AddressTransactionsHistory read(byte version, EntityInput input) {
+        AddressTransactionsHistory addressTransactionsHistory = new AddressTransactionsHistory(null);
+        addressTransactionsHistory.setCreationTime(input.readInstant());
+        int size = input.readLength();
+        for (int i = 0; i < size; i++) {
+            Hash transactionHash = input.readHash();
+            addressTransactionsHistory.addTransactionHashToHistory(transactionHash);
+        }
+        return addressTransactionsHistory;
+    }
+}
@@ -0,0 +1,89 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.DspConsensusResult;
+import io.coti.basenode.data.DspVote;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+
+public class DspConsensusResultCodec extends EntityCodec<DspConsensusResult> {
+
+    private static final byte CODEC_ID = 5;
+    private static final byte VERSION = 1;
+    private static final Constructor<DspConsensusResult> dspConsensusResultConstructor = getDeclaredConstructor(DspConsensusResult.class);
+    private static final Constructor<DspVote> dspVoteConstructor = getDeclaredConstructor(DspVote.class);
+
+    @Override
+    protected byte getCodecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    protected byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected boolean isEncodable(DspConsensusResult dspConsensusResult) {
+        if (dspConsensusResult.getClass() != DspConsensusResult.class) {
+            return false;
+        }
+        if (dspConsensusResult.getDspVotes() != null) {
+            for (DspVote dspVote : dspConsensusResult.getDspVotes()) {
+                if (dspVote == null || dspVote.getClass() != DspVote.class) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    @Override
+    protected void write(DspConsensusResult dspConsensusResult, EntityOutput output) {
+        output.writeHash(dspConsensusResult.getTransactionHash());
+        output.writeHash(dspConsensusResult.getZeroSpendServerHash());
+        output.writeLong(dspConsensusResult.getIndex());
+        output.writeInstant(dspConsensusResult.getIndexingTime());
+        output.writeSignature(dspConsensusResult.getZeroSpendSignature());
+        output.writeCollection(dspConsensusResult.getDspVotes(), this::writeDspVote);
+        output.writeBoolean(dspConsensusResult.isDspConsensus());
+    }
+
+    @Override
+    protected DspConsensusResult read(byte version, EntityInput input) {
+        DspConsensusResult dspConsensusResult = newInstance(dspConsensusResultConstructor);
+        dspConsensusResult.setTransactionHash(input.readHash());
+        dspConsensusResult.setZeroSpendServerHash(input.readHash());
+        dspConsensusResult.setIndex(input.readLong());
+        dspConsensusResult.setIndexingTime(input.readInstant());
+        dspConsensusResult.setZeroSpendSignature(input.readSignature());
+        dspConsensusResult.setDspVotes(input.readCollection(ArrayList::new, this::readDspVote));
+        dspConsensusResult.setDspConsensus(input.readBoolean());
+        return dspConsensusResult;
+    }
+
+    void writeNullable(DspConsensusResult dspConsensusResult, EntityOutput output) {
+        output.writeBoolean(dspConsensusResult != null);
+        if (dspConsensusResult != null) {
+            write(dspConsensusResult, output);
+        }
+    }
+
+    DspConsensusResult readNullable(EntityInput input) {
+        return input.readBoolean() ? read(VERSION, input) : null;
+    }
+
+    private void writeDspVote(EntityOutput output, DspVote dspVote) {
+        output.writeBoolean(dspVote.isValidTransaction());
+        output.writeHash(dspVote.getVoterDspHash());
+        output.writeSignature(dspVote.getSignature());
+    }
+
+    private DspVote readDspVote(EntityInput input) {
+        DspVote dspVote = newInstance(dspVoteConstructor);
+        dspVote.setValidTransaction(input.readBoolean());
+        dspVote.setVoterDspHash(input.readHash());
+        dspVote.setSignature(input.readSignature());
+        return dspVote;
+    }
+}
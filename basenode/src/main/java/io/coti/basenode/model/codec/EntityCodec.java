@@ -0,0 +1,76 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.interfaces.IEntity;
+import io.coti.basenode.exceptions.DataBaseException;
+
+import java.lang.reflect.Constructor;
+
+public abstract class EntityCodec<T extends IEntity> {
+
+    // Java serialization streams always start with 0xACED
+    public static final byte MARKER = (byte) 0xC0;
+    static final int HEADER_LENGTH = 3;
+
+    protected abstract byte getCodecId();
+
+    protected abstract byte getVersion();
+
+    protected boolean isEncodable(T entity) {
+        return true;
+    }
+
+    protected abstract void write(T entity, EntityOutput output);
+
+    protected abstract T read(byte version, EntityInput input);
+
+    public byte[] encode(T entity) {
+        if (!isEncodable(entity)) {
+            return null;
+        }
+        EntityOutput output = new EntityOutput();
+        output.writeByte(MARKER);
+        output.writeByte(getCodecId());
+        output.writeByte(getVersion());
+        write(entity, output);
+        return output.toByteArray();
+    }
+
+    public boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length >= HEADER_LENGTH && bytes[0] == MARKER && bytes[1] == getCodecId();
+    }
+
+    public boolean isCurrentVersion(byte[] bytes) {
+        return isEncoded(bytes) && bytes[2] == getVersion();
+    }
+
+    public T decode(byte[] bytes) {
+        byte version = bytes[2];
+        if (version > getVersion()) {
+            throw new DataBaseException(String.format("Unsupported version %s of entity codec %s", version, getClass().getSimpleName()));
+        }
+        EntityInput input = new EntityInput(bytes, HEADER_LENGTH);
+        T entity = read(version, input);
+        if (!input.isFullyRead()) {
+            throw new DataBaseException(String.format("Entity record of codec %s has trailing bytes", getClass().getSimpleName()));
+        }
+        return entity;
+    }
+
+    protected static <E> Constructor<E> getDeclaredConstructor(Class<E> entityClass) {
+        try {
+            Constructor<E> constructor = entityClass.getDeclaredConstructor();
+            constructor.setAccessible(true);
+            return constructor;
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException(String.format("Class %s has no default constructor", entityClass.getName()), e);
+        }
+    }
+
+    protected static <E> E newInstance(Constructor<E> constructor) {
+        try {
+            return constructor.newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new DataBaseException(String.format("Error at creating an instance of %s", constructor.getDeclaringClass().getName()), e);
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.SignatureData;
+import io.coti.basenode.exceptions.DataBaseException;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+public class EntityInput {
+
+    private final byte[] buffer;
+    private int position;
+
+    public EntityInput(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    public int readByte() {
+        ensureAvailable(1);
+        return buffer[position++];
+    }
+
+    public boolean readBoolean() {
+        return readByte() != 0;
+    }
+
+    public Boolean readNullableBoolean() {
+        int value = readByte();
+        return value == 0 ? null : value == 2;
+    }
+
+    public int readInt() {
+        ensureAvailable(Integer.BYTES);
+        int value = 0;
+        for (int i = 0; i < Integer.BYTES; i++) {
+            value = (value << 8) | (buffer[position++] & 0xff);
+        }
+        return value;
+    }
+
+    public long readLong() {
+        ensureAvailable(Long.BYTES);
+        long value = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            value = (value << 8) | (buffer[position++] & 0xff);
+        }
+        return value;
+    }
+
+    public double readDouble() {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    public int readVarInt() {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int currentByte = readByte();
+            value |= (currentByte & 0x7f) << shift;
+            if ((currentByte & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new DataBaseException("Malformed variable length integer in entity record");
+    }
+
+    public int readLength() {
+        return readVarInt() - 1;
+    }
+
+    public byte[] readBytes() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        ensureAvailable(length);
+        byte[] bytes = Arrays.copyOfRange(buffer, position, position + length);
+        position += length;
+        return bytes;
+    }
+
+    public Hash readHash() {
+        byte[] bytes = readBytes();
+        return bytes == null ? null : new Hash(bytes);
+    }
+
+    public String readString() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        ensureAvailable(length);
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public Instant readInstant() {
+        if (!readBoolean()) {
+            return null;
+        }
+        long epochSecond = readLong();
+        return Instant.ofEpochSecond(epochSecond, readInt());
+    }
+
+    public BigDecimal readBigDecimal() {
+        byte[] unscaledValue = readBytes();
+        if (unscaledValue == null) {
+            return null;
+        }
+        return new BigDecimal(new BigInteger(unscaledValue), readInt());
+    }
+
+    public SignatureData readSignature() {
+        if (!readBoolean()) {
+            return null;
+        }
+        String r = readString();
+        return new SignatureData(r, readString());
+    }
+
+    public int[] readIntArray() {
+        int length = readLength();
+        if (length < 0) {
+            return null;
+        }
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = readInt();
+        }
+        return values;
+    }
+
+    public <T, C extends Collection<T>> C readCollection(IntFunction<C> collectionSupplier, Function<EntityInput, T> valueReader) {
+        int size = readLength();
+        if (size < 0) {
+            return null;
+        }
+        C values = collectionSupplier.apply(size);
+        for (int i = 0; i < size; i++) {
+            values.add(valueReader.apply(this));
+        }
+        return values;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public boolean isFullyRead() {
+        return position == buffer.length;
+    }
+
+    private void ensureAvailable(int length) {
+        if (length < 0 || position + length > buffer.length) {
+            throw new DataBaseException("Entity record is truncated");
+        }
+    }
+}
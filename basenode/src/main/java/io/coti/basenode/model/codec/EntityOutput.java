@@ -0,0 +1,138 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.SignatureData;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+public class EntityOutput {
+
+    private static final int INITIAL_CAPACITY = 256;
+    private byte[] buffer;
+    private int position;
+
+    public EntityOutput() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public EntityOutput(int initialCapacity) {
+        buffer = new byte[initialCapacity];
+    }
+
+    public void writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+    }
+
+    public void writeBoolean(boolean value) {
+        writeByte(value ? 1 : 0);
+    }
+
+    public void writeNullableBoolean(Boolean value) {
+        writeByte(value == null ? 0 : (value ? 2 : 1));
+    }
+
+    public void writeInt(int value) {
+        ensureCapacity(Integer.BYTES);
+        for (int shift = 24; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    public void writeLong(long value) {
+        ensureCapacity(Long.BYTES);
+        for (int shift = 56; shift >= 0; shift -= 8) {
+            buffer[position++] = (byte) (value >>> shift);
+        }
+    }
+
+    public void writeDouble(double value) {
+        writeLong(Double.doubleToLongBits(value));
+    }
+
+    public void writeVarInt(int value) {
+        ensureCapacity(5);
+        while ((value & ~0x7f) != 0) {
+            buffer[position++] = (byte) ((value & 0x7f) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    public boolean writeLength(Object value, int length) {
+        if (value == null) {
+            writeVarInt(0);
+            return false;
+        }
+        writeVarInt(length + 1);
+        return true;
+    }
+
+    public void writeBytes(byte[] bytes) {
+        if (writeLength(bytes, bytes == null ? 0 : bytes.length)) {
+            ensureCapacity(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+    }
+
+    public void writeHash(Hash hash) {
+        writeBytes(hash == null ? null : hash.getBytes());
+    }
+
+    public void writeString(String value) {
+        writeBytes(value == null ? null : value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public void writeInstant(Instant instant) {
+        writeBoolean(instant != null);
+        if (instant != null) {
+            writeLong(instant.getEpochSecond());
+            writeInt(instant.getNano());
+        }
+    }
+
+    public void writeBigDecimal(BigDecimal value) {
+        writeBytes(value == null ? null : value.unscaledValue().toByteArray());
+        if (value != null) {
+            writeInt(value.scale());
+        }
+    }
+
+    public void writeSignature(SignatureData signatureData) {
+        writeBoolean(signatureData != null);
+        if (signatureData != null) {
+            writeString(signatureData.getR());
+            writeString(signatureData.getS());
+        }
+    }
+
+    public void writeIntArray(int[] values) {
+        if (writeLength(values, values == null ? 0 : values.length)) {
+            for (int value : values) {
+                writeInt(value);
+            }
+        }
+    }
+
+    public <T> void writeCollection(Collection<T> values, BiConsumer<EntityOutput, T> valueWriter) {
+        if (writeLength(values, values == null ? 0 : values.size())) {
+            values.forEach(value -> valueWriter.accept(this, value));
+        }
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int length) {
+        if (position + length > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + length));
+        }
+    }
+}
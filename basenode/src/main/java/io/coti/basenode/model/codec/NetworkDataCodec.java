@@ -0,0 +1,178 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.*;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+public class NetworkDataCodec extends EntityCodec<NetworkData> {
+
+    private static final byte CODEC_ID = 7;
+    private static final byte VERSION = 1;
+
+    @Override
+    protected byte getCodecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    protected byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected boolean isEncodable(NetworkData networkData) {
+        if (networkData.getClass() != NetworkData.class || networkData.getMultipleNodeMaps() == null || networkData.getSingleNodeNetworkDataMap() == null) {
+            return false;
+        }
+        for (Map<Hash, NetworkNodeData> networkNodeDataMap : networkData.getMultipleNodeMaps().values()) {
+            if (networkNodeDataMap == null || !networkNodeDataMap.values().stream().allMatch(this::isEncodable)) {
+                return false;
+            }
+        }
+        return networkData.getSingleNodeNetworkDataMap().values().stream().allMatch(networkNodeData -> networkNodeData == null || isEncodable(networkNodeData));
+    }
+
+    private boolean isEncodable(NetworkNodeData networkNodeData) {
+        return networkNodeData != null && networkNodeData.getClass() == NetworkNodeData.class;
+    }
+
+    @Override
+    protected void write(NetworkData networkData, EntityOutput output) {
+        Map<NodeType, Map<Hash, NetworkNodeData>> multipleNodeMaps = networkData.getMultipleNodeMaps();
+        output.writeVarInt(multipleNodeMaps.size());
+        multipleNodeMaps.forEach((nodeType, networkNodeDataMap) -> {
+            output.writeString(nodeType.name());
+            output.writeVarInt(networkNodeDataMap.size());
+            networkNodeDataMap.forEach((nodeHash, networkNodeData) -> {
+                output.writeHash(nodeHash);
+                writeNetworkNodeData(output, networkNodeData);
+            });
+        });
+        Map<NodeType, NetworkNodeData> singleNodeNetworkDataMap = networkData.getSingleNodeNetworkDataMap();
+        output.writeVarInt(singleNodeNetworkDataMap.size());
+        singleNodeNetworkDataMap.forEach((nodeType, networkNodeData) -> {
+            output.writeString(nodeType.name());
+            output.writeBoolean(networkNodeData != null);
+            if (networkNodeData != null) {
+                writeNetworkNodeData(output, networkNodeData);
+            }
+        });
+    }
+
+    @Override
+    protected NetworkData read(byte version, EntityInput input) {
+        NetworkData networkData = new NetworkData();
+        Map<NodeType, Map<Hash, NetworkNodeData>> multipleNodeMaps = new EnumMap<>(NodeType.class);
+        int multipleNodeMapsSize = input.readVarInt();
+        for (int i = 0; i < multipleNodeMapsSize; i++) {
+            NodeType nodeType = NodeType.valueOf(input.readString());
+            int networkNodeDataMapSize = input.readVarInt();
+            Map<Hash, NetworkNodeData> networkNodeDataMap = new ConcurrentHashMap<>();
+            for (int j = 0; j < networkNodeDataMapSize; j++) {
+                Hash nodeHash = input.readHash();
+                networkNodeDataMap.put(nodeHash, readNetworkNodeData(input));
+            }
+            multipleNodeMaps.put(nodeType, networkNodeDataMap);
+        }
+        networkData.setMultipleNodeMaps(multipleNodeMaps);
+        Map<NodeType, NetworkNodeData> singleNodeNetworkDataMap = new EnumMap<>(NodeType.class);
+        int singleNodeNetworkDataMapSize = input.readVarInt();
+        for (int i = 0; i < singleNodeNetworkDataMapSize; i++) {
+            NodeType nodeType = NodeType.valueOf(input.readString());
+            singleNodeNetworkDataMap.put(nodeType, input.readBoolean() ? readNetworkNodeData(input) : null);
+        }
+        networkData.setSingleNodeNetworkDataMap(singleNodeNetworkDataMap);
+        return networkData;
+    }
+
+    private void writeNetworkNodeData(EntityOutput output, NetworkNodeData networkNodeData) {
+        output.writeHash(networkNodeData.getNodeHash());
+        output.writeString(networkNodeData.getNodeType() == null ? null : networkNodeData.getNodeType().name());
+        output.writeString(networkNodeData.getAddress());
+        output.writeString(networkNodeData.getHttpPort());
+        output.writeString(networkNodeData.getPropagationPort());
+        output.writeString(networkNodeData.getReceivingPort());
+        output.writeString(networkNodeData.getNetworkType() == null ? null : networkNodeData.getNetworkType().name());
+        output.writeBoolean(networkNodeData.getTrustScore() != null);
+        if (networkNodeData.getTrustScore() != null) {
+            output.writeDouble(networkNodeData.getTrustScore());
+        }
+        output.writeString(networkNodeData.getWebServerUrl());
+        writeFeeData(output, networkNodeData.getFeeData());
+        output.writeSignature(networkNodeData.getNodeSignature());
+        writeNodeRegistrationData(output, networkNodeData.getNodeRegistrationData());
+    }
+
+    private NetworkNodeData readNetworkNodeData(EntityInput input) {
+        NetworkNodeData networkNodeData = new NetworkNodeData();
+        networkNodeData.setNodeHash(input.readHash());
+        String nodeType = input.readString();
+        networkNodeData.setNodeType(nodeType == null ? null : NodeType.valueOf(nodeType));
+        networkNodeData.setAddress(input.readString());
+        networkNodeData.setHttpPort(input.readString());
+        networkNodeData.setPropagationPort(input.readString());
+        networkNodeData.setReceivingPort(input.readString());
+        String networkType = input.readString();
+        networkNodeData.setNetworkType(networkType == null ? null : NetworkType.valueOf(networkType));
+        networkNodeData.setTrustScore(input.readBoolean() ? input.readDouble() : null);
+        networkNodeData.setWebServerUrl(input.readString());
+        networkNodeData.setFeeData(readFeeData(input));
+        networkNodeData.setNodeSignature(input.readSignature());
+        networkNodeData.setNodeRegistrationData(readNodeRegistrationData(input));
+        return networkNodeData;
+    }
+
+    private void writeFeeData(EntityOutput output, FeeData feeData) {
+        output.writeBoolean(feeData != null);
+        if (feeData != null) {
+            output.writeBigDecimal(feeData.getFeePercentage());
+            output.writeBigDecimal(feeData.getMinimumFee());
+            output.writeBigDecimal(feeData.getMaximumFee());
+        }
+    }
+
+    private FeeData readFeeData(EntityInput input) {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        FeeData feeData = new FeeData();
+        feeData.setFeePercentage(input.readBigDecimal());
+        feeData.setMinimumFee(input.readBigDecimal());
+        feeData.setMaximumFee(input.readBigDecimal());
+        return feeData;
+    }
+
+    private void writeNodeRegistrationData(EntityOutput output, NodeRegistrationData nodeRegistrationData) {
+        output.writeBoolean(nodeRegistrationData != null);
+        if (nodeRegistrationData != null) {
+            output.writeHash(nodeRegistrationData.getNodeHash());
+            output.writeString(nodeRegistrationData.getNodeType() == null ? null : nodeRegistrationData.getNodeType().name());
+            output.writeString(nodeRegistrationData.getNetworkType() == null ? null : nodeRegistrationData.getNetworkType().name());
+            output.writeInstant(nodeRegistrationData.getCreationTime());
+            output.writeHash(nodeRegistrationData.getRegistrarHash());
+            output.writeSignature(nodeRegistrationData.getRegistrarSignature());
+        }
+    }
+
+    private NodeRegistrationData readNodeRegistrationData(EntityInput input) {
+        if (!input.readBoolean()) {
+            return null;
+        }
+        NodeRegistrationData nodeRegistrationData = new NodeRegistrationData();
+        nodeRegistrationData.setNodeHash(input.readHash());
+        String nodeType = input.readString();
+        if (nodeType != null) {
+            nodeRegistrationData.setNodeType(nodeType);
+        }
+        String networkType = input.readString();
+        if (networkType != null) {
+            nodeRegistrationData.setNetworkType(networkType);
+        }
+        nodeRegistrationData.setCreationTime(input.readInstant());
+        nodeRegistrationData.setRegistrarHash(input.readHash());
+        nodeRegistrationData.setRegistrarSignature(input.readSignature());
+        return nodeRegistrationData;
+    }
+}
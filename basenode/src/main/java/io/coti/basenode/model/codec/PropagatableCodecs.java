@@ -0,0 +1,74 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.data.interfaces.IPropagatable;
+import io.coti.basenode.exceptions.DataBaseException;
+import io.coti.basenode.exceptions.SerializationException;
+
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+public class PropagatableCodecs {
+
+    private final Map<Class<?>, EntityCodec<? extends IPropagatable>> classToCodecMapping = new HashMap<>();
+    private final Map<Byte, EntityCodec<? extends IPropagatable>> codecIdToCodecMapping = new HashMap<>();
+    private final Set<Byte> hashPrefixedCodecIds = new HashSet<>();
+
+    public PropagatableCodecs() {
+        addCodec(TransactionData.class, new TransactionDataCodec(), true);
+        addCodec(AddressData.class, new PropagatedAddressDataCodec(), true);
+        addCodec(TransactionDspVote.class, new TransactionDspVoteCodec(), false);
+        addCodec(DspConsensusResult.class, new DspConsensusResultCodec(), true);
+        addCodec(NetworkData.class, new NetworkDataCodec(), false);
+    }
+
+    private void addCodec(Class<? extends IPropagatable> messageType, EntityCodec<? extends IPropagatable> entityCodec, boolean hashPrefixed) {
+        classToCodecMapping.put(messageType, entityCodec);
+        codecIdToCodecMapping.put(entityCodec.getCodecId(), entityCodec);
+        if (hashPrefixed) {
+            hashPrefixedCodecIds.add(entityCodec.getCodecId());
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public byte[] encode(IPropagatable message) {
+        EntityCodec<IPropagatable> entityCodec = (EntityCodec<IPropagatable>) classToCodecMapping.get(message.getClass());
+        return entityCodec != null ? entityCodec.encode(message) : null;
+    }
+
+    public static boolean isEncoded(byte[] bytes) {
+        return bytes != null && bytes.length > 0 && bytes[0] == EntityCodec.MARKER;
+    }
+
+    public ByteBuffer getMessageKey(byte[] bytes) {
+        if (!isEncoded(bytes) || bytes.length <= EntityCodec.HEADER_LENGTH || !hashPrefixedCodecIds.contains(bytes[1])) {
+            return null;
+        }
+        try {
+            EntityInput input = new EntityInput(bytes, EntityCodec.HEADER_LENGTH);
+            int hashLength = input.readLength();
+            int hashOffset = input.getPosition();
+            if (hashLength < 0 || hashOffset + hashLength > bytes.length) {
+                return null;
+            }
+            ByteBuffer messageKey = ByteBuffer.allocate(hashLength + 1);
+            messageKey.put(bytes[1]).put(bytes, hashOffset, hashLength);
+            messageKey.flip();
+            return messageKey;
+        } catch (DataBaseException e) {
+            return null;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T extends IPropagatable> T decode(byte[] bytes) {
+        EntityCodec<? extends IPropagatable> entityCodec = bytes.length > 1 ? codecIdToCodecMapping.get(bytes[1]) : null;
+        if (entityCodec == null || !entityCodec.isEncoded(bytes)) {
+            throw new SerializationException("Unknown binary message format");
+        }
+        return (T) entityCodec.decode(bytes);
+    }
+}
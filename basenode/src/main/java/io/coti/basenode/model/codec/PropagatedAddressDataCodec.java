@@ -0,0 +1,35 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.AddressData;
+
+public class PropagatedAddressDataCodec extends EntityCodec<AddressData> {
+
+    private static final byte CODEC_ID = 8;
+    private static final byte VERSION = 1;
+
+    @Override
+    protected byte getCodecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    protected byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected boolean isEncodable(AddressData addressData) {
+        return addressData.getClass() == AddressData.class;
+    }
+
+    @Override
+    protected void write(AddressData addressData, EntityOutput output) {
+        output.writeHash(addressData.getHash());
+        output.writeInstant(addressData.getCreationTime());
+    }
+
+    @Override
+    protected AddressData read(byte version, EntityInput input) {
+        return new AddressData(input.readHash(), input.readInstant());
+    }
+}
@@ -0,0 +1,299 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.*;
+
+import java.lang.reflect.Constructor;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+public class TransactionDataCodec extends EntityCodec<TransactionData> {
+
+    private static final byte CODEC_ID = 4;
+    private static final byte VERSION = 1;
+    private static final byte INPUT = 1;
+    private static final byte PAYMENT_INPUT = 2;
+    private static final byte FULL_NODE_FEE = 3;
+    private static final byte NETWORK_FEE = 4;
+    private static final byte ROLLING_RESERVE = 5;
+    private static final byte RECEIVER = 6;
+    private static final Constructor<TransactionData> transactionDataConstructor = getDeclaredConstructor(TransactionData.class);
+    private static final Constructor<TransactionTrustScoreData> transactionTrustScoreDataConstructor = getDeclaredConstructor(TransactionTrustScoreData.class);
+    private static final Constructor<InputBaseTransactionData> inputConstructor = getDeclaredConstructor(InputBaseTransactionData.class);
+    private static final Constructor<PaymentInputBaseTransactionData> paymentInputConstructor = getDeclaredConstructor(PaymentInputBaseTransactionData.class);
+    private static final Constructor<FullNodeFeeData> fullNodeFeeConstructor = getDeclaredConstructor(FullNodeFeeData.class);
+    private static final Constructor<NetworkFeeData> networkFeeConstructor = getDeclaredConstructor(NetworkFeeData.class);
+    private static final Constructor<RollingReserveData> rollingReserveConstructor = getDeclaredConstructor(RollingReserveData.class);
+    private static final Constructor<ReceiverBaseTransactionData> receiverConstructor = getDeclaredConstructor(ReceiverBaseTransactionData.class);
+    private final DspConsensusResultCodec dspConsensusResultCodec = new DspConsensusResultCodec();
+
+    @Override
+    protected byte getCodecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    protected byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected boolean isEncodable(TransactionData transactionData) {
+        if (transactionData.getBaseTransactions() != null) {
+            for (BaseTransactionData baseTransactionData : transactionData.getBaseTransactions()) {
+                if (baseTransactionData == null || getBaseTransactionType(baseTransactionData) == 0) {
+                    return false;
+                }
+            }
+        }
+        if (transactionData.getTrustScoreResults() != null) {
+            for (TransactionTrustScoreData transactionTrustScoreData : transactionData.getTrustScoreResults()) {
+                if (transactionTrustScoreData == null || transactionTrustScoreData.getClass() != TransactionTrustScoreData.class) {
+                    return false;
+                }
+            }
+        }
+        DspConsensusResult dspConsensusResult = transactionData.getDspConsensusResult();
+        return dspConsensusResult == null || dspConsensusResultCodec.isEncodable(dspConsensusResult);
+    }
+
+    @Override
+    protected void write(TransactionData transactionData, EntityOutput output) {
+        output.writeHash(transactionData.getHash());
+        output.writeCollection(transactionData.getBaseTransactions(), this::writeBaseTransaction);
+        output.writeBigDecimal(transactionData.getAmount());
+        output.writeString(transactionData.getType() == null ? null : transactionData.getType().name());
+        output.writeHash(transactionData.getLeftParentHash());
+        output.writeHash(transactionData.getRightParentHash());
+        output.writeBoolean(transactionData.isTrustChainConsensus());
+        output.writeDouble(transactionData.getTrustChainTrustScore());
+        output.writeInstant(transactionData.getTrustChainConsensusTime());
+        output.writeInstant(transactionData.getTransactionConsensusUpdateTime());
+        output.writeInstant(transactionData.getCreateTime());
+        output.writeInstant(transactionData.getAttachmentTime());
+        output.writeDouble(transactionData.getSenderTrustScore());
+        output.writeHash(transactionData.getSenderHash());
+        output.writeSignature(transactionData.getSenderSignature());
+        output.writeHash(transactionData.getNodeHash());
+        output.writeSignature(transactionData.getNodeSignature());
+        output.writeCollection(transactionData.getChildrenTransactionHashes(), EntityOutput::writeHash);
+        output.writeNullableBoolean(transactionData.getValid());
+        output.writeString(transactionData.getTransactionDescription());
+        dspConsensusResultCodec.writeNullable(transactionData.getDspConsensusResult(), output);
+        output.writeCollection(transactionData.getTrustScoreResults(), this::writeTransactionTrustScoreData);
+        output.writeIntArray(transactionData.getNonces());
+    }
+
+    @Override
+    protected TransactionData read(byte version, EntityInput input) {
+        TransactionData transactionData = newInstance(transactionDataConstructor);
+        transactionData.setHash(input.readHash());
+        transactionData.setBaseTransactions(input.readCollection(ArrayList::new, this::readBaseTransaction));
+        transactionData.setAmount(input.readBigDecimal());
+        String type = input.readString();
+        transactionData.setType(type == null ? null : TransactionType.valueOf(type));
+        transactionData.setLeftParentHash(input.readHash());
+        transactionData.setRightParentHash(input.readHash());
+        transactionData.setTrustChainConsensus(input.readBoolean());
+        transactionData.setTrustChainTrustScore(input.readDouble());
+        transactionData.setTrustChainConsensusTime(input.readInstant());
+        transactionData.setTransactionConsensusUpdateTime(input.readInstant());
+        transactionData.setCreateTime(input.readInstant());
+        transactionData.setAttachmentTime(input.readInstant());
+        transactionData.setSenderTrustScore(input.readDouble());
+        transactionData.setSenderHash(input.readHash());
+        transactionData.setSenderSignature(input.readSignature());
+        transactionData.setNodeHash(input.readHash());
+        transactionData.setNodeSignature(input.readSignature());
+        transactionData.setChildrenTransactionHashes(input.readCollection(ArrayList::new, EntityInput::readHash));
+        transactionData.setValid(input.readNullableBoolean());
+        transactionData.setTransactionDescription(input.readString());
+        transactionData.setDspConsensusResult(dspConsensusResultCodec.readNullable(input));
+        transactionData.setTrustScoreResults(input.readCollection(ArrayList::new, this::readTransactionTrustScoreData));
+        transactionData.setNonces(input.readIntArray());
+        return transactionData;
+    }
+
+    public TransactionData copy(TransactionData transactionData) {
+        TransactionData copy = newInstance(transactionDataConstructor);
+        copy.setHash(transactionData.getHash());
+        copy.setBaseTransactions(copyList(transactionData.getBaseTransactions()));
+        copy.setAmount(transactionData.getAmount());
+        copy.setType(transactionData.getType());
+        copy.setLeftParentHash(transactionData.getLeftParentHash());
+        copy.setRightParentHash(transactionData.getRightParentHash());
+        copy.setTrustChainConsensus(transactionData.isTrustChainConsensus());
+        copy.setTrustChainTrustScore(transactionData.getTrustChainTrustScore());
+        copy.setTrustChainConsensusTime(transactionData.getTrustChainConsensusTime());
+        copy.setTransactionConsensusUpdateTime(transactionData.getTransactionConsensusUpdateTime());
+        copy.setCreateTime(transactionData.getCreateTime());
+        copy.setAttachmentTime(transactionData.getAttachmentTime());
+        copy.setSenderTrustScore(transactionData.getSenderTrustScore());
+        copy.setSenderHash(transactionData.getSenderHash());
+        copy.setSenderSignature(transactionData.getSenderSignature());
+        copy.setNodeHash(transactionData.getNodeHash());
+        copy.setNodeSignature(transactionData.getNodeSignature());
+        copy.setChildrenTransactionHashes(copyList(transactionData.getChildrenTransactionHashes()));
+        copy.setValid(transactionData.getValid());
+        copy.setTransactionDescription(transactionData.getTransactionDescription());
+        copy.setDspConsensusResult(transactionData.getDspConsensusResult());
+        copy.setTrustScoreResults(copyList(transactionData.getTrustScoreResults()));
+        copy.setNonces(transactionData.getNonces() == null ? null : transactionData.getNonces().clone());
+        return copy;
+    }
+
+    private static <E> List<E> copyList(List<E> list) {
+        return list == null ? null : new ArrayList<>(list);
+    }
+
+    private byte getBaseTransactionType(BaseTransactionData baseTransactionData) {
+        Class<? extends BaseTransactionData> baseTransactionClass = baseTransactionData.getClass();
+        if (baseTransactionClass == InputBaseTransactionData.class) {
+            return INPUT;
+        } else if (baseTransactionClass == PaymentInputBaseTransactionData.class) {
+            return PAYMENT_INPUT;
+        } else if (baseTransactionClass == FullNodeFeeData.class) {
+            return FULL_NODE_FEE;
+        } else if (baseTransactionClass == NetworkFeeData.class) {
+            return NETWORK_FEE;
+        } else if (baseTransactionClass == RollingReserveData.class) {
+            return ROLLING_RESERVE;
+        } else if (baseTransactionClass == ReceiverBaseTransactionData.class) {
+            return RECEIVER;
+        }
+        return 0;
+    }
+
+    private void writeBaseTransaction(EntityOutput output, BaseTransactionData baseTransactionData) {
+        output.writeByte(getBaseTransactionType(baseTransactionData));
+        output.writeHash(baseTransactionData.getHash());
+        output.writeHash(baseTransactionData.getAddressHash());
+        output.writeBigDecimal(baseTransactionData.getAmount());
+        output.writeInstant(baseTransactionData.getCreateTime());
+        output.writeSignature(baseTransactionData.getSignatureData());
+        if (baseTransactionData instanceof PaymentInputBaseTransactionData) {
+            PaymentInputBaseTransactionData paymentInputBaseTransactionData = (PaymentInputBaseTransactionData) baseTransactionData;
+            output.writeCollection(paymentInputBaseTransactionData.getItems(), this::writePaymentItem);
+            output.writeString(paymentInputBaseTransactionData.getEncryptedMerchantName());
+        }
+        if (baseTransactionData instanceof OutputBaseTransactionData) {
+            output.writeBigDecimal(((OutputBaseTransactionData) baseTransactionData).getOriginalAmount());
+        }
+        if (baseTransactionData instanceof NetworkFeeData) {
+            NetworkFeeData networkFeeData = (NetworkFeeData) baseTransactionData;
+            output.writeCollection(networkFeeData.getNetworkFeeTrustScoreNodeResult(), this::writeTrustScoreNodeResult);
+            output.writeBigDecimal(networkFeeData.getReducedAmount());
+        } else if (baseTransactionData instanceof RollingReserveData) {
+            RollingReserveData rollingReserveData = (RollingReserveData) baseTransactionData;
+            output.writeCollection(rollingReserveData.getRollingReserveTrustScoreNodeResult(), this::writeTrustScoreNodeResult);
+            output.writeBigDecimal(rollingReserveData.getReducedAmount());
+        } else if (baseTransactionData instanceof ReceiverBaseTransactionData) {
+            output.writeHash(((ReceiverBaseTransactionData) baseTransactionData).getReceiverDescription());
+        }
+    }
+
+    private BaseTransactionData readBaseTransaction(EntityInput input) {
+        byte baseTransactionType = (byte) input.readByte();
+        BaseTransactionData baseTransactionData = newBaseTransaction(baseTransactionType);
+        baseTransactionData.setHash(input.readHash());
+        baseTransactionData.setAddressHash(input.readHash());
+        setIfPresent(input.readBigDecimal(), baseTransactionData::setAmount);
+        baseTransactionData.setCreateTime(input.readInstant());
+        baseTransactionData.setSignatureData(input.readSignature());
+        if (baseTransactionData instanceof PaymentInputBaseTransactionData) {
+            PaymentInputBaseTransactionData paymentInputBaseTransactionData = (PaymentInputBaseTransactionData) baseTransactionData;
+            paymentInputBaseTransactionData.setItems(input.readCollection(ArrayList::new, this::readPaymentItem));
+            paymentInputBaseTransactionData.setEncryptedMerchantName(input.readString());
+        }
+        if (baseTransactionData instanceof OutputBaseTransactionData) {
+            setIfPresent(input.readBigDecimal(), ((OutputBaseTransactionData) baseTransactionData)::setOriginalAmount);
+        }
+        if (baseTransactionData instanceof NetworkFeeData) {
+            NetworkFeeData networkFeeData = (NetworkFeeData) baseTransactionData;
+            networkFeeData.setNetworkFeeTrustScoreNodeResult(input.readCollection(ArrayList::new, this::readTrustScoreNodeResult));
+            networkFeeData.setReducedAmount(input.readBigDecimal());
+        } else if (baseTransactionData instanceof RollingReserveData) {
+            RollingReserveData rollingReserveData = (RollingReserveData) baseTransactionData;
+            rollingReserveData.setRollingReserveTrustScoreNodeResult(input.readCollection(ArrayList::new, this::readTrustScoreNodeResult));
+            rollingReserveData.setReducedAmount(input.readBigDecimal());
+        } else if (baseTransactionData instanceof ReceiverBaseTransactionData) {
+            ((ReceiverBaseTransactionData) baseTransactionData).setReceiverDescription(input.readHash());
+        }
+        return baseTransactionData;
+    }
+
+    private BaseTransactionData newBaseTransaction(byte baseTransactionType) {
+        switch (baseTransactionType) {
+            case INPUT:
+                return newInstance(inputConstructor);
+            case PAYMENT_INPUT:
+                return newInstance(paymentInputConstructor);
+            case FULL_NODE_FEE:
+                return newInstance(fullNodeFeeConstructor);
+            case NETWORK_FEE:
+                return newInstance(networkFeeConstructor);
+            case ROLLING_RESERVE:
+                return newInstance(rollingReserveConstructor);
+            case RECEIVER:
+                return newInstance(receiverConstructor);
+            default:
+                throw new IllegalArgumentException(String.format("Unknown base transaction type %s", baseTransactionType));
+        }
+    }
+
+    private void writePaymentItem(EntityOutput output, PaymentItemData paymentItemData) {
+        output.writeBoolean(paymentItemData.getItemId() != null);
+        if (paymentItemData.getItemId() != null) {
+            output.writeLong(paymentItemData.getItemId());
+        }
+        output.writeBigDecimal(paymentItemData.getItemPrice());
+        output.writeString(paymentItemData.getItemName());
+        output.writeInt(paymentItemData.getItemQuantity());
+    }
+
+    private PaymentItemData readPaymentItem(EntityInput input) {
+        PaymentItemData paymentItemData = new PaymentItemData();
+        paymentItemData.setItemId(input.readBoolean() ? input.readLong() : null);
+        paymentItemData.setItemPrice(input.readBigDecimal());
+        paymentItemData.setItemName(input.readString());
+        paymentItemData.setItemQuantity(input.readInt());
+        return paymentItemData;
+    }
+
+    private void writeTrustScoreNodeResult(EntityOutput output, TrustScoreNodeResultData trustScoreNodeResultData) {
+        output.writeHash(trustScoreNodeResultData.getTrustScoreNodeHash());
+        output.writeSignature(trustScoreNodeResultData.getTrustScoreNodeSignature());
+        output.writeBoolean(trustScoreNodeResultData.isValid());
+    }
+
+    private TrustScoreNodeResultData readTrustScoreNodeResult(EntityInput input) {
+        Hash trustScoreNodeHash = input.readHash();
+        SignatureData trustScoreNodeSignature = input.readSignature();
+        TrustScoreNodeResultData trustScoreNodeResultData = new TrustScoreNodeResultData(trustScoreNodeHash, input.readBoolean());
+        trustScoreNodeResultData.setTrustScoreNodeSignature(trustScoreNodeSignature);
+        return trustScoreNodeResultData;
+    }
+
+    private void writeTransactionTrustScoreData(EntityOutput output, TransactionTrustScoreData transactionTrustScoreData) {
+        output.writeBoolean(transactionTrustScoreData.getTrustScore() != null);
+        if (transactionTrustScoreData.getTrustScore() != null) {
+            output.writeDouble(transactionTrustScoreData.getTrustScore());
+        }
+        output.writeHash(transactionTrustScoreData.getTrustScoreNodeHash());
+        output.writeSignature(transactionTrustScoreData.getTrustScoreNodeSignature());
+    }
+
+    private TransactionTrustScoreData readTransactionTrustScoreData(EntityInput input) {
+        TransactionTrustScoreData transactionTrustScoreData = newInstance(transactionTrustScoreDataConstructor);
+        transactionTrustScoreData.setTrustScore(input.readBoolean() ? input.readDouble() : null);
+        transactionTrustScoreData.setTrustScoreNodeHash(input.readHash());
+        transactionTrustScoreData.setTrustScoreNodeSignature(input.readSignature());
+        return transactionTrustScoreData;
+    }
+
+    private static <V> void setIfPresent(V value, Consumer<V> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.TransactionDspVote;
+
+import java.lang.reflect.Constructor;
+
+public class TransactionDspVoteCodec extends EntityCodec<TransactionDspVote> {
+
+    private static final byte CODEC_ID = 6;
+    private static final byte VERSION = 1;
+    private static final Constructor<TransactionDspVote> transactionDspVoteConstructor = getDeclaredConstructor(TransactionDspVote.class);
+
+    @Override
+    protected byte getCodecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    protected byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected boolean isEncodable(TransactionDspVote transactionDspVote) {
+        return transactionDspVote.getClass() == TransactionDspVote.class;
+    }
+
+    @Override
+    protected void write(TransactionDspVote transactionDspVote, EntityOutput output) {
+        output.writeHash(transactionDspVote.getTransactionHash());
+        output.writeBoolean(transactionDspVote.isValidTransaction());
+        output.writeHash(transactionDspVote.getVoterDspHash());
+        output.writeSignature(transactionDspVote.getSignature());
+    }
+
+    @Override
+    protected TransactionDspVote read(byte version, EntityInput input) {
+        TransactionDspVote transactionDspVote = newInstance(transactionDspVoteConstructor);
+        transactionDspVote.setTransactionHash(input.readHash());
+        transactionDspVote.setValidTransaction(input.readBoolean());
+        transactionDspVote.setVoterDspHash(input.readHash());
+        transactionDspVote.setSignature(input.readSignature());
+        return transactionDspVote;
+    }
+}
@@ -0,0 +1,31 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.TransactionIndexData;
+
+public class TransactionIndexDataCodec extends EntityCodec<TransactionIndexData> {
+
+    private static final byte CODEC_ID = 2;
+    private static final byte VERSION = 1;
+
+    @Override
+    protected byte getCodecId() {
+        return CODEC_ID;
+    }
+
+    @Override
+    protected byte getVersion() {
+        return VERSION;
+    }
+
+    @Override
+    protected void write(TransactionIndexData transactionIndexData, EntityOutput output) {
+        output.writeHash(transactionIndexData.getTransactionHash());
+        output.writeLong(transactionIndexData.getIndex());
+        output.writeBytes(transactionIndexData.getAccumulatedHash());
+    }
+
+    @Override
+    protected TransactionIndexData read(byte version, EntityInput input) {
+        return new TransactionIndexData(input.readHash(), input.readLong(), input.readBytes());
+    }
+}
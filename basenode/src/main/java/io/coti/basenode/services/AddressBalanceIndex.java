@@ -0,0 +1,193 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.BaseTransactionData;
+import io.coti.basenode.data.Hash;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static io.coti.basenode.services.TransactionHelper.CURRENCY_SCALE;
+
+@Slf4j
+public class AddressBalanceIndex {
+
+    private final Map<Hash, AddressBalance> addressBalances = new ConcurrentHashMap<>();
+    private final ReentrantLock[] stripeLocks;
+    private final int stripeMask;
+
+    public AddressBalanceIndex(int numberOfStripes) {
+        int stripes = Integer.highestOneBit(Math.max(numberOfStripes - 1, 1)) << 1;
+        stripeLocks = new ReentrantLock[stripes];
+        for (int stripe = 0; stripe < stripes; stripe++) {
+            stripeLocks[stripe] = new ReentrantLock();
+        }
+        stripeMask = stripes - 1;
+    }
+
+    public static long toUnits(BigDecimal amount) {
+        return amount.movePointRight(CURRENCY_SCALE).longValueExact();
+    }
+
+    public static BigDecimal toBigDecimal(long units) {
+        BigDecimal amount = BigDecimal.valueOf(units, CURRENCY_SCALE).stripTrailingZeros();
+        return amount.scale() < 0 ? amount.setScale(0) : amount;
+    }
+
+    public boolean checkAndAddToPreBalance(List<BaseTransactionData> baseTransactions) {
+        int size = baseTransactions.size();
+        Hash[] addressHashes = new Hash[size];
+        long[] amounts = new long[size];
+        int[] stripes = new int[size];
+        for (int i = 0; i < size; i++) {
+            BaseTransactionData baseTransactionData = baseTransactions.get(i);
+            addressHashes[i] = baseTransactionData.getAddressHash();
+            amounts[i] = toUnits(baseTransactionData.getAmount());
+            stripes[i] = getStripe(addressHashes[i]);
+        }
+        // Stripes are always locked in ascending order, so concurrent reservations can not deadlock
+        Arrays.sort(stripes);
+        lockStripes(stripes);
+        try {
+            for (int i = 0; i < size; i++) {
+                AddressBalance addressBalance = addressBalances.get(addressHashes[i]);
+                long balance = addressBalance != null ? addressBalance.balance : 0;
+                long preBalance = (addressBalance != null ? addressBalance.preBalance : 0) + getPreviousAmounts(addressHashes, amounts, i);
+                if (amounts[i] + balance < 0) {
+                    log.error("Error in Balance check. Address {}  amount {} current Balance {} ", addressHashes[i],
+                            toBigDecimal(amounts[i]), toBigDecimal(balance));
+                    return false;
+                }
+                if (amounts[i] + preBalance < 0) {
+                    log.error("Error in PreBalance check. Address {}  amount {} current PreBalance {} ", addressHashes[i],
+                            toBigDecimal(amounts[i]), toBigDecimal(preBalance));
+                    return false;
+                }
+            }
+            for (int i = 0; i < size; i++) {
+                AddressBalance addressBalance = addressBalances.computeIfAbsent(addressHashes[i], addressHash -> new AddressBalance());
+                addressBalance.preBalance = Math.addExact(addressBalance.preBalance, amounts[i]);
+            }
+            return true;
+        } finally {
+            unlockStripes(stripes);
+        }
+    }
+
+    public void addToBalance(Hash addressHash, long amount) {
+        ReentrantLock lock = stripeLocks[getStripe(addressHash)];
+        lock.lock();
+        try {
+            AddressBalance addressBalance = addressBalances.computeIfAbsent(addressHash, hash -> new AddressBalance());
+            addressBalance.balance = Math.addExact(addressBalance.balance, amount);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void addToPreBalance(Hash addressHash, long amount, boolean createIfAbsent) {
+        ReentrantLock lock = stripeLocks[getStripe(addressHash)];
+        lock.lock();
+        try {
+            AddressBalance addressBalance = createIfAbsent ? addressBalances.computeIfAbsent(addressHash, hash -> new AddressBalance()) : addressBalances.get(addressHash);
+            if (addressBalance != null) {
+                addressBalance.preBalance = Math.addExact(addressBalance.preBalance, amount);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean putBalanceIfAbsent(Hash addressHash, long balance) {
+        ReentrantLock lock = stripeLocks[getStripe(addressHash)];
+        lock.lock();
+        try {
+            if (addressBalances.containsKey(addressHash)) {
+                return false;
+            }
+            AddressBalance addressBalance = new AddressBalance();
+            addressBalance.balance = balance;
+            addressBalances.put(addressHash, addressBalance);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void copyBalancesToPreBalances() {
+        addressBalances.forEach((addressHash, addressBalance) -> {
+            ReentrantLock lock = stripeLocks[getStripe(addressHash)];
+            lock.lock();
+            try {
+                addressBalance.preBalance = addressBalance.balance;
+            } finally {
+                lock.unlock();
+            }
+        });
+    }
+
+    public long getBalance(Hash addressHash) {
+        AddressBalance addressBalance = addressBalances.get(addressHash);
+        return addressBalance != null ? addressBalance.balance : 0;
+    }
+
+    public long getPreBalance(Hash addressHash) {
+        AddressBalance addressBalance = addressBalances.get(addressHash);
+        return addressBalance != null ? addressBalance.preBalance : 0;
+    }
+
+    public void forEach(BalanceConsumer balanceConsumer) {
+        addressBalances.forEach((addressHash, addressBalance) -> balanceConsumer.accept(addressHash, addressBalance.balance, addressBalance.preBalance));
+    }
+
+    public int size() {
+        return addressBalances.size();
+    }
+
+    private long getPreviousAmounts(Hash[] addressHashes, long[] amounts, int index) {
+        long previousAmounts = 0;
+        for (int i = 0; i < index; i++) {
+            if (addressHashes[i].equals(addressHashes[index])) {
+                previousAmounts += amounts[i];
+            }
+        }
+        return previousAmounts;
+    }
+
+    private int getStripe(Hash addressHash) {
+        int hashCode = addressHash.hashCode();
+        return (hashCode ^ (hashCode >>> 16)) & stripeMask;
+    }
+
+    private void lockStripes(int[] sortedStripes) {
+        for (int i = 0; i < sortedStripes.length; i++) {
+            if (i == 0 || sortedStripes[i] != sortedStripes[i - 1]) {
+                stripeLocks[sortedStripes[i]].lock();
+            }
+        }
+    }
+
+    private void unlockStripes(int[] sortedStripes) {
+        for (int i = sortedStripes.length - 1; i >= 0; i--) {
+            if (i == 0 || sortedStripes[i] != sortedStripes[i - 1]) {
+                stripeLocks[sortedStripes[i]].unlock();
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface BalanceConsumer {
+
+        void accept(Hash addressHash, long balance, long preBalance);
+    }
+
+    private static class AddressBalance {
+
+        private volatile long balance;
+        private volatile long preBalance;
+    }
+}
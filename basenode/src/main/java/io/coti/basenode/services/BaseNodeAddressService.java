@@ -20,7 +20,6 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.util.SerializationUtils;
 import org.springframework.web.multipart.MultipartFile;
 
 import javax.servlet.http.HttpServletResponse;
@@ -97,7 +96,7 @@ public class BaseNodeAddressService implements IAddressService {
             RocksIterator iterator = addresses.getIterator();
             iterator.seekToFirst();
             while (iterator.isValid()) {
-                AddressData addressData = (AddressData) SerializationUtils.deserialize(iterator.value());
+                AddressData addressData = addresses.deserialize(iterator.value());
                 addressData.setHash(new Hash(iterator.key()));
                 output.write(new CustomGson().getInstance().toJson(new AddressResponseData(addressData)));
                 iterator.next();
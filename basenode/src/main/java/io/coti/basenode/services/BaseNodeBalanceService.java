@@ -7,55 +7,47 @@ import io.coti.basenode.http.GetBalancesRequest;
 import io.coti.basenode.http.GetBalancesResponse;
 import io.coti.basenode.services.interfaces.IBalanceService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
 @Service
 public class BaseNodeBalanceService implements IBalanceService {
 
-    protected Map<Hash, BigDecimal> balanceMap;
-    protected Map<Hash, BigDecimal> preBalanceMap;
+    @Value("${balance.lock.stripes}")
+    private int balanceLockStripes;
+    protected AddressBalanceIndex addressBalanceIndex;
 
     public void init() {
-        balanceMap = new ConcurrentHashMap<>();
-        preBalanceMap = new ConcurrentHashMap<>();
+        addressBalanceIndex = new AddressBalanceIndex(balanceLockStripes);
         log.info("{} is up", this.getClass().getSimpleName());
     }
 
     @Override
-    public synchronized boolean checkBalancesAndAddToPreBalance(List<BaseTransactionData> baseTransactions) {
-        Map<Hash, BigDecimal> balanceInChangeMap = new HashMap<>();
-        Map<Hash, BigDecimal> preBalanceInChangeMap = new HashMap<>();
-        for (BaseTransactionData baseTransactionData : baseTransactions) {
-
-            BigDecimal amount = baseTransactionData.getAmount();
-            Hash addressHash = baseTransactionData.getAddressHash();
-            balanceInChangeMap.putIfAbsent(addressHash, balanceMap.containsKey(addressHash) ? balanceMap.get(addressHash) : BigDecimal.ZERO);
-            preBalanceInChangeMap.putIfAbsent(addressHash, preBalanceMap.containsKey(addressHash) ? preBalanceMap.get(addressHash) : BigDecimal.ZERO);
-            if (amount.add(balanceInChangeMap.get(addressHash)).signum() < 0) {
-                log.error("Error in Balance check. Address {}  amount {} current Balance {} ", addressHash,
-                        amount, balanceInChangeMap.get(addressHash));
-                return false;
+    public boolean checkBalancesAndAddToPreBalance(List<BaseTransactionData> baseTransactions) {
+        if (!addressBalanceIndex.checkAndAddToPreBalance(baseTransactions)) {
+            return false;
+        }
+        for (int i = 0; i < baseTransactions.size(); i++) {
+            Hash addressHash = baseTransactions.get(i).getAddressHash();
+            if (isFirstOccurrence(baseTransactions, addressHash, i)) {
+                continueHandleBalanceChanges(addressHash);
             }
-            if (amount.add(preBalanceInChangeMap.get(addressHash)).signum() < 0) {
-                log.error("Error in PreBalance check. Address {}  amount {} current PreBalance {} ", addressHash,
-                        amount, preBalanceInChangeMap.get(addressHash));
+        }
+        return true;
+    }
+
+    private boolean isFirstOccurrence(List<BaseTransactionData> baseTransactions, Hash addressHash, int index) {
+        for (int i = 0; i < index; i++) {
+            if (baseTransactions.get(i).getAddressHash().equals(addressHash)) {
                 return false;
             }
-            preBalanceInChangeMap.put(addressHash, amount.add(preBalanceInChangeMap.get(addressHash)));
         }
-        preBalanceInChangeMap.forEach((addressHash, preBalanceInChange) -> {
-            preBalanceMap.put(addressHash, preBalanceInChange);
-            continueHandleBalanceChanges(addressHash);
-        });
         return true;
     }
 
@@ -67,12 +59,8 @@ public class BaseNodeBalanceService implements IBalanceService {
     @Override
     public ResponseEntity<GetBalancesResponse> getBalances(GetBalancesRequest getBalancesRequest) {
         GetBalancesResponse getBalancesResponse = new GetBalancesResponse();
-        BigDecimal balance;
-        BigDecimal preBalance;
         for (Hash hash : getBalancesRequest.getAddresses()) {
-            balance = balanceMap.containsKey(hash) ? balanceMap.get(hash) : new BigDecimal(0);
-            preBalance = preBalanceMap.containsKey(hash) ? preBalanceMap.get(hash) : new BigDecimal(0);
-            getBalancesResponse.addAddressBalanceToResponse(hash, balance, preBalance);
+            getBalancesResponse.addAddressBalanceToResponse(hash, getBalanceByAddress(hash), getPreBalanceByAddress(hash));
         }
         return ResponseEntity.status(HttpStatus.OK).body(getBalancesResponse);
     }
@@ -80,20 +68,18 @@ public class BaseNodeBalanceService implements IBalanceService {
     @Override
     public void rollbackBaseTransactions(TransactionData transactionData) {
         transactionData.getBaseTransactions().forEach(baseTransactionData ->
-                preBalanceMap.computeIfPresent(baseTransactionData.getAddressHash(), (addressHash, amount) -> amount.add(baseTransactionData.getAmount().negate()))
+                addressBalanceIndex.addToPreBalance(baseTransactionData.getAddressHash(), -AddressBalanceIndex.toUnits(baseTransactionData.getAmount()), false)
         );
     }
 
     @Override
     public void validateBalances() {
-        preBalanceMap.forEach((hash, bigDecimal) -> {
-            if (bigDecimal.signum() == -1) {
+        addressBalanceIndex.forEach((hash, balance, preBalance) -> {
+            if (preBalance < 0) {
                 log.error("PreBalance Validation failed!");
                 throw new IllegalArgumentException("ClusterStamp or database are corrupted.");
             }
-        });
-        balanceMap.forEach((hash, bigDecimal) -> {
-            if (bigDecimal.signum() == -1) {
+            if (balance < 0) {
                 log.error("Balance Validation failed!");
                 throw new IllegalArgumentException("ClusterStamp or database are corrupted.");
             }
@@ -103,41 +89,36 @@ public class BaseNodeBalanceService implements IBalanceService {
 
     @Override
     public void updateBalanceFromClusterStamp(Hash addressHash, BigDecimal amount) {
-        if (balanceMap.containsKey(addressHash)) {
+        if (!addressBalanceIndex.putBalanceIfAbsent(addressHash, AddressBalanceIndex.toUnits(amount))) {
             log.error("The address {} was already found in the clusterstamp", addressHash);
             throw new IllegalArgumentException(String.format("The address %s was already found in the clusterstamp", addressHash));
         }
-        balanceMap.put(addressHash, amount);
         log.trace("Loading from clusterstamp into inMem balance+preBalance address {} and amount {}", addressHash, amount);
     }
 
     @Override
     public void updatePreBalanceFromClusterStamp() {
-        preBalanceMap.putAll(balanceMap);
+        addressBalanceIndex.copyBalancesToPreBalances();
     }
 
     @Override
     public void updateBalance(Hash addressHash, BigDecimal amount) {
-        balanceMap.computeIfPresent(addressHash, (currentHash, currentAmount) ->
-                currentAmount.add(amount));
-        balanceMap.putIfAbsent(addressHash, amount);
+        addressBalanceIndex.addToBalance(addressHash, AddressBalanceIndex.toUnits(amount));
     }
 
     @Override
     public void updatePreBalance(Hash addressHash, BigDecimal amount) {
-        preBalanceMap.computeIfPresent(addressHash, (currentHash, currentAmount) ->
-                currentAmount.add(amount));
-        preBalanceMap.putIfAbsent(addressHash, amount);
+        addressBalanceIndex.addToPreBalance(addressHash, AddressBalanceIndex.toUnits(amount), true);
     }
 
     @Override
     public BigDecimal getBalanceByAddress(Hash addressHash) {
-        return balanceMap.containsKey(addressHash) ? balanceMap.get(addressHash) : BigDecimal.ZERO;
+        return AddressBalanceIndex.toBigDecimal(addressBalanceIndex.getBalance(addressHash));
     }
 
     @Override
     public BigDecimal getPreBalanceByAddress(Hash addressHash) {
-        return preBalanceMap.containsKey(addressHash) ? preBalanceMap.get(addressHash) : BigDecimal.ZERO;
+        return AddressBalanceIndex.toBigDecimal(addressBalanceIndex.getPreBalance(addressHash));
     }
 
 }
\ No newline at end of file
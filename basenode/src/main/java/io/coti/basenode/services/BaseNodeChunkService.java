@@ -3,6 +3,8 @@ package io.coti.basenode.services;
 import io.coti.basenode.communication.JacksonSerializer;
 import io.coti.basenode.data.interfaces.IPropagatable;
 import io.coti.basenode.exceptions.ChunkException;
+import io.coti.basenode.http.StreamFraming;
+import io.coti.basenode.http.StreamRecordReader;
 import io.coti.basenode.services.interfaces.IChunkService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -10,7 +12,6 @@ import org.springframework.stereotype.Service;
 import org.springframework.web.client.ResponseExtractor;
 
 import java.io.PrintWriter;
-import java.util.Arrays;
 import java.util.function.Consumer;
 
 @Service
@@ -44,18 +45,10 @@ public class BaseNodeChunkService implements IChunkService {
     public ResponseExtractor getResponseExtractor(Consumer<IPropagatable> consumer, int maxBufferSize) {
         return response -> {
             try {
-                byte[] buf = new byte[maxBufferSize];
-                int offset = 0;
-                int n;
-                while ((n = response.getBody().read(buf, offset, buf.length - offset)) > 0) {
-                    IPropagatable chunkedData = jacksonSerializer.deserialize(buf);
-                    if (chunkedData != null) {
-                        consumer.accept(chunkedData);
-                        Arrays.fill(buf, 0, offset + n, (byte) 0);
-                        offset = 0;
-                    } else {
-                        offset += n;
-                    }
+                StreamRecordReader recordReader = new StreamRecordReader(StreamFraming.getBody(response), StreamFraming.isLengthPrefixed(response.getHeaders()), maxBufferSize);
+                byte[] record;
+                while ((record = recordReader.read()) != null) {
+                    consumer.accept(jacksonSerializer.deserialize(record));
                 }
                 return null;
             } catch (Exception e) {
@@ -1,26 +1,37 @@
 package io.coti.basenode.services;
 
+import io.coti.basenode.crypto.AccumulatedHashDigest;
 import io.coti.basenode.data.*;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
 import io.coti.basenode.model.TransactionIndexes;
 import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.interfaces.IBalanceService;
 import io.coti.basenode.services.interfaces.IConfirmationService;
 import io.coti.basenode.services.interfaces.ITransactionHelper;
 import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.WriteBatch;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Slf4j
 @Service
 public class BaseNodeConfirmationService implements IConfirmationService {
 
+    private static final ConfirmationData DSP_CONSENSUS_RESULTS_AVAILABLE = new TccInfo(null, 0, null);
+    private static final long FAILED_CONFIRMATION_BATCH_RETRY_DELAY_MILLIS = 1000;
+
     @Autowired
     private IBalanceService balanceService;
     @Autowired
@@ -31,8 +42,17 @@ public class BaseNodeConfirmationService implements IConfirmationService {
     private TransactionIndexes transactionIndexes;
     @Autowired
     private Transactions transactions;
+    @Autowired
+    private IDatabaseConnector databaseConnector;
+    @Value("${confirmation.batch.max.size}")
+    private int maxConfirmationBatchSize;
+    @Value("${confirmation.reorder.buffer.capacity}")
+    private int reorderBufferCapacity;
+    @Value("${confirmation.gap.max.age.millis}")
+    private long maxGapAgeInMillis;
     private BlockingQueue<ConfirmationData> confirmationQueue;
-    private Map<Long, DspConsensusResult> waitingDspConsensusResults = new ConcurrentHashMap<>();
+    private DspConsensusResultReorderBuffer dspConsensusResultReorderBuffer;
+    private final AtomicBoolean dspConsensusResultsSignaled = new AtomicBoolean();
     private Map<Long, TransactionData> waitingMissingTransactionIndexes = new ConcurrentHashMap<>();
     private AtomicLong totalConfirmed = new AtomicLong(0);
     private AtomicLong trustChainConfirmed = new AtomicLong(0);
@@ -41,6 +61,7 @@ public class BaseNodeConfirmationService implements IConfirmationService {
 
     public void init() {
         confirmationQueue = new LinkedBlockingQueue<>();
+        dspConsensusResultReorderBuffer = new DspConsensusResultReorderBuffer(reorderBufferCapacity, 0);
         confirmedTransactionsThread = new Thread(this::updateConfirmedTransactions);
         confirmedTransactionsThread.start();
         log.info("{} is up", this.getClass().getSimpleName());
@@ -49,7 +70,7 @@ public class BaseNodeConfirmationService implements IConfirmationService {
     @Override
     public void setLastDspConfirmationIndex(Map<Long, ReducedExistingTransactionData> indexToTransactionMap) {
         log.info("Started to set last dsp confirmation index");
-        byte[] accumulatedHash = "GENESIS".getBytes();
+        AccumulatedHashDigest accumulatedHashDigest = new AccumulatedHashDigest("GENESIS".getBytes());
         TransactionIndexData transactionIndexData = new TransactionIndexData(new Hash(-1), -1, "GENESIS".getBytes());
         TransactionIndexData nextTransactionIndexData;
         try {
@@ -65,8 +86,8 @@ public class BaseNodeConfirmationService implements IConfirmationService {
                     log.error("Null transaction data found for index {}", i);
                     return;
                 }
-                accumulatedHash = transactionIndexService.getAccumulatedHash(accumulatedHash, reducedExistingTransactionData.getHash(), i);
-                if (!Arrays.equals(accumulatedHash, nextTransactionIndexData.getAccumulatedHash())) {
+                accumulatedHashDigest.update(reducedExistingTransactionData.getHash(), i);
+                if (!accumulatedHashDigest.matches(nextTransactionIndexData.getAccumulatedHash())) {
                     log.error("Incorrect accumulated hash");
                     return;
                 }
@@ -81,6 +102,8 @@ public class BaseNodeConfirmationService implements IConfirmationService {
             }
         } finally {
             transactionIndexService.setLastTransactionIndexData(transactionIndexData);
+            dspConsensusResultReorderBuffer.setHeadIndex(transactionIndexData.getIndex() + 1);
+            wakeUpConfirmedTransactionsThread();
             log.info("Finished to set last dsp confirmation index: {}", transactionIndexData.getIndex());
         }
     }
@@ -88,80 +111,221 @@ public class BaseNodeConfirmationService implements IConfirmationService {
     private void updateConfirmedTransactions() {
         while (!Thread.currentThread().isInterrupted()) {
             try {
-                ConfirmationData confirmationData = confirmationQueue.take();
-                updateConfirmedTransactionHandler(confirmationData);
+                List<TccInfo> tccInfos = new ArrayList<>();
+                List<DspConsensusResult> dspConsensusResults = new ArrayList<>();
+                addConfirmationData(tccInfos, dspConsensusResults, confirmationQueue.take());
+                List<ConfirmationData> confirmationBatch = new ArrayList<>();
+                confirmationQueue.drainTo(confirmationBatch, maxConfirmationBatchSize - 1);
+                confirmationBatch.forEach(confirmationData -> addConfirmationData(tccInfos, dspConsensusResults, confirmationData));
+                dspConsensusResultsSignaled.set(false);
+                drainDspConsensusResults(dspConsensusResults, Math.max(maxConfirmationBatchSize - tccInfos.size() - dspConsensusResults.size(), 1));
+                if (!updateConfirmedTransactionsHandler(tccInfos, dspConsensusResults)) {
+                    Thread.sleep(FAILED_CONFIRMATION_BATCH_RETRY_DELAY_MILLIS);
+                }
+                signalDspConsensusResults();
             } catch (InterruptedException e) {
                 Thread.currentThread().interrupt();
             }
         }
-        LinkedList<ConfirmationData> remainingConfirmedTransactions = new LinkedList<>();
-        confirmationQueue.drainTo(remainingConfirmedTransactions);
-        if (!remainingConfirmedTransactions.isEmpty()) {
-            log.info("Please wait to process {} remaining confirmed transaction(s)", remainingConfirmedTransactions.size());
-            remainingConfirmedTransactions.forEach(this::updateConfirmedTransactionHandler);
+        List<ConfirmationData> remainingConfirmationData = new ArrayList<>();
+        confirmationQueue.drainTo(remainingConfirmationData);
+        List<TccInfo> remainingTccInfos = new ArrayList<>();
+        List<DspConsensusResult> remainingDspConsensusResults = new ArrayList<>();
+        remainingConfirmationData.forEach(confirmationData -> addConfirmationData(remainingTccInfos, remainingDspConsensusResults, confirmationData));
+        drainDspConsensusResults(remainingDspConsensusResults, Integer.MAX_VALUE);
+        if (!remainingTccInfos.isEmpty() || !remainingDspConsensusResults.isEmpty()) {
+            log.info("Please wait to process {} remaining confirmation(s)", remainingTccInfos.size() + remainingDspConsensusResults.size());
+            for (int i = 0; i < remainingTccInfos.size(); i += maxConfirmationBatchSize) {
+                updateConfirmedTransactionsHandler(remainingTccInfos.subList(i, Math.min(i + maxConfirmationBatchSize, remainingTccInfos.size())), Collections.emptyList());
+            }
+            for (int i = 0; i < remainingDspConsensusResults.size(); i += maxConfirmationBatchSize) {
+                updateConfirmedTransactionsHandler(Collections.emptyList(), remainingDspConsensusResults.subList(i, Math.min(i + maxConfirmationBatchSize, remainingDspConsensusResults.size())));
+            }
         }
     }
 
-    private void updateConfirmedTransactionHandler(ConfirmationData confirmationData) {
-        transactions.lockAndGetByHash(confirmationData.getHash(), transactionData -> {
-            if (confirmationData instanceof TccInfo) {
-                transactionData.setTrustChainConsensus(true);
-                transactionData.setTrustChainConsensusTime(((TccInfo) confirmationData).getTrustChainConsensusTime());
-                transactionData.setTrustChainTrustScore(((TccInfo) confirmationData).getTrustChainTrustScore());
-                trustChainConfirmed.incrementAndGet();
-            } else if (confirmationData instanceof DspConsensusResult) {
-                transactionData.setDspConsensusResult((DspConsensusResult) confirmationData);
-                if (!insertNewTransactionIndex(transactionData)) {
-                    return;
+    private void addConfirmationData(List<TccInfo> tccInfos, List<DspConsensusResult> dspConsensusResults, ConfirmationData confirmationData) {
+        if (confirmationData instanceof DspConsensusResult) {
+            dspConsensusResults.add((DspConsensusResult) confirmationData);
+        } else if (confirmationData != DSP_CONSENSUS_RESULTS_AVAILABLE) {
+            tccInfos.add((TccInfo) confirmationData);
+        }
+    }
+
+    private void drainDspConsensusResults(List<DspConsensusResult> dspConsensusResults, int maxDspConsensusResults) {
+        TransactionIndexData lastTransactionIndexData = transactionIndexService.getLastTransactionIndexData();
+        int drainedResults = 0;
+        if (isInsertedIndexWaiting(lastTransactionIndexData)) {
+            drainedResults = dspConsensusResultReorderBuffer.drainUpTo(lastTransactionIndexData.getIndex(), dspConsensusResults, maxDspConsensusResults);
+        }
+        dspConsensusResultReorderBuffer.drainTo(dspConsensusResults, maxDspConsensusResults - drainedResults);
+    }
+
+    private boolean isInsertedIndexWaiting(TransactionIndexData lastTransactionIndexData) {
+        return lastTransactionIndexData != null && dspConsensusResultReorderBuffer.getSize() > 0
+                && lastTransactionIndexData.getIndex() >= dspConsensusResultReorderBuffer.getHeadIndex();
+    }
+
+    private void signalDspConsensusResults() {
+        if (dspConsensusResultReorderBuffer.isHeadAvailable() || isInsertedIndexWaiting(transactionIndexService.getLastTransactionIndexData())) {
+            wakeUpConfirmedTransactionsThread();
+        }
+    }
+
+    private void wakeUpConfirmedTransactionsThread() {
+        if (dspConsensusResultsSignaled.compareAndSet(false, true)) {
+            confirmationQueue.offer(DSP_CONSENSUS_RESULTS_AVAILABLE);
+        }
+    }
+
+    private boolean updateConfirmedTransactionsHandler(List<TccInfo> tccInfos, List<DspConsensusResult> dspConsensusResults) {
+        Map<Hash, List<TccInfo>> tccInfosByTransactionHash = new LinkedHashMap<>();
+        tccInfos.forEach(tccInfo -> tccInfosByTransactionHash.computeIfAbsent(tccInfo.getHash(), hash -> new ArrayList<>()).add(tccInfo));
+        Set<Hash> transactionHashes = new LinkedHashSet<>();
+        dspConsensusResults.forEach(dspConsensusResult -> transactionHashes.add(dspConsensusResult.getHash()));
+        transactionHashes.addAll(tccInfosByTransactionHash.keySet());
+        List<TransactionData> dspConfirmedTransactions = new ArrayList<>();
+        List<TransactionData> confirmedTransactions = new ArrayList<>();
+        List<DspConsensusResult> unindexedDspConsensusResults = new ArrayList<>();
+        AtomicInteger trustChainConfirmedInBatch = new AtomicInteger();
+        AtomicBoolean isBatchStored = new AtomicBoolean();
+
+        transactions.lockAndGetByHashes(transactionHashes, transactionDataByHash -> {
+            try (WriteBatch writeBatch = new WriteBatch()) {
+                Set<Hash> confirmedTransactionHashes = new HashSet<>();
+                transactionDataByHash.forEach((transactionHash, transactionData) -> {
+                    if (transactionData != null && transactionHelper.isConfirmed(transactionData)) {
+                        confirmedTransactionHashes.add(transactionHash);
+                    }
+                });
+                Set<Hash> indexedTransactionHashes = insertNewTransactionIndexes(dspConsensusResults, transactionDataByHash, writeBatch, dspConfirmedTransactions, unindexedDspConsensusResults);
+                transactionHashes.forEach(transactionHash -> {
+                    TransactionData transactionData = transactionDataByHash.get(transactionHash);
+                    if (transactionData == null) {
+                        log.error("Confirmed transaction {} is not found", transactionHash);
+                        return;
+                    }
+                    List<TccInfo> transactionTccInfos = tccInfosByTransactionHash.getOrDefault(transactionHash, Collections.emptyList());
+                    trustChainConfirmedInBatch.addAndGet(transactionTccInfos.size());
+                    updateConfirmedTransaction(transactionData, transactionTccInfos, indexedTransactionHashes.contains(transactionHash),
+                            confirmedTransactionHashes.contains(transactionHash), writeBatch, confirmedTransactions);
+                });
+                if (databaseConnector.putBatch(writeBatch)) {
+                    transactionDataByHash.keySet().forEach(transactions::invalidate);
+                    transactionIndexService.commitTransactionIndexes();
+                    isBatchStored.set(true);
                 }
-                if (transactionHelper.isDspConfirmed(transactionData)) {
-                    continueHandleDSPConfirmedTransaction(transactionData);
-                    dspConfirmed.incrementAndGet();
+            } finally {
+                if (!isBatchStored.get()) {
+                    transactionIndexService.discardTransactionIndexes();
                 }
             }
-            if (transactionHelper.isConfirmed(transactionData)) {
-                processConfirmedTransaction(transactionData);
+        });
+
+        if (!isBatchStored.get()) {
+            log.error("Failed to store a batch of {} confirmation(s). Retrying", tccInfos.size() + dspConsensusResults.size());
+            confirmationQueue.addAll(tccInfos);
+            if (!dspConsensusResults.isEmpty()) {
+                long firstIndex = dspConsensusResults.stream().mapToLong(DspConsensusResult::getIndex).min().getAsLong();
+                dspConsensusResultReorderBuffer.setHeadIndex(Math.min(firstIndex, dspConsensusResultReorderBuffer.getHeadIndex()));
+                dspConsensusResults.forEach(dspConsensusResultReorderBuffer::offer);
+            }
+            return false;
+        }
+        trustChainConfirmed.addAndGet(trustChainConfirmedInBatch.get());
+        dspConfirmed.addAndGet(dspConfirmedTransactions.size());
+
+        if (!unindexedDspConsensusResults.isEmpty()) {
+            long nextIndex = transactionIndexService.getLastTransactionIndexData().getIndex() + 1;
+            log.warn("{} dsp consensus result(s) are waiting for transaction index {}", unindexedDspConsensusResults.size(), nextIndex);
+            dspConsensusResultReorderBuffer.setHeadIndex(nextIndex);
+            unindexedDspConsensusResults.forEach(dspConsensusResultReorderBuffer::offer);
+        }
+        dspConfirmedTransactions.forEach(this::continueHandleDSPConfirmedTransaction);
+        processConfirmedTransactions(confirmedTransactions);
+        return true;
+    }
+
+    private Set<Hash> insertNewTransactionIndexes(List<DspConsensusResult> dspConsensusResults, Map<Hash, TransactionData> transactionDataByHash, WriteBatch writeBatch,
+                                                  List<TransactionData> dspConfirmedTransactions, List<DspConsensusResult> unindexedDspConsensusResults) {
+        List<TransactionData> dspConsensusTransactions = new ArrayList<>();
+        List<DspConsensusResult> previousDspConsensusResults = new ArrayList<>();
+        dspConsensusResults.forEach(dspConsensusResult -> {
+            TransactionData transactionData = transactionDataByHash.get(dspConsensusResult.getHash());
+            if (transactionData != null) {
+                previousDspConsensusResults.add(transactionData.getDspConsensusResult());
+                transactionData.setDspConsensusResult(dspConsensusResult);
+                dspConsensusTransactions.add(transactionData);
             }
-            transactions.put(transactionData);
         });
+        Set<Hash> indexedTransactionHashes = new HashSet<>();
+        List<Optional<Boolean>> insertNewTransactionIndexResults = insertNewTransactionIndexes(dspConsensusTransactions, writeBatch);
+        for (int i = 0; i < dspConsensusTransactions.size(); i++) {
+            TransactionData transactionData = dspConsensusTransactions.get(i);
+            Optional<Boolean> optionalInsertNewTransactionIndex = insertNewTransactionIndexResults.get(i);
+            if (optionalInsertNewTransactionIndex.isPresent() && Boolean.TRUE.equals(optionalInsertNewTransactionIndex.get())) {
+                indexedTransactionHashes.add(transactionData.getHash());
+                if (isDspConfirmed(transactionData, true)) {
+                    dspConfirmedTransactions.add(transactionData);
+                }
+            } else {
+                if (optionalInsertNewTransactionIndex.isPresent()) {
+                    unindexedDspConsensusResults.add(transactionData.getDspConsensusResult());
+                }
+                transactionData.setDspConsensusResult(previousDspConsensusResults.get(i));
+            }
+        }
+        return indexedTransactionHashes;
+    }
 
+    protected List<Optional<Boolean>> insertNewTransactionIndexes(List<TransactionData> transactionDataList, WriteBatch writeBatch) {
+        return transactionIndexService.insertNewTransactionIndexes(transactionDataList, writeBatch);
     }
 
-    protected boolean insertNewTransactionIndex(TransactionData transactionData) {
-        Optional<Boolean> optionalInsertNewTransactionIndex = transactionIndexService.insertNewTransactionIndex(transactionData);
-        if (!optionalInsertNewTransactionIndex.isPresent()) {
-            return false;
+    private void updateConfirmedTransaction(TransactionData transactionData, List<TccInfo> tccInfos, boolean isIndexedInBatch, boolean isConfirmed, WriteBatch writeBatch,
+                                            List<TransactionData> confirmedTransactions) {
+        for (TccInfo tccInfo : tccInfos) {
+            transactionData.setTrustChainConsensus(true);
+            transactionData.setTrustChainConsensusTime(tccInfo.getTrustChainConsensusTime());
+            transactionData.setTrustChainTrustScore(tccInfo.getTrustChainTrustScore());
         }
-        Boolean isNewTransactionIndexInserted = optionalInsertNewTransactionIndex.get();
-        DspConsensusResult dspConsensusResult = transactionData.getDspConsensusResult();
-        if (Boolean.FALSE.equals(isNewTransactionIndexInserted)) {
-            waitingDspConsensusResults.put(dspConsensusResult.getIndex(), dspConsensusResult);
-            return false;
-        } else {
-            long index = dspConsensusResult.getIndex() + 1;
-            while (waitingDspConsensusResults.containsKey(index)) {
-                setDspcToTrue(waitingDspConsensusResults.get(index));
-                waitingDspConsensusResults.remove(index);
-                index++;
-            }
-            return true;
+        if (tccInfos.isEmpty() && !isIndexedInBatch) {
+            return;
+        }
+        if (!isConfirmed && transactionData.isTrustChainConsensus() && isDspConfirmed(transactionData, isIndexedInBatch)) {
+            setTransactionConsensusUpdateTime(transactionData);
+            confirmedTransactions.add(transactionData);
+        }
+        transactions.put(writeBatch, transactionData);
+    }
+
+    private boolean isDspConfirmed(TransactionData transactionData, boolean isIndexedInBatch) {
+        if (isIndexedInBatch) {
+            return transactionData.getDspConsensusResult().isDspConsensus();
         }
+        return transactionHelper.isDspConfirmed(transactionData);
     }
 
-    private void processConfirmedTransaction(TransactionData transactionData) {
+    private void setTransactionConsensusUpdateTime(TransactionData transactionData) {
         Instant trustChainConsensusTime = transactionData.getTrustChainConsensusTime();
         Instant dspConsensusTime = transactionData.getDspConsensusResult().getIndexingTime();
         Instant transactionConsensusUpdateTime = trustChainConsensusTime.isAfter(dspConsensusTime) ? trustChainConsensusTime : dspConsensusTime;
         transactionData.setTransactionConsensusUpdateTime(transactionConsensusUpdateTime);
-        transactionData.getBaseTransactions().forEach(baseTransactionData -> balanceService.updateBalance(baseTransactionData.getAddressHash(), baseTransactionData.getAmount()));
-        totalConfirmed.incrementAndGet();
+    }
 
-        transactionData.getBaseTransactions().forEach(baseTransactionData -> {
-            Hash addressHash = baseTransactionData.getAddressHash();
-            balanceService.continueHandleBalanceChanges(addressHash);
-        });
+    private void processConfirmedTransactions(List<TransactionData> confirmedTransactions) {
+        Map<Hash, BigDecimal> balanceChanges = new LinkedHashMap<>();
+        confirmedTransactions.forEach(transactionData ->
+                transactionData.getBaseTransactions().forEach(baseTransactionData ->
+                        balanceChanges.merge(baseTransactionData.getAddressHash(), baseTransactionData.getAmount(), BigDecimal::add)
+                )
+        );
+        balanceChanges.forEach(balanceService::updateBalance);
+        totalConfirmed.addAndGet(confirmedTransactions.size());
+
+        balanceChanges.keySet().forEach(balanceService::continueHandleBalanceChanges);
 
-        continueHandleAddressHistoryChanges(transactionData);
+        confirmedTransactions.forEach(this::continueHandleAddressHistoryChanges);
     }
 
     protected void continueHandleDSPConfirmedTransaction(TransactionData transactionData) {
@@ -259,11 +423,24 @@ public class BaseNodeConfirmationService implements IConfirmationService {
 
     @Override
     public void setDspcToTrue(DspConsensusResult dspConsensusResult) {
-        try {
-            confirmationQueue.put(dspConsensusResult);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
+        if (!dspConsensusResultReorderBuffer.offer(dspConsensusResult)) {
+            confirmationQueue.offer(dspConsensusResult);
+            return;
         }
+        signalDspConsensusResults();
+    }
+
+    @Scheduled(initialDelay = 10000, fixedDelay = 10000)
+    public void checkDspConsensusResultGap() {
+        if (dspConsensusResultReorderBuffer == null || dspConsensusResultReorderBuffer.getSize() == 0) {
+            return;
+        }
+        long gapAgeInMillis = dspConsensusResultReorderBuffer.getGapAgeInMillis();
+        if (gapAgeInMillis > maxGapAgeInMillis) {
+            log.error("Dsp consensus result of index {} is missing for {} ms while {} later result(s) are waiting",
+                    dspConsensusResultReorderBuffer.getHeadIndex(), gapAgeInMillis, dspConsensusResultReorderBuffer.getSize());
+        }
+        wakeUpConfirmedTransactionsThread();
     }
 
     @Override
@@ -281,6 +458,16 @@ public class BaseNodeConfirmationService implements IConfirmationService {
         return dspConfirmed.get();
     }
 
+    @Override
+    public int getWaitingDspConsensusResults() {
+        return dspConsensusResultReorderBuffer.getSize();
+    }
+
+    @Override
+    public long getDspConsensusResultGapAgeInMillis() {
+        return dspConsensusResultReorderBuffer.getGapAgeInMillis();
+    }
+
     public void shutdown() {
         log.info("Shutting down {}", this.getClass().getSimpleName());
         confirmedTransactionsThread.interrupt();
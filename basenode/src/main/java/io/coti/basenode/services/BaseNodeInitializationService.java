@@ -11,6 +11,7 @@ import io.coti.basenode.exceptions.TransactionSyncException;
 import io.coti.basenode.http.CustomHttpComponentsClientHttpRequestFactory;
 import io.coti.basenode.http.GetNodeRegistrationRequest;
 import io.coti.basenode.http.GetNodeRegistrationResponse;
+import io.coti.basenode.model.Collection;
 import io.coti.basenode.model.NodeRegistrations;
 import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.interfaces.*;
@@ -30,6 +31,7 @@ import javax.annotation.PreDestroy;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
 
 @Slf4j
 @Service
@@ -52,6 +54,10 @@ public abstract class BaseNodeInitializationService {
     private String kycServerAddress;
     @Value("${kycserver.public.key}")
     private String kycServerPublicKey;
+    @Value("${db.entity.codec.migrate}")
+    private boolean migrateEntityCodec;
+    @Value("${transactions.replay.parallelism}")
+    private int transactionReplayParallelism;
     @Autowired
     protected INetworkService networkService;
     @Autowired
@@ -101,6 +107,8 @@ public abstract class BaseNodeInitializationService {
     @Autowired
     private ITransactionSynchronizationService transactionSynchronizationService;
     @Autowired
+    private TransactionRangeSynchronizationService transactionRangeSynchronizationService;
+    @Autowired
     protected ApplicationContext applicationContext;
     @Autowired
     private BuildProperties buildProperties;
@@ -139,13 +147,20 @@ public abstract class BaseNodeInitializationService {
             log.info("Starting to read existing transactions");
             AtomicLong completedExistedTransactionNumber = new AtomicLong(0);
             Thread monitorExistingTransactions = transactionService.monitorTransactionThread("existing", completedExistedTransactionNumber, null);
-            transactions.forEach(transactionData -> {
+            Consumer<TransactionData> existingTransactionConsumer = transactionData -> {
                 if (!monitorExistingTransactions.isAlive()) {
                     monitorExistingTransactions.start();
                 }
                 handleExistingTransaction(indexToTransactionMap, transactionData);
                 completedExistedTransactionNumber.incrementAndGet();
-            });
+            };
+            int replayParallelism = getTransactionReplayParallelism();
+            if (replayParallelism > 1) {
+                log.info("Reading existing transactions with parallelism {}", replayParallelism);
+                transactions.forEachInParallel(replayParallelism, existingTransactionConsumer);
+            } else {
+                transactions.forEach(existingTransactionConsumer);
+            }
             if (monitorExistingTransactions.isAlive()) {
                 monitorExistingTransactions.interrupt();
                 monitorExistingTransactions.join();
@@ -155,6 +170,13 @@ public abstract class BaseNodeInitializationService {
             log.info("Finished to read existing transactions");
 
             if (networkService.getRecoveryServerAddress() != null) {
+                if (transactionRangeSynchronizationService.isEnabled()) {
+                    try {
+                        transactionRangeSynchronizationService.requestMissingTransactionRanges(transactionIndexService.getLastTransactionIndexData().getIndex() + 1);
+                    } catch (TransactionSyncException e) {
+                        log.error("Range sync failed. Requesting the remaining missing transactions from the recovery server: {}", e.getMessage());
+                    }
+                }
                 transactionSynchronizationService.requestMissingTransactions(transactionIndexService.getLastTransactionIndexData().getIndex() + 1);
             }
             balanceService.validateBalances();
@@ -167,6 +189,10 @@ public abstract class BaseNodeInitializationService {
         }
     }
 
+    private int getTransactionReplayParallelism() {
+        return transactionReplayParallelism > 0 ? transactionReplayParallelism : Runtime.getRuntime().availableProcessors();
+    }
+
     private void initCommunication() {
         networkService.setNodeManagerPropagationAddress("tcp://" + nodeManagerIp + ":" + nodeManagerPropagationPort);
 
@@ -176,6 +202,9 @@ public abstract class BaseNodeInitializationService {
 
     public void initDB() {
         databaseConnector.init();
+        if (migrateEntityCodec) {
+            applicationContext.getBeansOfType(Collection.class).values().forEach(Collection::migrateEntityCodec);
+        }
     }
 
     private void handleExistingTransaction(Map<Long, ReducedExistingTransactionData> indexToTransactionMap, TransactionData transactionData) {
@@ -1,7 +1,9 @@
 package io.coti.basenode.services;
 
 import io.coti.basenode.communication.ZeroMQSubscriberQueue;
+import io.coti.basenode.communication.interfaces.IPropagationPublisher;
 import io.coti.basenode.communication.interfaces.IPropagationSubscriber;
+import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.interfaces.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,6 +11,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.TimeUnit;
+
 @Slf4j
 @Service
 public class BaseNodeMonitorService implements IMonitorService {
@@ -25,6 +29,10 @@ public class BaseNodeMonitorService implements IMonitorService {
     private ITransactionService transactionService;
     @Autowired
     private IPropagationSubscriber propagationSubscriber;
+    @Autowired
+    private IPropagationPublisher propagationPublisher;
+    @Autowired
+    private Transactions transactions;
     @Value("${allow.transaction.monitoring}")
     private boolean allowTransactionMonitoring;
 
@@ -35,15 +43,26 @@ public class BaseNodeMonitorService implements IMonitorService {
     @Scheduled(initialDelay = 1000, fixedDelay = 5000)
     public void lastState() {
         if (allowTransactionMonitoring) {
-            log.info("Transactions = {}, TccConfirmed = {}, DspConfirmed = {}, Confirmed = {}, LastIndex = {}, Sources = {}, PostponedTransactions = {}, PropagationQueue = {}",
+            log.info("Transactions = {}, TccConfirmed = {}, DspConfirmed = {}, Confirmed = {}, LastIndex = {}, WaitingDspResults = {}, DspResultGapMillis = {}, Sources = {}, PostponedTransactions = {}, PostponedAverageMillis = {}, PostponedMaxMillis = {}, PropagationQueue = {}, PublishQueue = {}, PublishDropped = {}, PublishRejected = {}, TransactionLockContended = {}/{}, TransactionLockMaxStripeContended = {}, TransactionLockWaitMillis = {}",
                     transactionHelper.getTotalTransactions(),
                     confirmationService.getTrustChainConfirmed(),
                     confirmationService.getDspConfirmed(),
                     confirmationService.getTotalConfirmed(),
                     transactionIndexService.getLastTransactionIndexData().getIndex(),
+                    confirmationService.getWaitingDspConsensusResults(),
+                    confirmationService.getDspConsensusResultGapAgeInMillis(),
                     clusterService.getTotalSources(),
                     transactionService.totalPostponedTransactions(),
-                    propagationSubscriber.getMessageQueueSize(ZeroMQSubscriberQueue.TRANSACTION));
+                    transactionService.getAveragePostponedTimeInMillis(),
+                    transactionService.getMaxPostponedTimeInMillis(),
+                    propagationSubscriber.getMessageQueueSize(ZeroMQSubscriberQueue.TRANSACTION),
+                    propagationPublisher.getQueueSize(),
+                    propagationPublisher.getDroppedMessages(),
+                    propagationPublisher.getRejectedMessages(),
+                    transactions.getLockStripes().getTotalContendedAcquisitions(),
+                    transactions.getLockStripes().getTotalAcquisitions(),
+                    transactions.getLockStripes().getMaxStripeContendedAcquisitions(),
+                    TimeUnit.NANOSECONDS.toMillis(transactions.getLockStripes().getTotalWaitTimeInNanos()));
         }
     }
 }
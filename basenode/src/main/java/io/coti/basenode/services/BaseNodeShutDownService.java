@@ -3,6 +3,7 @@ package io.coti.basenode.services;
 import io.coti.basenode.communication.interfaces.IPropagationPublisher;
 import io.coti.basenode.communication.interfaces.IPropagationSubscriber;
 import io.coti.basenode.communication.interfaces.IReceiver;
+import io.coti.basenode.communication.interfaces.ISender;
 import io.coti.basenode.database.interfaces.IDatabaseConnector;
 import io.coti.basenode.services.interfaces.IConfirmationService;
 import io.coti.basenode.services.interfaces.IShutDownService;
@@ -23,6 +24,8 @@ public class BaseNodeShutDownService implements IShutDownService {
     @Autowired
     protected IReceiver receiver;
     @Autowired
+    protected ISender sender;
+    @Autowired
     protected IDatabaseConnector databaseConnector;
 
     public void shutdown() {
@@ -33,6 +36,7 @@ public class BaseNodeShutDownService implements IShutDownService {
         receiver.shutdown();
         propagationSubscriber.shutdown();
         propagationPublisher.shutdown();
+        sender.shutdown();
         confirmationService.shutdown();
         databaseConnector.shutdown();
     }
@@ -1,29 +1,45 @@
 package io.coti.basenode.services;
 
 import io.coti.basenode.communication.JacksonSerializer;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
 import io.coti.basenode.data.DspConsensusResult;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.exceptions.TransactionSyncException;
+import io.coti.basenode.http.StreamFraming;
+import io.coti.basenode.model.Collection;
 import io.coti.basenode.model.TransactionIndexes;
 import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.interfaces.*;
 import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.WriteBatch;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import reactor.core.publisher.FluxSink;
 
-import javax.servlet.ServletOutputStream;
+import javax.annotation.PostConstruct;
 import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @Service
 public class BaseNodeTransactionService implements ITransactionService {
 
+    private static final int TRANSACTION_BLOCK_BUFFER_SIZE = 65536;
     @Autowired
     private ITransactionHelper transactionHelper;
     @Autowired
@@ -42,7 +58,18 @@ public class BaseNodeTransactionService implements ITransactionService {
     private JacksonSerializer jacksonSerializer;
     @Autowired
     private TransactionIndexes transactionIndexes;
-    protected Map<TransactionData, Boolean> postponedTransactions = new ConcurrentHashMap<>();  // true/false means new from full node or propagated transaction
+    @Autowired
+    private IDatabaseConnector databaseConnector;
+    @Value("${postponed.transactions.max.size}")
+    private int maxPostponedTransactions;
+    @Value("${postponed.transactions.expiration.seconds}")
+    private long postponedTransactionExpirationSeconds;
+    protected PostponedTransactionIndex postponedTransactions;
+
+    @PostConstruct
+    private void initPostponedTransactions() {
+        postponedTransactions = new PostponedTransactionIndex(maxPostponedTransactions, Duration.ofSeconds(postponedTransactionExpirationSeconds));
+    }
 
     @Override
     public void init() {
@@ -50,29 +77,32 @@ public class BaseNodeTransactionService implements ITransactionService {
     }
 
     @Override
-    public void getTransactionBatch(long startingIndex, HttpServletResponse response) {
+    public void getTransactionBatch(long startingIndex, Long endingIndex, boolean lengthPrefixed, boolean gzipCompressed, HttpServletResponse response) {
 
         AtomicLong transactionNumber = new AtomicLong(0);
         Thread monitorTransactionBatch = monitorTransactionBatch(Thread.currentThread().getId(), transactionNumber);
 
         try {
-            ServletOutputStream output = response.getOutputStream();
+            if (lengthPrefixed) {
+                response.setHeader(StreamFraming.FRAMING_HEADER, StreamFraming.LENGTH_PREFIXED);
+            }
+            if (gzipCompressed) {
+                response.setHeader(StreamFraming.COMPRESSION_HEADER, StreamFraming.GZIP);
+            }
+            OutputStream output = gzipCompressed ? new GZIPOutputStream(response.getOutputStream(), TRANSACTION_BLOCK_BUFFER_SIZE, true) : response.getOutputStream();
+            ByteArrayOutputStream transactionBlockBuffer = new ByteArrayOutputStream(TRANSACTION_BLOCK_BUFFER_SIZE);
 
             monitorTransactionBatch.start();
 
-            if (startingIndex <= transactionIndexService.getLastTransactionIndexData().getIndex()) {
-                for (long i = startingIndex; i <= transactionIndexService.getLastTransactionIndexData().getIndex(); i++) {
-                    output.write(jacksonSerializer.serialize(transactions.getByHash(transactionIndexes.getByHash(new Hash(i)).getTransactionHash())));
-                    output.flush();
-                    transactionNumber.incrementAndGet();
-                }
+            forEachIndexedTransactionBlock(startingIndex, endingIndex, transactionBlock ->
+                    writeTransactionBlock(output, transactionBlockBuffer, transactionBlock, lengthPrefixed, transactionNumber));
+            if (endingIndex == null) {
+                writeTransactionBlock(output, transactionBlockBuffer, getNoneIndexedTransactions(), lengthPrefixed, transactionNumber);
             }
-            for (Hash hash : transactionHelper.getNoneIndexedTransactionHashes()) {
-                output.write(jacksonSerializer.serialize(transactions.getByHash(hash)));
-                output.flush();
-                transactionNumber.incrementAndGet();
-
+            if (gzipCompressed) {
+                ((GZIPOutputStream) output).finish();
             }
+            output.flush();
 
         } catch (Exception e) {
             log.error("Error sending transaction batch");
@@ -84,6 +114,53 @@ public class BaseNodeTransactionService implements ITransactionService {
         }
     }
 
+    private long getBatchEndingIndex(Long endingIndex) {
+        long lastIndex = transactionIndexService.getLastTransactionIndexData().getIndex();
+        return endingIndex != null ? Math.min(endingIndex, lastIndex) : lastIndex;
+    }
+
+    private void forEachIndexedTransactionBlock(long startingIndex, Long endingIndex, Consumer<List<TransactionData>> consumer) {
+        long nextIndex = startingIndex;
+        long lastIndex;
+        while (nextIndex <= (lastIndex = getBatchEndingIndex(endingIndex))) {
+            long nextBlockIndex = transactionIndexes.forEachIndexBlock(nextIndex, lastIndex, Collection.MULTI_GET_BATCH_SIZE, transactionIndexBlock -> {
+                List<Hash> transactionHashes = new ArrayList<>(transactionIndexBlock.size());
+                transactionIndexBlock.forEach(transactionIndexData -> transactionHashes.add(transactionIndexData.getTransactionHash()));
+                consumer.accept(transactions.multiGetByHashes(transactionHashes, true));
+            });
+            if (nextBlockIndex == nextIndex) {
+                log.error("Transaction index {} is not found", nextIndex);
+                return;
+            }
+            nextIndex = nextBlockIndex;
+        }
+    }
+
+    private void writeTransactionBlock(OutputStream output, ByteArrayOutputStream transactionBlockBuffer, List<TransactionData> transactionBlock, boolean lengthPrefixed,
+                                       AtomicLong transactionNumber) {
+        try {
+            transactionBlockBuffer.reset();
+            int writtenTransactions = 0;
+            for (TransactionData transactionData : transactionBlock) {
+                if (transactionData == null) {
+                    log.error("Indexed transaction is not found");
+                } else {
+                    if (lengthPrefixed) {
+                        StreamFraming.writeLengthPrefixedRecord(transactionBlockBuffer, jacksonSerializer.serialize(transactionData));
+                    } else {
+                        jacksonSerializer.serializeAsJson(transactionData, transactionBlockBuffer);
+                    }
+                    writtenTransactions++;
+                }
+            }
+            transactionBlockBuffer.writeTo(output);
+            output.flush();
+            transactionNumber.addAndGet(writtenTransactions);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
     @Override
     public void getTransactionBatch(long startingIndex, FluxSink sink) {
         AtomicLong transactionNumber = new AtomicLong(0);
@@ -92,15 +169,17 @@ public class BaseNodeTransactionService implements ITransactionService {
         try {
             monitorTransactionBatch.start();
 
-            if (startingIndex <= transactionIndexService.getLastTransactionIndexData().getIndex()) {
-                for (long i = startingIndex; i <= transactionIndexService.getLastTransactionIndexData().getIndex(); i++) {
-                    sink.next((jacksonSerializer.serialize(transactions.getByHash(transactionIndexes.getByHash(new Hash(i)).getTransactionHash()))));
-                    transactionNumber.incrementAndGet();
+            forEachIndexedTransactionBlock(startingIndex, null, transactionBlock -> transactionBlock.forEach(transactionData -> {
+                if (transactionData == null) {
+                    log.error("Indexed transaction is not found");
+                    return;
                 }
-            }
+                sink.next(jacksonSerializer.serializeAsJson(transactionData));
+                transactionNumber.incrementAndGet();
+            }));
 
-            for (Hash hash : transactionHelper.getNoneIndexedTransactionHashes()) {
-                sink.next(jacksonSerializer.serialize((transactions.getByHash(hash))));
+            for (TransactionData transactionData : getNoneIndexedTransactions()) {
+                sink.next(jacksonSerializer.serializeAsJson(transactionData));
                 transactionNumber.incrementAndGet();
 
             }
@@ -115,6 +194,10 @@ public class BaseNodeTransactionService implements ITransactionService {
         }
     }
 
+    private List<TransactionData> getNoneIndexedTransactions() {
+        return transactions.multiGetByHashes(new ArrayList<>(transactionHelper.getNoneIndexedTransactionHashes()), true);
+    }
+
     private Thread monitorTransactionBatch(long threadId, AtomicLong transactionNumber) {
         return new Thread(() -> {
             while (!Thread.currentThread().isInterrupted()) {
@@ -142,9 +225,7 @@ public class BaseNodeTransactionService implements ITransactionService {
                 return;
             }
             if (hasOneOfParentsMissing(transactionData)) {
-                if (!postponedTransactions.containsKey(transactionData)) {
-                    postponedTransactions.put(transactionData, false);
-                }
+                postponedTransactions.postpone(transactionData, false);
                 return;
             }
             if (!validationService.validateBalancesAndAddToPreBalance(transactionData)) {
@@ -176,20 +257,22 @@ public class BaseNodeTransactionService implements ITransactionService {
         if (postponedDspConsensusResult != null) {
             dspVoteService.handleVoteConclusion(postponedDspConsensusResult);
         }
-        Map<TransactionData, Boolean> postponedParentTransactions = postponedTransactions.entrySet().stream().filter(
-                postponedTransactionMapEntry ->
-                        (postponedTransactionMapEntry.getKey().getRightParentHash() != null
-                                && postponedTransactionMapEntry.getKey().getRightParentHash().equals(transactionData.getHash()))
-                                || (postponedTransactionMapEntry.getKey().getLeftParentHash() != null
-                                && postponedTransactionMapEntry.getKey().getLeftParentHash().equals(transactionData.getHash())))
-                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        Map<TransactionData, Boolean> postponedParentTransactions = postponedTransactions.releaseChildren(transactionData.getHash());
         postponedParentTransactions.forEach((postponedTransaction, isTransactionFromFullNode) -> {
             log.debug("Handling postponed transaction : {}, parent of transaction: {}", postponedTransaction.getHash(), transactionData.getHash());
-            postponedTransactions.remove(postponedTransaction);
             handlePostponedTransaction(postponedTransaction, isTransactionFromFullNode);
         });
     }
 
+    @Scheduled(initialDelay = 60000, fixedDelay = 60000)
+    public void removeExpiredPostponedTransactions() {
+        int expiredPostponedTransactions = postponedTransactions.removeExpired();
+        if (expiredPostponedTransactions > 0) {
+            log.warn("Removed {} expired postponed transactions. Total expired: {}, rejected: {}", expiredPostponedTransactions,
+                    postponedTransactions.getExpiredTransactions(), postponedTransactions.getRejectedTransactions());
+        }
+    }
+
     protected void handlePostponedTransaction(TransactionData postponedTransaction, boolean isTransactionFromFullNode) {
         if (!isTransactionFromFullNode) {
             handlePropagatedTransaction(postponedTransaction);
@@ -200,11 +283,27 @@ public class BaseNodeTransactionService implements ITransactionService {
         // implemented by sub classes
     }
 
-    public void handleMissingTransaction(TransactionData transactionData, Set<Hash> trustChainUnconfirmedExistingTransactionHashes) {
-
-        if (!transactionHelper.isTransactionExists(transactionData)) {
+    public void handleMissingTransactions(List<TransactionData> transactionDataList, Set<Hash> trustChainUnconfirmedExistingTransactionHashes) {
+        List<Boolean> existingTransactions = new ArrayList<>(transactionDataList.size());
+        Set<Hash> batchTransactionHashes = new HashSet<>();
+        // Stored before any of them is indexed, so an index never refers to a missing transaction
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            transactionDataList.forEach(transactionData -> {
+                existingTransactions.add(!batchTransactionHashes.add(transactionData.getHash()) || transactionHelper.isTransactionExists(transactionData));
+                transactions.put(writeBatch, transactionData);
+            });
+            if (!databaseConnector.putBatch(writeBatch)) {
+                throw new TransactionSyncException(String.format("Failed to store a batch of %s missing transactions", transactionDataList.size()));
+            }
+        }
+        batchTransactionHashes.forEach(transactions::invalidate);
+        for (int i = 0; i < transactionDataList.size(); i++) {
+            continueHandleMissingTransaction(transactionDataList.get(i), existingTransactions.get(i), trustChainUnconfirmedExistingTransactionHashes);
+        }
+    }
 
-            transactions.put(transactionData);
+    private void continueHandleMissingTransaction(TransactionData transactionData, boolean isTransactionExists, Set<Hash> trustChainUnconfirmedExistingTransactionHashes) {
+        if (!isTransactionExists) {
             addToExplorerIndexes(transactionData);
             transactionHelper.incrementTotalTransactions();
 
@@ -212,11 +311,9 @@ public class BaseNodeTransactionService implements ITransactionService {
             propagateMissingTransaction(transactionData);
 
         } else {
-            transactions.put(transactionData);
             confirmationService.insertMissingConfirmation(transactionData, trustChainUnconfirmedExistingTransactionHashes);
         }
         clusterService.addMissingTransactionOnInit(transactionData, trustChainUnconfirmedExistingTransactionHashes);
-
     }
 
     protected void propagateMissingTransaction(TransactionData transactionData) {
@@ -253,4 +350,14 @@ public class BaseNodeTransactionService implements ITransactionService {
     public int totalPostponedTransactions() {
         return postponedTransactions.size();
     }
+
+    @Override
+    public long getAveragePostponedTimeInMillis() {
+        return postponedTransactions.getAveragePostponedTimeInMillis();
+    }
+
+    @Override
+    public long getMaxPostponedTimeInMillis() {
+        return postponedTransactions.getMaxPostponedTimeInMillis();
+    }
 }
@@ -1,9 +1,9 @@
 package io.coti.basenode.services;
 
-import com.google.common.collect.Sets;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TccInfo;
 import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.TrustChainConfirmationMode;
 import io.coti.basenode.model.Transactions;
 import io.coti.basenode.services.interfaces.IClusterService;
 import io.coti.basenode.services.interfaces.IConfirmationService;
@@ -11,20 +11,20 @@ import io.coti.basenode.services.interfaces.ISourceSelector;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.SerializationUtils;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 import javax.annotation.PostConstruct;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class ClusterService implements IClusterService {
 
-    private List<Set<TransactionData>> sourceListsByTrustScore = new ArrayList<>();
+    private final SourceIndex sourceIndex = new SourceIndex();
     @Autowired
     private Transactions transactions;
     @Autowired
@@ -33,16 +33,16 @@ public class ClusterService implements IClusterService {
     private ISourceSelector sourceSelector;
     @Autowired
     private TrustChainConfirmationService trustChainConfirmationService;
+    @Autowired
+    private IncrementalTrustChainConfirmationService incrementalTrustChainConfirmationService;
+    @Value("${cluster.trust.chain.confirmation.mode}")
+    private TrustChainConfirmationMode trustChainConfirmationMode;
     private boolean isStarted;
     private ConcurrentHashMap<Hash, TransactionData> trustChainConfirmationCluster;
-    private AtomicLong totalSources = new AtomicLong(0);
 
     @PostConstruct
     public void init() {
         trustChainConfirmationCluster = new ConcurrentHashMap<>();
-        for (int i = 0; i <= 100; i++) {
-            sourceListsByTrustScore.add(Sets.newConcurrentHashSet());
-        }
     }
 
     @Override
@@ -60,6 +60,7 @@ public class ClusterService implements IClusterService {
             addTransactionToTrustChainConfirmationCluster(transactionData);
         } else if (trustChainUnconfirmedExistingTransactionHashes.remove(transactionData.getHash())) {
             removeTransactionFromTrustChainConfirmationCluster(transactionData);
+            incrementalTrustChainConfirmationService.remove(transactionData.getHash());
         }
     }
 
@@ -75,23 +76,54 @@ public class ClusterService implements IClusterService {
 
     @Override
     public void finalizeInit() {
+        confirmTransactions(getFullTrustChainConfirmedTransactions());
+        if (!trustChainConfirmationMode.equals(TrustChainConfirmationMode.Full)) {
+            incrementalTrustChainConfirmationService.init(trustChainConfirmationCluster);
+        }
         isStarted = true;
         log.info("{} is up", this.getClass().getSimpleName());
     }
 
     @Scheduled(fixedDelay = 3000, initialDelay = 1000)
     public void checkForTrustChainConfirmedTransaction() {
-        if (!isStarted) {
+        if (!isStarted || trustChainConfirmationMode.equals(TrustChainConfirmationMode.Incremental)) {
             return;
         }
 
+        List<TccInfo> transactionConsensusConfirmed = getFullTrustChainConfirmedTransactions();
+        if (trustChainConfirmationMode.equals(TrustChainConfirmationMode.Verification)) {
+            verifyIncrementalTrustChainConfirmations(transactionConsensusConfirmed);
+        }
+        confirmTransactions(transactionConsensusConfirmed);
+    }
+
+    private List<TccInfo> getFullTrustChainConfirmedTransactions() {
         trustChainConfirmationService.init(trustChainConfirmationCluster);
-        List<TccInfo> transactionConsensusConfirmed = trustChainConfirmationService.getTrustChainConfirmedTransactions();
+        return trustChainConfirmationService.getTrustChainConfirmedTransactions();
+    }
 
+    private void verifyIncrementalTrustChainConfirmations(List<TccInfo> transactionConsensusConfirmed) {
         transactionConsensusConfirmed.forEach(tccInfo -> {
-            trustChainConfirmationCluster.remove(tccInfo.getHash());
-            confirmationService.setTccToTrue(tccInfo);
-            log.debug("TCC has been reached for transaction {}!!", tccInfo.getHash());
+            if (incrementalTrustChainConfirmationService.contains(tccInfo.getHash())) {
+                log.warn("TCC of transaction {} was reached by full recompute but missed by incremental confirmation", tccInfo.getHash());
+                incrementalTrustChainConfirmationService.remove(tccInfo.getHash());
+            }
+        });
+        trustChainConfirmationCluster.forEach((hash, transactionData) ->
+                incrementalTrustChainConfirmationService.getTrustChainTrustScore(hash).ifPresent(trustChainTrustScore -> {
+                    if (Double.compare(trustChainTrustScore, transactionData.getTrustChainTrustScore()) != 0) {
+                        log.warn("Trust chain trust score mismatch for transaction {}: incremental {}, full recompute {}", hash, trustChainTrustScore, transactionData.getTrustChainTrustScore());
+                    }
+                })
+        );
+    }
+
+    private void confirmTransactions(List<TccInfo> transactionConsensusConfirmed) {
+        transactionConsensusConfirmed.forEach(tccInfo -> {
+            if (trustChainConfirmationCluster.remove(tccInfo.getHash()) != null) {
+                confirmationService.setTccToTrue(tccInfo);
+                log.debug("TCC has been reached for transaction {}!!", tccInfo.getHash());
+            }
         });
     }
 
@@ -100,6 +132,9 @@ public class ClusterService implements IClusterService {
         updateParents(transactionData);
 
         addTransactionToTrustChainConfirmationCluster(transactionData);
+        if (!trustChainConfirmationMode.equals(TrustChainConfirmationMode.Full)) {
+            confirmTransactions(incrementalTrustChainConfirmationService.attach(transactionData));
+        }
     }
 
     private void updateParents(TransactionData transactionData) {
@@ -134,17 +169,14 @@ public class ClusterService implements IClusterService {
     }
 
     private void removeTransactionFromSources(Hash transactionHash) {
-        TransactionData transactionData = transactions.getByHash(transactionHash);
-        if (transactionData != null && sourceListsByTrustScore.get(transactionData.getRoundedSenderTrustScore()).remove(transactionData)) {
-            totalSources.decrementAndGet();
-        }
+        sourceIndex.remove(transactionHash);
     }
 
     private void addTransactionToTrustChainConfirmationCluster(TransactionData transactionData) {
         trustChainConfirmationCluster.put(transactionData.getHash(), transactionData);
 
-        if (transactionData.isSource() && sourceListsByTrustScore.get(transactionData.getRoundedSenderTrustScore()).add(transactionData)) {
-            totalSources.incrementAndGet();
+        if (transactionData.isSource()) {
+            sourceIndex.add(transactionData);
         }
 
         log.debug("Added New Transaction with hash:{}", transactionData.getHash());
@@ -153,20 +185,17 @@ public class ClusterService implements IClusterService {
     private void removeTransactionFromTrustChainConfirmationCluster(TransactionData transactionData) {
         trustChainConfirmationCluster.remove(transactionData.getHash());
 
-        if (transactionData.isSource() && sourceListsByTrustScore.get(transactionData.getRoundedSenderTrustScore()).remove(transactionData)) {
-            totalSources.decrementAndGet();
+        if (transactionData.isSource()) {
+            sourceIndex.remove(transactionData.getHash());
         }
 
     }
 
     @Override
     public void selectSources(TransactionData transactionData) {
-        List<Set<TransactionData>> trustScoreToTransactionMappingSnapshot =
-                Collections.unmodifiableList(sourceListsByTrustScore);
-
         List<TransactionData> selectedSourcesForAttachment =
                 sourceSelector.selectSourcesForAttachment(
-                        trustScoreToTransactionMappingSnapshot,
+                        sourceIndex,
                         transactionData.getSenderTrustScore());
 
         if (selectedSourcesForAttachment.isEmpty()) {
@@ -184,7 +213,7 @@ public class ClusterService implements IClusterService {
 
     @Override
     public long getTotalSources() {
-        return totalSources.get();
+        return sourceIndex.getNumberOfSources();
     }
 
     @Override
@@ -198,8 +227,8 @@ public class ClusterService implements IClusterService {
     }
 
     @Override
-    public List<Set<TransactionData>> getSourceListsByTrustScore() {
-        return Collections.unmodifiableList(sourceListsByTrustScore);
+    public SourceIndex getSourceIndex() {
+        return sourceIndex;
     }
 
 }
\ No newline at end of file
@@ -0,0 +1,164 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.DspConsensusResult;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+public class DspConsensusResultReorderBuffer {
+
+    private final AtomicReferenceArray<DspConsensusResult> slots;
+    private final int slotMask;
+    private final ConcurrentSkipListMap<Long, DspConsensusResult> overflowResults = new ConcurrentSkipListMap<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final AtomicLong gapStartTime = new AtomicLong();
+    // Offered from any thread, drained and moved by a single consumer thread
+    private volatile long headIndex;
+
+    public DspConsensusResultReorderBuffer(int capacity, long headIndex) {
+        int slotCount = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(slotCount);
+        this.slotMask = slotCount - 1;
+        this.headIndex = headIndex;
+    }
+
+    public boolean offer(DspConsensusResult dspConsensusResult) {
+        long index = dspConsensusResult.getIndex();
+        long currentHeadIndex = headIndex;
+        if (index < currentHeadIndex) {
+            return false;
+        }
+        boolean isSlotResult = index < currentHeadIndex + slots.length();
+        boolean isAdded = isSlotResult ? addToSlot(dspConsensusResult) : overflowResults.putIfAbsent(index, dspConsensusResult) == null;
+        if (isAdded) {
+            size.incrementAndGet();
+            gapStartTime.compareAndSet(0, System.currentTimeMillis());
+            if (index < headIndex && remove(dspConsensusResult, isSlotResult)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean remove(DspConsensusResult dspConsensusResult, boolean isSlotResult) {
+        long index = dspConsensusResult.getIndex();
+        boolean isRemoved = isSlotResult ? slots.compareAndSet((int) index & slotMask, dspConsensusResult, null) : overflowResults.remove(index, dspConsensusResult);
+        if (isRemoved) {
+            size.decrementAndGet();
+        }
+        return isRemoved;
+    }
+
+    private boolean addToSlot(DspConsensusResult dspConsensusResult) {
+        long index = dspConsensusResult.getIndex();
+        int slot = (int) index & slotMask;
+        while (true) {
+            DspConsensusResult slotResult = slots.get(slot);
+            if (slotResult == null) {
+                if (slots.compareAndSet(slot, null, dspConsensusResult)) {
+                    return true;
+                }
+            } else if (slotResult.getIndex() >= index) {
+                return false;
+            } else if (slots.compareAndSet(slot, slotResult, dspConsensusResult)) {
+                size.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    public int drainTo(List<DspConsensusResult> dspConsensusResults, int maxResults) {
+        long index = headIndex;
+        int drainedResults = 0;
+        DspConsensusResult dspConsensusResult;
+        while (drainedResults < maxResults && (dspConsensusResult = take(index)) != null) {
+            dspConsensusResults.add(dspConsensusResult);
+            drainedResults++;
+            index++;
+            headIndex = index;
+        }
+        if (drainedResults > 0) {
+            resetGapStartTime();
+        }
+        return drainedResults;
+    }
+
+    public int drainUpTo(long lastIndex, List<DspConsensusResult> dspConsensusResults, int maxResults) {
+        long index = headIndex;
+        int drainedResults = 0;
+        while (index <= lastIndex && drainedResults < maxResults) {
+            if (size.get() == 0) {
+                index = lastIndex + 1;
+                break;
+            }
+            DspConsensusResult dspConsensusResult = take(index);
+            if (dspConsensusResult != null) {
+                dspConsensusResults.add(dspConsensusResult);
+                drainedResults++;
+            }
+            index++;
+        }
+        if (index > headIndex) {
+            setHeadIndex(index);
+        }
+        return drainedResults;
+    }
+
+    private DspConsensusResult take(long index) {
+        int slot = (int) index & slotMask;
+        DspConsensusResult slotResult;
+        while ((slotResult = slots.get(slot)) != null && slotResult.getIndex() <= index) {
+            if (slots.compareAndSet(slot, slotResult, null)) {
+                size.decrementAndGet();
+                if (slotResult.getIndex() == index) {
+                    return slotResult;
+                }
+            }
+        }
+        if (overflowResults.isEmpty()) {
+            return null;
+        }
+        Map.Entry<Long, DspConsensusResult> overflowEntry;
+        while ((overflowEntry = overflowResults.firstEntry()) != null && overflowEntry.getKey() <= index) {
+            if (overflowResults.remove(overflowEntry.getKey(), overflowEntry.getValue())) {
+                size.decrementAndGet();
+                if (overflowEntry.getKey() == index) {
+                    return overflowEntry.getValue();
+                }
+            }
+        }
+        return null;
+    }
+
+    public void setHeadIndex(long headIndex) {
+        this.headIndex = headIndex;
+        resetGapStartTime();
+    }
+
+    private void resetGapStartTime() {
+        gapStartTime.set(size.get() > 0 ? System.currentTimeMillis() : 0);
+    }
+
+    public long getHeadIndex() {
+        return headIndex;
+    }
+
+    public boolean isHeadAvailable() {
+        long index = headIndex;
+        DspConsensusResult slotResult = slots.get((int) index & slotMask);
+        return (slotResult != null && slotResult.getIndex() == index) || (!overflowResults.isEmpty() && overflowResults.containsKey(index));
+    }
+
+    public int getSize() {
+        return size.get();
+    }
+
+    public long getGapAgeInMillis() {
+        long gapStart = gapStartTime.get();
+        return gapStart == 0 || isHeadAvailable() ? 0 : System.currentTimeMillis() - gapStart;
+    }
+}
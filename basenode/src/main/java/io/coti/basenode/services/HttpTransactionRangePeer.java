@@ -0,0 +1,67 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.communication.JacksonSerializer;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.exceptions.TransactionSyncException;
+import io.coti.basenode.http.GetTransactionIndexCheckpointsResponse;
+import io.coti.basenode.http.GetTransactionIndexResponse;
+import io.coti.basenode.http.StreamFraming;
+import io.coti.basenode.http.StreamRecordReader;
+import io.coti.basenode.services.interfaces.ITransactionRangePeer;
+import org.springframework.http.HttpMethod;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class HttpTransactionRangePeer implements ITransactionRangePeer {
+
+    private static final String TRANSACTION_INDEX_ENDPOINT = "/transaction_index?index={index}";
+    private static final String TRANSACTION_INDEX_CHECKPOINTS_ENDPOINT = "/transaction_index/checkpoints";
+    private static final String TRANSACTION_BATCH_RANGE_ENDPOINT = "/transaction_batch?starting_index={startingIndex}&ending_index={endingIndex}";
+    private final String address;
+    private final RestTemplate restTemplate;
+    private final JacksonSerializer jacksonSerializer;
+    private final boolean compressionEnabled;
+
+    public HttpTransactionRangePeer(String address, RestTemplate restTemplate, JacksonSerializer jacksonSerializer, boolean compressionEnabled) {
+        this.address = address;
+        this.restTemplate = restTemplate;
+        this.jacksonSerializer = jacksonSerializer;
+        this.compressionEnabled = compressionEnabled;
+    }
+
+    @Override
+    public String getAddress() {
+        return address;
+    }
+
+    @Override
+    public GetTransactionIndexCheckpointsResponse getTransactionIndexCheckpoints() {
+        return restTemplate.getForObject(address + TRANSACTION_INDEX_CHECKPOINTS_ENDPOINT, GetTransactionIndexCheckpointsResponse.class);
+    }
+
+    @Override
+    public byte[] getAccumulatedHash(long index) {
+        GetTransactionIndexResponse getTransactionIndexResponse = restTemplate.getForObject(address + TRANSACTION_INDEX_ENDPOINT, GetTransactionIndexResponse.class, index);
+        return new Hash(getTransactionIndexResponse.getAccumulatedHash()).getBytes();
+    }
+
+    @Override
+    public List<TransactionData> getTransactions(long startingIndex, long endingIndex) {
+        List<TransactionData> transactions = new ArrayList<>(Math.toIntExact(endingIndex - startingIndex + 1));
+        restTemplate.execute(address + TRANSACTION_BATCH_RANGE_ENDPOINT, HttpMethod.GET, StreamFraming.getLengthPrefixedRequestCallback(null, compressionEnabled), response -> {
+            StreamRecordReader recordReader = new StreamRecordReader(StreamFraming.getBody(response), StreamFraming.isLengthPrefixed(response.getHeaders()), TransactionSynchronizationService.MAXIMUM_RECORD_SIZE);
+            byte[] record;
+            while ((record = recordReader.read()) != null) {
+                if (transactions.size() > endingIndex - startingIndex) {
+                    throw new TransactionSyncException(String.format("Peer %s sent more transactions than requested for indexes %s-%s", address, startingIndex, endingIndex));
+                }
+                transactions.add(jacksonSerializer.deserialize(record));
+            }
+            return null;
+        }, startingIndex, endingIndex);
+        return transactions;
+    }
+}
@@ -0,0 +1,137 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TccInfo;
+import io.coti.basenode.data.TransactionData;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.*;
+
+@Slf4j
+@Service
+public class IncrementalTrustChainConfirmationService {
+
+    @Value("${cluster.trust.chain.threshold}")
+    private int threshold;
+    private final Map<Hash, TrustChainNode> trustChainNodes = new HashMap<>();
+    private boolean initialized;
+
+    public synchronized void init(Map<Hash, TransactionData> trustChainConfirmationCluster) {
+        trustChainNodes.clear();
+        trustChainConfirmationCluster.values().forEach(transactionData -> {
+            if (!transactionData.isTrustChainConsensus()) {
+                TrustChainNode trustChainNode = new TrustChainNode(transactionData);
+                trustChainNode.trustChainTrustScore = Math.max(transactionData.getTrustChainTrustScore(), transactionData.getSenderTrustScore());
+                trustChainNodes.put(transactionData.getHash(), trustChainNode);
+            }
+        });
+        initialized = true;
+        log.info("{} is up with {} unconfirmed transactions", this.getClass().getSimpleName(), trustChainNodes.size());
+    }
+
+    public synchronized List<TccInfo> attach(TransactionData transactionData) {
+        if (!initialized || transactionData.isTrustChainConsensus()) {
+            return Collections.emptyList();
+        }
+        TrustChainNode trustChainNode = trustChainNodes.computeIfAbsent(transactionData.getHash(), hash -> new TrustChainNode(transactionData));
+
+        double maxChildTrustChainTrustScore = 0;
+        for (Hash childHash : transactionData.getChildrenTransactionHashes()) {
+            TrustChainNode childNode = trustChainNodes.get(childHash);
+            if (childNode != null && childNode.trustChainTrustScore > maxChildTrustChainTrustScore) {
+                maxChildTrustChainTrustScore = childNode.trustChainTrustScore;
+            }
+        }
+
+        Set<TrustChainNode> confirmedNodes = new LinkedHashSet<>();
+        if (trustChainNode.raiseTrustChainTrustScore(trustChainNode.senderTrustScore + maxChildTrustChainTrustScore)) {
+            addIfConfirmed(trustChainNode, confirmedNodes);
+        }
+        propagateToParents(trustChainNode, confirmedNodes);
+
+        return removeConfirmedNodes(confirmedNodes);
+    }
+
+    private void propagateToParents(TrustChainNode trustChainNode, Set<TrustChainNode> confirmedNodes) {
+        Deque<TrustChainNode> updatedNodes = new ArrayDeque<>();
+        updatedNodes.push(trustChainNode);
+        while (!updatedNodes.isEmpty()) {
+            TrustChainNode childNode = updatedNodes.pop();
+            propagateToParent(childNode, childNode.leftParentHash, updatedNodes, confirmedNodes);
+            propagateToParent(childNode, childNode.rightParentHash, updatedNodes, confirmedNodes);
+        }
+    }
+
+    private void propagateToParent(TrustChainNode childNode, Hash parentHash, Deque<TrustChainNode> updatedNodes, Set<TrustChainNode> confirmedNodes) {
+        if (parentHash == null) {
+            return;
+        }
+        TrustChainNode parentNode = trustChainNodes.get(parentHash);
+        if (parentNode != null && parentNode.raiseTrustChainTrustScore(parentNode.senderTrustScore + childNode.trustChainTrustScore)) {
+            addIfConfirmed(parentNode, confirmedNodes);
+            updatedNodes.push(parentNode);
+        }
+    }
+
+    private void addIfConfirmed(TrustChainNode trustChainNode, Set<TrustChainNode> confirmedNodes) {
+        if (trustChainNode.trustChainTrustScore >= threshold) {
+            confirmedNodes.add(trustChainNode);
+        }
+    }
+
+    private List<TccInfo> removeConfirmedNodes(Set<TrustChainNode> confirmedNodes) {
+        LinkedList<TccInfo> trustChainConfirmations = new LinkedList<>();
+        confirmedNodes.forEach(trustChainNode -> {
+            trustChainNodes.remove(trustChainNode.hash);
+            Instant trustScoreConsensusTime = Optional.ofNullable(trustChainNode.trustChainConsensusTime).orElse(Instant.now());
+            trustChainConfirmations.addFirst(new TccInfo(trustChainNode.hash, trustChainNode.trustChainTrustScore, trustScoreConsensusTime));
+            log.debug("transaction with hash:{} is confirmed with trustScore: {} and totalTrustScore:{} ", trustChainNode.hash, trustChainNode.senderTrustScore, trustChainNode.trustChainTrustScore);
+        });
+        return trustChainConfirmations;
+    }
+
+    public synchronized void remove(Hash transactionHash) {
+        trustChainNodes.remove(transactionHash);
+    }
+
+    public synchronized boolean contains(Hash transactionHash) {
+        return trustChainNodes.containsKey(transactionHash);
+    }
+
+    public synchronized Optional<Double> getTrustChainTrustScore(Hash transactionHash) {
+        return Optional.ofNullable(trustChainNodes.get(transactionHash)).map(trustChainNode -> trustChainNode.trustChainTrustScore);
+    }
+
+    public synchronized int size() {
+        return trustChainNodes.size();
+    }
+
+    private static class TrustChainNode {
+
+        private final Hash hash;
+        private final Hash leftParentHash;
+        private final Hash rightParentHash;
+        private final double senderTrustScore;
+        private final Instant trustChainConsensusTime;
+        private double trustChainTrustScore;
+
+        private TrustChainNode(TransactionData transactionData) {
+            hash = transactionData.getHash();
+            leftParentHash = transactionData.getLeftParentHash();
+            rightParentHash = transactionData.getRightParentHash();
+            senderTrustScore = transactionData.getSenderTrustScore();
+            trustChainConsensusTime = transactionData.getTrustChainConsensusTime();
+        }
+
+        private boolean raiseTrustChainTrustScore(double candidateTrustChainTrustScore) {
+            if (trustChainTrustScore < candidateTrustChainTrustScore) {
+                trustChainTrustScore = candidateTrustChainTrustScore;
+                return true;
+            }
+            return false;
+        }
+    }
+}
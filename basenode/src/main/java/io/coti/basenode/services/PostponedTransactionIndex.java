@@ -0,0 +1,151 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionData;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+public class PostponedTransactionIndex {
+
+    private final int maxPostponedTransactions;
+    private final Duration expiration;
+    private final LinkedHashMap<Hash, PostponedTransaction> postponedTransactionsByHash = new LinkedHashMap<>();
+    private final Map<Hash, Set<Hash>> waitingChildrenByParentHash = new HashMap<>();
+    private final AtomicLong releasedTransactions = new AtomicLong(0);
+    private final AtomicLong totalPostponedTimeInMillis = new AtomicLong(0);
+    private final AtomicLong maxPostponedTimeInMillis = new AtomicLong(0);
+    private final AtomicLong expiredTransactions = new AtomicLong(0);
+    private final AtomicLong rejectedTransactions = new AtomicLong(0);
+
+    public PostponedTransactionIndex(int maxPostponedTransactions, Duration expiration) {
+        this.maxPostponedTransactions = maxPostponedTransactions;
+        this.expiration = expiration;
+    }
+
+    public synchronized boolean postpone(TransactionData transactionData, boolean isTransactionFromFullNode) {
+        if (postponedTransactionsByHash.containsKey(transactionData.getHash())) {
+            return false;
+        }
+        if (postponedTransactionsByHash.size() >= maxPostponedTransactions) {
+            rejectedTransactions.incrementAndGet();
+            log.warn("Postponed transactions limit {} reached. Transaction {} is not postponed", maxPostponedTransactions, transactionData.getHash());
+            return false;
+        }
+        postponedTransactionsByHash.put(transactionData.getHash(), new PostponedTransaction(transactionData, isTransactionFromFullNode, Instant.now()));
+        addWaitingChild(transactionData.getLeftParentHash(), transactionData.getHash());
+        addWaitingChild(transactionData.getRightParentHash(), transactionData.getHash());
+        return true;
+    }
+
+    public synchronized boolean contains(TransactionData transactionData) {
+        return postponedTransactionsByHash.containsKey(transactionData.getHash());
+    }
+
+    public synchronized Map<TransactionData, Boolean> releaseChildren(Hash parentHash) {
+        Set<Hash> waitingChildHashes = waitingChildrenByParentHash.remove(parentHash);
+        if (waitingChildHashes == null) {
+            return Collections.emptyMap();
+        }
+        Instant now = Instant.now();
+        Map<TransactionData, Boolean> releasedChildren = new LinkedHashMap<>();
+        waitingChildHashes.forEach(childHash -> {
+            PostponedTransaction postponedTransaction = remove(childHash);
+            if (postponedTransaction != null) {
+                updatePostponedTime(Duration.between(postponedTransaction.postponeTime, now).toMillis());
+                releasedChildren.put(postponedTransaction.transactionData, postponedTransaction.isTransactionFromFullNode);
+            }
+        });
+        return releasedChildren;
+    }
+
+    public synchronized int removeExpired() {
+        Instant expirationTime = Instant.now().minus(expiration);
+        int expired = 0;
+        Iterator<PostponedTransaction> iterator = postponedTransactionsByHash.values().iterator();
+        while (iterator.hasNext()) {
+            PostponedTransaction postponedTransaction = iterator.next();
+            if (postponedTransaction.postponeTime.isAfter(expirationTime)) {
+                break;
+            }
+            iterator.remove();
+            removeWaitingChild(postponedTransaction.transactionData.getLeftParentHash(), postponedTransaction.transactionData.getHash());
+            removeWaitingChild(postponedTransaction.transactionData.getRightParentHash(), postponedTransaction.transactionData.getHash());
+            expired++;
+        }
+        expiredTransactions.addAndGet(expired);
+        return expired;
+    }
+
+    public synchronized int size() {
+        return postponedTransactionsByHash.size();
+    }
+
+    public long getAveragePostponedTimeInMillis() {
+        long released = releasedTransactions.get();
+        return released == 0 ? 0 : totalPostponedTimeInMillis.get() / released;
+    }
+
+    public long getMaxPostponedTimeInMillis() {
+        return maxPostponedTimeInMillis.get();
+    }
+
+    public long getExpiredTransactions() {
+        return expiredTransactions.get();
+    }
+
+    public long getRejectedTransactions() {
+        return rejectedTransactions.get();
+    }
+
+    private PostponedTransaction remove(Hash transactionHash) {
+        PostponedTransaction postponedTransaction = postponedTransactionsByHash.remove(transactionHash);
+        if (postponedTransaction != null) {
+            removeWaitingChild(postponedTransaction.transactionData.getLeftParentHash(), transactionHash);
+            removeWaitingChild(postponedTransaction.transactionData.getRightParentHash(), transactionHash);
+        }
+        return postponedTransaction;
+    }
+
+    private void addWaitingChild(Hash parentHash, Hash childHash) {
+        if (parentHash != null) {
+            waitingChildrenByParentHash.computeIfAbsent(parentHash, hash -> new LinkedHashSet<>()).add(childHash);
+        }
+    }
+
+    private void removeWaitingChild(Hash parentHash, Hash childHash) {
+        if (parentHash == null) {
+            return;
+        }
+        Set<Hash> waitingChildHashes = waitingChildrenByParentHash.get(parentHash);
+        if (waitingChildHashes != null) {
+            waitingChildHashes.remove(childHash);
+            if (waitingChildHashes.isEmpty()) {
+                waitingChildrenByParentHash.remove(parentHash);
+            }
+        }
+    }
+
+    private void updatePostponedTime(long postponedTimeInMillis) {
+        releasedTransactions.incrementAndGet();
+        totalPostponedTimeInMillis.addAndGet(postponedTimeInMillis);
+        maxPostponedTimeInMillis.accumulateAndGet(postponedTimeInMillis, Math::max);
+    }
+
+    private static class PostponedTransaction {
+
+        private final TransactionData transactionData;
+        private final boolean isTransactionFromFullNode;
+        private final Instant postponeTime;
+
+        private PostponedTransaction(TransactionData transactionData, boolean isTransactionFromFullNode, Instant postponeTime) {
+            this.transactionData = transactionData;
+            this.isTransactionFromFullNode = isTransactionFromFullNode;
+            this.postponeTime = postponeTime;
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionData;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class SourceIndex {
+
+    public static final int MAX_TRUST_SCORE = 100;
+    private static final int INITIAL_BUCKET_CAPACITY = 16;
+    private final SourceBucket[] sourceBuckets = new SourceBucket[MAX_TRUST_SCORE + 1];
+    private final Map<Hash, Integer> trustScoreBySourceHash = new HashMap<>();
+
+    public SourceIndex() {
+        for (int trustScore = 0; trustScore <= MAX_TRUST_SCORE; trustScore++) {
+            sourceBuckets[trustScore] = new SourceBucket();
+        }
+    }
+
+    public synchronized boolean add(TransactionData transactionData) {
+        if (trustScoreBySourceHash.containsKey(transactionData.getHash())) {
+            return false;
+        }
+        int trustScore = transactionData.getRoundedSenderTrustScore();
+        sourceBuckets[trustScore].add(transactionData);
+        trustScoreBySourceHash.put(transactionData.getHash(), trustScore);
+        return true;
+    }
+
+    public synchronized boolean remove(Hash transactionHash) {
+        Integer trustScore = trustScoreBySourceHash.remove(transactionHash);
+        if (trustScore == null) {
+            return false;
+        }
+        sourceBuckets[trustScore].remove(transactionHash);
+        return true;
+    }
+
+    public synchronized int getNumberOfSources() {
+        return trustScoreBySourceHash.size();
+    }
+
+    public synchronized int getNumberOfSources(int trustScore) {
+        return sourceBuckets[trustScore].getNumberOfSources();
+    }
+
+    public synchronized int getNumberOfSources(int lowTrustScore, int highTrustScore) {
+        int numberOfSources = 0;
+        for (int trustScore = Math.max(lowTrustScore, 0); trustScore <= Math.min(highTrustScore, MAX_TRUST_SCORE); trustScore++) {
+            numberOfSources += sourceBuckets[trustScore].getNumberOfSources();
+        }
+        return numberOfSources;
+    }
+
+    public synchronized List<TransactionData> getSources(int trustScore) {
+        return sourceBuckets[trustScore].getSources();
+    }
+
+    public synchronized List<TransactionData> selectWeightedSources(int lowTrustScore, int highTrustScore, int numberOfSources, Instant now) {
+        long nowInMillis = now.toEpochMilli();
+        int fromTrustScore = Math.max(lowTrustScore, 0);
+        int toTrustScore = Math.min(highTrustScore, MAX_TRUST_SCORE);
+        int numberOfEligibleSources = 0;
+        for (int trustScore = fromTrustScore; trustScore <= toTrustScore; trustScore++) {
+            sourceBuckets[trustScore].releasePendingSources(nowInMillis);
+            numberOfEligibleSources += sourceBuckets[trustScore].eligibleSize;
+        }
+
+        List<TransactionData> selectedSources = new ArrayList<>(numberOfSources);
+        if (numberOfEligibleSources <= numberOfSources) {
+            for (int trustScore = fromTrustScore; trustScore <= toTrustScore; trustScore++) {
+                sourceBuckets[trustScore].addEligibleSources(selectedSources);
+            }
+            return selectedSources;
+        }
+
+        while (selectedSources.size() < numberOfSources) {
+            long totalWeight = 0;
+            for (int trustScore = fromTrustScore; trustScore <= toTrustScore; trustScore++) {
+                totalWeight += sourceBuckets[trustScore].getWeight(nowInMillis);
+            }
+            if (totalWeight <= 0) {
+                break;
+            }
+            long random = ThreadLocalRandom.current().nextLong(totalWeight);
+            for (int trustScore = fromTrustScore; trustScore <= toTrustScore; trustScore++) {
+                SourceBucket sourceBucket = sourceBuckets[trustScore];
+                long bucketWeight = sourceBucket.getWeight(nowInMillis);
+                if (random < bucketWeight) {
+                    int slot = sourceBucket.findSlot(random, nowInMillis);
+                    selectedSources.add(sourceBucket.sources[slot]);
+                    sourceBucket.updateTrees(slot, -1, -sourceBucket.sources[slot].getAttachmentTime().toEpochMilli());
+                    break;
+                }
+                random -= bucketWeight;
+            }
+        }
+        selectedSources.forEach(selectedSource -> {
+            SourceBucket sourceBucket = sourceBuckets[trustScoreBySourceHash.get(selectedSource.getHash())];
+            sourceBucket.updateTrees(sourceBucket.slotBySourceHash.get(selectedSource.getHash()), 1, selectedSource.getAttachmentTime().toEpochMilli());
+        });
+        return selectedSources;
+    }
+
+    private static class SourceBucket {
+
+        private TransactionData[] sources = new TransactionData[INITIAL_BUCKET_CAPACITY];
+        private long[] countTree = new long[INITIAL_BUCKET_CAPACITY + 1];
+        private long[] attachmentTimeTree = new long[INITIAL_BUCKET_CAPACITY + 1];
+        private final Map<Hash, Integer> slotBySourceHash = new HashMap<>();
+        private final Deque<Integer> freeSlots = new ArrayDeque<>();
+        private final PriorityQueue<TransactionData> pendingSources = new PriorityQueue<>(Comparator.comparing(TransactionData::getAttachmentTime));
+        private int nextSlot;
+        private int eligibleSize;
+
+        private int getNumberOfSources() {
+            return eligibleSize + pendingSources.size();
+        }
+
+        private List<TransactionData> getSources() {
+            List<TransactionData> bucketSources = new ArrayList<>(getNumberOfSources());
+            addEligibleSources(bucketSources);
+            bucketSources.addAll(pendingSources);
+            return bucketSources;
+        }
+
+        private void addEligibleSources(List<TransactionData> bucketSources) {
+            slotBySourceHash.values().forEach(slot -> bucketSources.add(sources[slot]));
+        }
+
+        private void add(TransactionData transactionData) {
+            if (transactionData.getAttachmentTime().isAfter(Instant.now())) {
+                pendingSources.add(transactionData);
+            } else {
+                addEligible(transactionData);
+            }
+        }
+
+        private void addEligible(TransactionData transactionData) {
+            int slot;
+            if (!freeSlots.isEmpty()) {
+                slot = freeSlots.pop();
+            } else {
+                if (nextSlot == sources.length) {
+                    grow();
+                }
+                slot = nextSlot++;
+            }
+            sources[slot] = transactionData;
+            slotBySourceHash.put(transactionData.getHash(), slot);
+            long attachmentTime = transactionData.getAttachmentTime().toEpochMilli();
+            updateTrees(slot, 1, attachmentTime);
+            eligibleSize++;
+        }
+
+        private void remove(Hash transactionHash) {
+            Integer slot = slotBySourceHash.remove(transactionHash);
+            if (slot == null) {
+                pendingSources.removeIf(transactionData -> transactionData.getHash().equals(transactionHash));
+                return;
+            }
+            long attachmentTime = sources[slot].getAttachmentTime().toEpochMilli();
+            updateTrees(slot, -1, -attachmentTime);
+            eligibleSize--;
+            sources[slot] = null;
+            freeSlots.push(slot);
+        }
+
+        private void releasePendingSources(long nowInMillis) {
+            while (!pendingSources.isEmpty() && pendingSources.peek().getAttachmentTime().toEpochMilli() <= nowInMillis) {
+                addEligible(pendingSources.poll());
+            }
+        }
+
+        private long getWeight(long nowInMillis) {
+            return prefixCount(sources.length) * nowInMillis - prefixAttachmentTime(sources.length);
+        }
+
+        private long prefixCount(int position) {
+            long count = 0;
+            for (int i = position; i > 0; i -= i & -i) {
+                count += countTree[i];
+            }
+            return count;
+        }
+
+        private long prefixAttachmentTime(int position) {
+            long attachmentTimeSum = 0;
+            for (int i = position; i > 0; i -= i & -i) {
+                attachmentTimeSum += attachmentTimeTree[i];
+            }
+            return attachmentTimeSum;
+        }
+
+        private int findSlot(long random, long nowInMillis) {
+            int position = 0;
+            long remaining = random;
+            for (int step = Integer.highestOneBit(sources.length); step > 0; step >>= 1) {
+                int nextPosition = position + step;
+                if (nextPosition <= sources.length) {
+                    long weight = countTree[nextPosition] * nowInMillis - attachmentTimeTree[nextPosition];
+                    if (weight <= remaining) {
+                        position = nextPosition;
+                        remaining -= weight;
+                    }
+                }
+            }
+            return position;
+        }
+
+        private void updateTrees(int slot, long countDelta, long attachmentTimeDelta) {
+            for (int i = slot + 1; i < countTree.length; i += i & -i) {
+                countTree[i] += countDelta;
+                attachmentTimeTree[i] += attachmentTimeDelta;
+            }
+        }
+
+        private void grow() {
+            int capacity = sources.length * 2;
+            sources = Arrays.copyOf(sources, capacity);
+            countTree = new long[capacity + 1];
+            attachmentTimeTree = new long[capacity + 1];
+            for (int slot = 0; slot < nextSlot; slot++) {
+                if (sources[slot] != null) {
+                    updateTrees(slot, 1, sources[slot].getAttachmentTime().toEpochMilli());
+                }
+            }
+        }
+    }
+}
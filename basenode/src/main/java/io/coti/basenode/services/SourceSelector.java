@@ -6,13 +6,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
-import java.time.Duration;
 import java.time.Instant;
-import java.util.LinkedList;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Set;
-
-import static java.util.stream.Collectors.toList;
 
 @Slf4j
 @Component
@@ -24,97 +20,31 @@ public class SourceSelector implements ISourceSelector {
     private int maxNeighbourhoodRadius;
 
     @Override
-    public List<TransactionData> selectSourcesForAttachment(
-            List<Set<TransactionData>> trustScoreToTransactionMapping,
-            double transactionTrustScore) {
-
-        List<TransactionData> neighbourSources = getNeighbourSources(
-                trustScoreToTransactionMapping,
-                transactionTrustScore);
-
-        return selectTwoOptimalSources(neighbourSources);
-    }
-
-    private List<TransactionData> getNeighbourSources(
-            List<Set<TransactionData>> trustScoreToSourceListMapping,
-            double transactionTrustScore) {
-
-        List<TransactionData> neighbourSources = new LinkedList<>();
+    public List<TransactionData> selectSourcesForAttachment(SourceIndex sourceIndex, double transactionTrustScore) {
 
         int roundedTrustScore = (int) Math.round(transactionTrustScore);
-        int numberOfSources = getNumberOfSources(trustScoreToSourceListMapping);
-        if (numberOfSources > 0) {
-            int lowIndex = roundedTrustScore - 1;
-            int highIndex = roundedTrustScore + 1;
-
-            neighbourSources.addAll(trustScoreToSourceListMapping.get(roundedTrustScore));
-
-            for (int trustScoreDifference = 0; trustScoreDifference < maxNeighbourhoodRadius; trustScoreDifference++) {
-                if (lowIndex >= 0) {
-                    neighbourSources.addAll(trustScoreToSourceListMapping.get(lowIndex));
-                }
-                if (highIndex <= 100) {
-                    neighbourSources.addAll(trustScoreToSourceListMapping.get(highIndex));
-                }
-                if ((double) neighbourSources.size() / numberOfSources > (double) minSourcePercentage / 100) {
-                    break;
-                }
-                lowIndex--;
-                highIndex++;
-            }
+        int numberOfSources = sourceIndex.getNumberOfSources();
+        if (numberOfSources == 0) {
+            return new ArrayList<>();
         }
-        return neighbourSources;
-    }
+        int neighbourhoodRadius = getNeighbourhoodRadius(sourceIndex, roundedTrustScore, numberOfSources);
 
-    private int getNumberOfSources(List<Set<TransactionData>> trustScoreToSourceListMapping) {
-        int numberOfSources = 0;
-        for (int i = 0; i < trustScoreToSourceListMapping.size(); i++) {
-            if (trustScoreToSourceListMapping.get(i) != null) {
-                numberOfSources += trustScoreToSourceListMapping.get(i).size();
-            }
-        }
-        return numberOfSources;
+        return sourceIndex.selectWeightedSources(roundedTrustScore - neighbourhoodRadius, roundedTrustScore + neighbourhoodRadius, 2, Instant.now());
     }
 
-    public List<TransactionData> selectTwoOptimalSources(List<TransactionData> transactions) {
-
-        Instant now = Instant.now();
-        List<TransactionData> olderSources =
-                transactions.stream().
-                        filter(s -> !s.getAttachmentTime().isAfter(now)).collect(toList());
-
-        if (olderSources.size() <= 2) {
-            return olderSources;
-        }
-
-        // Calculate total timestamp differences from the transaction's timestamp
-        long totalWeight =
-                olderSources.stream().
-                        map(s -> Duration.between(s.getAttachmentTime(), now).toMillis()).mapToLong(Long::longValue).sum();
-
-        // Now choose sources, randomly weighted by timestamp difference ("older" transactions have a bigger chance to be selected)
-        List<TransactionData> randomWeightedSources = new LinkedList<>();
-        while (randomWeightedSources.size() < 2) {
+    private int getNeighbourhoodRadius(SourceIndex sourceIndex, int roundedTrustScore, int numberOfSources) {
 
-            int randomIndex = -1;
-            double random = Math.random() * totalWeight;
-            for (int i = 0; i < olderSources.size(); ++i) {
-                random -= Duration.between(olderSources.get(i).getAttachmentTime(), now).toMillis();
-                if (random < 0.0d) {
-                    randomIndex = i;
-                    break;
-                }
-            }
-
-            TransactionData randomSource = olderSources.get(randomIndex);
-
-            if (randomWeightedSources.isEmpty() || (randomWeightedSources.size() == 1 && randomSource != randomWeightedSources.iterator().next())) {
-                randomWeightedSources.add(randomSource);
+        int numberOfNeighbourSources = sourceIndex.getNumberOfSources(roundedTrustScore);
+        int neighbourhoodRadius = 0;
+        while (neighbourhoodRadius < maxNeighbourhoodRadius) {
+            neighbourhoodRadius++;
+            numberOfNeighbourSources += sourceIndex.getNumberOfSources(roundedTrustScore - neighbourhoodRadius, roundedTrustScore - neighbourhoodRadius)
+                    + sourceIndex.getNumberOfSources(roundedTrustScore + neighbourhoodRadius, roundedTrustScore + neighbourhoodRadius);
+            if ((double) numberOfNeighbourSources / numberOfSources > (double) minSourcePercentage / 100) {
+                break;
             }
         }
-
-        return randomWeightedSources;
-
+        return neighbourhoodRadius;
     }
 
 }
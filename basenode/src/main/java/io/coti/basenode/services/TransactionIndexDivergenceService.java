@@ -0,0 +1,61 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.http.GetTransactionIndexCheckpointsResponse;
+import io.coti.basenode.http.GetTransactionIndexDivergenceResponse;
+import io.coti.basenode.http.GetTransactionIndexResponse;
+import io.coti.basenode.http.Response;
+import io.coti.basenode.http.interfaces.IResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static io.coti.basenode.http.BaseNodeHttpStringConstants.SERVER_ERROR;
+import static io.coti.basenode.http.BaseNodeHttpStringConstants.STATUS_ERROR;
+
+@Slf4j
+@Service
+public class TransactionIndexDivergenceService {
+
+    private static final String TRANSACTION_INDEX_ENDPOINT = "/transaction_index?index={index}";
+    private static final String TRANSACTION_INDEX_CHECKPOINTS_ENDPOINT = "/transaction_index/checkpoints";
+    @Autowired
+    private TransactionIndexService transactionIndexService;
+    @Autowired
+    private RestTemplate restTemplate;
+
+    public ResponseEntity<IResponse> getFirstDivergentIndex(String peerHttpAddress) {
+        try {
+            GetTransactionIndexCheckpointsResponse peerCheckpoints = restTemplate.getForObject(peerHttpAddress + TRANSACTION_INDEX_CHECKPOINTS_ENDPOINT, GetTransactionIndexCheckpointsResponse.class);
+            List<byte[]> peerCheckpointAccumulatedHashes = new ArrayList<>();
+            if (peerCheckpoints.getCheckpointInterval() == transactionIndexService.getCheckpointInterval()) {
+                peerCheckpoints.getAccumulatedHashes().forEach(accumulatedHash -> peerCheckpointAccumulatedHashes.add(accumulatedHash != null ? new Hash(accumulatedHash).getBytes() : null));
+            } else {
+                log.warn("Peer {} has checkpoint interval {}. Searching without checkpoints", peerHttpAddress, peerCheckpoints.getCheckpointInterval());
+            }
+            AtomicInteger peerRequests = new AtomicInteger(1);
+            long firstDivergentIndex = transactionIndexService.findFirstDivergentIndex(peerCheckpoints.getLastIndex(), peerCheckpointAccumulatedHashes, index -> {
+                peerRequests.incrementAndGet();
+                return getPeerAccumulatedHash(peerHttpAddress, index);
+            });
+            log.info("First divergent transaction index with peer {} is {}, found with {} requests", peerHttpAddress, firstDivergentIndex, peerRequests.get());
+            return ResponseEntity.ok(new GetTransactionIndexDivergenceResponse(transactionIndexService.getLastTransactionIndexData().getIndex(), peerCheckpoints.getLastIndex(),
+                    firstDivergentIndex, peerRequests.get()));
+        } catch (Exception e) {
+            log.error("Error at searching divergent transaction index with peer {}", peerHttpAddress, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(new Response(SERVER_ERROR, STATUS_ERROR));
+        }
+    }
+
+    private byte[] getPeerAccumulatedHash(String peerHttpAddress, long index) {
+        GetTransactionIndexResponse getTransactionIndexResponse = restTemplate.getForObject(peerHttpAddress + TRANSACTION_INDEX_ENDPOINT, GetTransactionIndexResponse.class, index);
+        return new Hash(getTransactionIndexResponse.getAccumulatedHash()).getBytes();
+    }
+}
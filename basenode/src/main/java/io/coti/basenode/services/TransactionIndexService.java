@@ -1,18 +1,31 @@
 package io.coti.basenode.services;
 
-import io.coti.basenode.crypto.CryptoHelper;
+import io.coti.basenode.crypto.AccumulatedHashDigest;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TransactionData;
 import io.coti.basenode.data.TransactionIndexData;
+import io.coti.basenode.http.GetTransactionIndexCheckpointsResponse;
+import io.coti.basenode.http.GetTransactionIndexResponse;
+import io.coti.basenode.http.Response;
+import io.coti.basenode.http.interfaces.IResponse;
 import io.coti.basenode.model.TransactionIndexes;
 import io.coti.basenode.services.interfaces.ITransactionHelper;
 import lombok.extern.slf4j.Slf4j;
+import org.rocksdb.WriteBatch;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.LongFunction;
+
+import static io.coti.basenode.http.BaseNodeHttpStringConstants.STATUS_ERROR;
+import static io.coti.basenode.http.BaseNodeHttpStringConstants.TRANSACTION_INDEX_NOT_FOUND;
 
 @Slf4j
 @Service
@@ -22,32 +35,86 @@ public class TransactionIndexService {
     private ITransactionHelper transactionHelper;
     @Autowired
     private TransactionIndexes transactionIndexes;
-    private TransactionIndexData lastTransactionIndexData;
+    private volatile TransactionIndexData lastTransactionIndexData;
+    private TransactionIndexData uncommittedTransactionIndexData;
+    private final List<TransactionData> uncommittedIndexedTransactions = new ArrayList<>();
+    private final ThreadLocal<AccumulatedHashDigest> accumulatedHashDigest = ThreadLocal.withInitial(() -> new AccumulatedHashDigest(new byte[0]));
+    @Value("${transaction.index.checkpoint.interval}")
+    private long checkpointInterval;
 
     public void init() {
         log.info("{} is up", this.getClass().getSimpleName());
     }
 
     public synchronized Optional<Boolean> insertNewTransactionIndex(TransactionData transactionData) {
+        waitForUncommittedTransactionIndexes();
+        return insertNewTransactionIndex(transactionData, null);
+    }
+
+    private void waitForUncommittedTransactionIndexes() {
+        boolean interrupted = false;
+        while (uncommittedTransactionIndexData != null) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public synchronized Optional<Boolean> insertNewTransactionIndex(TransactionData transactionData, WriteBatch writeBatch) {
+        TransactionIndexData currentTransactionIndexData = uncommittedTransactionIndexData != null ? uncommittedTransactionIndexData : lastTransactionIndexData;
         if (transactionData.getDspConsensusResult() == null) {
             log.error("Invalid transaction index for transaction {}", transactionData.getHash());
             return Optional.empty();
         }
-        if (transactionData.getDspConsensusResult().getIndex() < lastTransactionIndexData.getIndex() + 1) {
+        if (transactionData.getDspConsensusResult().getIndex() < currentTransactionIndexData.getIndex() + 1) {
             log.debug("Already inserted index {}", transactionData.getDspConsensusResult().getIndex());
             return Optional.empty();
         }
-        if (transactionData.getDspConsensusResult().getIndex() == lastTransactionIndexData.getIndex() + 1) {
-            log.debug("Inserting new transaction {} with index: {}", transactionData.getHash(), lastTransactionIndexData.getIndex() + 1);
-            lastTransactionIndexData = getNextIndexData(lastTransactionIndexData, transactionData);
-            transactionIndexes.put(lastTransactionIndexData);
-            transactionHelper.removeNoneIndexedTransaction(transactionData);
+        if (transactionData.getDspConsensusResult().getIndex() == currentTransactionIndexData.getIndex() + 1) {
+            log.debug("Inserting new transaction {} with index: {}", transactionData.getHash(), currentTransactionIndexData.getIndex() + 1);
+            TransactionIndexData nextTransactionIndexData = getNextIndexData(currentTransactionIndexData, transactionData);
+            if (writeBatch == null) {
+                transactionIndexes.put(nextTransactionIndexData);
+                lastTransactionIndexData = nextTransactionIndexData;
+                transactionHelper.removeNoneIndexedTransaction(transactionData);
+            } else {
+                transactionIndexes.put(writeBatch, nextTransactionIndexData);
+                uncommittedTransactionIndexData = nextTransactionIndexData;
+                uncommittedIndexedTransactions.add(transactionData);
+            }
             return Optional.of(Boolean.TRUE);
         } else {
             return Optional.of(Boolean.FALSE);
         }
     }
 
+    public synchronized List<Optional<Boolean>> insertNewTransactionIndexes(List<TransactionData> transactionDataList, WriteBatch writeBatch) {
+        List<Optional<Boolean>> insertNewTransactionIndexResults = new ArrayList<>(transactionDataList.size());
+        transactionDataList.forEach(transactionData -> insertNewTransactionIndexResults.add(insertNewTransactionIndex(transactionData, writeBatch)));
+        return insertNewTransactionIndexResults;
+    }
+
+    public synchronized void commitTransactionIndexes() {
+        if (uncommittedTransactionIndexData != null) {
+            lastTransactionIndexData = uncommittedTransactionIndexData;
+            uncommittedTransactionIndexData = null;
+        }
+        uncommittedIndexedTransactions.forEach(transactionHelper::removeNoneIndexedTransaction);
+        uncommittedIndexedTransactions.clear();
+        notifyAll();
+    }
+
+    public synchronized void discardTransactionIndexes() {
+        uncommittedTransactionIndexData = null;
+        uncommittedIndexedTransactions.clear();
+        notifyAll();
+    }
+
     public TransactionIndexData getLastTransactionIndexData() {
         return lastTransactionIndexData;
     }
@@ -64,10 +131,74 @@ public class TransactionIndexService {
     }
 
     public byte[] getAccumulatedHash(byte[] previousAccumulatedHash, Hash newTransactionHash, long newIndex) {
-        byte[] newTransactionHashBytes = newTransactionHash.getBytes();
-        ByteBuffer combinedHash = ByteBuffer.allocate(previousAccumulatedHash.length + newTransactionHashBytes.length + Long.BYTES);
-        combinedHash.put(previousAccumulatedHash).put(newTransactionHashBytes).putLong(newIndex);
-        return CryptoHelper.cryptoHash(combinedHash.array()).getBytes();
+        AccumulatedHashDigest digest = accumulatedHashDigest.get();
+        digest.reset(previousAccumulatedHash);
+        digest.update(newTransactionHash, newIndex);
+        return digest.getAccumulatedHash();
+    }
+
+    public byte[] getAccumulatedHash(long index) {
+        TransactionIndexData transactionIndexData = transactionIndexes.getByHash(new Hash(index));
+        return transactionIndexData != null ? transactionIndexData.getAccumulatedHash() : null;
+    }
+
+    public List<byte[]> getCheckpointAccumulatedHashes() {
+        List<Hash> checkpointIndexHashes = new ArrayList<>();
+        for (long index = 0; index <= lastTransactionIndexData.getIndex(); index += checkpointInterval) {
+            checkpointIndexHashes.add(new Hash(index));
+        }
+        List<byte[]> checkpointAccumulatedHashes = new ArrayList<>(checkpointIndexHashes.size());
+        transactionIndexes.forEachByHashes(checkpointIndexHashes, false, (checkpointIndexHash, transactionIndexData) ->
+                checkpointAccumulatedHashes.add(transactionIndexData != null ? transactionIndexData.getAccumulatedHash() : null)
+        );
+        return checkpointAccumulatedHashes;
+    }
+
+    public long getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public long findFirstDivergentIndex(long peerLastIndex, List<byte[]> peerCheckpointAccumulatedHashes, LongFunction<byte[]> peerAccumulatedHashProvider) {
+        long commonLastIndex = Math.min(lastTransactionIndexData.getIndex(), peerLastIndex);
+        return findFirstDivergentIndex(commonLastIndex, checkpointInterval, this::getAccumulatedHash, peerCheckpointAccumulatedHashes, peerAccumulatedHashProvider);
+    }
+
+    static long findFirstDivergentIndex(long commonLastIndex, long checkpointInterval, LongFunction<byte[]> localAccumulatedHashProvider,
+                                        List<byte[]> peerCheckpointAccumulatedHashes, LongFunction<byte[]> peerAccumulatedHashProvider) {
+        int checkpoints = (int) Math.min(peerCheckpointAccumulatedHashes.size(), Math.floorDiv(commonLastIndex, checkpointInterval) + 1);
+        int lowerCheckpoint = 0;
+        int upperCheckpoint = checkpoints;
+        while (lowerCheckpoint < upperCheckpoint) {
+            int middleCheckpoint = (lowerCheckpoint + upperCheckpoint) >>> 1;
+            if (Arrays.equals(localAccumulatedHashProvider.apply(middleCheckpoint * checkpointInterval), peerCheckpointAccumulatedHashes.get(middleCheckpoint))) {
+                lowerCheckpoint = middleCheckpoint + 1;
+            } else {
+                upperCheckpoint = middleCheckpoint;
+            }
+        }
+        long lowerIndex = lowerCheckpoint > 0 ? (lowerCheckpoint - 1) * checkpointInterval + 1 : 0;
+        long upperIndex = lowerCheckpoint < checkpoints ? lowerCheckpoint * checkpointInterval : commonLastIndex + 1;
+        while (lowerIndex < upperIndex) {
+            long middleIndex = (lowerIndex + upperIndex) >>> 1;
+            if (Arrays.equals(localAccumulatedHashProvider.apply(middleIndex), peerAccumulatedHashProvider.apply(middleIndex))) {
+                lowerIndex = middleIndex + 1;
+            } else {
+                upperIndex = middleIndex;
+            }
+        }
+        return lowerIndex;
+    }
+
+    public ResponseEntity<IResponse> getTransactionIndex(long index) {
+        TransactionIndexData transactionIndexData = transactionIndexes.getByHash(new Hash(index));
+        if (transactionIndexData == null) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new Response(String.format(TRANSACTION_INDEX_NOT_FOUND, index), STATUS_ERROR));
+        }
+        return ResponseEntity.ok(new GetTransactionIndexResponse(transactionIndexData));
+    }
+
+    public ResponseEntity<IResponse> getTransactionIndexCheckpoints() {
+        return ResponseEntity.ok(new GetTransactionIndexCheckpointsResponse(lastTransactionIndexData.getIndex(), checkpointInterval, getCheckpointAccumulatedHashes()));
     }
 
     public Boolean isSynchronized(TransactionIndexData transactionIndexData) {
@@ -0,0 +1,113 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.TransactionIndexRangeData;
+import io.coti.basenode.exceptions.TransactionSyncException;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+@Slf4j
+class TransactionRangeChunkScheduler {
+
+    private final List<TransactionIndexRangeData> ranges;
+    private final int window;
+    private final long slowRangeMillis;
+    private final TreeSet<Integer> pendingRanges = new TreeSet<>();
+    private final Map<Integer, String> assignedPeers = new HashMap<>();
+    private final Map<Integer, Long> assignmentTimes = new HashMap<>();
+    private final Map<Integer, List<TransactionData>> downloadedRanges = new HashMap<>();
+    private int activePeers;
+    private int nextRange;
+    private int reassignedRanges;
+    private boolean aborted;
+
+    TransactionRangeChunkScheduler(List<TransactionIndexRangeData> ranges, int peers, int window, long slowRangeMillis) {
+        this.ranges = ranges;
+        this.window = window;
+        this.slowRangeMillis = slowRangeMillis;
+        this.activePeers = peers;
+        for (int rangeNumber = 0; rangeNumber < ranges.size(); rangeNumber++) {
+            pendingRanges.add(rangeNumber);
+        }
+    }
+
+    synchronized TransactionIndexRangeData take(String peerAddress, long peerLastIndex) throws InterruptedException {
+        while (!aborted && nextRange < ranges.size() && ranges.get(nextRange).getEndingIndex() <= peerLastIndex) {
+            for (Integer rangeNumber : pendingRanges) {
+                if (rangeNumber >= nextRange + window) {
+                    break;
+                }
+                TransactionIndexRangeData range = ranges.get(rangeNumber);
+                if (range.getEndingIndex() <= peerLastIndex && (activePeers == 1 || !peerAddress.equals(assignedPeers.get(rangeNumber)))) {
+                    pendingRanges.remove(rangeNumber);
+                    assignedPeers.put(rangeNumber, peerAddress);
+                    assignmentTimes.put(rangeNumber, System.currentTimeMillis());
+                    return range;
+                }
+            }
+            wait(1000);
+        }
+        return null;
+    }
+
+    synchronized void complete(TransactionIndexRangeData range, List<TransactionData> transactions) {
+        int rangeNumber = range.getRangeNumber();
+        if (rangeNumber >= nextRange && !downloadedRanges.containsKey(rangeNumber)) {
+            downloadedRanges.put(rangeNumber, transactions);
+            pendingRanges.remove(rangeNumber);
+            notifyAll();
+        }
+    }
+
+    synchronized void fail(TransactionIndexRangeData range, String peerAddress) {
+        int rangeNumber = range.getRangeNumber();
+        if (rangeNumber >= nextRange && !downloadedRanges.containsKey(rangeNumber) && peerAddress.equals(assignedPeers.get(rangeNumber))) {
+            pendingRanges.add(rangeNumber);
+            notifyAll();
+        }
+    }
+
+    synchronized void removePeer() {
+        activePeers--;
+        notifyAll();
+    }
+
+    synchronized void abort() {
+        aborted = true;
+        notifyAll();
+    }
+
+    synchronized List<TransactionData> takeNext() throws InterruptedException {
+        while (!downloadedRanges.containsKey(nextRange)) {
+            if (aborted) {
+                throw new TransactionSyncException("Range sync is aborted");
+            }
+            if (activePeers == 0) {
+                TransactionIndexRangeData range = ranges.get(nextRange);
+                throw new TransactionSyncException(String.format("No peer is left to download transaction indexes %s-%s", range.getStartingIndex(), range.getEndingIndex()));
+            }
+            Long assignmentTime = assignmentTimes.get(nextRange);
+            long now = System.currentTimeMillis();
+            if (activePeers > 1 && assignmentTime != null && !pendingRanges.contains(nextRange) && now - assignmentTime >= slowRangeMillis) {
+                log.warn("Peer {} is slow to send transaction index range {}. Reassigning", assignedPeers.get(nextRange), nextRange);
+                pendingRanges.add(nextRange);
+                assignmentTimes.put(nextRange, now);
+                reassignedRanges++;
+                notifyAll();
+            }
+            wait(assignmentTime != null ? Math.max(1, Math.min(slowRangeMillis, 1000)) : 1000);
+        }
+        List<TransactionData> transactions = downloadedRanges.remove(nextRange);
+        nextRange++;
+        notifyAll();
+        return transactions;
+    }
+
+    synchronized int getReassignedRanges() {
+        return reassignedRanges;
+    }
+}
@@ -0,0 +1,279 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.communication.JacksonSerializer;
+import io.coti.basenode.crypto.AccumulatedHashDigest;
+import io.coti.basenode.data.*;
+import io.coti.basenode.exceptions.TransactionSyncException;
+import io.coti.basenode.http.GetTransactionIndexCheckpointsResponse;
+import io.coti.basenode.model.AddressTransactionsHistories;
+import io.coti.basenode.services.interfaces.*;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+@Slf4j
+@Service
+public class TransactionRangeSynchronizationService {
+
+    @Autowired
+    private TransactionIndexService transactionIndexService;
+    @Autowired
+    private ITransactionService transactionService;
+    @Autowired
+    private ITransactionHelper transactionHelper;
+    @Autowired
+    private IClusterService clusterService;
+    @Autowired
+    private INetworkService networkService;
+    @Autowired
+    private IValidationService validationService;
+    @Autowired
+    private AddressTransactionsHistories addressTransactionsHistories;
+    @Autowired
+    private JacksonSerializer jacksonSerializer;
+    @Autowired
+    private RestTemplate restTemplate;
+    @Value("${transaction.sync.range.peers}")
+    private String rangePeerAddresses;
+    @Value("${transaction.sync.range.window}")
+    private int window;
+    @Value("${transaction.sync.range.slow.seconds}")
+    private long slowRangeSeconds;
+    @Value("${transaction.sync.range.peer.max.failures}")
+    private int maxPeerFailures;
+    @Value("${transaction.sync.batch.size}")
+    private int batchSize;
+    @Value("${transaction.sync.compression.enabled}")
+    private boolean compressionEnabled;
+
+    public boolean isEnabled() {
+        return !rangePeerAddresses.trim().isEmpty();
+    }
+
+    public void requestMissingTransactionRanges(long firstMissingTransactionIndex) {
+        Set<String> peerAddresses = new LinkedHashSet<>();
+        if (networkService.getRecoveryServerAddress() != null) {
+            peerAddresses.add(networkService.getRecoveryServerAddress());
+        }
+        for (String peerAddress : rangePeerAddresses.split(",")) {
+            if (!peerAddress.trim().isEmpty()) {
+                peerAddresses.add(peerAddress.trim());
+            }
+        }
+        List<ITransactionRangePeer> peers = new ArrayList<>();
+        peerAddresses.forEach(peerAddress -> peers.add(new HttpTransactionRangePeer(peerAddress, restTemplate, jacksonSerializer, compressionEnabled)));
+        requestMissingTransactionRanges(peers, firstMissingTransactionIndex);
+    }
+
+    public void requestMissingTransactionRanges(List<ITransactionRangePeer> peers, long firstMissingTransactionIndex) {
+        Map<ITransactionRangePeer, Long> peerLastIndexes = new LinkedHashMap<>();
+        Map<Long, Map<String, Integer>> checkpointAccumulatedHashVotes = new HashMap<>();
+        long checkpointInterval = transactionIndexService.getCheckpointInterval();
+        peers.forEach(peer -> {
+            try {
+                GetTransactionIndexCheckpointsResponse peerCheckpoints = peer.getTransactionIndexCheckpoints();
+                if (peerCheckpoints.getCheckpointInterval() != checkpointInterval) {
+                    log.warn("Peer {} has checkpoint interval {}. Skipping it for range sync", peer.getAddress(), peerCheckpoints.getCheckpointInterval());
+                    return;
+                }
+                peerLastIndexes.put(peer, peerCheckpoints.getLastIndex());
+                List<String> accumulatedHashes = peerCheckpoints.getAccumulatedHashes();
+                for (int i = 0; i < accumulatedHashes.size(); i++) {
+                    if (accumulatedHashes.get(i) != null) {
+                        checkpointAccumulatedHashVotes.computeIfAbsent(i * checkpointInterval, checkpointIndex -> new HashMap<>()).merge(accumulatedHashes.get(i), 1, Integer::sum);
+                    }
+                }
+            } catch (Exception e) {
+                log.warn("Error at getting transaction index checkpoints of peer {}. Skipping it for range sync: {}", peer.getAddress(), e.getMessage());
+            }
+        });
+        if (peerLastIndexes.isEmpty()) {
+            log.warn("No peer is available for range sync");
+            return;
+        }
+        int quorum = peerLastIndexes.size() / 2 + 1;
+        List<Long> lastIndexes = new ArrayList<>(peerLastIndexes.values());
+        lastIndexes.sort(Collections.reverseOrder());
+        long targetIndex = lastIndexes.get(quorum - 1);
+        if (targetIndex < firstMissingTransactionIndex) {
+            log.info("No missing transaction indexes for range sync");
+            return;
+        }
+        byte[] targetAccumulatedHash = getTargetAccumulatedHash(peerLastIndexes, targetIndex, quorum);
+        if (targetAccumulatedHash == null) {
+            long checkpointIndex = Math.floorDiv(targetIndex, checkpointInterval) * checkpointInterval;
+            while (checkpointIndex >= firstMissingTransactionIndex
+                    && (targetAccumulatedHash = getMajorityAccumulatedHash(checkpointAccumulatedHashVotes.get(checkpointIndex), quorum)) == null) {
+                checkpointIndex -= checkpointInterval;
+            }
+            if (targetAccumulatedHash == null) {
+                log.warn("No majority of peers agrees on an accumulated hash of the missing transaction indexes. Skipping range sync");
+                return;
+            }
+            log.warn("No majority of peers agrees on the accumulated hash of transaction index {}. Range sync is limited to index {}", targetIndex, checkpointIndex);
+            targetIndex = checkpointIndex;
+        }
+        List<TransactionIndexRangeData> ranges = getRanges(firstMissingTransactionIndex, targetIndex, targetAccumulatedHash, checkpointInterval, checkpointAccumulatedHashVotes, quorum);
+        log.info("Starting range sync of transaction indexes {}-{} in {} ranges from {} peers", firstMissingTransactionIndex, targetIndex, ranges.size(), peerLastIndexes.size());
+
+        TransactionRangeChunkScheduler scheduler = new TransactionRangeChunkScheduler(ranges, peerLastIndexes.size(), window, slowRangeSeconds * 1000);
+        ExecutorService peerExecutor = Executors.newFixedThreadPool(peerLastIndexes.size());
+        AtomicLong receivedTransactionNumber = new AtomicLong(0);
+        AtomicLong completedTransactionNumber = new AtomicLong(0);
+        Thread monitorRangeTransactionThread = transactionService.monitorTransactionThread("range", completedTransactionNumber, receivedTransactionNumber);
+        try {
+            monitorRangeTransactionThread.start();
+            peerLastIndexes.forEach((peer, peerLastIndex) -> peerExecutor.execute(() -> downloadRanges(peer, peerLastIndex, scheduler, receivedTransactionNumber)));
+            applyRanges(ranges.size(), scheduler, completedTransactionNumber);
+            log.info("Finished range sync of transaction indexes {}-{}. Reassigned {} slow ranges", firstMissingTransactionIndex, targetIndex, scheduler.getReassignedRanges());
+        } catch (TransactionSyncException e) {
+            throw new TransactionSyncException("Error at range sync.\n" + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionSyncException("Interrupted at range sync", e);
+        } finally {
+            scheduler.abort();
+            monitorRangeTransactionThread.interrupt();
+            peerExecutor.shutdownNow();
+        }
+    }
+
+    private byte[] getTargetAccumulatedHash(Map<ITransactionRangePeer, Long> peerLastIndexes, long targetIndex, int quorum) {
+        Map<String, Integer> targetAccumulatedHashVotes = new HashMap<>();
+        peerLastIndexes.forEach((peer, peerLastIndex) -> {
+            if (peerLastIndex < targetIndex) {
+                return;
+            }
+            try {
+                byte[] accumulatedHash = peer.getAccumulatedHash(targetIndex);
+                if (accumulatedHash != null) {
+                    targetAccumulatedHashVotes.merge(new Hash(accumulatedHash).toHexString(), 1, Integer::sum);
+                }
+            } catch (Exception e) {
+                log.warn("Error at getting accumulated hash of transaction index {} from peer {}: {}", targetIndex, peer.getAddress(), e.getMessage());
+            }
+        });
+        return getMajorityAccumulatedHash(targetAccumulatedHashVotes, quorum);
+    }
+
+    private List<TransactionIndexRangeData> getRanges(long firstMissingTransactionIndex, long targetIndex, byte[] targetAccumulatedHash, long checkpointInterval,
+                                                      Map<Long, Map<String, Integer>> checkpointAccumulatedHashVotes, int quorum) {
+        List<TransactionIndexRangeData> ranges = new ArrayList<>();
+        long startingIndex = firstMissingTransactionIndex;
+        byte[] startingAccumulatedHash = transactionIndexService.getLastTransactionIndexData().getAccumulatedHash();
+        while (startingIndex <= targetIndex) {
+            long endingIndex = Math.floorDiv(startingIndex, checkpointInterval) * checkpointInterval + checkpointInterval;
+            byte[] endingAccumulatedHash = null;
+            while (endingIndex < targetIndex && (endingAccumulatedHash = getMajorityAccumulatedHash(checkpointAccumulatedHashVotes.get(endingIndex), quorum)) == null) {
+                endingIndex += checkpointInterval;
+            }
+            if (endingIndex >= targetIndex) {
+                endingIndex = targetIndex;
+                endingAccumulatedHash = targetAccumulatedHash;
+            }
+            ranges.add(new TransactionIndexRangeData(ranges.size(), startingIndex, endingIndex, startingAccumulatedHash, endingAccumulatedHash));
+            startingIndex = endingIndex + 1;
+            startingAccumulatedHash = endingAccumulatedHash;
+        }
+        return ranges;
+    }
+
+    private byte[] getMajorityAccumulatedHash(Map<String, Integer> accumulatedHashVotes, int quorum) {
+        if (accumulatedHashVotes == null) {
+            return null;
+        }
+        for (Map.Entry<String, Integer> accumulatedHashVote : accumulatedHashVotes.entrySet()) {
+            if (accumulatedHashVote.getValue() >= quorum) {
+                return new Hash(accumulatedHashVote.getKey()).getBytes();
+            }
+        }
+        return null;
+    }
+
+    private void downloadRanges(ITransactionRangePeer peer, long peerLastIndex, TransactionRangeChunkScheduler scheduler, AtomicLong receivedTransactionNumber) {
+        int failures = 0;
+        try {
+            TransactionIndexRangeData range;
+            while (failures < maxPeerFailures && (range = scheduler.take(peer.getAddress(), peerLastIndex)) != null) {
+                try {
+                    List<TransactionData> transactions = peer.getTransactions(range.getStartingIndex(), range.getEndingIndex());
+                    verifyRange(range, transactions);
+                    TransactionData invalidTransactionData = getInvalidTransaction(transactions);
+                    if (invalidTransactionData != null) {
+                        log.error("Peer {} sent transaction {} which fails the integrity validation. Removing it from range sync", peer.getAddress(), invalidTransactionData.getHash());
+                        scheduler.fail(range, peer.getAddress());
+                        return;
+                    }
+                    scheduler.complete(range, transactions);
+                    receivedTransactionNumber.addAndGet(transactions.size());
+                    failures = 0;
+                } catch (Exception e) {
+                    failures++;
+                    log.warn("Error at getting transaction indexes {}-{} from peer {}: {}", range.getStartingIndex(), range.getEndingIndex(), peer.getAddress(), e.getMessage());
+                    scheduler.fail(range, peer.getAddress());
+                }
+            }
+            if (failures >= maxPeerFailures) {
+                log.error("Peer {} failed {} times in a row. Removing it from range sync", peer.getAddress(), failures);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            scheduler.removePeer();
+        }
+    }
+
+    static void verifyRange(TransactionIndexRangeData range, List<TransactionData> transactions) {
+        if (transactions.size() != range.getEndingIndex() - range.getStartingIndex() + 1) {
+            throw new TransactionSyncException(String.format("Expected %s transactions but received %s", range.getEndingIndex() - range.getStartingIndex() + 1, transactions.size()));
+        }
+        AccumulatedHashDigest accumulatedHashDigest = new AccumulatedHashDigest(range.getStartingAccumulatedHash());
+        long index = range.getStartingIndex();
+        for (TransactionData transactionData : transactions) {
+            DspConsensusResult dspConsensusResult = transactionData.getDspConsensusResult();
+            if (dspConsensusResult == null || dspConsensusResult.getIndex() != index) {
+                throw new TransactionSyncException(String.format("Transaction %s is not at index %s", transactionData.getHash(), index));
+            }
+            accumulatedHashDigest.update(transactionData.getHash(), index);
+            index++;
+        }
+        if (!accumulatedHashDigest.matches(range.getEndingAccumulatedHash())) {
+            throw new TransactionSyncException(String.format("Accumulated hash mismatch at transaction index %s", range.getEndingIndex()));
+        }
+    }
+
+    private TransactionData getInvalidTransaction(List<TransactionData> transactions) {
+        for (TransactionData transactionData : transactions) {
+            if (!validationService.validatePropagatedTransactionDataIntegrity(transactionData)) {
+                return transactionData;
+            }
+        }
+        return null;
+    }
+
+    private void applyRanges(int rangeCount, TransactionRangeChunkScheduler scheduler, AtomicLong completedTransactionNumber) throws InterruptedException {
+        Set<Hash> trustChainUnconfirmedExistingTransactionHashes = clusterService.getTrustChainConfirmationTransactionHashes();
+        Map<Hash, AddressTransactionsHistory> addressToTransactionsHistoryMap = new ConcurrentHashMap<>();
+        try {
+            for (int rangeNumber = 0; rangeNumber < rangeCount; rangeNumber++) {
+                List<TransactionData> transactions = scheduler.takeNext();
+                for (int i = 0; i < transactions.size(); i += batchSize) {
+                    List<TransactionData> transactionBatch = transactions.subList(i, Math.min(i + batchSize, transactions.size()));
+                    transactionService.handleMissingTransactions(transactionBatch, trustChainUnconfirmedExistingTransactionHashes);
+                    transactionBatch.forEach(transactionData -> transactionHelper.updateAddressTransactionHistory(addressToTransactionsHistoryMap, transactionData));
+                    completedTransactionNumber.addAndGet(transactionBatch.size());
+                }
+            }
+        } finally {
+            addressTransactionsHistories.putBatch(addressToTransactionsHistoryMap);
+        }
+    }
+}
@@ -4,19 +4,22 @@ import io.coti.basenode.communication.JacksonSerializer;
 import io.coti.basenode.data.AddressTransactionsHistory;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.TransactionSyncStatisticsData;
 import io.coti.basenode.exceptions.TransactionSyncException;
+import io.coti.basenode.http.StreamFraming;
+import io.coti.basenode.http.StreamRecordReader;
 import io.coti.basenode.model.AddressTransactionsHistories;
 import io.coti.basenode.services.interfaces.*;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpMethod;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.ResponseExtractor;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicLong;
 
 @Service
@@ -25,7 +28,8 @@ public class TransactionSynchronizationService implements ITransactionSynchroniz
 
     private static final String RECOVERY_NODE_GET_BATCH_ENDPOINT = "/transaction_batch";
     private static final String STARTING_INDEX_URL_PARAM_ENDPOINT = "?starting_index=";
-    private static final long MAXIMUM_BUFFER_SIZE = 300000;
+    static final int MAXIMUM_RECORD_SIZE = 300000;
+    private static final Future<TransactionData> END_OF_TRANSACTIONS = CompletableFuture.completedFuture(null);
     @Autowired
     private ITransactionHelper transactionHelper;
     @Autowired
@@ -35,107 +39,167 @@ public class TransactionSynchronizationService implements ITransactionSynchroniz
     @Autowired
     private INetworkService networkService;
     @Autowired
+    private IValidationService validationService;
+    @Autowired
     private AddressTransactionsHistories addressTransactionsHistories;
     @Autowired
     private JacksonSerializer jacksonSerializer;
     @Autowired
     private RestTemplate restTemplate;
-    private final Object finishLock = new Object();
+    @Value("${transaction.sync.pipeline.capacity}")
+    private int pipelineCapacity;
+    @Value("${transaction.sync.deserialization.workers}")
+    private int deserializationWorkers;
+    @Value("${transaction.sync.batch.size}")
+    private int batchSize;
+    @Value("${transaction.sync.verification.enabled}")
+    private boolean verificationEnabled;
+    @Value("${transaction.sync.compression.enabled}")
+    private boolean compressionEnabled;
+    private final AtomicLong receivedTransactions = new AtomicLong();
+    private final AtomicLong deserializedTransactions = new AtomicLong();
+    private final AtomicLong appliedTransactions = new AtomicLong();
+    private volatile BlockingQueue<Future<TransactionData>> pendingTransactions;
+    private volatile long syncStartTime;
+    private volatile long syncEndTime;
 
     public synchronized void requestMissingTransactions(long firstMissingTransactionIndex) {
+        log.info("Starting to get missing transactions");
+        Set<Hash> trustChainUnconfirmedExistingTransactionHashes = clusterService.getTrustChainConfirmationTransactionHashes();
+        BlockingQueue<Future<TransactionData>> pendingTransactionQueue = new ArrayBlockingQueue<>(pipelineCapacity);
+        ExecutorService deserializationExecutor = Executors.newFixedThreadPool(deserializationWorkers);
+        ExecutorService applyExecutor = Executors.newSingleThreadExecutor();
+        Thread monitorMissingTransactionThread = transactionService.monitorTransactionThread("missing", appliedTransactions, receivedTransactions);
+        startStatistics(pendingTransactionQueue);
         try {
-            log.info("Starting to get missing transactions");
-            List<TransactionData> missingTransactions = new ArrayList<>();
-            Set<Hash> trustChainUnconfirmedExistingTransactionHashes = clusterService.getTrustChainConfirmationTransactionHashes();
-            AtomicLong completedMissingTransactionNumber = new AtomicLong(0);
-            AtomicLong receivedMissingTransactionNumber = new AtomicLong(0);
-            final AtomicBoolean finishedToReceive = new AtomicBoolean(false);
-            final AtomicBoolean finishedToInsert = new AtomicBoolean(false);
-            Thread monitorMissingTransactionThread = transactionService.monitorTransactionThread("missing", completedMissingTransactionNumber, receivedMissingTransactionNumber);
-            Thread insertMissingTransactionThread = insertMissingTransactionThread(missingTransactions, trustChainUnconfirmedExistingTransactionHashes, completedMissingTransactionNumber, monitorMissingTransactionThread, finishedToReceive, finishedToInsert);
-            ResponseExtractor responseExtractor = getResponseExtractorForMissingTransactionChunks(missingTransactions, receivedMissingTransactionNumber, insertMissingTransactionThread);
+            monitorMissingTransactionThread.start();
+            Future<Void> applyFuture = applyExecutor.submit(() -> applyMissingTransactions(pendingTransactionQueue, trustChainUnconfirmedExistingTransactionHashes));
+            ResponseExtractor<Void> responseExtractor = getResponseExtractorForMissingTransactions(pendingTransactionQueue, deserializationExecutor, applyFuture);
             restTemplate.execute(networkService.getRecoveryServerAddress() + RECOVERY_NODE_GET_BATCH_ENDPOINT
-                    + STARTING_INDEX_URL_PARAM_ENDPOINT + firstMissingTransactionIndex, HttpMethod.GET, null, responseExtractor);
-            if (insertMissingTransactionThread.isAlive()) {
-                log.info("Received all {} missing transactions from recovery server", receivedMissingTransactionNumber);
-                synchronized (finishLock) {
-                    finishedToReceive.set(true);
-                    while (!finishedToInsert.get()) {
-                        finishLock.wait(1000);
-                    }
-                }
-            }
+                    + STARTING_INDEX_URL_PARAM_ENDPOINT + firstMissingTransactionIndex, HttpMethod.GET, StreamFraming.getLengthPrefixedRequestCallback(null, compressionEnabled), responseExtractor);
+            putPendingTransaction(pendingTransactionQueue, END_OF_TRANSACTIONS, applyFuture);
+            log.info("Received all {} missing transactions from recovery server", receivedTransactions);
+            applyFuture.get();
             log.info("Finished to get missing transactions");
         } catch (TransactionSyncException e) {
             throw new TransactionSyncException("Error at missing transactions from recovery Node.\n" + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionSyncException("Interrupted at missing transactions from recovery Node", e);
         } catch (Exception e) {
             throw new TransactionSyncException("Error at missing transactions from recovery Node", e);
+        } finally {
+            monitorMissingTransactionThread.interrupt();
+            applyExecutor.shutdownNow();
+            deserializationExecutor.shutdownNow();
+            stopStatistics();
         }
-
     }
 
-    private ResponseExtractor getResponseExtractorForMissingTransactionChunks(List<TransactionData> missingTransactions, AtomicLong receivedMissingTransactionNumber, Thread insertMissingTransactionThread) {
+    private ResponseExtractor<Void> getResponseExtractorForMissingTransactions(BlockingQueue<Future<TransactionData>> pendingTransactionQueue, ExecutorService deserializationExecutor, Future<Void> applyFuture) {
         return response -> {
-            byte[] buf = new byte[Math.toIntExact(MAXIMUM_BUFFER_SIZE)];
-            int offset = 0;
-            int n;
-            while ((n = response.getBody().read(buf, offset, buf.length - offset)) > 0) {
-                try {
-                    TransactionData missingTransaction = jacksonSerializer.deserialize(buf);
-                    if (missingTransaction != null) {
-                        missingTransactions.add(missingTransaction);
-                        receivedMissingTransactionNumber.incrementAndGet();
-                        if (!insertMissingTransactionThread.isAlive()) {
-                            insertMissingTransactionThread.start();
-                        }
-                        Arrays.fill(buf, 0, offset + n, (byte) 0);
-                        offset = 0;
-                    } else {
-                        offset += n;
-                    }
-
-                } catch (Exception e) {
-                    throw new TransactionSyncException("Error at getting chunks", e);
+            StreamRecordReader recordReader = new StreamRecordReader(StreamFraming.getBody(response), StreamFraming.isLengthPrefixed(response.getHeaders()), MAXIMUM_RECORD_SIZE);
+            try {
+                byte[] record;
+                while ((record = recordReader.read()) != null) {
+                    byte[] transactionRecord = record;
+                    putPendingTransaction(pendingTransactionQueue, deserializationExecutor.submit(() -> deserializeMissingTransaction(transactionRecord)), applyFuture);
+                    receivedTransactions.incrementAndGet();
                 }
+            } catch (TransactionSyncException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new TransactionSyncException("Error at getting chunks", e);
             }
             return null;
         };
     }
 
-    private Thread insertMissingTransactionThread(List<TransactionData> missingTransactions, Set<Hash> trustChainUnconfirmedExistingTransactionHashes, AtomicLong completedMissingTransactionNumber, Thread monitorMissingTransactionThread, final AtomicBoolean finishedToReceive, final AtomicBoolean finishedToInsert) {
-        return new Thread(() -> {
-            Map<Hash, AddressTransactionsHistory> addressToTransactionsHistoryMap = new ConcurrentHashMap<>();
-            int offset = 0;
-            monitorMissingTransactionThread.start();
-
-            insertMissingTransactions(missingTransactions, trustChainUnconfirmedExistingTransactionHashes, completedMissingTransactionNumber, finishedToReceive, addressToTransactionsHistoryMap, offset);
-            monitorMissingTransactionThread.interrupt();
-            synchronized (finishLock) {
-                finishedToInsert.set(true);
-                finishLock.notifyAll();
+    private void putPendingTransaction(BlockingQueue<Future<TransactionData>> pendingTransactionQueue, Future<TransactionData> pendingTransaction, Future<Void> applyFuture) {
+        try {
+            while (!pendingTransactionQueue.offer(pendingTransaction, 1, TimeUnit.SECONDS)) {
+                if (applyFuture.isDone()) {
+                    applyFuture.get();
+                    throw new TransactionSyncException("Missing transactions are no longer applied");
+                }
             }
+        } catch (ExecutionException e) {
+            throw new TransactionSyncException("Error at applying missing transactions", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new TransactionSyncException("Interrupted at queueing missing transactions", e);
+        }
+    }
 
-        });
-
+    private TransactionData deserializeMissingTransaction(byte[] record) {
+        TransactionData transactionData = jacksonSerializer.deserialize(record);
+        if (verificationEnabled && !validationService.validatePropagatedTransactionDataIntegrity(transactionData)) {
+            throw new TransactionSyncException(String.format("Invalid missing transaction %s", transactionData.getHash()));
+        }
+        deserializedTransactions.incrementAndGet();
+        return transactionData;
     }
 
-    private void insertMissingTransactions(List<TransactionData> missingTransactions, Set<Hash> trustChainUnconfirmedExistingTransactionHashes, AtomicLong completedMissingTransactionNumber, AtomicBoolean finishedToReceive, Map<Hash, AddressTransactionsHistory> addressToTransactionsHistoryMap, int offset) {
-        int missingTransactionsSize;
-        int nextOffSet;
-        while ((missingTransactionsSize = missingTransactions.size()) > offset || !finishedToReceive.get()) {
-            if (missingTransactionsSize - 1 > offset || (missingTransactionsSize - 1 == offset && missingTransactions.get(offset) != null)) {
-                nextOffSet = offset + (finishedToReceive.get() ? missingTransactionsSize - offset : 1);
-                for (int i = offset; i < nextOffSet; i++) {
-                    TransactionData transactionData = missingTransactions.get(i);
-                    transactionService.handleMissingTransaction(transactionData, trustChainUnconfirmedExistingTransactionHashes);
-                    transactionHelper.updateAddressTransactionHistory(addressToTransactionsHistoryMap, transactionData);
-                    missingTransactions.set(i, null);
-                    completedMissingTransactionNumber.incrementAndGet();
-                }
-                offset = nextOffSet;
+    private Void applyMissingTransactions(BlockingQueue<Future<TransactionData>> pendingTransactionQueue, Set<Hash> trustChainUnconfirmedExistingTransactionHashes) throws InterruptedException {
+        Map<Hash, AddressTransactionsHistory> addressToTransactionsHistoryMap = new ConcurrentHashMap<>();
+        List<TransactionData> missingTransactions = new ArrayList<>(batchSize);
+        Future<TransactionData> pendingTransaction;
+        while ((pendingTransaction = pendingTransactionQueue.take()) != END_OF_TRANSACTIONS) {
+            try {
+                missingTransactions.add(pendingTransaction.get());
+            } catch (ExecutionException e) {
+                throw new TransactionSyncException("Error at deserializing missing transaction", e.getCause());
+            }
+            Future<TransactionData> nextPendingTransaction = pendingTransactionQueue.peek();
+            if (missingTransactions.size() >= batchSize || nextPendingTransaction == null || !nextPendingTransaction.isDone()) {
+                applyMissingTransactionBatch(missingTransactions, trustChainUnconfirmedExistingTransactionHashes, addressToTransactionsHistoryMap);
             }
         }
+        applyMissingTransactionBatch(missingTransactions, trustChainUnconfirmedExistingTransactionHashes, addressToTransactionsHistoryMap);
         addressTransactionsHistories.putBatch(addressToTransactionsHistoryMap);
+        return null;
+    }
+
+    private void applyMissingTransactionBatch(List<TransactionData> missingTransactions, Set<Hash> trustChainUnconfirmedExistingTransactionHashes, Map<Hash, AddressTransactionsHistory> addressToTransactionsHistoryMap) {
+        if (missingTransactions.isEmpty()) {
+            return;
+        }
+        transactionService.handleMissingTransactions(missingTransactions, trustChainUnconfirmedExistingTransactionHashes);
+        missingTransactions.forEach(transactionData -> transactionHelper.updateAddressTransactionHistory(addressToTransactionsHistoryMap, transactionData));
+        appliedTransactions.addAndGet(missingTransactions.size());
+        missingTransactions.clear();
+    }
+
+    private void startStatistics(BlockingQueue<Future<TransactionData>> pendingTransactionQueue) {
+        receivedTransactions.set(0);
+        deserializedTransactions.set(0);
+        appliedTransactions.set(0);
+        syncStartTime = System.currentTimeMillis();
+        pendingTransactions = pendingTransactionQueue;
+    }
+
+    private void stopStatistics() {
+        syncEndTime = System.currentTimeMillis();
+        pendingTransactions = null;
+    }
+
+    @Override
+    public TransactionSyncStatisticsData getStatistics() {
+        TransactionSyncStatisticsData transactionSyncStatisticsData = new TransactionSyncStatisticsData();
+        BlockingQueue<Future<TransactionData>> pendingTransactionQueue = pendingTransactions;
+        long startTime = syncStartTime;
+        long elapsedMillis = startTime == 0 ? 0 : (pendingTransactionQueue != null ? System.currentTimeMillis() : syncEndTime) - startTime;
+        transactionSyncStatisticsData.setActive(pendingTransactionQueue != null);
+        transactionSyncStatisticsData.setReceivedTransactions(receivedTransactions.get());
+        transactionSyncStatisticsData.setDeserializedTransactions(deserializedTransactions.get());
+        transactionSyncStatisticsData.setAppliedTransactions(appliedTransactions.get());
+        transactionSyncStatisticsData.setPendingTransactions(pendingTransactionQueue != null ? pendingTransactionQueue.size() : 0);
+        transactionSyncStatisticsData.setElapsedMillis(elapsedMillis);
+        if (elapsedMillis > 0) {
+            transactionSyncStatisticsData.setReceivedTransactionsPerSecond(transactionSyncStatisticsData.getReceivedTransactions() * 1000.0 / elapsedMillis);
+            transactionSyncStatisticsData.setAppliedTransactionsPerSecond(transactionSyncStatisticsData.getAppliedTransactions() * 1000.0 / elapsedMillis);
+        }
+        return transactionSyncStatisticsData;
     }
 
 }
@@ -2,8 +2,8 @@ package io.coti.basenode.services.interfaces;
 
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.services.SourceIndex;
 
-import java.util.List;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -25,5 +25,5 @@ public interface IClusterService {
 
     ConcurrentHashMap<Hash, TransactionData> getCopyTrustChainConfirmationCluster();
 
-    List<Set<TransactionData>> getSourceListsByTrustScore();
+    SourceIndex getSourceIndex();
 }
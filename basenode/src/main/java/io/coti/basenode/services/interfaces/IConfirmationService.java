@@ -27,5 +27,9 @@ public interface IConfirmationService {
 
     long getDspConfirmed();
 
+    int getWaitingDspConsensusResults();
+
+    long getDspConsensusResultGapAgeInMillis();
+
     void shutdown();
 }
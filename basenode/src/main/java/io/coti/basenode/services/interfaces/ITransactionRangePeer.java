@@ -0,0 +1,17 @@
+package io.coti.basenode.services.interfaces;
+
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.http.GetTransactionIndexCheckpointsResponse;
+
+import java.util.List;
+
+public interface ITransactionRangePeer {
+
+    String getAddress();
+
+    GetTransactionIndexCheckpointsResponse getTransactionIndexCheckpoints();
+
+    byte[] getAccumulatedHash(long index);
+
+    List<TransactionData> getTransactions(long startingIndex, long endingIndex);
+}
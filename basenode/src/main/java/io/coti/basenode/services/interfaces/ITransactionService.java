@@ -5,6 +5,7 @@ import io.coti.basenode.data.TransactionData;
 import reactor.core.publisher.FluxSink;
 
 import javax.servlet.http.HttpServletResponse;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicLong;
 
@@ -12,17 +13,21 @@ public interface ITransactionService {
 
     void init();
 
-    void getTransactionBatch(long startingIndex, HttpServletResponse response);
+    void getTransactionBatch(long startingIndex, Long endingIndex, boolean lengthPrefixed, boolean gzipCompressed, HttpServletResponse response);
 
     void getTransactionBatch(long startingIndex, FluxSink sink);
 
     void handlePropagatedTransaction(TransactionData transactionData);
 
-    void handleMissingTransaction(TransactionData transactionData, Set<Hash> trustChainUnconfirmedExistingTransactionHashes);
+    void handleMissingTransactions(List<TransactionData> transactionDataList, Set<Hash> trustChainUnconfirmedExistingTransactionHashes);
 
     Thread monitorTransactionThread(String type, AtomicLong transactionNumber, AtomicLong receivedTransactionNumber);
 
     int totalPostponedTransactions();
 
+    long getAveragePostponedTimeInMillis();
+
+    long getMaxPostponedTimeInMillis();
+
     void addToExplorerIndexes(TransactionData transactionData);
 }
@@ -1,6 +1,10 @@
 package io.coti.basenode.services.interfaces;
 
+import io.coti.basenode.data.TransactionSyncStatisticsData;
+
 public interface ITransactionSynchronizationService {
 
     void requestMissingTransactions(long firstMissingTransactionIndex);
+
+    TransactionSyncStatisticsData getStatistics();
 }
@@ -0,0 +1,87 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.communication.data.WorkerStatisticsData;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HashAffinityWorkerPoolTest {
+
+    @Test
+    public void execute_sameHash_handlesInSubmissionOrder() throws InterruptedException {
+        int hashCount = 16;
+        int messagesPerHash = 500;
+        HashAffinityWorkerPool workerPool = new HashAffinityWorkerPool("test", 4);
+        workerPool.start();
+        List<Hash> hashes = new ArrayList<>();
+        Map<Hash, List<Integer>> handledMessages = new ConcurrentHashMap<>();
+        for (int i = 0; i < hashCount; i++) {
+            Hash hash = HashTestUtils.generateRandomHash();
+            hashes.add(hash);
+            handledMessages.put(hash, Collections.synchronizedList(new ArrayList<>()));
+        }
+        CountDownLatch messagesHandled = new CountDownLatch(hashCount * messagesPerHash);
+        for (int message = 0; message < messagesPerHash; message++) {
+            for (Hash hash : hashes) {
+                int messageNumber = message;
+                workerPool.execute(hash, () -> {
+                    handledMessages.get(hash).add(messageNumber);
+                    messagesHandled.countDown();
+                });
+            }
+        }
+
+        Assert.assertTrue(messagesHandled.await(1, TimeUnit.MINUTES));
+        handledMessages.values().forEach(messageNumbers -> {
+            Assert.assertEquals(messagesPerHash, messageNumbers.size());
+            for (int i = 0; i < messagesPerHash; i++) {
+                Assert.assertEquals(i, messageNumbers.get(i).intValue());
+            }
+        });
+        workerPool.shutdown();
+        List<WorkerStatisticsData> workerStatistics = workerPool.getStatistics();
+        Assert.assertEquals(4, workerStatistics.size());
+        Assert.assertEquals(hashCount * messagesPerHash, workerStatistics.stream().mapToLong(WorkerStatisticsData::getHandledMessages).sum());
+        Assert.assertEquals(0, workerPool.getQueueSize());
+    }
+
+    @Test
+    public void execute_blockedWorker_otherHashesProceed() throws InterruptedException {
+        HashAffinityWorkerPool workerPool = new HashAffinityWorkerPool("test", 2);
+        workerPool.start();
+        Hash blockedHash = new Hash(0);
+        Hash otherHash = HashTestUtils.generateRandomHash();
+        while (Math.floorMod(otherHash.hashCode(), 2) == Math.floorMod(blockedHash.hashCode(), 2)) {
+            otherHash = HashTestUtils.generateRandomHash();
+        }
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch otherHandled = new CountDownLatch(1);
+        workerPool.execute(blockedHash, () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        workerPool.execute(otherHash, otherHandled::countDown);
+
+        Assert.assertTrue(otherHandled.await(10, TimeUnit.SECONDS));
+        release.countDown();
+        workerPool.shutdown();
+    }
+
+    @Test
+    public void getWorkerCounts_validProperty_parsesEntries() {
+        Map<String, Integer> workerCounts = HashAffinityWorkerPool.getWorkerCounts(" TRANSACTION:4, ADDRESS:2");
+
+        Assert.assertEquals(Integer.valueOf(4), workerCounts.get("TRANSACTION"));
+        Assert.assertEquals(Integer.valueOf(2), workerCounts.get("ADDRESS"));
+        Assert.assertTrue(HashAffinityWorkerPool.getWorkerCounts("").isEmpty());
+    }
+}
@@ -0,0 +1,123 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.data.interfaces.IPropagatable;
+import io.coti.basenode.exceptions.SerializationException;
+import io.coti.basenode.model.codec.EntityCodec;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class JacksonSerializerTest {
+
+    private JacksonSerializer serializer;
+
+    @Before
+    public void init() {
+        serializer = new JacksonSerializer();
+        ReflectionTestUtils.invokeMethod(serializer, "init");
+        ReflectionTestUtils.setField(serializer, "binaryEnabled", true);
+    }
+
+    @Test
+    public void deserialize_binaryMessages_matchJsonMessages() {
+        for (IPropagatable message : generateMessages()) {
+            byte[] bytes = serializer.serialize(message);
+            byte[] jsonBytes = serializer.serializeAsString(message).getBytes();
+
+            Assert.assertEquals(EntityCodec.MARKER, bytes[0]);
+            Assert.assertTrue(bytes.length < jsonBytes.length);
+            Assert.assertEquals(serializer.serializeAsString(message), serializer.serializeAsString(serializer.deserialize(bytes)));
+            Assert.assertEquals(serializer.serializeAsString(message), serializer.serializeAsString(serializer.deserialize(jsonBytes)));
+        }
+    }
+
+    @Test
+    public void serialize_messageWithoutBinaryFormat_fallsBackToJson() {
+        PublisherHeartBeatData publisherHeartBeatData = new PublisherHeartBeatData("tcp://localhost:10000");
+
+        byte[] bytes = serializer.serialize(publisherHeartBeatData);
+
+        Assert.assertEquals('{', bytes[0]);
+        Assert.assertEquals(publisherHeartBeatData.getServerAddress(), ((PublisherHeartBeatData) serializer.deserialize(bytes)).getServerAddress());
+    }
+
+    @Test
+    public void serialize_binaryDisabled_serializesJson() {
+        ReflectionTestUtils.setField(serializer, "binaryEnabled", false);
+
+        Assert.assertEquals('{', serializer.serialize(new AddressData(HashTestUtils.generateRandomHash()))[0]);
+    }
+
+    @Test
+    public void serializeAsJson_toOutputStream_appendsJsonWithoutClosing() throws IOException {
+        IPropagatable message = generateMessages().get(0);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+        serializer.serializeAsJson(message, output);
+        serializer.serializeAsJson(message, output);
+
+        byte[] json = serializer.serializeAsJson(message);
+        ByteArrayOutputStream expectedOutput = new ByteArrayOutputStream();
+        expectedOutput.write(json);
+        expectedOutput.write(json);
+        Assert.assertArrayEquals(expectedOutput.toByteArray(), output.toByteArray());
+    }
+
+    @Test(expected = SerializationException.class)
+    public void deserialize_truncatedBinaryMessage_throwsSerializationException() {
+        byte[] bytes = serializer.serialize(generateMessages().get(0));
+        serializer.deserialize(Arrays.copyOf(bytes, bytes.length / 2));
+    }
+
+    @Test(expected = SerializationException.class)
+    public void deserialize_invalidJsonMessage_throwsSerializationException() {
+        serializer.deserialize("{\"invalid\"".getBytes());
+    }
+
+    private List<IPropagatable> generateMessages() {
+        InputBaseTransactionData inputBaseTransactionData = new InputBaseTransactionData(HashTestUtils.generateRandomHash(), new BigDecimal("-5.5"), Instant.now());
+        inputBaseTransactionData.setHash(HashTestUtils.generateRandomHash());
+        inputBaseTransactionData.setSignatureData(new SignatureData("r", "s"));
+        ReceiverBaseTransactionData receiverBaseTransactionData = new ReceiverBaseTransactionData(HashTestUtils.generateRandomHash(), new BigDecimal("5.5"), new BigDecimal("5.5"), Instant.now());
+        receiverBaseTransactionData.setHash(HashTestUtils.generateRandomHash());
+        TransactionData transactionData = new TransactionData(Arrays.asList(inputBaseTransactionData, receiverBaseTransactionData), HashTestUtils.generateRandomHash(), "test",
+                new ArrayList<>(), Instant.now(), HashTestUtils.generateRandomHash(), new SignatureData("sr", "ss"), TransactionType.Payment);
+        transactionData.setLeftParentHash(HashTestUtils.generateRandomHash());
+        transactionData.setAttachmentTime(Instant.now());
+
+        TransactionDspVote transactionDspVote = new TransactionDspVote(transactionData.getHash(), true);
+        transactionDspVote.setVoterDspHash(HashTestUtils.generateRandomHash());
+        transactionDspVote.setSignature(new SignatureData("vr", "vs"));
+
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionData.getHash());
+        dspConsensusResult.setIndex(7);
+        dspConsensusResult.setIndexingTime(Instant.now());
+        dspConsensusResult.setDspConsensus(true);
+        dspConsensusResult.setDspVotes(new ArrayList<>(Collections.singletonList(new DspVote(transactionDspVote))));
+
+        NetworkNodeData networkNodeData = new NetworkNodeData(NodeType.DspNode, "localhost", "8060", HashTestUtils.generateRandomHash(), NetworkType.TestNet);
+        networkNodeData.setPropagationPort("8061");
+        networkNodeData.setReceivingPort("8062");
+        networkNodeData.setFeeData(new FeeData(new BigDecimal("1"), new BigDecimal("0.1"), new BigDecimal("10")));
+        networkNodeData.setNodeSignature(new SignatureData("nr", "ns"));
+        NetworkNodeData zeroSpendNodeData = new NetworkNodeData(NodeType.ZeroSpendServer, "localhost", "7000", HashTestUtils.generateRandomHash(), NetworkType.TestNet);
+        zeroSpendNodeData.setTrustScore(42.5);
+        NetworkData networkData = new NetworkData();
+        networkData.getMultipleNodeMaps().get(NodeType.DspNode).put(networkNodeData.getHash(), networkNodeData);
+        networkData.getSingleNodeNetworkDataMap().put(NodeType.ZeroSpendServer, zeroSpendNodeData);
+
+        return Arrays.asList(transactionData, new AddressData(HashTestUtils.generateRandomHash()), transactionDspVote, dspConsensusResult, networkData);
+    }
+}
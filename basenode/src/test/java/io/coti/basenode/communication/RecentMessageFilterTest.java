@@ -0,0 +1,35 @@
+package io.coti.basenode.communication;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+
+public class RecentMessageFilterTest {
+
+    @Test
+    public void add_recentMessageKey_isRejected() {
+        RecentMessageFilter recentMessageFilter = new RecentMessageFilter(4);
+
+        Assert.assertTrue(recentMessageFilter.add(getMessageKey(1)));
+        Assert.assertTrue(recentMessageFilter.add(getMessageKey(2)));
+        Assert.assertFalse(recentMessageFilter.add(getMessageKey(1)));
+        Assert.assertEquals(2, recentMessageFilter.size());
+    }
+
+    @Test
+    public void add_beyondCapacity_evictsOldestMessageKey() {
+        RecentMessageFilter recentMessageFilter = new RecentMessageFilter(4);
+        for (int i = 0; i < 6; i++) {
+            Assert.assertTrue(recentMessageFilter.add(getMessageKey(i)));
+        }
+
+        Assert.assertEquals(4, recentMessageFilter.size());
+        Assert.assertTrue(recentMessageFilter.add(getMessageKey(0)));
+        Assert.assertFalse(recentMessageFilter.add(getMessageKey(5)));
+    }
+
+    private ByteBuffer getMessageKey(int value) {
+        return ByteBuffer.wrap(new byte[]{4, (byte) value});
+    }
+}
@@ -0,0 +1,42 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.communication.data.ZeroMQChannelData;
+import io.coti.basenode.data.NodeType;
+import io.coti.basenode.data.TransactionData;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+public class ZeroMQChannelRegistryTest {
+
+    private static final String PUBLISHER_ADDRESS = "tcp://localhost:7002";
+
+    @Test
+    public void get_registeredChannelFrame_returnsChannelData() {
+        ZeroMQChannelRegistry channelRegistry = new ZeroMQChannelRegistry();
+        String channel = Channel.getChannelString(TransactionData.class, PUBLISHER_ADDRESS, NodeType.DspNode, NodeType.FullNode);
+        ZeroMQChannelData channelData = new ZeroMQChannelData(channel, TransactionData.class, PUBLISHER_ADDRESS, NodeType.DspNode,
+                ZeroMQSubscriberQueue.getQueue(TransactionData.class), messageData -> {
+        });
+        channelRegistry.register(channelData);
+
+        ZeroMQChannelData receivedChannelData = channelRegistry.get(channel.getBytes(StandardCharsets.UTF_8));
+
+        Assert.assertSame(channelData, receivedChannelData);
+        Assert.assertEquals(NodeType.DspNode, receivedChannelData.getPublisherNodeType());
+        Assert.assertSame(ZeroMQSubscriberQueue.TRANSACTION.getQueue(), receivedChannelData.getQueue());
+    }
+
+    @Test
+    public void get_unregisteredChannelFrame_returnsNull() {
+        ZeroMQChannelRegistry channelRegistry = new ZeroMQChannelRegistry();
+        String channel = Channel.getChannelString(TransactionData.class, PUBLISHER_ADDRESS, NodeType.DspNode, NodeType.FullNode);
+        channelRegistry.register(new ZeroMQChannelData(channel));
+
+        Assert.assertNull(channelRegistry.get(Channel.getChannelString(TransactionData.class, PUBLISHER_ADDRESS, NodeType.DspNode, NodeType.HistoryNode).getBytes(StandardCharsets.UTF_8)));
+        channelRegistry.unregister(channel);
+        Assert.assertNull(channelRegistry.get(channel.getBytes(StandardCharsets.UTF_8)));
+        Assert.assertEquals(0, channelRegistry.size());
+    }
+}
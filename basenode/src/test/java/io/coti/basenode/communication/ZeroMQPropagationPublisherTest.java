@@ -0,0 +1,143 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.communication.data.ZeroMQPublishData;
+import io.coti.basenode.communication.interfaces.ISerializer;
+import io.coti.basenode.data.NodeType;
+import io.coti.basenode.data.PublisherHeartBeatData;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.zeromq.ZMQ;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class ZeroMQPropagationPublisherTest {
+
+    private static final int QUEUE_CAPACITY = 2;
+    private ZeroMQPropagationPublisher propagationPublisher;
+    private BlockingQueue<ZeroMQPublishData> publishMessageQueue;
+    private ZMQ.Context zeroMQContext;
+
+    @Before
+    public void init() {
+        ISerializer serializer = Mockito.mock(ISerializer.class);
+        Mockito.when(serializer.serialize(any())).thenAnswer(invocation -> ((PublisherHeartBeatData) invocation.getArgument(0)).getServerAddress().getBytes());
+        publishMessageQueue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+        zeroMQContext = ZMQ.context(1);
+        propagationPublisher = new ZeroMQPropagationPublisher();
+        ReflectionTestUtils.setField(propagationPublisher, "serializer", serializer);
+        ReflectionTestUtils.setField(propagationPublisher, "publishMessageQueue", publishMessageQueue);
+        ReflectionTestUtils.setField(propagationPublisher, "zeroMQContext", zeroMQContext);
+        ReflectionTestUtils.setField(propagationPublisher, "publisherNodeType", NodeType.ZeroSpendServer);
+    }
+
+    @After
+    public void close() {
+        if (!zeroMQContext.isClosed()) {
+            zeroMQContext.term();
+        }
+    }
+
+    @Test
+    public void propagate_fullQueueWithDropOldestPolicy_dropsOldestMessage() {
+        ReflectionTestUtils.setField(propagationPublisher, "publishQueuePolicy", PublishQueuePolicy.DropOldest);
+
+        propagate("1", "2", "3", "4");
+
+        Assert.assertEquals(Arrays.asList("3", "4"), getQueuedMessages());
+        Assert.assertEquals(2, propagationPublisher.getDroppedMessages());
+        Assert.assertEquals(0, propagationPublisher.getRejectedMessages());
+        Assert.assertEquals(QUEUE_CAPACITY, propagationPublisher.getQueueSize());
+    }
+
+    @Test
+    public void propagate_fullQueueWithRejectPolicy_rejectsNewMessage() {
+        ReflectionTestUtils.setField(propagationPublisher, "publishQueuePolicy", PublishQueuePolicy.Reject);
+
+        propagate("1", "2", "3", "4");
+
+        Assert.assertEquals(2, propagationPublisher.getRejectedMessages());
+        Assert.assertEquals(0, propagationPublisher.getDroppedMessages());
+        Assert.assertEquals(Arrays.asList("1", "2"), getQueuedMessages());
+    }
+
+    @Test
+    public void propagate_fullQueueWithBlockPolicy_waitsForSpace() throws InterruptedException {
+        ReflectionTestUtils.setField(propagationPublisher, "publishQueuePolicy", PublishQueuePolicy.Block);
+        propagate("1", "2");
+        Thread propagateThread = new Thread(() -> propagate("3"));
+
+        propagateThread.start();
+        propagateThread.join(300);
+
+        Assert.assertTrue(propagateThread.isAlive());
+        Assert.assertEquals("1", new String(publishMessageQueue.take().getMessage()));
+        propagateThread.join(5000);
+        Assert.assertFalse(propagateThread.isAlive());
+        Assert.assertEquals(0, propagationPublisher.getDroppedMessages());
+        Assert.assertEquals(0, propagationPublisher.getRejectedMessages());
+        Assert.assertEquals(Arrays.asList("2", "3"), getQueuedMessages());
+    }
+
+    @Test
+    public void propagate_fullQueueWithBlockPolicy_returnsWhenContextIsClosed() throws InterruptedException {
+        ReflectionTestUtils.setField(propagationPublisher, "publishQueuePolicy", PublishQueuePolicy.Block);
+        propagate("1", "2");
+        Thread propagateThread = new Thread(() -> propagate("3"));
+
+        propagateThread.start();
+        propagateThread.join(300);
+        zeroMQContext.term();
+        propagateThread.join(TimeUnit.SECONDS.toMillis(5));
+
+        Assert.assertFalse(propagateThread.isAlive());
+        Assert.assertEquals(QUEUE_CAPACITY, propagationPublisher.getQueueSize());
+    }
+
+    @Test
+    public void tryPropagate_fullQueueWithBlockPolicy_rejectsWithoutWaiting() {
+        ReflectionTestUtils.setField(propagationPublisher, "publishQueuePolicy", PublishQueuePolicy.Block);
+        propagate("1", "2");
+
+        Assert.assertFalse(propagationPublisher.tryPropagate(new PublisherHeartBeatData("3"), Collections.singletonList(NodeType.DspNode)));
+
+        Assert.assertEquals(1, propagationPublisher.getRejectedMessages());
+        Assert.assertEquals(Arrays.asList("1", "2"), getQueuedMessages());
+    }
+
+    @Test
+    public void propagateHeartBeatMessage_fullQueueWithBlockPolicy_rejectsWithoutWaiting() {
+        ReflectionTestUtils.setField(propagationPublisher, "publishQueuePolicy", PublishQueuePolicy.Block);
+        ReflectionTestUtils.setField(propagationPublisher, "propagator", Mockito.mock(ZMQ.Socket.class));
+        ReflectionTestUtils.setField(propagationPublisher, "serverAddress", "heartbeat");
+        propagate("1", "2");
+
+        propagationPublisher.propagateHeartBeatMessage();
+
+        Assert.assertEquals(1, propagationPublisher.getRejectedMessages());
+        Assert.assertEquals(Arrays.asList("1", "2"), getQueuedMessages());
+    }
+
+    private void propagate(String... messages) {
+        for (String message : messages) {
+            propagationPublisher.propagate(new PublisherHeartBeatData(message), Collections.singletonList(NodeType.DspNode));
+        }
+    }
+
+    private List<String> getQueuedMessages() {
+        List<String> queuedMessages = new ArrayList<>();
+        publishMessageQueue.forEach(publishData -> queuedMessages.add(new String(publishData.getMessage())));
+        return queuedMessages;
+    }
+}
@@ -0,0 +1,41 @@
+package io.coti.basenode.communication;
+
+import io.coti.basenode.communication.data.SenderStatisticsData;
+import org.junit.Assert;
+import org.junit.Test;
+import org.zeromq.SocketType;
+import org.zeromq.ZMQ;
+
+public class ZeroMQSenderActorTest {
+
+    private static final int MESSAGES = 100;
+
+    @Test
+    public void send_queuedMessages_areReceivedInOrder() {
+        ZMQ.Context zeroMQContext = ZMQ.context(1);
+        ZMQ.Socket receiver = zeroMQContext.socket(SocketType.ROUTER);
+        receiver.setReceiveTimeOut(5000);
+        int port = ZeroMQUtils.bindToRandomPort(receiver);
+        ZeroMQSenderActor senderActor = new ZeroMQSenderActor("tcp://localhost:" + port, zeroMQContext, MESSAGES);
+        senderActor.start();
+        try {
+            for (int i = 0; i < MESSAGES; i++) {
+                Assert.assertTrue(senderActor.send(String.class.getName(), new byte[]{(byte) i}));
+            }
+            for (int i = 0; i < MESSAGES; i++) {
+                Assert.assertNotNull(receiver.recv());
+                Assert.assertEquals(String.class.getName(), receiver.recvStr());
+                Assert.assertArrayEquals(new byte[]{(byte) i}, receiver.recv());
+            }
+        } finally {
+            senderActor.stop();
+            receiver.close();
+            zeroMQContext.term();
+        }
+        SenderStatisticsData senderStatisticsData = senderActor.getStatistics();
+        Assert.assertEquals(MESSAGES, senderStatisticsData.getSentMessages());
+        Assert.assertEquals(0, senderStatisticsData.getQueueSize());
+        Assert.assertFalse(senderActor.send(String.class.getName(), new byte[0]));
+        Assert.assertEquals(1, senderActor.getStatistics().getRejectedMessages());
+    }
+}
@@ -0,0 +1,41 @@
+package io.coti.basenode.data;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class HashLockStripesTest {
+
+    @Test
+    public void getStripe_usesLeadingHashBytes() {
+        HashLockStripes hashLockStripes = new HashLockStripes(HashLockStripes.MAX_STRIPES);
+        Assert.assertEquals(0x01ff, hashLockStripes.getStripe(new Hash("01ff0a0b")));
+        Assert.assertEquals(0x01ff, hashLockStripes.getStripe(new Hash("01ffc0d0")));
+        Assert.assertEquals(0x0f, new HashLockStripes(16).getStripe(new Hash("01ff0a0b")));
+    }
+
+    @Test
+    public void lockWrite_contendedAcquisitionIsCounted() throws InterruptedException {
+        HashLockStripes hashLockStripes = new HashLockStripes(16);
+        int stripe = hashLockStripes.getStripe(new Hash("0003"));
+        CountDownLatch waiterStarted = new CountDownLatch(1);
+        hashLockStripes.lockWrite(stripe);
+        Thread waiter = new Thread(() -> {
+            waiterStarted.countDown();
+            hashLockStripes.lockRead(stripe);
+            hashLockStripes.unlockRead(stripe);
+        });
+        waiter.start();
+        Assert.assertTrue(waiterStarted.await(5, TimeUnit.SECONDS));
+        Thread.sleep(50);
+        hashLockStripes.unlockWrite(stripe);
+        waiter.join(5000);
+
+        Assert.assertEquals(2, hashLockStripes.getAcquisitions(stripe));
+        Assert.assertEquals(1, hashLockStripes.getContendedAcquisitions(stripe));
+        Assert.assertTrue(hashLockStripes.getWaitTimeInNanos(stripe) > 0);
+        Assert.assertEquals(1, hashLockStripes.getTotalContendedAcquisitions());
+    }
+}
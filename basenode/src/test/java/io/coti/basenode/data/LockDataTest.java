@@ -0,0 +1,57 @@
+package io.coti.basenode.data;
+
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+public class LockDataTest {
+
+    @Test
+    public void unlock_lastHolderRemovesLock() {
+        LockData lockData = new LockData();
+        Hash hash = HashTestUtils.generateRandomHash();
+
+        lockData.lock(hash);
+        lockData.lock(hash);
+        lockData.unlock(hash);
+        Assert.assertEquals(1, lockData.size());
+        lockData.unlock(hash);
+
+        Assert.assertEquals(0, lockData.size());
+        Assert.assertEquals(2, lockData.getAcquisitions());
+    }
+
+    @Test
+    public void tryLock_heldByOtherThread_timesOut() throws Exception {
+        LockData lockData = new LockData();
+        Hash hash = HashTestUtils.generateRandomHash();
+        Hash otherHash = HashTestUtils.generateRandomHash();
+        lockData.lock(hash);
+
+        boolean locked = CompletableFuture.supplyAsync(() -> {
+            try {
+                return lockData.tryLock(hash, 10, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return true;
+            }
+        }).get(5, TimeUnit.SECONDS);
+        boolean otherLocked = CompletableFuture.supplyAsync(() -> {
+            try {
+                boolean isLocked = lockData.tryLock(otherHash, 10, TimeUnit.MILLISECONDS);
+                lockData.unlock(otherHash);
+                return isLocked;
+            } catch (InterruptedException e) {
+                return false;
+            }
+        }).get(5, TimeUnit.SECONDS);
+        lockData.unlock(hash);
+
+        Assert.assertFalse(locked);
+        Assert.assertTrue(otherLocked);
+        Assert.assertEquals(1, lockData.getTimedOutAcquisitions());
+        Assert.assertEquals(0, lockData.size());
+    }
+}
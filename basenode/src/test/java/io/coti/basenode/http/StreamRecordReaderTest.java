@@ -0,0 +1,93 @@
+package io.coti.basenode.http;
+
+import io.coti.basenode.exceptions.ChunkException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+public class StreamRecordReaderTest {
+
+    private static final int MAX_RECORD_SIZE = 1024;
+
+    @Test
+    public void read_lengthPrefixedRecords_returnsRecords() throws IOException {
+        List<byte[]> records = Arrays.asList(new byte[]{1, 2, 3}, new byte[0], new byte[MAX_RECORD_SIZE]);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (byte[] record : records) {
+            StreamFraming.writeLengthPrefixedRecord(output, record);
+        }
+        StreamRecordReader streamRecordReader = new StreamRecordReader(new SmallReadInputStream(output.toByteArray()), true, MAX_RECORD_SIZE);
+
+        for (byte[] record : records) {
+            Assert.assertArrayEquals(record, streamRecordReader.read());
+        }
+        Assert.assertNull(streamRecordReader.read());
+    }
+
+    @Test
+    public void read_concatenatedJsonRecords_returnsRecords() throws IOException {
+        List<String> records = Arrays.asList("{\"a\":1}", "{\"b\":\"}{\",\"c\":{\"d\":[1,2]}}", "{\"e\":\"\\\"}\\\\\"}");
+        byte[] stream = String.join("\n", records).getBytes(StandardCharsets.UTF_8);
+        StreamRecordReader streamRecordReader = new StreamRecordReader(new SmallReadInputStream(stream), false, MAX_RECORD_SIZE);
+
+        List<String> readRecords = new ArrayList<>();
+        byte[] record;
+        while ((record = streamRecordReader.read()) != null) {
+            readRecords.add(new String(record, StandardCharsets.UTF_8));
+        }
+        Assert.assertEquals(records, readRecords);
+    }
+
+    @Test
+    public void getBody_gzipCompressedResponse_returnsDecompressedRecords() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzipOutput = new GZIPOutputStream(output)) {
+            StreamFraming.writeLengthPrefixedRecord(gzipOutput, new byte[]{1, 2, 3});
+        }
+        MockClientHttpResponse response = new MockClientHttpResponse(output.toByteArray(), HttpStatus.OK);
+        response.getHeaders().set(StreamFraming.COMPRESSION_HEADER, StreamFraming.GZIP);
+        StreamRecordReader streamRecordReader = new StreamRecordReader(StreamFraming.getBody(response), true, MAX_RECORD_SIZE);
+
+        Assert.assertArrayEquals(new byte[]{1, 2, 3}, streamRecordReader.read());
+        Assert.assertNull(streamRecordReader.read());
+    }
+
+    @Test(expected = ChunkException.class)
+    public void read_truncatedLengthPrefixedRecord_throwsChunkException() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        StreamFraming.writeLengthPrefixedRecord(output, new byte[10]);
+        byte[] stream = Arrays.copyOf(output.toByteArray(), output.size() - 1);
+
+        new StreamRecordReader(new ByteArrayInputStream(stream), true, MAX_RECORD_SIZE).read();
+    }
+
+    @Test(expected = ChunkException.class)
+    public void read_oversizedJsonRecord_throwsChunkException() throws IOException {
+        byte[] stream = ("{\"a\":\"" + new String(new char[MAX_RECORD_SIZE]).replace('\0', 'x') + "\"}").getBytes(StandardCharsets.UTF_8);
+
+        new StreamRecordReader(new ByteArrayInputStream(stream), false, MAX_RECORD_SIZE).read();
+    }
+
+    private static class SmallReadInputStream extends FilterInputStream {
+
+        private SmallReadInputStream(byte[] bytes) {
+            super(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int length) throws IOException {
+            return super.read(bytes, offset, Math.min(length, 3));
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package io.coti.basenode.model;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
+import io.coti.basenode.model.codec.TransactionDataCodec;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class CollectionTest {
+
+    private static final int PARALLEL_DESERIALIZATION_THRESHOLD = 64;
+    private final TransactionDataCodec transactionDataCodec = new TransactionDataCodec();
+    private final Map<Hash, byte[]> database = new ConcurrentHashMap<>();
+    private final List<Integer> multiGetSizes = Collections.synchronizedList(new ArrayList<>());
+    private final Set<Thread> deserializationThreads = ConcurrentHashMap.newKeySet();
+    private Transactions transactions;
+
+    @Before
+    public void init() {
+        IDatabaseConnector databaseConnector = Mockito.mock(IDatabaseConnector.class);
+        Mockito.when(databaseConnector.multiGet(anyString(), anyList())).thenAnswer(invocation -> {
+            List<byte[]> keys = invocation.getArgument(1);
+            multiGetSizes.add(keys.size());
+            List<byte[]> values = new ArrayList<>();
+            keys.forEach(key -> values.add(database.get(new Hash(key))));
+            return values;
+        });
+        transactions = new Transactions() {
+            @Override
+            public TransactionData deserialize(byte[] bytes) {
+                deserializationThreads.add(Thread.currentThread());
+                return super.deserialize(bytes);
+            }
+        };
+        transactions.databaseConnector = databaseConnector;
+        ReflectionTestUtils.setField(transactions, "entityCodecEnabled", true);
+    }
+
+    @Test
+    public void multiGetByHashes_missingKeys_keepsOrderWithNulls() {
+        List<Hash> hashes = new ArrayList<>();
+        Set<Hash> missingHashes = new HashSet<>();
+        for (int i = 0; i < 20; i++) {
+            Hash hash = i % 3 == 0 ? HashTestUtils.generateRandomHash() : storeTransactionData();
+            if (i % 3 == 0) {
+                missingHashes.add(hash);
+            }
+            hashes.add(hash);
+        }
+
+        List<TransactionData> transactionDataList = transactions.multiGetByHashes(hashes);
+
+        Assert.assertEquals(hashes.size(), transactionDataList.size());
+        for (int i = 0; i < hashes.size(); i++) {
+            if (missingHashes.contains(hashes.get(i))) {
+                Assert.assertNull(transactionDataList.get(i));
+            } else {
+                Assert.assertEquals(hashes.get(i), transactionDataList.get(i).getHash());
+            }
+        }
+        Assert.assertEquals(Collections.singletonList(hashes.size()), multiGetSizes);
+    }
+
+    @Test
+    public void multiGetByHashes_belowParallelThreshold_deserializesOnCallingThread() {
+        List<Hash> hashes = storeTransactionDataList(PARALLEL_DESERIALIZATION_THRESHOLD - 1);
+
+        List<TransactionData> transactionDataList = transactions.multiGetByHashes(hashes, true);
+
+        Assert.assertEquals(hashes, getHashes(transactionDataList));
+        Assert.assertEquals(Collections.singleton(Thread.currentThread()), deserializationThreads);
+    }
+
+    @Test
+    public void multiGetByHashes_atAndAboveParallelThreshold_keepsOrder() {
+        for (int size : new int[]{PARALLEL_DESERIALIZATION_THRESHOLD, PARALLEL_DESERIALIZATION_THRESHOLD + 1, 2000}) {
+            List<Hash> hashes = storeTransactionDataList(size);
+            hashes.add(size / 2, HashTestUtils.generateRandomHash());
+
+            List<TransactionData> transactionDataList = transactions.multiGetByHashes(hashes, true);
+
+            Assert.assertEquals(hashes.size(), transactionDataList.size());
+            Assert.assertNull(transactionDataList.get(size / 2));
+            for (int i = 0; i < hashes.size(); i++) {
+                if (i != size / 2) {
+                    Assert.assertEquals(hashes.get(i), transactionDataList.get(i).getHash());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void forEachByHashes_moreThanBatchSize_readsInBatchesInOrder() {
+        List<Hash> hashes = storeTransactionDataList(2 * Collection.MULTI_GET_BATCH_SIZE + 1);
+        Hash missingHash = HashTestUtils.generateRandomHash();
+        hashes.add(Collection.MULTI_GET_BATCH_SIZE, missingHash);
+        List<Hash> consumedHashes = new ArrayList<>();
+        List<Hash> consumedMissingHashes = new ArrayList<>();
+
+        transactions.forEachByHashes(hashes, false, (hash, transactionData) -> {
+            consumedHashes.add(hash);
+            if (transactionData == null) {
+                consumedMissingHashes.add(hash);
+            } else {
+                Assert.assertEquals(hash, transactionData.getHash());
+            }
+        });
+
+        Assert.assertEquals(hashes, consumedHashes);
+        Assert.assertEquals(Collections.singletonList(missingHash), consumedMissingHashes);
+        Assert.assertEquals(Arrays.asList(Collection.MULTI_GET_BATCH_SIZE, Collection.MULTI_GET_BATCH_SIZE, 2), multiGetSizes);
+    }
+
+    @Test
+    public void forEachByHashes_noHashes_doesNotReadDatabase() {
+        transactions.forEachByHashes(Collections.emptyList(), false, (hash, transactionData) -> Assert.fail());
+
+        Assert.assertTrue(multiGetSizes.isEmpty());
+    }
+
+    private List<Hash> storeTransactionDataList(int size) {
+        List<Hash> hashes = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            hashes.add(storeTransactionData());
+        }
+        return hashes;
+    }
+
+    private Hash storeTransactionData() {
+        TransactionData transactionData = TransactionTestUtils.generateRandomTransaction();
+        database.put(transactionData.getHash(), transactionDataCodec.encode(transactionData));
+        return transactionData.getHash();
+    }
+
+    private List<Hash> getHashes(List<TransactionData> transactionDataList) {
+        List<Hash> hashes = new ArrayList<>();
+        transactionDataList.forEach(transactionData -> hashes.add(transactionData.getHash()));
+        return hashes;
+    }
+}
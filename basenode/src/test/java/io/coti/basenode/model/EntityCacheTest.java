@@ -0,0 +1,206 @@
+package io.coti.basenode.model;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
+import io.coti.basenode.model.codec.TransactionDataCodec;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.rocksdb.RocksDB;
+import org.rocksdb.WriteBatch;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class EntityCacheTest {
+
+    private final TransactionDataCodec transactionDataCodec = new TransactionDataCodec();
+    private final Map<Hash, byte[]> database = new ConcurrentHashMap<>();
+    private final Map<Hash, byte[]> writeBatchEntries = new HashMap<>();
+    private Transactions transactions;
+
+    @BeforeClass
+    public static void loadLibrary() {
+        RocksDB.loadLibrary();
+    }
+
+    @Before
+    public void init() {
+        IDatabaseConnector databaseConnector = Mockito.mock(IDatabaseConnector.class);
+        Mockito.when(databaseConnector.getByKey(anyString(), any())).thenAnswer(invocation -> database.get(new Hash((byte[]) invocation.getArgument(1))));
+        Mockito.when(databaseConnector.multiGet(anyString(), anyList())).thenAnswer(invocation -> {
+            List<byte[]> values = new ArrayList<>();
+            ((List<byte[]>) invocation.getArgument(1)).forEach(key -> values.add(database.get(new Hash(key))));
+            return values;
+        });
+        Mockito.when(databaseConnector.put(anyString(), any(byte[].class), any(byte[].class))).thenAnswer(invocation -> {
+            database.put(new Hash((byte[]) invocation.getArgument(1)), invocation.getArgument(2));
+            return true;
+        });
+        Mockito.when(databaseConnector.put(anyString(), any(WriteBatch.class), any(byte[].class), any(byte[].class))).thenAnswer(invocation -> {
+            writeBatchEntries.put(new Hash((byte[]) invocation.getArgument(2)), invocation.getArgument(3));
+            return true;
+        });
+        transactions = new Transactions();
+        transactions.databaseConnector = databaseConnector;
+        ReflectionTestUtils.setField(transactions, "entityCodecEnabled", true);
+        transactions.init();
+    }
+
+    @Test
+    public void getByHash_cachedTransaction_returnsIndependentCopies() {
+        transactions.entityCache = new EntityCache<>(1 << 20, transactionDataCodec::copy);
+        TransactionData transactionData = TransactionTestUtils.generateRandomTransaction();
+        transactions.put(transactionData);
+        transactionData.addToChildrenTransactions(HashTestUtils.generateRandomHash());
+
+        TransactionData cachedTransactionData = transactions.getByHash(transactionData.getHash());
+        cachedTransactionData.addToChildrenTransactions(HashTestUtils.generateRandomHash());
+
+        Assert.assertTrue(transactions.getByHash(transactionData.getHash()).getChildrenTransactionHashes().isEmpty());
+        Assert.assertNotSame(cachedTransactionData, transactions.getByHash(transactionData.getHash()));
+        EntityCacheStatisticsData entityCacheStatisticsData = transactions.getEntityCache().getStatistics();
+        Assert.assertEquals(3, entityCacheStatisticsData.getHits());
+        Assert.assertEquals(0, entityCacheStatisticsData.getMisses());
+    }
+
+    @Test
+    public void multiGetByHashes_beyondMaxWeight_evictsLeastRecentlyUsed() {
+        List<TransactionData> transactionDataList = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            TransactionData transactionData = TransactionTestUtils.generateRandomTransaction();
+            database.put(transactionData.getHash(), transactionDataCodec.encode(transactionData));
+            transactionDataList.add(transactionData);
+        }
+        int weight = database.get(transactionDataList.get(0).getHash()).length;
+        transactions.entityCache = new EntityCache<>(64L * 2 * weight, transactionDataCodec::copy);
+        List<Hash> hashes = new ArrayList<>();
+        transactionDataList.forEach(transactionData -> hashes.add(transactionData.getHash()));
+
+        List<TransactionData> readTransactionDataList = transactions.multiGetByHashes(hashes);
+
+        for (int i = 0; i < hashes.size(); i++) {
+            Assert.assertEquals(hashes.get(i), readTransactionDataList.get(i).getHash());
+        }
+        EntityCacheStatisticsData entityCacheStatisticsData = transactions.getEntityCache().getStatistics();
+        Assert.assertEquals(200, entityCacheStatisticsData.getMisses());
+        Assert.assertTrue(entityCacheStatisticsData.getEvictions() > 0);
+        Assert.assertEquals(200, entityCacheStatisticsData.getSize() + entityCacheStatisticsData.getEvictions());
+        Assert.assertTrue(entityCacheStatisticsData.getWeight() <= entityCacheStatisticsData.getMaxWeight());
+        Assert.assertEquals(hashes, getHashes(transactions.multiGetByHashes(hashes)));
+    }
+
+    @Test
+    public void lockAndGetByHash_concurrentUpdates_keepsCacheAndDatabaseConsistent() throws InterruptedException {
+        int parents = 32;
+        int childrenPerParent = 200;
+        List<Hash> parentHashes = new ArrayList<>();
+        for (int i = 0; i < parents; i++) {
+            TransactionData parentTransactionData = TransactionTestUtils.generateRandomTransaction();
+            transactions.put(parentTransactionData);
+            parentHashes.add(parentTransactionData.getHash());
+        }
+        transactions.entityCache = new EntityCache<>(512L * 1024, transactionDataCodec::copy);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        Map<Hash, Set<Hash>> expectedChildren = new ConcurrentHashMap<>();
+        for (int i = 0; i < parents * childrenPerParent; i++) {
+            Hash parentHash = parentHashes.get(i % parents);
+            Hash childHash = HashTestUtils.generateRandomHash();
+            expectedChildren.computeIfAbsent(parentHash, hash -> ConcurrentHashMap.newKeySet()).add(childHash);
+            executorService.submit(() -> transactions.lockAndGetByHash(parentHash, parentTransactionData -> {
+                parentTransactionData.addToChildrenTransactions(childHash);
+                transactions.put(parentTransactionData);
+            }));
+            executorService.submit(() -> transactions.getByHash(parentHashes.get(childHash.hashCode() & (parents - 1))));
+        }
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+
+        for (Hash parentHash : parentHashes) {
+            Set<Hash> storedChildren = new HashSet<>(transactionDataCodec.decode(database.get(parentHash)).getChildrenTransactionHashes());
+            Assert.assertEquals(expectedChildren.get(parentHash), storedChildren);
+            Assert.assertEquals(storedChildren, new HashSet<>(transactions.getByHash(parentHash).getChildrenTransactionHashes()));
+        }
+        Assert.assertTrue(transactions.getEntityCache().getStatistics().getHits() > 0);
+    }
+
+    @Test
+    public void put_failedWriteBatch_readsStoredTransaction() {
+        transactions.entityCache = new EntityCache<>(1 << 20, transactionDataCodec::copy);
+        TransactionData transactionData = TransactionTestUtils.generateRandomTransaction();
+        transactions.put(transactionData);
+        transactionData.addToChildrenTransactions(HashTestUtils.generateRandomHash());
+
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            transactions.put(writeBatch, transactionData);
+        }
+        writeBatchEntries.clear();
+
+        Assert.assertTrue(transactions.getByHash(transactionData.getHash()).getChildrenTransactionHashes().isEmpty());
+        Assert.assertEquals(1, transactions.getEntityCache().getStatistics().getMisses());
+    }
+
+    @Test
+    public void put_committedWriteBatch_readsCommittedTransaction() {
+        transactions.entityCache = new EntityCache<>(1 << 20, transactionDataCodec::copy);
+        TransactionData transactionData = TransactionTestUtils.generateRandomTransaction();
+        transactions.put(transactionData);
+        transactionData.addToChildrenTransactions(HashTestUtils.generateRandomHash());
+
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            transactions.put(writeBatch, transactionData);
+        }
+        Assert.assertTrue(transactions.getByHash(transactionData.getHash()).getChildrenTransactionHashes().isEmpty());
+        database.putAll(writeBatchEntries);
+        writeBatchEntries.keySet().forEach(transactions::invalidate);
+
+        Assert.assertEquals(transactionData.getChildrenTransactionHashes(), transactions.getByHash(transactionData.getHash()).getChildrenTransactionHashes());
+    }
+
+    @Test
+    public void putIfUnchanged_hashWrittenSinceRead_doesNotCacheEntity() {
+        EntityCache<TransactionData> entityCache = new EntityCache<>(1 << 20, transactionDataCodec::copy);
+        TransactionData transactionData = TransactionTestUtils.generateRandomTransaction();
+
+        long version = entityCache.getVersion(transactionData.getHash());
+        entityCache.invalidate(transactionData.getHash());
+        entityCache.putIfUnchanged(transactionData.getHash(), transactionData, 1, version);
+
+        Assert.assertNull(entityCache.get(transactionData.getHash()));
+    }
+
+    @Test
+    public void putIfUnchanged_otherHashOfSegmentWrittenSinceRead_cachesEntity() {
+        EntityCache<TransactionData> entityCache = new EntityCache<>(1 << 20, transactionDataCodec::copy);
+        TransactionData transactionData = TransactionTestUtils.generateRandomTransaction();
+        Object segment = ReflectionTestUtils.invokeMethod(entityCache, "getSegment", transactionData.getHash());
+        Hash writtenHash;
+        do {
+            writtenHash = HashTestUtils.generateRandomHash();
+        } while (ReflectionTestUtils.invokeMethod(entityCache, "getSegment", writtenHash) != segment);
+
+        long version = entityCache.getVersion(transactionData.getHash());
+        entityCache.invalidate(writtenHash);
+        entityCache.putIfUnchanged(transactionData.getHash(), transactionData, 1, version);
+
+        Assert.assertEquals(transactionData.getHash(), entityCache.get(transactionData.getHash()).getHash());
+    }
+
+    private List<Hash> getHashes(List<TransactionData> transactionDataList) {
+        List<Hash> hashes = new ArrayList<>();
+        transactionDataList.forEach(transactionData -> hashes.add(transactionData.getHash()));
+        return hashes;
+    }
+}
@@ -0,0 +1,119 @@
+package io.coti.basenode.model;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
+import io.coti.basenode.exceptions.DataBaseException;
+import io.coti.basenode.model.codec.TransactionDataCodec;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.rocksdb.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+
+public class ParallelCollectionReaderTest {
+
+    private static final String COLUMN_FAMILY_NAME = "Transactions";
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private final Set<Hash> storedHashes = new HashSet<>();
+    private final List<ReadOptions> readOptionsList = new ArrayList<>();
+    private Options options;
+    private RocksDB db;
+    private IDatabaseConnector databaseConnector;
+    private Transactions transactions;
+
+    @BeforeClass
+    public static void loadLibrary() {
+        RocksDB.loadLibrary();
+    }
+
+    @Before
+    public void init() throws Exception {
+        options = new Options().setCreateIfMissing(true);
+        db = RocksDB.open(options, temporaryFolder.newFolder().getAbsolutePath());
+        databaseConnector = Mockito.mock(IDatabaseConnector.class);
+        Mockito.when(databaseConnector.getSnapshot()).thenAnswer(invocation -> db.getSnapshot());
+        Mockito.doAnswer(invocation -> {
+            db.releaseSnapshot(invocation.getArgument(0));
+            return null;
+        }).when(databaseConnector).releaseSnapshot(any(Snapshot.class));
+        Mockito.when(databaseConnector.getIterator(anyString(), any(Snapshot.class))).thenAnswer(invocation -> {
+            ReadOptions readOptions = new ReadOptions().setSnapshot(invocation.getArgument(1));
+            synchronized (readOptionsList) {
+                readOptionsList.add(readOptions);
+            }
+            return db.newIterator(readOptions);
+        });
+        transactions = new Transactions();
+        ReflectionTestUtils.setField(transactions, "entityCodecEnabled", true);
+        storeEntities();
+    }
+
+    @After
+    public void close() {
+        readOptionsList.forEach(ReadOptions::close);
+        db.close();
+        options.close();
+    }
+
+    @Test
+    public void forEach_rangeSplits_deliversEveryKeyExactlyOnce() {
+        for (int parallelism : new int[]{1, 2, 3, 7, 16, 256, 1000}) {
+            List<Hash> readHashes = read(parallelism);
+
+            Assert.assertEquals("Parallelism " + parallelism, storedHashes.size(), readHashes.size());
+            Assert.assertEquals("Parallelism " + parallelism, storedHashes, new HashSet<>(readHashes));
+        }
+    }
+
+    @Test
+    public void forEach_singleAndMultipleThreads_readSameEntities() {
+        List<Hash> sequentialHashes = read(1);
+        List<Hash> parallelHashes = read(8);
+
+        Assert.assertEquals(sequentialHashes.size(), parallelHashes.size());
+        Assert.assertEquals(new HashSet<>(sequentialHashes), new HashSet<>(parallelHashes));
+        Assert.assertEquals(parallelHashes, read(8));
+    }
+
+    @Test(timeout = 30000)
+    public void forEach_workerException_propagatesToCaller() throws RocksDBException {
+        byte[] corruptedKey = HashTestUtils.generateRandomHash().getBytes();
+        corruptedKey[0] = (byte) 0x80;
+        db.put(corruptedKey, new byte[]{1, 2, 3});
+
+        try {
+            read(4);
+            Assert.fail("Expected exception at parallel read");
+        } catch (DataBaseException e) {
+            Assert.assertNotNull(e.getCause());
+        }
+        Mockito.verify(databaseConnector).releaseSnapshot(any(Snapshot.class));
+    }
+
+    private List<Hash> read(int parallelism) {
+        List<Hash> readHashes = new ArrayList<>();
+        new ParallelCollectionReader<>(transactions, databaseConnector, COLUMN_FAMILY_NAME, parallelism).forEach(transactionData -> readHashes.add(transactionData.getHash()));
+        return readHashes;
+    }
+
+    private void storeEntities() throws RocksDBException {
+        byte[] value = new TransactionDataCodec().encode(TransactionTestUtils.generateRandomTransaction());
+        for (int keyByte = 0; keyByte < 256; keyByte++) {
+            int keys = keyByte == 0x80 ? 2500 : 3;
+            for (int i = 0; i < keys; i++) {
+                byte[] key = HashTestUtils.generateRandomHash().getBytes();
+                key[0] = (byte) keyByte;
+                db.put(key, value);
+                storedHashes.add(new Hash(key));
+            }
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.ArrayList;
+
+public class PropagatableCodecsTest {
+
+    private final PropagatableCodecs propagatableCodecs = new PropagatableCodecs();
+
+    @Test
+    public void getMessageKey_messagesOfSameEntity_haveSameKey() {
+        Hash transactionHash = HashTestUtils.generateRandomHash();
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionHash);
+        dspConsensusResult.setIndexingTime(Instant.now());
+        DspConsensusResult otherDspConsensusResult = new DspConsensusResult(transactionHash);
+        otherDspConsensusResult.setDspVotes(new ArrayList<>());
+
+        ByteBuffer messageKey = propagatableCodecs.getMessageKey(propagatableCodecs.encode(dspConsensusResult));
+
+        Assert.assertEquals(messageKey, propagatableCodecs.getMessageKey(propagatableCodecs.encode(otherDspConsensusResult)));
+        Assert.assertNotEquals(messageKey, propagatableCodecs.getMessageKey(propagatableCodecs.encode(new AddressData(transactionHash))));
+        Assert.assertNotEquals(messageKey, propagatableCodecs.getMessageKey(propagatableCodecs.encode(new DspConsensusResult(HashTestUtils.generateRandomHash()))));
+    }
+
+    @Test
+    public void getMessageKey_messageWithoutHashPrefix_returnsNull() {
+        TransactionDspVote transactionDspVote = new TransactionDspVote(HashTestUtils.generateRandomHash(), true);
+
+        Assert.assertNull(propagatableCodecs.getMessageKey(propagatableCodecs.encode(transactionDspVote)));
+        Assert.assertNull(propagatableCodecs.getMessageKey("{\"hash\":\"00\"}".getBytes()));
+        Assert.assertNull(propagatableCodecs.getMessageKey(new byte[]{EntityCodec.MARKER, 5, 1, 100}));
+    }
+}
@@ -0,0 +1,78 @@
+package io.coti.basenode.model.codec;
+
+import io.coti.basenode.data.*;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.util.SerializationUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+
+public class TransactionDataCodecTest {
+
+    private final TransactionDataCodec transactionDataCodec = new TransactionDataCodec();
+
+    @Test
+    public void decode_encodedTransaction_keepsAllFields() {
+        TransactionData transactionData = generateTransactionData();
+
+        byte[] bytes = transactionDataCodec.encode(transactionData);
+        TransactionData decodedTransactionData = transactionDataCodec.decode(bytes);
+
+        Assert.assertTrue(transactionDataCodec.isCurrentVersion(bytes));
+        Assert.assertTrue(bytes.length < SerializationUtils.serialize(transactionData).length);
+        Assert.assertEquals(transactionData.getHash(), decodedTransactionData.getHash());
+        Assert.assertEquals(transactionData.getBaseTransactions(), decodedTransactionData.getBaseTransactions());
+        Assert.assertEquals(transactionData.getBaseTransactions().get(1).getClass(), decodedTransactionData.getBaseTransactions().get(1).getClass());
+        Assert.assertEquals(new BigDecimal("5.50"), decodedTransactionData.getBaseTransactions().get(1).getAmount());
+        Assert.assertEquals(new BigDecimal("5.5"), ((OutputBaseTransactionData) decodedTransactionData.getBaseTransactions().get(1)).getOriginalAmount());
+        Assert.assertEquals(transactionData.getAmount(), decodedTransactionData.getAmount());
+        Assert.assertEquals(transactionData.getType(), decodedTransactionData.getType());
+        Assert.assertEquals(transactionData.getLeftParentHash(), decodedTransactionData.getLeftParentHash());
+        Assert.assertNull(decodedTransactionData.getRightParentHash());
+        Assert.assertEquals(transactionData.getAttachmentTime(), decodedTransactionData.getAttachmentTime());
+        Assert.assertEquals(transactionData.getSenderTrustScore(), decodedTransactionData.getSenderTrustScore(), 0);
+        Assert.assertEquals(transactionData.getSenderSignature(), decodedTransactionData.getSenderSignature());
+        Assert.assertEquals(transactionData.getChildrenTransactionHashes(), decodedTransactionData.getChildrenTransactionHashes());
+        Assert.assertEquals(transactionData.getValid(), decodedTransactionData.getValid());
+        Assert.assertEquals(transactionData.getTrustScoreResults(), decodedTransactionData.getTrustScoreResults());
+        Assert.assertEquals(transactionData.getDspConsensusResult(), decodedTransactionData.getDspConsensusResult());
+        Assert.assertArrayEquals(transactionData.getNonces(), decodedTransactionData.getNonces());
+    }
+
+    @Test
+    public void isEncoded_javaSerializedTransaction_isNotEncoded() {
+        Assert.assertFalse(transactionDataCodec.isEncoded(SerializationUtils.serialize(generateTransactionData())));
+        Assert.assertFalse(new AddressDataCodec().isEncoded(transactionDataCodec.encode(generateTransactionData())));
+    }
+
+    private TransactionData generateTransactionData() {
+        TransactionData transactionData = TransactionTestUtils.generateRandomTransaction();
+        OutputBaseTransactionData receiverBaseTransactionData = (OutputBaseTransactionData) transactionData.getBaseTransactions().get(0);
+        receiverBaseTransactionData.setAmount(new BigDecimal("5.50"));
+        receiverBaseTransactionData.setOriginalAmount(new BigDecimal("5.5"));
+        InputBaseTransactionData inputBaseTransactionData = new InputBaseTransactionData(HashTestUtils.generateRandomHash(), new BigDecimal("-5.5"), Instant.now());
+        inputBaseTransactionData.setHash(HashTestUtils.generateRandomHash());
+        inputBaseTransactionData.setSignatureData(new SignatureData("r", "s"));
+        transactionData.getBaseTransactions().add(0, inputBaseTransactionData);
+        TransactionTrustScoreData transactionTrustScoreData = new TransactionTrustScoreData(42.5);
+        transactionTrustScoreData.setTrustScoreNodeHash(HashTestUtils.generateRandomHash());
+        transactionTrustScoreData.setTrustScoreNodeSignature(new SignatureData("tr", "ts"));
+        transactionData.getTrustScoreResults().add(transactionTrustScoreData);
+        transactionData.setLeftParentHash(HashTestUtils.generateRandomHash());
+        transactionData.setSenderTrustScore(42.5);
+        transactionData.addToChildrenTransactions(HashTestUtils.generateRandomHash());
+        transactionData.setValid(true);
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionData.getHash());
+        dspConsensusResult.setIndex(7);
+        dspConsensusResult.setIndexingTime(Instant.now());
+        dspConsensusResult.setDspConsensus(true);
+        dspConsensusResult.setDspVotes(new ArrayList<>());
+        transactionData.setDspConsensusResult(dspConsensusResult);
+        transactionData.setNonces(new int[]{1, 2, 3});
+        return transactionData;
+    }
+}
@@ -0,0 +1,73 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.BaseTransactionData;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.InputBaseTransactionData;
+import io.coti.basenode.data.ReceiverBaseTransactionData;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class AddressBalanceIndexTest {
+
+    @Test
+    public void checkAndAddToPreBalance_failingAddressLeavesAllPreBalancesUnchanged() {
+        AddressBalanceIndex addressBalanceIndex = new AddressBalanceIndex(16);
+        Hash firstAddressHash = HashTestUtils.generateRandomHash();
+        Hash secondAddressHash = HashTestUtils.generateRandomHash();
+        Hash receiverAddressHash = HashTestUtils.generateRandomHash();
+        addressBalanceIndex.putBalanceIfAbsent(firstAddressHash, AddressBalanceIndex.toUnits(new BigDecimal("10")));
+        addressBalanceIndex.putBalanceIfAbsent(secondAddressHash, AddressBalanceIndex.toUnits(new BigDecimal("1")));
+        addressBalanceIndex.copyBalancesToPreBalances();
+
+        boolean isValid = addressBalanceIndex.checkAndAddToPreBalance(Arrays.asList(
+                generateInput(firstAddressHash, "-5"),
+                generateInput(secondAddressHash, "-2"),
+                generateReceiver(receiverAddressHash, "7")));
+
+        Assert.assertFalse(isValid);
+        Assert.assertEquals(new BigDecimal("10"), AddressBalanceIndex.toBigDecimal(addressBalanceIndex.getPreBalance(firstAddressHash)));
+        Assert.assertEquals(new BigDecimal("1"), AddressBalanceIndex.toBigDecimal(addressBalanceIndex.getPreBalance(secondAddressHash)));
+        Assert.assertEquals(0, addressBalanceIndex.getPreBalance(receiverAddressHash));
+    }
+
+    @Test
+    public void checkAndAddToPreBalance_concurrentSpendsNeverOverdraw() throws InterruptedException {
+        AddressBalanceIndex addressBalanceIndex = new AddressBalanceIndex(4);
+        Hash addressHash = HashTestUtils.generateRandomHash();
+        addressBalanceIndex.putBalanceIfAbsent(addressHash, AddressBalanceIndex.toUnits(new BigDecimal("100")));
+        addressBalanceIndex.copyBalancesToPreBalances();
+        AtomicInteger acceptedSpends = new AtomicInteger();
+
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        for (int i = 0; i < 1000; i++) {
+            executorService.submit(() -> {
+                if (addressBalanceIndex.checkAndAddToPreBalance(Collections.singletonList(generateInput(addressHash, "-0.3")))) {
+                    acceptedSpends.incrementAndGet();
+                }
+            });
+        }
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(30, TimeUnit.SECONDS));
+
+        Assert.assertEquals(333, acceptedSpends.get());
+        Assert.assertEquals(new BigDecimal("0.1"), AddressBalanceIndex.toBigDecimal(addressBalanceIndex.getPreBalance(addressHash)));
+    }
+
+    private BaseTransactionData generateInput(Hash addressHash, String amount) {
+        return new InputBaseTransactionData(addressHash, new BigDecimal(amount), Instant.now());
+    }
+
+    private BaseTransactionData generateReceiver(Hash addressHash, String amount) {
+        return new ReceiverBaseTransactionData(addressHash, new BigDecimal(amount), new BigDecimal(amount), Instant.now());
+    }
+}
@@ -0,0 +1,205 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.crypto.AccumulatedHashDigest;
+import io.coti.basenode.data.*;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
+import io.coti.basenode.model.TransactionIndexes;
+import io.coti.basenode.model.Transactions;
+import io.coti.basenode.services.interfaces.IBalanceService;
+import io.coti.basenode.services.interfaces.ITransactionHelper;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.rocksdb.RocksDB;
+import org.rocksdb.WriteBatch;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.Consumer;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anySet;
+
+public class BaseNodeConfirmationServiceTest {
+
+    private final Map<Hash, TransactionData> storedTransactions = new ConcurrentHashMap<>();
+    private BaseNodeConfirmationService confirmationService;
+    private TransactionIndexService transactionIndexService;
+    private IDatabaseConnector databaseConnector;
+    private IBalanceService balanceService;
+    private TransactionIndexes transactionIndexes;
+
+    @BeforeClass
+    public static void loadLibrary() {
+        RocksDB.loadLibrary();
+    }
+
+    @Before
+    public void init() {
+        confirmationService = new BaseNodeConfirmationService();
+    }
+
+    @After
+    public void shutdown() {
+        confirmationService.shutdown();
+    }
+
+    @Test
+    public void setDspcToTrue_failedWriteBatch_doesNotCommitIndexAndRetries() {
+        startConfirmationService(-1);
+        Mockito.when(databaseConnector.putBatch(any())).thenReturn(false, true);
+        TransactionData transactionData = storeTransactionData();
+
+        confirmationService.setDspcToTrue(generateDspConsensusResult(transactionData, 0));
+
+        waitFor(() -> confirmationService.getDspConfirmed() == 1);
+        Mockito.verify(databaseConnector, Mockito.times(2)).putBatch(any());
+        Assert.assertEquals(0, transactionIndexService.getLastTransactionIndexData().getIndex());
+    }
+
+    @Test
+    public void setDspcToTrue_writeBatchAlwaysFails_keepsLastIndex() {
+        startConfirmationService(-1);
+        Mockito.when(databaseConnector.putBatch(any())).thenReturn(false);
+        TransactionData transactionData = storeTransactionData();
+
+        confirmationService.setDspcToTrue(generateDspConsensusResult(transactionData, 0));
+
+        waitFor(() -> Mockito.mockingDetails(databaseConnector).getInvocations().size() >= 2);
+        Assert.assertEquals(-1, transactionIndexService.getLastTransactionIndexData().getIndex());
+        Assert.assertEquals(0, confirmationService.getDspConfirmed());
+    }
+
+    @Test
+    public void setDspcToTrue_afterRestart_confirmsNextIndex() {
+        startConfirmationService(-1);
+        restartConfirmationService(3);
+
+        confirmationService.setDspcToTrue(generateDspConsensusResult(storeTransactionData(), 1));
+        confirmationService.setDspcToTrue(generateDspConsensusResult(storeTransactionData(), 3));
+
+        waitFor(() -> transactionIndexService.getLastTransactionIndexData().getIndex() == 3);
+        waitFor(() -> confirmationService.getDspConfirmed() == 4);
+        Assert.assertEquals(0, confirmationService.getWaitingDspConsensusResults());
+    }
+
+    @Test
+    public void setDspcToTrue_zeroSpendIndexesAfterRestart_confirmsIndexedResults() {
+        confirmationService = new BaseNodeConfirmationService() {
+            @Override
+            protected List<Optional<Boolean>> insertNewTransactionIndexes(List<TransactionData> transactionDataList, WriteBatch writeBatch) {
+                List<Optional<Boolean>> insertNewTransactionIndexResults = new ArrayList<>();
+                transactionDataList.forEach(transactionData -> insertNewTransactionIndexResults.add(Optional.of(Boolean.TRUE)));
+                return insertNewTransactionIndexResults;
+            }
+        };
+        startConfirmationService(-1);
+        restartConfirmationService(3);
+
+        indexZeroSpendTransaction(3);
+        confirmationService.setDspcToTrue(indexZeroSpendTransaction(4));
+        waitFor(() -> confirmationService.getDspConfirmed() == 4);
+        confirmationService.setDspcToTrue(indexZeroSpendTransaction(5));
+        waitFor(() -> confirmationService.getDspConfirmed() == 5);
+        DspConsensusResult dspConsensusResult = indexZeroSpendTransaction(6);
+        confirmationService.setDspcToTrue(indexZeroSpendTransaction(7));
+        waitFor(() -> confirmationService.getDspConfirmed() == 6);
+        confirmationService.setDspcToTrue(dspConsensusResult);
+
+        waitFor(() -> confirmationService.getDspConfirmed() == 7);
+        Assert.assertEquals(0, confirmationService.getWaitingDspConsensusResults());
+    }
+
+    private void restartConfirmationService(int existingTransactions) {
+        Map<Long, ReducedExistingTransactionData> indexToTransactionMap = indexExistingTransactions(existingTransactions);
+        confirmationService.setLastDspConfirmationIndex(indexToTransactionMap);
+        Assert.assertEquals(existingTransactions, confirmationService.getDspConfirmed());
+    }
+
+    private Map<Long, ReducedExistingTransactionData> indexExistingTransactions(int existingTransactions) {
+        Map<Long, ReducedExistingTransactionData> indexToTransactionMap = new HashMap<>();
+        AccumulatedHashDigest accumulatedHashDigest = new AccumulatedHashDigest("GENESIS".getBytes());
+        for (long index = 0; index < existingTransactions; index++) {
+            TransactionData transactionData = storeTransactionData();
+            transactionData.setTrustChainConsensus(true);
+            accumulatedHashDigest.update(transactionData.getHash(), index);
+            Mockito.when(transactionIndexes.getByHash(new Hash(index))).thenReturn(new TransactionIndexData(transactionData.getHash(), index, accumulatedHashDigest.getAccumulatedHash()));
+            indexToTransactionMap.put(index, new ReducedExistingTransactionData(transactionData));
+        }
+        return indexToTransactionMap;
+    }
+
+    private DspConsensusResult indexZeroSpendTransaction(long index) {
+        TransactionData transactionData = storeTransactionData();
+        DspConsensusResult dspConsensusResult = generateDspConsensusResult(transactionData, index);
+        transactionData.setDspConsensusResult(dspConsensusResult);
+        Assert.assertEquals(Optional.of(Boolean.TRUE), transactionIndexService.insertNewTransactionIndex(transactionData));
+        return dspConsensusResult;
+    }
+
+    private void startConfirmationService(long lastIndex) {
+        ITransactionHelper transactionHelper = Mockito.mock(ITransactionHelper.class);
+        transactionIndexes = Mockito.mock(TransactionIndexes.class);
+        transactionIndexService = new TransactionIndexService();
+        ReflectionTestUtils.setField(transactionIndexService, "transactionHelper", transactionHelper);
+        ReflectionTestUtils.setField(transactionIndexService, "transactionIndexes", transactionIndexes);
+        ReflectionTestUtils.setField(transactionIndexService, "checkpointInterval", 100L);
+        transactionIndexService.setLastTransactionIndexData(new TransactionIndexData(new Hash(lastIndex), lastIndex, new byte[0]));
+
+        Transactions transactions = Mockito.mock(Transactions.class);
+        Mockito.doAnswer(invocation -> {
+            Map<Hash, TransactionData> transactionDataByHash = new LinkedHashMap<>();
+            ((Set<Hash>) invocation.getArgument(0)).forEach(hash -> transactionDataByHash.put(hash, storedTransactions.get(hash)));
+            ((Consumer<Map<Hash, TransactionData>>) invocation.getArgument(1)).accept(transactionDataByHash);
+            return null;
+        }).when(transactions).lockAndGetByHashes(anySet(), any());
+        databaseConnector = Mockito.mock(IDatabaseConnector.class);
+        Mockito.when(databaseConnector.putBatch(any())).thenReturn(true);
+
+        balanceService = Mockito.mock(IBalanceService.class);
+        ReflectionTestUtils.setField(confirmationService, "balanceService", balanceService);
+        ReflectionTestUtils.setField(confirmationService, "transactionHelper", transactionHelper);
+        ReflectionTestUtils.setField(confirmationService, "transactionIndexService", transactionIndexService);
+        ReflectionTestUtils.setField(confirmationService, "transactionIndexes", transactionIndexes);
+        ReflectionTestUtils.setField(confirmationService, "transactions", transactions);
+        ReflectionTestUtils.setField(confirmationService, "databaseConnector", databaseConnector);
+        ReflectionTestUtils.setField(confirmationService, "maxConfirmationBatchSize", 100);
+        ReflectionTestUtils.setField(confirmationService, "reorderBufferCapacity", 64);
+        ReflectionTestUtils.setField(confirmationService, "maxGapAgeInMillis", 60000L);
+        confirmationService.init();
+    }
+
+    private TransactionData storeTransactionData() {
+        TransactionData transactionData = TransactionTestUtils.generateRandomTransaction();
+        storedTransactions.put(transactionData.getHash(), transactionData);
+        return transactionData;
+    }
+
+    private DspConsensusResult generateDspConsensusResult(TransactionData transactionData, long index) {
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionData.getHash());
+        dspConsensusResult.setIndex(index);
+        dspConsensusResult.setIndexingTime(Instant.now());
+        dspConsensusResult.setDspConsensus(true);
+        return dspConsensusResult;
+    }
+
+    private void waitFor(BooleanSupplier condition) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!condition.getAsBoolean()) {
+            Assert.assertTrue("Condition not met in time", System.currentTimeMillis() < deadline);
+            try {
+                Thread.sleep(10);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                Assert.fail("Interrupted");
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.communication.JacksonSerializer;
+import io.coti.basenode.data.*;
+import io.coti.basenode.database.interfaces.IDatabaseConnector;
+import io.coti.basenode.http.StreamFraming;
+import io.coti.basenode.http.StreamRecordReader;
+import io.coti.basenode.model.Collection;
+import io.coti.basenode.model.TransactionIndexes;
+import io.coti.basenode.model.Transactions;
+import io.coti.basenode.model.codec.TransactionIndexDataCodec;
+import io.coti.basenode.services.interfaces.ITransactionHelper;
+import io.coti.basenode.utils.HashTestUtils;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.*;
+import org.junit.rules.TemporaryFolder;
+import org.mockito.Mockito;
+import org.rocksdb.Options;
+import org.rocksdb.RocksDB;
+import org.rocksdb.RocksDBException;
+import org.rocksdb.RocksIterator;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.*;
+
+public class BaseNodeTransactionServiceTest {
+
+    private static final int MAXIMUM_RECORD_SIZE = 1024 * 1024;
+    @Rule
+    public TemporaryFolder temporaryFolder = new TemporaryFolder();
+    private final Map<Hash, TransactionData> transactionDataByHash = new HashMap<>();
+    private final List<RocksIterator> iterators = new ArrayList<>();
+    private Options options;
+    private RocksDB db;
+    private BaseNodeTransactionService transactionService;
+    private JacksonSerializer jacksonSerializer;
+    private ITransactionHelper transactionHelper;
+    private TransactionIndexService transactionIndexService;
+
+    @BeforeClass
+    public static void loadLibrary() {
+        RocksDB.loadLibrary();
+    }
+
+    @Before
+    public void init() throws Exception {
+        options = new Options().setCreateIfMissing(true);
+        db = RocksDB.open(options, temporaryFolder.newFolder().getAbsolutePath());
+        IDatabaseConnector databaseConnector = Mockito.mock(IDatabaseConnector.class);
+        Mockito.when(databaseConnector.getIterator(any())).thenAnswer(invocation -> {
+            RocksIterator iterator = db.newIterator();
+            iterators.add(iterator);
+            return iterator;
+        });
+        TransactionIndexes transactionIndexes = new TransactionIndexes();
+        transactionIndexes.databaseConnector = databaseConnector;
+        ReflectionTestUtils.setField(transactionIndexes, "entityCodecEnabled", true);
+        Transactions transactions = Mockito.mock(Transactions.class);
+        Mockito.when(transactions.multiGetByHashes(anyList(), anyBoolean())).thenAnswer(invocation -> {
+            iterators.forEach(iterator -> Assert.assertFalse(iterator.isOwningHandle()));
+            List<TransactionData> transactionDataList = new ArrayList<>();
+            invocation.<List<Hash>>getArgument(0).forEach(hash -> transactionDataList.add(transactionDataByHash.get(hash)));
+            return transactionDataList;
+        });
+        jacksonSerializer = new JacksonSerializer();
+        ReflectionTestUtils.invokeMethod(jacksonSerializer, "init");
+        ReflectionTestUtils.setField(jacksonSerializer, "binaryEnabled", true);
+        transactionHelper = Mockito.mock(ITransactionHelper.class);
+        transactionIndexService = Mockito.mock(TransactionIndexService.class);
+
+        transactionService = new BaseNodeTransactionService();
+        ReflectionTestUtils.setField(transactionService, "transactionHelper", transactionHelper);
+        ReflectionTestUtils.setField(transactionService, "transactions", transactions);
+        ReflectionTestUtils.setField(transactionService, "transactionIndexes", transactionIndexes);
+        ReflectionTestUtils.setField(transactionService, "transactionIndexService", transactionIndexService);
+        ReflectionTestUtils.setField(transactionService, "jacksonSerializer", jacksonSerializer);
+    }
+
+    @After
+    public void close() {
+        db.close();
+        options.close();
+    }
+
+    @Test
+    public void getTransactionBatch_lengthPrefixedGzipStream_decodesAllTransactions() throws IOException, RocksDBException {
+        List<TransactionData> indexedTransactions = indexTransactions(2 * Collection.MULTI_GET_BATCH_SIZE + 1);
+        transactionDataByHash.remove(indexedTransactions.get(Collection.MULTI_GET_BATCH_SIZE).getHash());
+        TransactionData noneIndexedTransactionData = storeTransactionData();
+        Mockito.when(transactionHelper.getNoneIndexedTransactionHashes()).thenReturn(Collections.singleton(noneIndexedTransactionData.getHash()));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        transactionService.getTransactionBatch(0, null, true, true, response);
+
+        List<Hash> expectedHashes = new ArrayList<>();
+        indexedTransactions.forEach(transactionData -> expectedHashes.add(transactionData.getHash()));
+        expectedHashes.remove(Collection.MULTI_GET_BATCH_SIZE);
+        expectedHashes.add(noneIndexedTransactionData.getHash());
+        Assert.assertEquals(expectedHashes, readTransactionHashes(response));
+        Assert.assertEquals(3, iterators.size());
+    }
+
+    @Test
+    public void getTransactionBatch_endingIndex_streamsRangeOnly() throws IOException, RocksDBException {
+        List<TransactionData> indexedTransactions = indexTransactions(10);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        transactionService.getTransactionBatch(3, 6L, true, true, response);
+
+        List<Hash> expectedHashes = new ArrayList<>();
+        indexedTransactions.subList(3, 7).forEach(transactionData -> expectedHashes.add(transactionData.getHash()));
+        Assert.assertEquals(expectedHashes, readTransactionHashes(response));
+        Mockito.verify(transactionHelper, Mockito.never()).getNoneIndexedTransactionHashes();
+    }
+
+    private List<Hash> readTransactionHashes(MockHttpServletResponse response) throws IOException {
+        Assert.assertEquals(StreamFraming.LENGTH_PREFIXED, response.getHeader(StreamFraming.FRAMING_HEADER));
+        Assert.assertEquals(StreamFraming.GZIP, response.getHeader(StreamFraming.COMPRESSION_HEADER));
+        MockClientHttpResponse clientResponse = new MockClientHttpResponse(response.getContentAsByteArray(), HttpStatus.OK);
+        clientResponse.getHeaders().set(StreamFraming.FRAMING_HEADER, response.getHeader(StreamFraming.FRAMING_HEADER));
+        clientResponse.getHeaders().set(StreamFraming.COMPRESSION_HEADER, response.getHeader(StreamFraming.COMPRESSION_HEADER));
+        StreamRecordReader recordReader = new StreamRecordReader(StreamFraming.getBody(clientResponse), StreamFraming.isLengthPrefixed(clientResponse.getHeaders()), MAXIMUM_RECORD_SIZE);
+
+        List<Hash> transactionHashes = new ArrayList<>();
+        byte[] record;
+        while ((record = recordReader.read()) != null) {
+            TransactionData transactionData = jacksonSerializer.deserialize(record);
+            transactionHashes.add(transactionData.getHash());
+        }
+        return transactionHashes;
+    }
+
+    private List<TransactionData> indexTransactions(int count) throws RocksDBException {
+        TransactionIndexDataCodec transactionIndexDataCodec = new TransactionIndexDataCodec();
+        List<TransactionData> indexedTransactions = new ArrayList<>();
+        for (long index = 0; index < count; index++) {
+            TransactionData transactionData = storeTransactionData();
+            db.put(new Hash(index).getBytes(), transactionIndexDataCodec.encode(new TransactionIndexData(transactionData.getHash(), index, HashTestUtils.generateRandomHash().getBytes())));
+            indexedTransactions.add(transactionData);
+        }
+        Mockito.when(transactionIndexService.getLastTransactionIndexData()).thenReturn(new TransactionIndexData(indexedTransactions.get(count - 1).getHash(), count - 1L, null));
+        return indexedTransactions;
+    }
+
+    private TransactionData storeTransactionData() {
+        TransactionData transactionData = TransactionTestUtils.generateRandomTransaction();
+        transactionDataByHash.put(transactionData.getHash(), transactionData);
+        return transactionData;
+    }
+}
@@ -0,0 +1,133 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.DspConsensusResult;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class DspConsensusResultReorderBufferTest {
+
+    @Test
+    public void drainTo_outOfOrderResults_releasesContiguousRun() {
+        DspConsensusResultReorderBuffer reorderBuffer = new DspConsensusResultReorderBuffer(8, 0);
+        reorderBuffer.offer(generateDspConsensusResult(2));
+        reorderBuffer.offer(generateDspConsensusResult(1));
+        reorderBuffer.offer(generateDspConsensusResult(4));
+        List<DspConsensusResult> dspConsensusResults = new ArrayList<>();
+
+        Assert.assertFalse(reorderBuffer.isHeadAvailable());
+        Assert.assertEquals(0, reorderBuffer.drainTo(dspConsensusResults, 10));
+
+        reorderBuffer.offer(generateDspConsensusResult(0));
+        Assert.assertTrue(reorderBuffer.isHeadAvailable());
+        Assert.assertEquals(3, reorderBuffer.drainTo(dspConsensusResults, 10));
+        assertIndexes(dspConsensusResults, 0, 3);
+        Assert.assertEquals(3, reorderBuffer.getHeadIndex());
+        Assert.assertEquals(1, reorderBuffer.getSize());
+    }
+
+    @Test
+    public void drainTo_resultsBeyondCapacity_releasesInOrder() {
+        DspConsensusResultReorderBuffer reorderBuffer = new DspConsensusResultReorderBuffer(4, 0);
+        for (long index = 9; index >= 0; index--) {
+            reorderBuffer.offer(generateDspConsensusResult(index));
+        }
+        reorderBuffer.offer(generateDspConsensusResult(5));
+        List<DspConsensusResult> dspConsensusResults = new ArrayList<>();
+
+        Assert.assertEquals(10, reorderBuffer.drainTo(dspConsensusResults, 20));
+        assertIndexes(dspConsensusResults, 0, 10);
+        Assert.assertEquals(0, reorderBuffer.getSize());
+    }
+
+    @Test
+    public void offer_staleAndDuplicateResults_areIgnored() {
+        DspConsensusResultReorderBuffer reorderBuffer = new DspConsensusResultReorderBuffer(8, 5);
+        Assert.assertFalse(reorderBuffer.offer(generateDspConsensusResult(3)));
+        Assert.assertTrue(reorderBuffer.offer(generateDspConsensusResult(6)));
+        Assert.assertTrue(reorderBuffer.offer(generateDspConsensusResult(6)));
+
+        Assert.assertEquals(1, reorderBuffer.getSize());
+        reorderBuffer.setHeadIndex(6);
+        List<DspConsensusResult> dspConsensusResults = new ArrayList<>();
+        Assert.assertEquals(1, reorderBuffer.drainTo(dspConsensusResults, 10));
+        assertIndexes(dspConsensusResults, 6, 7);
+    }
+
+    @Test
+    public void drainUpTo_insertedIndexes_releasesWaitingResults() {
+        DspConsensusResultReorderBuffer reorderBuffer = new DspConsensusResultReorderBuffer(4, 2);
+        reorderBuffer.offer(generateDspConsensusResult(3));
+        reorderBuffer.offer(generateDspConsensusResult(5));
+        reorderBuffer.offer(generateDspConsensusResult(8));
+        reorderBuffer.offer(generateDspConsensusResult(10));
+        List<DspConsensusResult> dspConsensusResults = new ArrayList<>();
+
+        Assert.assertEquals(3, reorderBuffer.drainUpTo(8, dspConsensusResults, 10));
+
+        Assert.assertEquals(3, dspConsensusResults.get(0).getIndex());
+        Assert.assertEquals(5, dspConsensusResults.get(1).getIndex());
+        Assert.assertEquals(8, dspConsensusResults.get(2).getIndex());
+        Assert.assertEquals(9, reorderBuffer.getHeadIndex());
+        Assert.assertEquals(1, reorderBuffer.getSize());
+        Assert.assertEquals(0, reorderBuffer.drainUpTo(20, dspConsensusResults, 0));
+        Assert.assertEquals(1, reorderBuffer.drainUpTo(20, dspConsensusResults, 10));
+        Assert.assertEquals(21, reorderBuffer.getHeadIndex());
+        Assert.assertEquals(0, reorderBuffer.getSize());
+    }
+
+    @Test
+    public void drainTo_concurrentOffers_releasesAllInOrder() throws InterruptedException {
+        int producers = 4;
+        int resultsPerProducer = 5000;
+        DspConsensusResultReorderBuffer reorderBuffer = new DspConsensusResultReorderBuffer(64, 0);
+        List<Long> indexes = new ArrayList<>();
+        for (long index = 0; index < producers * resultsPerProducer; index++) {
+            indexes.add(index);
+        }
+        Collections.shuffle(indexes);
+        ExecutorService executorService = Executors.newFixedThreadPool(producers);
+        CountDownLatch producersDone = new CountDownLatch(producers);
+        for (int producer = 0; producer < producers; producer++) {
+            List<Long> producerIndexes = indexes.subList(producer * resultsPerProducer, (producer + 1) * resultsPerProducer);
+            executorService.submit(() -> {
+                producerIndexes.forEach(index -> reorderBuffer.offer(generateDspConsensusResult(index)));
+                producersDone.countDown();
+            });
+        }
+        List<DspConsensusResult> dspConsensusResults = new ArrayList<>();
+        while (dspConsensusResults.size() < indexes.size()) {
+            reorderBuffer.drainTo(dspConsensusResults, 100);
+            if (producersDone.getCount() == 0 && !reorderBuffer.isHeadAvailable()) {
+                break;
+            }
+        }
+        executorService.shutdown();
+        Assert.assertTrue(executorService.awaitTermination(1, TimeUnit.MINUTES));
+
+        assertIndexes(dspConsensusResults, 0, indexes.size());
+        Assert.assertEquals(0, reorderBuffer.getSize());
+        Assert.assertEquals(0, reorderBuffer.getGapAgeInMillis());
+    }
+
+    private DspConsensusResult generateDspConsensusResult(long index) {
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(HashTestUtils.generateRandomHash());
+        dspConsensusResult.setIndex(index);
+        return dspConsensusResult;
+    }
+
+    private void assertIndexes(List<DspConsensusResult> dspConsensusResults, long fromIndex, long toIndex) {
+        Assert.assertEquals(toIndex - fromIndex, dspConsensusResults.size());
+        for (int i = 0; i < dspConsensusResults.size(); i++) {
+            Assert.assertEquals(fromIndex + i, dspConsensusResults.get(i).getIndex());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TccInfo;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.TransactionType;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+@RunWith(SpringRunner.class)
+@SpringBootTest(classes = {IncrementalTrustChainConfirmationService.class})
+public class IncrementalTrustChainConfirmationServiceTest {
+
+    @Autowired
+    private IncrementalTrustChainConfirmationService incrementalTrustChainConfirmationService;
+
+    @Before
+    public void init() {
+        incrementalTrustChainConfirmationService.init(new HashMap<>());
+    }
+
+    @Test
+    public void attach_chainReachesThreshold_confirmsAncestorsOnly() {
+        TransactionData first = generateTransactionData(40, null, null);
+        TransactionData second = generateTransactionData(40, first.getHash(), null);
+        TransactionData third = generateTransactionData(40, second.getHash(), null);
+
+        Assert.assertTrue(incrementalTrustChainConfirmationService.attach(first).isEmpty());
+        Assert.assertTrue(incrementalTrustChainConfirmationService.attach(second).isEmpty());
+        List<TccInfo> trustChainConfirmations = incrementalTrustChainConfirmationService.attach(third);
+
+        Assert.assertEquals(1, trustChainConfirmations.size());
+        Assert.assertEquals(first.getHash(), trustChainConfirmations.get(0).getHash());
+        Assert.assertEquals(120, trustChainConfirmations.get(0).getTrustChainTrustScore(), 0);
+        Assert.assertFalse(incrementalTrustChainConfirmationService.contains(first.getHash()));
+        Assert.assertEquals(80, incrementalTrustChainConfirmationService.getTrustChainTrustScore(second.getHash()).orElse(0.0), 0);
+    }
+
+    @Test
+    public void attach_maxChildChainIsUsed() {
+        TransactionData parent = generateTransactionData(30, null, null);
+        TransactionData weakChild = generateTransactionData(10, parent.getHash(), null);
+        TransactionData strongChild = generateTransactionData(60, parent.getHash(), null);
+
+        incrementalTrustChainConfirmationService.attach(parent);
+        incrementalTrustChainConfirmationService.attach(weakChild);
+        Assert.assertEquals(40, incrementalTrustChainConfirmationService.getTrustChainTrustScore(parent.getHash()).orElse(0.0), 0);
+        incrementalTrustChainConfirmationService.attach(strongChild);
+        Assert.assertEquals(90, incrementalTrustChainConfirmationService.getTrustChainTrustScore(parent.getHash()).orElse(0.0), 0);
+    }
+
+    private TransactionData generateTransactionData(double senderTrustScore, Hash leftParentHash, Hash rightParentHash) {
+        TransactionData transactionData = new TransactionData(new ArrayList<>(), HashTestUtils.generateRandomHash(), "test", senderTrustScore, Instant.now(), TransactionType.Payment);
+        transactionData.setLeftParentHash(leftParentHash);
+        transactionData.setRightParentHash(rightParentHash);
+        return transactionData;
+    }
+}
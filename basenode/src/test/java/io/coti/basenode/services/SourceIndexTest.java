@@ -0,0 +1,61 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.TransactionType;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SourceIndexTest {
+
+    @Test
+    public void selectWeightedSources_futureSourcesAreNotEligible() {
+        SourceIndex sourceIndex = new SourceIndex();
+        Instant now = Instant.now();
+        TransactionData olderSource = generateSource(50, now.minusSeconds(10));
+        sourceIndex.add(olderSource);
+        sourceIndex.add(generateSource(50, now.plusSeconds(60)));
+
+        List<TransactionData> selectedSources = sourceIndex.selectWeightedSources(40, 60, 2, now);
+
+        Assert.assertEquals(2, sourceIndex.getNumberOfSources(50));
+        Assert.assertEquals(1, selectedSources.size());
+        Assert.assertEquals(olderSource, selectedSources.get(0));
+    }
+
+    @Test
+    public void selectWeightedSources_selectsDistinctSourcesWeightedByAge() {
+        SourceIndex sourceIndex = new SourceIndex();
+        Instant now = Instant.now();
+        TransactionData oldSource = generateSource(48, now.minusSeconds(1000));
+        sourceIndex.add(oldSource);
+        for (int i = 0; i < 40; i++) {
+            sourceIndex.add(generateSource(52, now.minusMillis(10)));
+        }
+
+        int oldSourceSelections = 0;
+        for (int i = 0; i < 100; i++) {
+            List<TransactionData> selectedSources = sourceIndex.selectWeightedSources(40, 60, 2, now);
+            Assert.assertEquals(2, selectedSources.size());
+            Assert.assertNotEquals(selectedSources.get(0), selectedSources.get(1));
+            if (selectedSources.contains(oldSource)) {
+                oldSourceSelections++;
+            }
+        }
+        Assert.assertTrue(oldSourceSelections > 90);
+
+        Assert.assertTrue(sourceIndex.remove(oldSource.getHash()));
+        Assert.assertEquals(40, sourceIndex.getNumberOfSources());
+        Assert.assertFalse(sourceIndex.selectWeightedSources(40, 60, 2, now).contains(oldSource));
+    }
+
+    private TransactionData generateSource(double senderTrustScore, Instant attachmentTime) {
+        TransactionData transactionData = new TransactionData(new ArrayList<>(), HashTestUtils.generateRandomHash(), "test", senderTrustScore, attachmentTime, TransactionType.Payment);
+        transactionData.setAttachmentTime(attachmentTime);
+        return transactionData;
+    }
+}
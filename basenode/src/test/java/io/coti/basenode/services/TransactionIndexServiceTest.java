@@ -0,0 +1,166 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.crypto.AccumulatedHashDigest;
+import io.coti.basenode.crypto.CryptoHelper;
+import io.coti.basenode.data.DspConsensusResult;
+import io.coti.basenode.data.Hash;
+import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.data.TransactionIndexData;
+import io.coti.basenode.model.TransactionIndexes;
+import io.coti.basenode.services.interfaces.ITransactionHelper;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.rocksdb.RocksDB;
+import org.rocksdb.WriteBatch;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.ByteBuffer;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.mockito.ArgumentMatchers.any;
+
+public class TransactionIndexServiceTest {
+
+    private static final int CHAIN_LENGTH = 100;
+    private static final long CHECKPOINT_INTERVAL = 16;
+
+    @Test
+    public void update_accumulatedHashDigest_matchesCombinedHash() {
+        byte[] accumulatedHash = "GENESIS".getBytes();
+        AccumulatedHashDigest accumulatedHashDigest = new AccumulatedHashDigest(accumulatedHash);
+        for (long index = 0; index < 10; index++) {
+            Hash transactionHash = HashTestUtils.generateRandomHash();
+            accumulatedHash = getCombinedAccumulatedHash(accumulatedHash, transactionHash, index);
+            accumulatedHashDigest.update(transactionHash, index);
+
+            Assert.assertTrue(accumulatedHashDigest.matches(accumulatedHash));
+            Assert.assertArrayEquals(accumulatedHash, accumulatedHashDigest.getAccumulatedHash());
+        }
+    }
+
+    @Test
+    public void findFirstDivergentIndex_divergentChains_returnsFirstDivergentIndex() {
+        List<Hash> transactionHashes = generateTransactionHashes();
+        List<byte[]> localChain = getAccumulatedHashChain(transactionHashes);
+        for (int divergentIndex : new int[]{0, 1, 15, 16, 17, 50, CHAIN_LENGTH - 1}) {
+            List<Hash> peerTransactionHashes = new ArrayList<>(transactionHashes);
+            peerTransactionHashes.set(divergentIndex, HashTestUtils.generateRandomHash());
+            List<byte[]> peerChain = getAccumulatedHashChain(peerTransactionHashes);
+
+            Assert.assertEquals(divergentIndex, TransactionIndexService.findFirstDivergentIndex(CHAIN_LENGTH - 1, CHECKPOINT_INTERVAL,
+                    index -> localChain.get((int) index), getCheckpoints(peerChain), index -> peerChain.get((int) index)));
+            Assert.assertEquals(divergentIndex, TransactionIndexService.findFirstDivergentIndex(CHAIN_LENGTH - 1, CHECKPOINT_INTERVAL,
+                    index -> localChain.get((int) index), Collections.emptyList(), index -> peerChain.get((int) index)));
+        }
+    }
+
+    @Test
+    public void findFirstDivergentIndex_equalChains_returnsIndexAfterLastCommonIndex() {
+        List<byte[]> chain = getAccumulatedHashChain(generateTransactionHashes());
+
+        Assert.assertEquals(CHAIN_LENGTH, TransactionIndexService.findFirstDivergentIndex(CHAIN_LENGTH - 1, CHECKPOINT_INTERVAL,
+                index -> chain.get((int) index), getCheckpoints(chain), index -> chain.get((int) index)));
+    }
+
+    @Test
+    public void findFirstDivergentIndex_longChains_looksUpLogarithmicNumberOfHashes() {
+        int chainLength = 4096;
+        List<Hash> transactionHashes = new ArrayList<>();
+        for (int i = 0; i < chainLength; i++) {
+            transactionHashes.add(HashTestUtils.generateRandomHash());
+        }
+        List<byte[]> localChain = getAccumulatedHashChain(transactionHashes);
+        List<Hash> peerTransactionHashes = new ArrayList<>(transactionHashes);
+        peerTransactionHashes.set(3001, HashTestUtils.generateRandomHash());
+        List<byte[]> peerChain = getAccumulatedHashChain(peerTransactionHashes);
+        List<Long> localLookups = new ArrayList<>();
+        List<Long> peerLookups = new ArrayList<>();
+
+        long firstDivergentIndex = TransactionIndexService.findFirstDivergentIndex(chainLength - 1, CHECKPOINT_INTERVAL, index -> {
+            localLookups.add(index);
+            return localChain.get((int) index);
+        }, getCheckpoints(peerChain), index -> {
+            peerLookups.add(index);
+            return peerChain.get((int) index);
+        });
+
+        Assert.assertEquals(3001, firstDivergentIndex);
+        Assert.assertTrue(localLookups.size() <= 16);
+        Assert.assertTrue(peerLookups.size() <= 5);
+    }
+
+    @Test
+    public void insertNewTransactionIndex_openWriteBatch_waitsUntilBatchIsDiscarded() throws InterruptedException {
+        RocksDB.loadLibrary();
+        List<TransactionIndexData> storedTransactionIndexes = Collections.synchronizedList(new ArrayList<>());
+        TransactionIndexes transactionIndexes = Mockito.mock(TransactionIndexes.class);
+        Mockito.doAnswer(invocation -> storedTransactionIndexes.add(invocation.getArgument(0))).when(transactionIndexes).put(any(TransactionIndexData.class));
+        TransactionIndexService transactionIndexService = new TransactionIndexService();
+        ReflectionTestUtils.setField(transactionIndexService, "transactionIndexes", transactionIndexes);
+        ReflectionTestUtils.setField(transactionIndexService, "transactionHelper", Mockito.mock(ITransactionHelper.class));
+        transactionIndexService.setLastTransactionIndexData(new TransactionIndexData(HashTestUtils.generateRandomHash(), 0, "GENESIS".getBytes()));
+        AtomicReference<Optional<Boolean>> directInsertResult = new AtomicReference<>();
+
+        try (WriteBatch writeBatch = new WriteBatch()) {
+            Assert.assertEquals(Optional.of(Boolean.TRUE), transactionIndexService.insertNewTransactionIndex(generateIndexedTransaction(1), writeBatch));
+            Thread directInsertThread = new Thread(() -> directInsertResult.set(transactionIndexService.insertNewTransactionIndex(generateIndexedTransaction(2))));
+            directInsertThread.start();
+            directInsertThread.join(300);
+            Assert.assertTrue(directInsertThread.isAlive());
+
+            transactionIndexService.discardTransactionIndexes();
+            directInsertThread.join(5000);
+
+            Assert.assertFalse(directInsertThread.isAlive());
+        }
+        Assert.assertEquals(Optional.of(Boolean.FALSE), directInsertResult.get());
+        Assert.assertTrue(storedTransactionIndexes.isEmpty());
+        Assert.assertEquals(0, transactionIndexService.getLastTransactionIndexData().getIndex());
+    }
+
+    private TransactionData generateIndexedTransaction(long index) {
+        TransactionData transactionData = Mockito.mock(TransactionData.class);
+        Hash transactionHash = HashTestUtils.generateRandomHash();
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionHash);
+        dspConsensusResult.setIndex(index);
+        Mockito.when(transactionData.getHash()).thenReturn(transactionHash);
+        Mockito.when(transactionData.getDspConsensusResult()).thenReturn(dspConsensusResult);
+        return transactionData;
+    }
+
+    private byte[] getCombinedAccumulatedHash(byte[] previousAccumulatedHash, Hash transactionHash, long index) {
+        byte[] transactionHashBytes = transactionHash.getBytes();
+        ByteBuffer combinedHash = ByteBuffer.allocate(previousAccumulatedHash.length + transactionHashBytes.length + Long.BYTES);
+        combinedHash.put(previousAccumulatedHash).put(transactionHashBytes).putLong(index);
+        return CryptoHelper.cryptoHash(combinedHash.array()).getBytes();
+    }
+
+    private List<Hash> generateTransactionHashes() {
+        List<Hash> transactionHashes = new ArrayList<>();
+        for (int i = 0; i < CHAIN_LENGTH; i++) {
+            transactionHashes.add(HashTestUtils.generateRandomHash());
+        }
+        return transactionHashes;
+    }
+
+    private List<byte[]> getAccumulatedHashChain(List<Hash> transactionHashes) {
+        List<byte[]> chain = new ArrayList<>();
+        AccumulatedHashDigest accumulatedHashDigest = new AccumulatedHashDigest("GENESIS".getBytes());
+        for (int index = 0; index < transactionHashes.size(); index++) {
+            accumulatedHashDigest.update(transactionHashes.get(index), index);
+            chain.add(accumulatedHashDigest.getAccumulatedHash());
+        }
+        return chain;
+    }
+
+    private List<byte[]> getCheckpoints(List<byte[]> chain) {
+        List<byte[]> checkpoints = new ArrayList<>();
+        for (int index = 0; index < chain.size(); index += CHECKPOINT_INTERVAL) {
+            checkpoints.add(chain.get(index));
+        }
+        return checkpoints;
+    }
+}
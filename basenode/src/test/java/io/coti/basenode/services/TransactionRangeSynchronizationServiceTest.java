@@ -0,0 +1,282 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.crypto.AccumulatedHashDigest;
+import io.coti.basenode.data.*;
+import io.coti.basenode.exceptions.TransactionSyncException;
+import io.coti.basenode.http.GetTransactionIndexCheckpointsResponse;
+import io.coti.basenode.model.AddressTransactionsHistories;
+import io.coti.basenode.services.interfaces.*;
+import io.coti.basenode.utils.HashTestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.*;
+
+public class TransactionRangeSynchronizationServiceTest {
+
+    private static final int CHAIN_LENGTH = 95;
+    private static final long CHECKPOINT_INTERVAL = 10;
+    private static final int LOCAL_LAST_INDEX = 12;
+    private TransactionRangeSynchronizationService transactionRangeSynchronizationService;
+    private List<TransactionData> chain;
+    private List<byte[]> accumulatedHashes;
+    private List<Hash> appliedTransactionHashes;
+    private List<TransactionData> appliedTransactions;
+    private Set<TransactionData> forgedTransactions;
+
+    @Before
+    public void init() {
+        generateChain();
+        transactionRangeSynchronizationService = new TransactionRangeSynchronizationService();
+        appliedTransactionHashes = Collections.synchronizedList(new ArrayList<>());
+        appliedTransactions = Collections.synchronizedList(new ArrayList<>());
+        forgedTransactions = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+        TransactionIndexService transactionIndexService = Mockito.mock(TransactionIndexService.class);
+        Mockito.when(transactionIndexService.getCheckpointInterval()).thenReturn(CHECKPOINT_INTERVAL);
+        Mockito.when(transactionIndexService.getLastTransactionIndexData())
+                .thenReturn(new TransactionIndexData(chain.get(LOCAL_LAST_INDEX).getHash(), LOCAL_LAST_INDEX, accumulatedHashes.get(LOCAL_LAST_INDEX)));
+        ITransactionService transactionService = Mockito.mock(ITransactionService.class);
+        Mockito.when(transactionService.monitorTransactionThread(anyString(), any(), any())).thenAnswer(invocation -> new Thread(() -> {
+        }));
+        Mockito.doAnswer(invocation -> {
+            List<TransactionData> transactionDataList = invocation.getArgument(0);
+            transactionDataList.forEach(transactionData -> appliedTransactionHashes.add(transactionData.getHash()));
+            appliedTransactions.addAll(transactionDataList);
+            return null;
+        }).when(transactionService).handleMissingTransactions(anyList(), anySet());
+        IClusterService clusterService = Mockito.mock(IClusterService.class);
+        Mockito.when(clusterService.getTrustChainConfirmationTransactionHashes()).thenReturn(new HashSet<>());
+        IValidationService validationService = Mockito.mock(IValidationService.class);
+        Mockito.when(validationService.validatePropagatedTransactionDataIntegrity(any(TransactionData.class)))
+                .thenAnswer(invocation -> !forgedTransactions.contains(invocation.<TransactionData>getArgument(0)));
+
+        ReflectionTestUtils.setField(transactionRangeSynchronizationService, "transactionIndexService", transactionIndexService);
+        ReflectionTestUtils.setField(transactionRangeSynchronizationService, "transactionService", transactionService);
+        ReflectionTestUtils.setField(transactionRangeSynchronizationService, "transactionHelper", Mockito.mock(ITransactionHelper.class));
+        ReflectionTestUtils.setField(transactionRangeSynchronizationService, "clusterService", clusterService);
+        ReflectionTestUtils.setField(transactionRangeSynchronizationService, "validationService", validationService);
+        ReflectionTestUtils.setField(transactionRangeSynchronizationService, "addressTransactionsHistories", Mockito.mock(AddressTransactionsHistories.class));
+        ReflectionTestUtils.setField(transactionRangeSynchronizationService, "window", 3);
+        ReflectionTestUtils.setField(transactionRangeSynchronizationService, "slowRangeSeconds", 60);
+        ReflectionTestUtils.setField(transactionRangeSynchronizationService, "maxPeerFailures", 3);
+        ReflectionTestUtils.setField(transactionRangeSynchronizationService, "batchSize", 7);
+    }
+
+    @Test
+    public void requestMissingTransactionRanges_failingAndCorruptPeers_appliesVerifiedChainInOrder() {
+        InProcessPeer goodPeer = new InProcessPeer("good", CHAIN_LENGTH - 1);
+        InProcessPeer laggingPeer = new InProcessPeer("lagging", 40);
+        InProcessPeer corruptPeer = new InProcessPeer("corrupt", CHAIN_LENGTH - 1);
+        corruptPeer.corruptIndex = 55;
+        InProcessPeer failingPeer = new InProcessPeer("failing", CHAIN_LENGTH - 1);
+        failingPeer.failing = true;
+
+        transactionRangeSynchronizationService.requestMissingTransactionRanges(Arrays.asList(goodPeer, laggingPeer, corruptPeer, failingPeer), LOCAL_LAST_INDEX + 1);
+
+        Assert.assertEquals(getChainHashes(LOCAL_LAST_INDEX + 1, CHAIN_LENGTH - 1), appliedTransactionHashes);
+        Assert.assertTrue(laggingPeer.maxRequestedIndex <= 40);
+    }
+
+    @Test(expected = TransactionSyncException.class)
+    public void requestMissingTransactionRanges_onlyCorruptPeers_throwsTransactionSyncException() {
+        InProcessPeer corruptPeer = new InProcessPeer("corrupt", CHAIN_LENGTH - 1);
+        corruptPeer.corruptIndex = 15;
+
+        transactionRangeSynchronizationService.requestMissingTransactionRanges(Collections.singletonList(corruptPeer), LOCAL_LAST_INDEX + 1);
+    }
+
+    @Test
+    public void requestMissingTransactionRanges_forgingPeer_appliesOnlyValidTransactions() {
+        InProcessPeer goodPeer = new InProcessPeer("good", CHAIN_LENGTH - 1);
+        InProcessPeer forgingPeer = new InProcessPeer("forging", CHAIN_LENGTH - 1);
+        forgingPeer.forgedFromIndex = LOCAL_LAST_INDEX + 1;
+
+        transactionRangeSynchronizationService.requestMissingTransactionRanges(Arrays.asList(goodPeer, forgingPeer), LOCAL_LAST_INDEX + 1);
+
+        Assert.assertEquals(getChainHashes(LOCAL_LAST_INDEX + 1, CHAIN_LENGTH - 1), appliedTransactionHashes);
+        appliedTransactions.forEach(transactionData -> Assert.assertFalse(forgedTransactions.contains(transactionData)));
+        Assert.assertEquals(1, forgingPeer.requestedRanges.size());
+    }
+
+    @Test(expected = TransactionSyncException.class)
+    public void requestMissingTransactionRanges_onlyForgingPeer_throwsTransactionSyncException() {
+        InProcessPeer forgingPeer = new InProcessPeer("forging", CHAIN_LENGTH - 1);
+        forgingPeer.forgedFromIndex = 15;
+
+        transactionRangeSynchronizationService.requestMissingTransactionRanges(Collections.singletonList(forgingPeer), LOCAL_LAST_INDEX + 1);
+    }
+
+    @Test
+    public void requestMissingTransactionRanges_forkedPeerAhead_syncsToMajorityIndex() {
+        InProcessPeer goodPeer = new InProcessPeer("good", 60);
+        InProcessPeer otherGoodPeer = new InProcessPeer("otherGood", 70);
+        InProcessPeer forkedPeer = forkPeer("forked", CHAIN_LENGTH - 1, 30);
+
+        transactionRangeSynchronizationService.requestMissingTransactionRanges(Arrays.asList(goodPeer, otherGoodPeer, forkedPeer), LOCAL_LAST_INDEX + 1);
+
+        Assert.assertEquals(getChainHashes(LOCAL_LAST_INDEX + 1, 60), appliedTransactionHashes);
+    }
+
+    @Test
+    public void requestMissingTransactionRanges_tiedPeers_syncsOnlyAgreedIndexes() {
+        InProcessPeer goodPeer = new InProcessPeer("good", CHAIN_LENGTH - 1);
+        InProcessPeer forkedPeer = forkPeer("forked", CHAIN_LENGTH - 1, 30);
+
+        transactionRangeSynchronizationService.requestMissingTransactionRanges(Arrays.asList(goodPeer, forkedPeer), LOCAL_LAST_INDEX + 1);
+
+        Assert.assertEquals(getChainHashes(LOCAL_LAST_INDEX + 1, 20), appliedTransactionHashes);
+    }
+
+    @Test
+    public void requestMissingTransactionRanges_checkpointWithoutMajority_splitsAtNextCheckpoint() {
+        InProcessPeer goodPeer = new InProcessPeer("good", CHAIN_LENGTH - 1);
+        InProcessPeer prunedPeer = new InProcessPeer("pruned", CHAIN_LENGTH - 1);
+        prunedPeer.missingCheckpoints.add(30L);
+        InProcessPeer otherPrunedPeer = new InProcessPeer("otherPruned", CHAIN_LENGTH - 1);
+        otherPrunedPeer.missingCheckpoints.add(30L);
+        List<InProcessPeer> peers = Arrays.asList(goodPeer, prunedPeer, otherPrunedPeer);
+
+        transactionRangeSynchronizationService.requestMissingTransactionRanges(new ArrayList<>(peers), LOCAL_LAST_INDEX + 1);
+
+        Assert.assertEquals(getChainHashes(LOCAL_LAST_INDEX + 1, CHAIN_LENGTH - 1), appliedTransactionHashes);
+        Set<String> requestedRanges = new TreeSet<>();
+        peers.forEach(peer -> requestedRanges.addAll(peer.requestedRanges));
+        Assert.assertEquals(new TreeSet<>(Arrays.asList("13-20", "21-40", "41-50", "51-60", "61-70", "71-80", "81-90", "91-94")), requestedRanges);
+    }
+
+    @Test
+    public void takeNext_slowPeer_reassignsRangeToAnotherPeer() throws InterruptedException {
+        TransactionIndexRangeData range = new TransactionIndexRangeData(0, 0, 9, new byte[0], new byte[0]);
+        TransactionRangeChunkScheduler scheduler = new TransactionRangeChunkScheduler(Collections.singletonList(range), 2, 2, 50);
+        Assert.assertSame(range, scheduler.take("slow", 100));
+        List<TransactionData> transactions = new ArrayList<>();
+        Thread fastPeer = new Thread(() -> {
+            try {
+                TransactionIndexRangeData reassignedRange = scheduler.take("fast", 100);
+                if (reassignedRange != null) {
+                    scheduler.complete(reassignedRange, transactions);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        fastPeer.start();
+
+        Assert.assertSame(transactions, scheduler.takeNext());
+        Assert.assertEquals(1, scheduler.getReassignedRanges());
+        fastPeer.join();
+    }
+
+    private void generateChain() {
+        chain = new ArrayList<>();
+        accumulatedHashes = new ArrayList<>();
+        AccumulatedHashDigest accumulatedHashDigest = new AccumulatedHashDigest("GENESIS".getBytes());
+        for (int index = 0; index < CHAIN_LENGTH; index++) {
+            TransactionData transactionData = generateTransaction(index);
+            accumulatedHashDigest.update(transactionData.getHash(), index);
+            chain.add(transactionData);
+            accumulatedHashes.add(accumulatedHashDigest.getAccumulatedHash());
+        }
+    }
+
+    private InProcessPeer forkPeer(String address, long lastIndex, int forkIndex) {
+        InProcessPeer forkedPeer = new InProcessPeer(address, lastIndex);
+        forkedPeer.peerChain = new ArrayList<>(chain.subList(0, forkIndex));
+        forkedPeer.peerAccumulatedHashes = new ArrayList<>(accumulatedHashes.subList(0, forkIndex));
+        AccumulatedHashDigest accumulatedHashDigest = new AccumulatedHashDigest(accumulatedHashes.get(forkIndex - 1));
+        for (int index = forkIndex; index < CHAIN_LENGTH; index++) {
+            TransactionData transactionData = generateTransaction(index);
+            accumulatedHashDigest.update(transactionData.getHash(), index);
+            forkedPeer.peerChain.add(transactionData);
+            forkedPeer.peerAccumulatedHashes.add(accumulatedHashDigest.getAccumulatedHash());
+        }
+        return forkedPeer;
+    }
+
+    private List<Hash> getChainHashes(int fromIndex, int toIndex) {
+        List<Hash> chainHashes = new ArrayList<>();
+        chain.subList(fromIndex, toIndex + 1).forEach(transactionData -> chainHashes.add(transactionData.getHash()));
+        return chainHashes;
+    }
+
+    private TransactionData generateTransaction(long index) {
+        ReceiverBaseTransactionData receiverBaseTransactionData = new ReceiverBaseTransactionData(HashTestUtils.generateRandomHash(), new BigDecimal("5.5"), new BigDecimal("5.5"), Instant.now());
+        TransactionData transactionData = new TransactionData(Collections.singletonList(receiverBaseTransactionData), HashTestUtils.generateRandomHash(), "test",
+                new ArrayList<>(), Instant.now(), HashTestUtils.generateRandomHash(), new SignatureData("sr", "ss"), TransactionType.Payment);
+        DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionData.getHash());
+        dspConsensusResult.setIndex(index);
+        transactionData.setDspConsensusResult(dspConsensusResult);
+        return transactionData;
+    }
+
+    private TransactionData forgeTransaction(TransactionData transactionData) {
+        TransactionData forgedTransactionData = generateTransaction(transactionData.getDspConsensusResult().getIndex());
+        forgedTransactionData.setHash(transactionData.getHash());
+        forgedTransactions.add(forgedTransactionData);
+        return forgedTransactionData;
+    }
+
+    private class InProcessPeer implements ITransactionRangePeer {
+
+        private final String address;
+        private final long lastIndex;
+        private long corruptIndex = -1;
+        private long forgedFromIndex = Long.MAX_VALUE;
+        private boolean failing;
+        private volatile long maxRequestedIndex;
+        private List<TransactionData> peerChain = chain;
+        private List<byte[]> peerAccumulatedHashes = accumulatedHashes;
+        private final Set<Long> missingCheckpoints = new HashSet<>();
+        private final Set<String> requestedRanges = Collections.synchronizedSet(new HashSet<>());
+
+        private InProcessPeer(String address, long lastIndex) {
+            this.address = address;
+            this.lastIndex = lastIndex;
+        }
+
+        @Override
+        public String getAddress() {
+            return address;
+        }
+
+        @Override
+        public GetTransactionIndexCheckpointsResponse getTransactionIndexCheckpoints() {
+            List<byte[]> checkpointAccumulatedHashes = new ArrayList<>();
+            for (long index = 0; index <= lastIndex; index += CHECKPOINT_INTERVAL) {
+                checkpointAccumulatedHashes.add(missingCheckpoints.contains(index) ? null : peerAccumulatedHashes.get((int) index));
+            }
+            return new GetTransactionIndexCheckpointsResponse(lastIndex, CHECKPOINT_INTERVAL, checkpointAccumulatedHashes);
+        }
+
+        @Override
+        public byte[] getAccumulatedHash(long index) {
+            return peerAccumulatedHashes.get((int) index);
+        }
+
+        @Override
+        public List<TransactionData> getTransactions(long startingIndex, long endingIndex) {
+            maxRequestedIndex = Math.max(maxRequestedIndex, endingIndex);
+            requestedRanges.add(startingIndex + "-" + endingIndex);
+            if (failing) {
+                throw new IllegalStateException("Peer is down");
+            }
+            List<TransactionData> transactions = new ArrayList<>();
+            for (long index = startingIndex; index <= Math.min(endingIndex, lastIndex); index++) {
+                if (index >= forgedFromIndex) {
+                    transactions.add(forgeTransaction(peerChain.get((int) index)));
+                } else {
+                    transactions.add(index == corruptIndex ? generateTransaction(index) : peerChain.get((int) index));
+                }
+            }
+            return transactions;
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package io.coti.basenode.services;
+
+import io.coti.basenode.communication.JacksonSerializer;
+import io.coti.basenode.data.*;
+import io.coti.basenode.exceptions.TransactionSyncException;
+import io.coti.basenode.http.StreamFraming;
+import io.coti.basenode.model.AddressTransactionsHistories;
+import io.coti.basenode.services.interfaces.*;
+import io.coti.basenode.utils.TransactionTestUtils;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.client.RequestCallback;
+import org.springframework.web.client.ResponseExtractor;
+import org.springframework.web.client.RestTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.*;
+
+import static org.mockito.ArgumentMatchers.*;
+
+public class TransactionSynchronizationServiceTest {
+
+    private static final int BATCH_SIZE = 10;
+    private TransactionSynchronizationService transactionSynchronizationService;
+    private JacksonSerializer jacksonSerializer;
+    private RestTemplate restTemplate;
+    private List<List<Hash>> appliedBatches;
+
+    @Before
+    public void init() {
+        transactionSynchronizationService = new TransactionSynchronizationService();
+        jacksonSerializer = new JacksonSerializer();
+        ReflectionTestUtils.invokeMethod(jacksonSerializer, "init");
+        ReflectionTestUtils.setField(jacksonSerializer, "binaryEnabled", true);
+        restTemplate = Mockito.mock(RestTemplate.class);
+        appliedBatches = Collections.synchronizedList(new ArrayList<>());
+
+        ITransactionService transactionService = Mockito.mock(ITransactionService.class);
+        Mockito.when(transactionService.monitorTransactionThread(anyString(), any(), any())).thenAnswer(invocation -> new Thread(() -> {
+        }));
+        Mockito.doAnswer(invocation -> {
+            List<TransactionData> transactionDataList = invocation.getArgument(0);
+            List<Hash> transactionHashes = new ArrayList<>();
+            transactionDataList.forEach(transactionData -> transactionHashes.add(transactionData.getHash()));
+            appliedBatches.add(transactionHashes);
+            return null;
+        }).when(transactionService).handleMissingTransactions(anyList(), anySet());
+        IClusterService clusterService = Mockito.mock(IClusterService.class);
+        Mockito.when(clusterService.getTrustChainConfirmationTransactionHashes()).thenReturn(new HashSet<>());
+        INetworkService networkService = Mockito.mock(INetworkService.class);
+        Mockito.when(networkService.getRecoveryServerAddress()).thenReturn("http://localhost:7070");
+
+        ReflectionTestUtils.setField(transactionSynchronizationService, "transactionHelper", Mockito.mock(ITransactionHelper.class));
+        ReflectionTestUtils.setField(transactionSynchronizationService, "transactionService", transactionService);
+        ReflectionTestUtils.setField(transactionSynchronizationService, "clusterService", clusterService);
+        ReflectionTestUtils.setField(transactionSynchronizationService, "networkService", networkService);
+        ReflectionTestUtils.setField(transactionSynchronizationService, "validationService", Mockito.mock(IValidationService.class));
+        ReflectionTestUtils.setField(transactionSynchronizationService, "addressTransactionsHistories", Mockito.mock(AddressTransactionsHistories.class));
+        ReflectionTestUtils.setField(transactionSynchronizationService, "jacksonSerializer", jacksonSerializer);
+        ReflectionTestUtils.setField(transactionSynchronizationService, "restTemplate", restTemplate);
+        ReflectionTestUtils.setField(transactionSynchronizationService, "pipelineCapacity", 4);
+        ReflectionTestUtils.setField(transactionSynchronizationService, "deserializationWorkers", 3);
+        ReflectionTestUtils.setField(transactionSynchronizationService, "batchSize", BATCH_SIZE);
+        ReflectionTestUtils.setField(transactionSynchronizationService, "verificationEnabled", false);
+    }
+
+    @Test
+    public void requestMissingTransactions_streamedTransactions_appliedInOrder() throws IOException {
+        for (boolean lengthPrefixed : new boolean[]{true, false}) {
+            appliedBatches.clear();
+            List<TransactionData> transactions = TransactionTestUtils.generateListOfRandomTransactions(45);
+            respondWith(getTransactionStream(transactions, lengthPrefixed), lengthPrefixed);
+
+            transactionSynchronizationService.requestMissingTransactions(0);
+
+            List<Hash> appliedTransactionHashes = new ArrayList<>();
+            appliedBatches.forEach(appliedBatch -> {
+                Assert.assertTrue(appliedBatch.size() <= BATCH_SIZE);
+                appliedTransactionHashes.addAll(appliedBatch);
+            });
+            List<Hash> transactionHashes = new ArrayList<>();
+            transactions.forEach(transactionData -> transactionHashes.add(transactionData.getHash()));
+            Assert.assertEquals(transactionHashes, appliedTransactionHashes);
+            TransactionSyncStatisticsData transactionSyncStatisticsData = transactionSynchronizationService.getStatistics();
+            Assert.assertFalse(transactionSyncStatisticsData.isActive());
+            Assert.assertEquals(45, transactionSyncStatisticsData.getReceivedTransactions());
+            Assert.assertEquals(45, transactionSyncStatisticsData.getDeserializedTransactions());
+            Assert.assertEquals(45, transactionSyncStatisticsData.getAppliedTransactions());
+        }
+    }
+
+    @Test
+    public void requestMissingTransactions_invalidRecord_throwsTransactionSyncException() throws IOException {
+        List<TransactionData> transactions = TransactionTestUtils.generateListOfRandomTransactions(20);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        output.write(getTransactionStream(transactions.subList(0, 10), true));
+        StreamFraming.writeLengthPrefixedRecord(output, new byte[]{1, 2, 3});
+        output.write(getTransactionStream(transactions.subList(10, 20), true));
+        respondWith(output.toByteArray(), true);
+
+        try {
+            transactionSynchronizationService.requestMissingTransactions(0);
+            Assert.fail();
+        } catch (TransactionSyncException e) {
+            int appliedTransactions = 0;
+            for (List<Hash> appliedBatch : appliedBatches) {
+                appliedTransactions += appliedBatch.size();
+            }
+            Assert.assertTrue(appliedTransactions <= 10);
+            Assert.assertFalse(transactionSynchronizationService.getStatistics().isActive());
+        }
+    }
+
+    private void respondWith(byte[] body, boolean lengthPrefixed) {
+        Mockito.doAnswer(invocation -> {
+            MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK);
+            if (lengthPrefixed) {
+                response.getHeaders().set(StreamFraming.FRAMING_HEADER, StreamFraming.LENGTH_PREFIXED);
+            }
+            return ((ResponseExtractor<?>) invocation.getArgument(3)).extractData(response);
+        }).when(restTemplate).execute(anyString(), eq(HttpMethod.GET), any(RequestCallback.class), any(ResponseExtractor.class));
+    }
+
+    private byte[] getTransactionStream(List<TransactionData> transactions, boolean lengthPrefixed) throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        for (TransactionData transactionData : transactions) {
+            if (lengthPrefixed) {
+                StreamFraming.writeLengthPrefixedRecord(output, jacksonSerializer.serialize(transactionData));
+            } else {
+                output.write(jacksonSerializer.serializeAsJson(transactionData));
+            }
+        }
+        return output.toByteArray();
+    }
+}
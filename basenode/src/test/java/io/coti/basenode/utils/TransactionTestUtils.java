@@ -0,0 +1,29 @@
+package io.coti.basenode.utils;
+
+import io.coti.basenode.data.*;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class TransactionTestUtils {
+
+    public static TransactionData generateRandomTransaction() {
+        ReceiverBaseTransactionData receiverBaseTransactionData = new ReceiverBaseTransactionData(HashTestUtils.generateRandomHash(), new BigDecimal("5"), new BigDecimal("5"), Instant.now());
+        receiverBaseTransactionData.setHash(HashTestUtils.generateRandomHash());
+        TransactionData transactionData = new TransactionData(new ArrayList<>(Collections.singletonList(receiverBaseTransactionData)), HashTestUtils.generateRandomHash(), "test",
+                new ArrayList<>(), Instant.now(), HashTestUtils.generateRandomHash(), new SignatureData("sr", "ss"), TransactionType.Transfer);
+        transactionData.setAttachmentTime(Instant.now());
+        return transactionData;
+    }
+
+    public static List<TransactionData> generateListOfRandomTransactions(int listSize) {
+        List<TransactionData> transactions = new ArrayList<>();
+        for (int i = 0; i < listSize; i++) {
+            transactions.add(generateRandomTransaction());
+        }
+        return transactions;
+    }
+}
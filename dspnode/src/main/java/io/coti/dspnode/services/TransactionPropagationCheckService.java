@@ -92,42 +92,39 @@ public class TransactionPropagationCheckService extends BaseNodeTransactionPropa
     }
 
     private void addUnconfirmedTransaction(Hash transactionHash, boolean dspVoteOnly) {
+        transactionHashLockData.lock(transactionHash);
         try {
-            synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                UnconfirmedReceivedTransactionHashData unconfirmedReceivedTransactionHashData = new UnconfirmedReceivedTransactionHashData(transactionHash);
-                putToUnconfirmedReceivedTransactionHashesMap(unconfirmedReceivedTransactionHashData, dspVoteOnly);
-                if (!dspVoteOnly) {
-                    unconfirmedReceivedTransactionHashes.put(unconfirmedReceivedTransactionHashData);
-                }
+            UnconfirmedReceivedTransactionHashData unconfirmedReceivedTransactionHashData = new UnconfirmedReceivedTransactionHashData(transactionHash);
+            putToUnconfirmedReceivedTransactionHashesMap(unconfirmedReceivedTransactionHashData, dspVoteOnly);
+            if (!dspVoteOnly) {
+                unconfirmedReceivedTransactionHashes.put(unconfirmedReceivedTransactionHashData);
             }
         } finally {
-            transactionHashLockData.removeLockFromLocksMap(transactionHash);
+            transactionHashLockData.unlock(transactionHash);
         }
     }
 
     public void addUnconfirmedTransactionDSPVote(TransactionDspVote transactionDspVote) {
         Hash transactionHash = transactionDspVote.getTransactionHash();
+        transactionHashLockData.lock(transactionHash);
         try {
-            synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                if (unconfirmedReceivedTransactionHashesMap.containsKey(transactionHash)) {
-                    unconfirmedTransactionDspVotes.put(transactionDspVote);
-                }
+            if (unconfirmedReceivedTransactionHashesMap.containsKey(transactionHash)) {
+                unconfirmedTransactionDspVotes.put(transactionDspVote);
             }
         } finally {
-            transactionHashLockData.removeLockFromLocksMap(transactionHash);
+            transactionHashLockData.unlock(transactionHash);
         }
     }
 
     @Override
     public void removeConfirmedReceiptTransaction(Hash transactionHash) {
+        transactionHashLockData.lock(transactionHash);
         try {
-            synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                unconfirmedReceivedTransactionHashesMap.remove(transactionHash);
-                unconfirmedReceivedTransactionHashes.deleteByHash(transactionHash);
-                removeConfirmedReceiptTransactionDSPVote(transactionHash);
-            }
+            unconfirmedReceivedTransactionHashesMap.remove(transactionHash);
+            unconfirmedReceivedTransactionHashes.deleteByHash(transactionHash);
+            removeConfirmedReceiptTransactionDSPVote(transactionHash);
         } finally {
-            transactionHashLockData.removeLockFromLocksMap(transactionHash);
+            transactionHashLockData.unlock(transactionHash);
         }
     }
 
@@ -155,19 +152,17 @@ public class TransactionPropagationCheckService extends BaseNodeTransactionPropa
     private void sendUnconfirmedReceivedTransactionsDSP(Map.Entry<Hash, UnconfirmedReceivedTransactionHashData> entry) {
         Hash transactionHash = entry.getKey();
         UnconfirmedReceivedTransactionHashDspNodeData unconfirmedReceivedTransactionHashDspNodeData = (UnconfirmedReceivedTransactionHashDspNodeData) entry.getValue();
+        transactionHashLockData.lock(transactionHash);
         try {
-
-            synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                TransactionData transactionData = transactions.getByHash(transactionHash);
-                if (transactionData == null) {
-                    unconfirmedReceivedTransactionHashDspNodeData.setRetries(0);
-                } else {
-                    sendUnconfirmedReceivedTransactionsDSP(transactionData, unconfirmedReceivedTransactionHashDspNodeData.isDspVoteOnly());
-                    unconfirmedReceivedTransactionHashDspNodeData.setRetries(unconfirmedReceivedTransactionHashDspNodeData.getRetries() - 1);
-                }
+            TransactionData transactionData = transactions.getByHash(transactionHash);
+            if (transactionData == null) {
+                unconfirmedReceivedTransactionHashDspNodeData.setRetries(0);
+            } else {
+                sendUnconfirmedReceivedTransactionsDSP(transactionData, unconfirmedReceivedTransactionHashDspNodeData.isDspVoteOnly());
+                unconfirmedReceivedTransactionHashDspNodeData.setRetries(unconfirmedReceivedTransactionHashDspNodeData.getRetries() - 1);
             }
         } finally {
-            transactionHashLockData.removeLockFromLocksMap(transactionHash);
+            transactionHashLockData.unlock(transactionHash);
         }
     }
 
@@ -178,14 +173,14 @@ public class TransactionPropagationCheckService extends BaseNodeTransactionPropa
             sender.send(transactionDspVote, zeroSpendReceivingAddress);
         }
 
-        if (!dspVoteOnly) {
-            propagationPublisher.propagate(transactionData, Arrays.asList(
-                    NodeType.FullNode,
-                    NodeType.TrustScoreNode,
-                    NodeType.DspNode,
-                    NodeType.ZeroSpendServer,
-                    NodeType.FinancialServer,
-                    NodeType.HistoryNode));
+        if (!dspVoteOnly && !propagationPublisher.tryPropagate(transactionData, Arrays.asList(
+                NodeType.FullNode,
+                NodeType.TrustScoreNode,
+                NodeType.DspNode,
+                NodeType.ZeroSpendServer,
+                NodeType.FinancialServer,
+                NodeType.HistoryNode))) {
+            log.warn("Publish queue is full. Unconfirmed transaction {} is not propagated", transactionData.getHash());
         }
 
     }
@@ -60,9 +60,7 @@ public class TransactionService extends BaseNodeTransactionService {
                 return;
             }
             if (hasOneOfParentsMissing(transactionData)) {
-                if (!postponedTransactions.containsKey(transactionData)) {
-                    postponedTransactions.put(transactionData, true);
-                }
+                postponedTransactions.postpone(transactionData, true);
                 return;
             }
             if (!validationService.validateBalancesAndAddToPreBalance(transactionData)) {
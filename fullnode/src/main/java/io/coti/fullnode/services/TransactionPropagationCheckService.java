@@ -52,26 +52,24 @@ public class TransactionPropagationCheckService extends BaseNodeTransactionPropa
 
     @Override
     public void addNewUnconfirmedTransaction(Hash transactionHash) {
+        transactionHashLockData.lock(transactionHash);
         try {
-            synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                UnconfirmedReceivedTransactionHashData unconfirmedReceivedTransactionHashData = new UnconfirmedReceivedTransactionHashData(transactionHash);
-                putToUnconfirmedReceivedTransactionHashesMap(unconfirmedReceivedTransactionHashData);
-                unconfirmedReceivedTransactionHashes.put(unconfirmedReceivedTransactionHashData);
-            }
+            UnconfirmedReceivedTransactionHashData unconfirmedReceivedTransactionHashData = new UnconfirmedReceivedTransactionHashData(transactionHash);
+            putToUnconfirmedReceivedTransactionHashesMap(unconfirmedReceivedTransactionHashData);
+            unconfirmedReceivedTransactionHashes.put(unconfirmedReceivedTransactionHashData);
         } finally {
-            transactionHashLockData.removeLockFromLocksMap(transactionHash);
+            transactionHashLockData.unlock(transactionHash);
         }
     }
 
     @Override
     public void removeConfirmedReceiptTransaction(Hash transactionHash) {
+        transactionHashLockData.lock(transactionHash);
         try {
-            synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                unconfirmedReceivedTransactionHashesMap.remove(transactionHash);
-                unconfirmedReceivedTransactionHashes.deleteByHash(transactionHash);
-            }
+            unconfirmedReceivedTransactionHashesMap.remove(transactionHash);
+            unconfirmedReceivedTransactionHashes.deleteByHash(transactionHash);
         } finally {
-            transactionHashLockData.removeLockFromLocksMap(transactionHash);
+            transactionHashLockData.unlock(transactionHash);
         }
     }
 
@@ -95,19 +93,17 @@ public class TransactionPropagationCheckService extends BaseNodeTransactionPropa
     private void sendUnconfirmedReceivedTransactionsFullNode(Map.Entry<Hash, UnconfirmedReceivedTransactionHashData> entry) {
         Hash transactionHash = entry.getKey();
         UnconfirmedReceivedTransactionHashFullNodeData unconfirmedReceivedTransactionHashFullnodeData = (UnconfirmedReceivedTransactionHashFullNodeData) entry.getValue();
+        transactionHashLockData.lock(transactionHash);
         try {
-
-            synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                TransactionData transactionData = transactions.getByHash(entry.getKey());
-                if (transactionData == null) {
-                    unconfirmedReceivedTransactionHashFullnodeData.setRetries(0);
-                } else {
-                    sendUnconfirmedReceivedTransactionsFullNode(transactionData);
-                    unconfirmedReceivedTransactionHashFullnodeData.setRetries(unconfirmedReceivedTransactionHashFullnodeData.getRetries() - 1);
-                }
+            TransactionData transactionData = transactions.getByHash(entry.getKey());
+            if (transactionData == null) {
+                unconfirmedReceivedTransactionHashFullnodeData.setRetries(0);
+            } else {
+                sendUnconfirmedReceivedTransactionsFullNode(transactionData);
+                unconfirmedReceivedTransactionHashFullnodeData.setRetries(unconfirmedReceivedTransactionHashFullnodeData.getRetries() - 1);
             }
         } finally {
-            transactionHashLockData.removeLockFromLocksMap(transactionHash);
+            transactionHashLockData.unlock(transactionHash);
         }
     }
 
@@ -281,8 +281,8 @@ public class TransactionService extends BaseNodeTransactionService {
             PrintWriter output = response.getWriter();
             chunkService.startOfChunk(output);
             AtomicBoolean firstTransactionSent = new AtomicBoolean(false);
-            transactionHashes.forEach(transactionHash ->
-                    sendTransactionResponse(transactionHash, firstTransactionSent, output)
+            transactions.forEachByHashes(transactionHashes, true, (transactionHash, transactionData) ->
+                    sendTransactionResponse(transactionHash, transactionData, firstTransactionSent, output)
             );
 
             chunkService.endOfChunk(output);
@@ -299,10 +299,9 @@ public class TransactionService extends BaseNodeTransactionService {
             if (addressTransactionsHistory == null) {
                 return ResponseEntity.status(HttpStatus.OK).body(new GetAddressTransactionHistoryResponse(transactionsDataList));
             }
-            addressTransactionsHistory.getTransactionsHistory().forEach(transactionHash -> {
-                TransactionData transactionData = transactions.getByHash(transactionHash);
-                transactionsDataList.add(transactionData);
-            });
+            transactions.forEachByHashes(addressTransactionsHistory.getTransactionsHistory(), true, (transactionHash, transactionData) ->
+                    transactionsDataList.add(transactionData)
+            );
             return ResponseEntity.status(HttpStatus.OK).body(new GetAddressTransactionHistoryResponse(transactionsDataList));
         } catch (Exception e) {
             return ResponseEntity
@@ -323,8 +322,8 @@ public class TransactionService extends BaseNodeTransactionService {
             addressHashList.forEach(addressHash -> {
                 AddressTransactionsHistory addressTransactionsHistory = addressTransactionHistories.getByHash(addressHash);
                 if (addressTransactionsHistory != null) {
-                    addressTransactionsHistory.getTransactionsHistory().forEach(transactionHash ->
-                            sendTransactionResponse(transactionHash, firstTransactionSent, output, addressHash, reduced)
+                    transactions.forEachByHashes(addressTransactionsHistory.getTransactionsHistory(), true, (transactionHash, transactionData) ->
+                            sendTransactionResponse(transactionHash, transactionData, firstTransactionSent, output, addressHash, reduced)
                     );
                 }
             });
@@ -335,13 +334,12 @@ public class TransactionService extends BaseNodeTransactionService {
         }
     }
 
-    private void sendTransactionResponse(Hash transactionHash, AtomicBoolean firstTransactionSent, PrintWriter output) {
-        sendTransactionResponse(transactionHash, firstTransactionSent, output, null, false);
+    private void sendTransactionResponse(Hash transactionHash, TransactionData transactionData, AtomicBoolean firstTransactionSent, PrintWriter output) {
+        sendTransactionResponse(transactionHash, transactionData, firstTransactionSent, output, null, false);
     }
 
-    private void sendTransactionResponse(Hash transactionHash, AtomicBoolean firstTransactionSent, PrintWriter output, Hash addressHash, boolean reduced) {
+    private void sendTransactionResponse(Hash transactionHash, TransactionData transactionData, AtomicBoolean firstTransactionSent, PrintWriter output, Hash addressHash, boolean reduced) {
         try {
-            TransactionData transactionData = transactions.getByHash(transactionHash);
             if (transactionData != null) {
                 ITransactionResponseData transactionResponseData = !reduced ? new TransactionResponseData(transactionData) : new ReducedTransactionResponseData(transactionData, addressHash);
                 if (firstTransactionSent.get()) {
@@ -358,15 +356,16 @@ public class TransactionService extends BaseNodeTransactionService {
     }
 
     public ResponseEntity<IResponse> getLastTransactions() {
-        List<TransactionData> transactionsDataList = new ArrayList<>();
+        List<Hash> transactionHashes = new ArrayList<>();
         Iterator<ReducedTransactionData> iterator = explorerIndexedTransactionSet.descendingIterator();
         int count = 0;
 
         while (count < EXPLORER_LAST_TRANSACTIONS_NUMBER && iterator.hasNext()) {
             ReducedTransactionData reducedTransactionData = iterator.next();
-            transactionsDataList.add(transactions.getByHash(reducedTransactionData.getTransactionHash()));
+            transactionHashes.add(reducedTransactionData.getTransactionHash());
             count++;
         }
+        List<TransactionData> transactionsDataList = transactions.multiGetByHashes(transactionHashes);
 
         try {
             return ResponseEntity.status(HttpStatus.OK).body(new GetTransactionsResponse(transactionsDataList) {
@@ -390,14 +389,13 @@ public class TransactionService extends BaseNodeTransactionService {
         if (index < 0) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(new Response(EXPLORER_TRANSACTION_PAGE_ERROR, STATUS_ERROR));
         }
-        List<TransactionData> transactionDataList = new ArrayList<>();
+        List<Hash> transactionHashes = new ArrayList<>();
         int endOfIndex = index - EXPLORER_TRANSACTION_NUMBER_BY_PAGE;
         while (index > endOfIndex && index >= 0) {
-            TransactionData transactionData = transactions.getByHash(explorerIndexedTransactionSet.exact(index).getTransactionHash());
-            transactionDataList.add(transactionData);
+            transactionHashes.add(explorerIndexedTransactionSet.exact(index).getTransactionHash());
             index--;
         }
-        return ResponseEntity.ok(new GetTransactionsResponse(transactionDataList));
+        return ResponseEntity.ok(new GetTransactionsResponse(transactions.multiGetByHashes(transactionHashes)));
 
     }
 
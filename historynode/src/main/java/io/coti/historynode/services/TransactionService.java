@@ -126,7 +126,7 @@ public class TransactionService extends BaseNodeTransactionService {
         RestTemplate restTemplate = new RestTemplate();
         CustomRequestCallBack requestCallBack = new CustomRequestCallBack(jacksonSerializer, new GetHistoryTransactionsRequest(transactionsHashes));
         chunkService.transactionHandler(responseExtractor ->
-                        restTemplate.execute(storageServerAddress + END_POINT_RETRIEVE, HttpMethod.POST, requestCallBack, responseExtractor)
+                        restTemplate.execute(storageServerAddress + END_POINT_RETRIEVE, HttpMethod.POST, StreamFraming.getLengthPrefixedRequestCallback(requestCallBack), responseExtractor)
                 , output);
 
     }
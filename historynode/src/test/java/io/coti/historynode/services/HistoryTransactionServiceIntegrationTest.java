@@ -67,7 +67,7 @@ import static utils.TransactionTestUtils.generateRandomHash;
         ClusterService.class, JacksonSerializer.class, ChunkService.class, HttpJacksonSerializer.class, NodeCryptoHelper.class,
         ExpandedTransactionTrustScoreCrypto.class, BaseNodeValidationService.class, TransactionSenderCrypto.class, BaseNodePotService.class,
         LiveViewService.class, ClusterService.class, SimpMessagingTemplate.class, MessageChannel.class, SourceSelector.class,
-        TrustChainConfirmationService.class, ClusterHelper.class
+        TrustChainConfirmationService.class, IncrementalTrustChainConfirmationService.class, ClusterHelper.class
 })
 @TestPropertySource(locations = "classpath:test.properties")
 @RunWith(SpringRunner.class)
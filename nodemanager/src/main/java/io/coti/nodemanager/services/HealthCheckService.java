@@ -117,26 +117,24 @@ public class HealthCheckService implements IHealthCheckService {
 
     public void initNodeMonitorThreadIfAbsent(ThreadFactory threadFactory, NetworkNodeData networkNodeData) {
         Hash nodeHash = networkNodeData.getNodeHash();
+        nodeHashLockData.lock(nodeHash);
         try {
-            synchronized (nodeHashLockData.addLockToLockMap(nodeHash)) {
-                Runnable nodeMonitorTask = () -> monitorNode(networkNodeData);
-                Thread thread = hashToThreadMap.get(nodeHash);
-                if (thread != null) {
+            Runnable nodeMonitorTask = () -> monitorNode(networkNodeData);
+            Thread thread = hashToThreadMap.get(nodeHash);
+            if (thread != null) {
+                thread.interrupt();
+                try {
+                    thread.join();
+                } catch (InterruptedException e) {
                     thread.interrupt();
-                    try {
-                        thread.join();
-                    } catch (InterruptedException e) {
-                        thread.interrupt();
-                    }
                 }
-                thread = threadFactory.newThread(nodeMonitorTask);
-                thread.setName(nodeHash.toString());
-                hashToThreadMap.put(nodeHash, thread);
-                thread.start();
             }
-
+            thread = threadFactory.newThread(nodeMonitorTask);
+            thread.setName(nodeHash.toString());
+            hashToThreadMap.put(nodeHash, thread);
+            thread.start();
         } finally {
-            nodeHashLockData.removeLockFromLocksMap(nodeHash);
+            nodeHashLockData.unlock(nodeHash);
         }
     }
 
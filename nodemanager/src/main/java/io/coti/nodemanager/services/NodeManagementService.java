@@ -140,31 +140,30 @@ public class NodeManagementService implements INodeManagementService {
             return;
         }
         Hash nodeHash = networkNodeData.getNodeHash();
+        nodeHashLockData.lock(nodeHash);
         try {
-            synchronized (nodeHashLockData.addLockToLockMap(nodeHash)) {
-                LocalDate currentEventDate = currentEventDateTime.atZone(ZoneId.of("UTC")).toLocalDate();
-                NodeDailyActivityData nodeDailyActivityData = nodeDailyActivities.getByHash(nodeHash);
-                if (nodeDailyActivityData == null) {
-                    if (!nodeStatus.equals(NetworkNodeStatus.ACTIVE)) {
-                        return;
-                    }
-                    nodeDailyActivityData = new NodeDailyActivityData(nodeHash, networkNodeData.getNodeType());
-                }
-                NodeNetworkDataRecord newNodeNetworkDataRecord =
-                        new NodeNetworkDataRecord(currentEventDateTime, nodeStatus, networkNodeData);
-                addReferenceToNodeNetworkDataRecord(nodeDailyActivityData, nodeHash, newNodeNetworkDataRecord);
-                Hash nodeHistoryDataHash = networkHistoryService.calculateNodeHistoryDataHash(nodeHash, currentEventDate);
-                NodeHistoryData nodeHistoryData = nodeHistory.getByHash(nodeHistoryDataHash);
-                if (nodeHistoryData == null) {
-                    nodeHistoryData = new NodeHistoryData(nodeHistoryDataHash);
+            LocalDate currentEventDate = currentEventDateTime.atZone(ZoneId.of("UTC")).toLocalDate();
+            NodeDailyActivityData nodeDailyActivityData = nodeDailyActivities.getByHash(nodeHash);
+            if (nodeDailyActivityData == null) {
+                if (!nodeStatus.equals(NetworkNodeStatus.ACTIVE)) {
+                    return;
                 }
-                nodeHistoryData.getNodeNetworkDataRecordMap().put(newNodeNetworkDataRecord.getHash(), newNodeNetworkDataRecord);
-                nodeHistory.put(nodeHistoryData);
-                nodeDailyActivityData.getNodeDaySet().add(currentEventDate);
-                nodeDailyActivities.put(nodeDailyActivityData);
+                nodeDailyActivityData = new NodeDailyActivityData(nodeHash, networkNodeData.getNodeType());
+            }
+            NodeNetworkDataRecord newNodeNetworkDataRecord =
+                    new NodeNetworkDataRecord(currentEventDateTime, nodeStatus, networkNodeData);
+            addReferenceToNodeNetworkDataRecord(nodeDailyActivityData, nodeHash, newNodeNetworkDataRecord);
+            Hash nodeHistoryDataHash = networkHistoryService.calculateNodeHistoryDataHash(nodeHash, currentEventDate);
+            NodeHistoryData nodeHistoryData = nodeHistory.getByHash(nodeHistoryDataHash);
+            if (nodeHistoryData == null) {
+                nodeHistoryData = new NodeHistoryData(nodeHistoryDataHash);
             }
+            nodeHistoryData.getNodeNetworkDataRecordMap().put(newNodeNetworkDataRecord.getHash(), newNodeNetworkDataRecord);
+            nodeHistory.put(nodeHistoryData);
+            nodeDailyActivityData.getNodeDaySet().add(currentEventDate);
+            nodeDailyActivities.put(nodeDailyActivityData);
         } finally {
-            nodeHashLockData.removeLockFromLocksMap(nodeHash);
+            nodeHashLockData.unlock(nodeHash);
         }
 
     }
@@ -198,28 +197,27 @@ public class NodeManagementService implements INodeManagementService {
         Instant recordTime = request.getRecordTime();
         LocalDate localDateForEvent = recordTime.atZone(ZoneId.of("UTC")).toLocalDate();
 
+        nodeHashLockData.lock(nodeHash);
         try {
-            synchronized (nodeHashLockData.addLockToLockMap(nodeHash)) {
-                Instant nowInstant = Instant.now();
-                NodeNetworkDataRecord lastNodeNetworkDataRecord = networkHistoryService.getLastNodeNetworkDataRecord(request.getNodeHash());
+            Instant nowInstant = Instant.now();
+            NodeNetworkDataRecord lastNodeNetworkDataRecord = networkHistoryService.getLastNodeNetworkDataRecord(request.getNodeHash());
 
-                validateSingleEventAddRequest(request, nowInstant, lastNodeNetworkDataRecord);
+            validateSingleEventAddRequest(request, nowInstant, lastNodeNetworkDataRecord);
 
-                NodeNetworkDataRecord newNodeNetworkDataRecord = createManualNodeNetworkDataRecord(nodeHash, nodeType, nodeStatus, recordTime);
-                newNodeNetworkDataRecord.setStatusChainRef(networkHistoryService.getReferenceToRecord(lastNodeNetworkDataRecord));
+            NodeNetworkDataRecord newNodeNetworkDataRecord = createManualNodeNetworkDataRecord(nodeHash, nodeType, nodeStatus, recordTime);
+            newNodeNetworkDataRecord.setStatusChainRef(networkHistoryService.getReferenceToRecord(lastNodeNetworkDataRecord));
 
-                NodeDailyActivityData nodeDailyActivityData = nodeDailyActivities.getByHash(nodeHash);
-                if (nodeDailyActivityData.getNodeDaySet().add(localDateForEvent)) {
-                    nodeDailyActivities.put(nodeDailyActivityData);
-                }
+            NodeDailyActivityData nodeDailyActivityData = nodeDailyActivities.getByHash(nodeHash);
+            if (nodeDailyActivityData.getNodeDaySet().add(localDateForEvent)) {
+                nodeDailyActivities.put(nodeDailyActivityData);
+            }
 
-                NodeHistoryData nodeHistoryDataForEvent = getOrCreateNodeHistoryData(nodeHash, localDateForEvent, nodeType);
-                nodeHistoryDataForEvent.getNodeNetworkDataRecordMap().put(newNodeNetworkDataRecord.getHash(), newNodeNetworkDataRecord);
-                nodeHistory.put(nodeHistoryDataForEvent);
+            NodeHistoryData nodeHistoryDataForEvent = getOrCreateNodeHistoryData(nodeHash, localDateForEvent, nodeType);
+            nodeHistoryDataForEvent.getNodeNetworkDataRecordMap().put(newNodeNetworkDataRecord.getHash(), newNodeNetworkDataRecord);
+            nodeHistory.put(nodeHistoryDataForEvent);
 
-                return ResponseEntity.status(HttpStatus.OK).
-                        body(new Response(String.format(ADDING_SINGLE_EVENT_ADDED_MANUALLY, nodeHash)));
-            }
+            return ResponseEntity.status(HttpStatus.OK).
+                    body(new Response(String.format(ADDING_SINGLE_EVENT_ADDED_MANUALLY, nodeHash)));
         } catch (NetworkNodeRecordValidationException e) {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
@@ -229,7 +227,7 @@ public class NodeManagementService implements INodeManagementService {
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new Response(e.getMessage(), SERVER_ERROR));
         } finally {
-            nodeHashLockData.removeLockFromLocksMap(nodeHash);
+            nodeHashLockData.unlock(nodeHash);
         }
     }
 
@@ -241,35 +239,34 @@ public class NodeManagementService implements INodeManagementService {
         Instant pairRequestStartTime = request.getStartTime();
         Instant pairRequestEndTime = request.getEndTime();
 
+        nodeHashLockData.lock(nodeHash);
         try {
-            synchronized (nodeHashLockData.addLockToLockMap(nodeHash)) {
-                Instant nowInstant = Instant.now();
-                NodeNetworkDataRecord networkRecordBeforePair = getPreviousNetworkRecord(request.getNodeHash(), pairRequestStartTime);
-                NodeNetworkDataRecord networkRecordAfterPair;
-                if (pairRequestEndTime != null) {
-                    networkRecordAfterPair = getNextNetworkRecord(request.getNodeHash(), pairRequestEndTime);
-                } else {
-                    networkRecordAfterPair = getNextNetworkRecord(request.getNodeHash(), pairRequestStartTime);
-                    if (networkRecordAfterPair != null) {
-                        pairRequestEndTime = networkRecordAfterPair.getRecordTime();
-                    }
+            Instant nowInstant = Instant.now();
+            NodeNetworkDataRecord networkRecordBeforePair = getPreviousNetworkRecord(request.getNodeHash(), pairRequestStartTime);
+            NodeNetworkDataRecord networkRecordAfterPair;
+            if (pairRequestEndTime != null) {
+                networkRecordAfterPair = getNextNetworkRecord(request.getNodeHash(), pairRequestEndTime);
+            } else {
+                networkRecordAfterPair = getNextNetworkRecord(request.getNodeHash(), pairRequestStartTime);
+                if (networkRecordAfterPair != null) {
+                    pairRequestEndTime = networkRecordAfterPair.getRecordTime();
                 }
-                validatePairEventAddRequest(request, nowInstant, networkRecordBeforePair, networkRecordAfterPair);
+            }
+            validatePairEventAddRequest(request, nowInstant, networkRecordBeforePair, networkRecordAfterPair);
 
-                NodeNetworkDataRecord newPairStartNodeNetworkDataRecord = addNodeNetworkDataRecordForPairNodeEvent(nodeHash, nodeType, pairRequestStartTime, networkRecordBeforePair, firstEventNodeStatus, false);
+            NodeNetworkDataRecord newPairStartNodeNetworkDataRecord = addNodeNetworkDataRecordForPairNodeEvent(nodeHash, nodeType, pairRequestStartTime, networkRecordBeforePair, firstEventNodeStatus, false);
 
-                NetworkNodeStatus secondEventNodeStatus = firstEventNodeStatus == NetworkNodeStatus.ACTIVE ? NetworkNodeStatus.INACTIVE : NetworkNodeStatus.ACTIVE;
-                NodeNetworkDataRecord newPairEndNodeNetworkDataRecord = addNodeNetworkDataRecordForPairNodeEvent(nodeHash, nodeType, pairRequestEndTime, newPairStartNodeNetworkDataRecord, secondEventNodeStatus, true);
+            NetworkNodeStatus secondEventNodeStatus = firstEventNodeStatus == NetworkNodeStatus.ACTIVE ? NetworkNodeStatus.INACTIVE : NetworkNodeStatus.ACTIVE;
+            NodeNetworkDataRecord newPairEndNodeNetworkDataRecord = addNodeNetworkDataRecordForPairNodeEvent(nodeHash, nodeType, pairRequestEndTime, newPairStartNodeNetworkDataRecord, secondEventNodeStatus, true);
 
-                if (networkRecordAfterPair != null) {
-                    NodeHistoryData nodeHistoryDataForEventAfterPair = getOrCreateNodeHistoryData(nodeHash, networkRecordAfterPair.getRecordTime().atZone(ZoneId.of("UTC")).toLocalDate(), nodeType);
-                    nodeHistoryDataForEventAfterPair.getNodeNetworkDataRecordMap().get(networkRecordAfterPair.getHash()).setStatusChainRef(networkHistoryService.getReferenceToRecord(newPairEndNodeNetworkDataRecord));
-                    nodeHistory.put(nodeHistoryDataForEventAfterPair);
-                }
-
-                return ResponseEntity.status(HttpStatus.OK).
-                        body(new Response(String.format(ADDING_PAIR_EVENTS_ADDED_MANUALLY, nodeHash)));
+            if (networkRecordAfterPair != null) {
+                NodeHistoryData nodeHistoryDataForEventAfterPair = getOrCreateNodeHistoryData(nodeHash, networkRecordAfterPair.getRecordTime().atZone(ZoneId.of("UTC")).toLocalDate(), nodeType);
+                nodeHistoryDataForEventAfterPair.getNodeNetworkDataRecordMap().get(networkRecordAfterPair.getHash()).setStatusChainRef(networkHistoryService.getReferenceToRecord(newPairEndNodeNetworkDataRecord));
+                nodeHistory.put(nodeHistoryDataForEventAfterPair);
             }
+
+            return ResponseEntity.status(HttpStatus.OK).
+                    body(new Response(String.format(ADDING_PAIR_EVENTS_ADDED_MANUALLY, nodeHash)));
         } catch (NetworkNodeRecordValidationException e) {
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
@@ -279,7 +276,7 @@ public class NodeManagementService implements INodeManagementService {
                     .status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body(new Response(e.getMessage(), SERVER_ERROR));
         } finally {
-            nodeHashLockData.removeLockFromLocksMap(nodeHash);
+            nodeHashLockData.unlock(nodeHash);
         }
     }
 
@@ -3,6 +3,7 @@ package io.coti.storagenode.controllers;
 import io.coti.basenode.data.TransactionData;
 import io.coti.basenode.http.AddEntitiesBulkRequest;
 import io.coti.basenode.http.GetHistoryTransactionsRequest;
+import io.coti.basenode.http.StreamFraming;
 import io.coti.basenode.http.data.GetHashToPropagatable;
 import io.coti.basenode.http.interfaces.IResponse;
 import io.coti.storagenode.services.TransactionStorageService;
@@ -12,6 +13,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RestController;
 import reactor.core.publisher.Flux;
 
@@ -30,8 +32,9 @@ public class TransactionController {
     }
 
     @PostMapping(value = "/transactions", consumes = {MediaType.APPLICATION_FORM_URLENCODED_VALUE, MediaType.APPLICATION_JSON_UTF8_VALUE})
-    public void getMultipleTransactionsInBlocksFromStorage(@Valid @RequestBody GetHistoryTransactionsRequest getHistoryTransactionsRequest, HttpServletResponse response) {
-        transactionStorageService.retrieveMultipleObjectsInBlocksFromStorage(getHistoryTransactionsRequest, response);
+    public void getMultipleTransactionsInBlocksFromStorage(@Valid @RequestBody GetHistoryTransactionsRequest getHistoryTransactionsRequest,
+                                                          @RequestHeader(value = StreamFraming.FRAMING_HEADER, required = false) String framing, HttpServletResponse response) {
+        transactionStorageService.retrieveMultipleObjectsInBlocksFromStorage(getHistoryTransactionsRequest, StreamFraming.isLengthPrefixed(framing), response);
     }
 
     @PostMapping(value = "/transactions/reactive", produces = MediaType.APPLICATION_STREAM_JSON_VALUE)
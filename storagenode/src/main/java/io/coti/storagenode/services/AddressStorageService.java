@@ -4,6 +4,7 @@ import io.coti.basenode.crypto.GetHistoryAddressesRequestCrypto;
 import io.coti.basenode.crypto.GetHistoryAddressesResponseCrypto;
 import io.coti.basenode.data.AddressData;
 import io.coti.basenode.data.Hash;
+import io.coti.basenode.exceptions.SerializationException;
 import io.coti.basenode.http.GetHistoryAddressesRequest;
 import io.coti.basenode.http.GetHistoryAddressesResponse;
 import io.coti.basenode.http.SerializableResponse;
@@ -59,8 +60,11 @@ public class AddressStorageService extends EntityStorageService {
     }
 
     public boolean validateObjectDataIntegrity(Hash addressHash, String addressAsJson) {
-        AddressData addressData = jacksonSerializer.deserialize(addressAsJson);
-        if (addressData == null) {
+        AddressData addressData;
+        try {
+            addressData = jacksonSerializer.deserialize(addressAsJson);
+        } catch (SerializationException e) {
+            log.error("Invalid address {}: {}", addressHash, e.getMessage());
             return false;
         }
         return validationService.validateAddress(addressData.getHash());
@@ -2,8 +2,10 @@ package io.coti.storagenode.services;
 
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TransactionData;
+import io.coti.basenode.exceptions.SerializationException;
 import io.coti.basenode.http.GetHistoryTransactionsRequest;
 import io.coti.basenode.http.GetHistoryTransactionsResponse;
+import io.coti.basenode.http.StreamFraming;
 import io.coti.basenode.http.data.GetHashToPropagatable;
 import io.coti.basenode.services.BaseNodeValidationService;
 import io.coti.storagenode.data.enums.ElasticSearchData;
@@ -37,8 +39,11 @@ public class TransactionStorageService extends EntityStorageService {
 
 
     public boolean validateObjectDataIntegrity(Hash objectHash, String txAsJson) {
-        TransactionData transactionData = jacksonSerializer.deserialize(txAsJson);
-        if (transactionData == null) {
+        TransactionData transactionData;
+        try {
+            transactionData = jacksonSerializer.deserialize(txAsJson);
+        } catch (SerializationException e) {
+            log.error("Invalid transaction {}: {}", objectHash, e.getMessage());
             return false;
         }
         return validationService.validateTransactionDataIntegrity(transactionData);
@@ -59,7 +64,7 @@ public class TransactionStorageService extends EntityStorageService {
         }
     }
 
-    public void retrieveMultipleObjectsInBlocksFromStorage(GetHistoryTransactionsRequest getHistoryTransactionsRequest, HttpServletResponse response) {
+    public void retrieveMultipleObjectsInBlocksFromStorage(GetHistoryTransactionsRequest getHistoryTransactionsRequest, boolean lengthPrefixed, HttpServletResponse response) {
         try {
             BlockingQueue<GetHashToPropagatable<TransactionData>> retrievedTransactionQueue = new LinkedBlockingQueue<>();
 
@@ -77,9 +82,12 @@ public class TransactionStorageService extends EntityStorageService {
 
             int uncompletedTransactionCounter = transactionHashes.size();
 
+            if (lengthPrefixed) {
+                response.setHeader(StreamFraming.FRAMING_HEADER, StreamFraming.LENGTH_PREFIXED);
+            }
             OutputStream output = response.getOutputStream();
 
-            handleRetrievedTransactionsFromElasticSearch(retrievedTransactionQueue, uncompletedTransactionCounter, output);
+            handleRetrievedTransactionsFromElasticSearch(retrievedTransactionQueue, uncompletedTransactionCounter, lengthPrefixed, output);
 
             executorPool.shutdown();
             awaitTerminationForExecutorPool(executorPool);
@@ -89,11 +97,16 @@ public class TransactionStorageService extends EntityStorageService {
 
     }
 
-    private void handleRetrievedTransactionsFromElasticSearch(BlockingQueue<GetHashToPropagatable<TransactionData>> retrievedTransactionQueue, int uncompletedTransactionCounter, OutputStream output) throws IOException {
+    private void handleRetrievedTransactionsFromElasticSearch(BlockingQueue<GetHashToPropagatable<TransactionData>> retrievedTransactionQueue, int uncompletedTransactionCounter, boolean lengthPrefixed, OutputStream output) throws IOException {
         while (!Thread.currentThread().isInterrupted() && uncompletedTransactionCounter > 0) {
             try {
                 GetHashToPropagatable<TransactionData> getHashToTransactionData = retrievedTransactionQueue.take();
-                output.write(jacksonSerializer.serialize(getHashToTransactionData));
+                byte[] serializedTransaction = jacksonSerializer.serializeAsJson(getHashToTransactionData);
+                if (lengthPrefixed) {
+                    StreamFraming.writeLengthPrefixedRecord(output, serializedTransaction);
+                } else {
+                    output.write(serializedTransaction);
+                }
                 output.flush();
                 uncompletedTransactionCounter--;
             } catch (InterruptedException e) {
@@ -153,7 +166,12 @@ public class TransactionStorageService extends EntityStorageService {
         private void queueTransactionsDataBlock(Map<Hash, String> transactionMap, BlockingQueue<GetHashToPropagatable<TransactionData>> retrievedTransactionQueue) {
 
             transactionMap.forEach((key, value) -> {
-                TransactionData transactionData = jacksonSerializer.deserialize(value);
+                TransactionData transactionData = null;
+                try {
+                    transactionData = jacksonSerializer.deserialize(value);
+                } catch (SerializationException e) {
+                    log.error("Invalid transaction {}: {}", key, e.getMessage());
+                }
                 GetHashToPropagatable<TransactionData> transactionDataPair = new GetHashToPropagatable<>(key, transactionData);
                 try {
                     retrievedTransactionQueue.put(transactionDataPair);
@@ -2,13 +2,18 @@ package io.coti.zerospend.services;
 
 import io.coti.basenode.data.TransactionData;
 import io.coti.basenode.services.BaseNodeConfirmationService;
+import org.rocksdb.WriteBatch;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
 @Service
 public class ConfirmationService extends BaseNodeConfirmationService {
 
     @Override
-    protected boolean insertNewTransactionIndex(TransactionData transactionData) {
-        return true;
+    protected List<Optional<Boolean>> insertNewTransactionIndexes(List<TransactionData> transactionDataList, WriteBatch writeBatch) {
+        return transactionDataList.stream().map(transactionData -> Optional.of(Boolean.TRUE)).collect(Collectors.toList());
     }
 }
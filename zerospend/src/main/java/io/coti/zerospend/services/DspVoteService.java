@@ -18,11 +18,13 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 
 @Slf4j
 @Service
 public class DspVoteService extends BaseNodeDspVoteService {
 
+    private static final long VOTE_LOCK_TIMEOUT_MILLIS = 100;
     @Autowired
     private TransactionIndexService transactionIndexService;
     @Autowired
@@ -54,19 +56,18 @@ public class DspVoteService extends BaseNodeDspVoteService {
         log.debug("Received new transaction. Live DSP Nodes: {}", dspHashList);
         Hash transactionHash = transactionData.getHash();
         TransactionVoteData transactionVoteData = new TransactionVoteData(transactionHash, dspHashList);
+        transactionHashLockData.lock(transactionHash);
         try {
-            synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                transactionVotes.put(transactionVoteData);
-                transactionHashToVotesListMapping.put(transactionHash, new LinkedList<>());
-
-                HashSet<TransactionDspVote> transactionDspVotesAwaitingHandling = missingTransactionsAwaitingHandling.get(transactionHash);
-                if (transactionDspVotesAwaitingHandling != null && !transactionDspVotesAwaitingHandling.isEmpty()) {
-                    transactionDspVotesAwaitingHandling.forEach(transactionDspVote -> handlePostponedTransactionDspVote(transactionDspVote, transactionVoteData));
-                    missingTransactionsAwaitingHandling.remove(transactionHash);
-                }
+            transactionVotes.put(transactionVoteData);
+            transactionHashToVotesListMapping.put(transactionHash, new LinkedList<>());
+
+            HashSet<TransactionDspVote> transactionDspVotesAwaitingHandling = missingTransactionsAwaitingHandling.get(transactionHash);
+            if (transactionDspVotesAwaitingHandling != null && !transactionDspVotesAwaitingHandling.isEmpty()) {
+                transactionDspVotesAwaitingHandling.forEach(transactionDspVote -> handlePostponedTransactionDspVote(transactionDspVote, transactionVoteData));
+                missingTransactionsAwaitingHandling.remove(transactionHash);
             }
         } finally {
-            transactionHashLockData.removeLockFromLocksMap(transactionHash);
+            transactionHashLockData.unlock(transactionHash);
         }
 
     }
@@ -101,20 +102,19 @@ public class DspVoteService extends BaseNodeDspVoteService {
         Hash transactionHash = transactionDspVote.getHash();
         Hash voterDspHash = transactionDspVote.getVoterDspHash();
         log.debug("Received new Dsp Vote: Sender = {} , Transaction = {}", voterDspHash, transactionHash);
+        transactionHashLockData.lock(transactionHash);
         try {
-            synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                TransactionVoteData transactionVoteData = transactionVotes.getByHash(transactionHash);
-                if (transactionVoteData == null) {
-                    missingTransactionsAwaitingHandling.putIfAbsent(transactionHash, new HashSet<>());
-                    missingTransactionsAwaitingHandling.get(transactionHash).add(transactionDspVote);
-                    log.info("Transaction {} does not exist for dsp vote. Vote processing is delayed.", transactionHash);
-                    return;
-                }
-
-                handleDspVote(transactionDspVote, transactionVoteData, voterDspHash, transactionHash);
+            TransactionVoteData transactionVoteData = transactionVotes.getByHash(transactionHash);
+            if (transactionVoteData == null) {
+                missingTransactionsAwaitingHandling.putIfAbsent(transactionHash, new HashSet<>());
+                missingTransactionsAwaitingHandling.get(transactionHash).add(transactionDspVote);
+                log.info("Transaction {} does not exist for dsp vote. Vote processing is delayed.", transactionHash);
+                return;
             }
+
+            handleDspVote(transactionDspVote, transactionVoteData, voterDspHash, transactionHash);
         } finally {
-            transactionHashLockData.removeLockFromLocksMap(transactionHash);
+            transactionHashLockData.unlock(transactionHash);
         }
 
     }
@@ -125,30 +125,37 @@ public class DspVoteService extends BaseNodeDspVoteService {
                 transactionHashToVotesListMapping.entrySet()) {
             Hash transactionHash = transactionHashToVotesListEntrySet.getKey();
             try {
-                synchronized (transactionHashLockData.addLockToLockMap(transactionHash)) {
-                    List<DspVote> dspVotes = transactionHashToVotesListEntrySet.getValue();
-                    if (dspVotes != null && !dspVotes.isEmpty()) {
-                        TransactionVoteData currentTransactionVoteData = transactionVotes.getByHash(transactionHash);
-                        Map<Hash, DspVote> mapHashToDspVote = currentTransactionVoteData.getDspHashToVoteMapping();
-                        dspVotes.forEach(dspVote -> mapHashToDspVote.putIfAbsent(dspVote.getVoterDspHash(), dspVote));
-                        if (isPositiveMajorityAchieved(currentTransactionVoteData)) {
-                            publishDecision(transactionHash, mapHashToDspVote, true);
-                            log.debug("Valid vote majority achieved for transaction {}", currentTransactionVoteData.getHash());
-                        } else if (isNegativeMajorityAchieved(currentTransactionVoteData)) {
-                            publishDecision(transactionHash, mapHashToDspVote, false);
-                            log.debug("Invalid vote majority achieved for transaction {}", currentTransactionVoteData.getHash());
-                        } else {
-                            log.debug("Undecided majority for transaction {}", currentTransactionVoteData.getHash());
-                        }
+                if (!transactionHashLockData.tryLock(transactionHash, VOTE_LOCK_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    log.debug("Transaction {} is locked. Votes will be summed in the next round", transactionHash);
+                    continue;
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            try {
+                List<DspVote> dspVotes = transactionHashToVotesListEntrySet.getValue();
+                if (dspVotes != null && !dspVotes.isEmpty()) {
+                    TransactionVoteData currentTransactionVoteData = transactionVotes.getByHash(transactionHash);
+                    Map<Hash, DspVote> mapHashToDspVote = currentTransactionVoteData.getDspHashToVoteMapping();
+                    dspVotes.forEach(dspVote -> mapHashToDspVote.putIfAbsent(dspVote.getVoterDspHash(), dspVote));
+                    if (isPositiveMajorityAchieved(currentTransactionVoteData)) {
+                        publishDecision(transactionHash, mapHashToDspVote, true, false);
+                        log.debug("Valid vote majority achieved for transaction {}", currentTransactionVoteData.getHash());
+                    } else if (isNegativeMajorityAchieved(currentTransactionVoteData)) {
+                        publishDecision(transactionHash, mapHashToDspVote, false, false);
+                        log.debug("Invalid vote majority achieved for transaction {}", currentTransactionVoteData.getHash());
+                    } else {
+                        log.debug("Undecided majority for transaction {}", currentTransactionVoteData.getHash());
                     }
                 }
             } finally {
-                transactionHashLockData.removeLockFromLocksMap(transactionHash);
+                transactionHashLockData.unlock(transactionHash);
             }
         }
     }
 
-    private synchronized void publishDecision(Hash transactionHash, Map<Hash, DspVote> mapHashToDspVote, boolean isLegalTransaction) {
+    private synchronized void publishDecision(Hash transactionHash, Map<Hash, DspVote> mapHashToDspVote, boolean isLegalTransaction, boolean waitForPublishQueue) {
         TransactionData transactionData = transactions.getByHash(transactionHash);
         DspConsensusResult dspConsensusResult = new DspConsensusResult(transactionData.getHash());
         dspConsensusResult.setDspConsensus(isLegalTransaction);
@@ -157,7 +164,12 @@ public class DspVoteService extends BaseNodeDspVoteService {
         dspConsensusResult.setDspVotes(dspVotes);
         setIndexForDspResult(transactionData, dspConsensusResult);
         confirmationService.setDspcToTrue(dspConsensusResult);
-        propagationPublisher.propagate(dspConsensusResult, Arrays.asList(NodeType.DspNode, NodeType.TrustScoreNode, NodeType.FinancialServer, NodeType.HistoryNode));
+        List<NodeType> subscriberNodeTypes = Arrays.asList(NodeType.DspNode, NodeType.TrustScoreNode, NodeType.FinancialServer, NodeType.HistoryNode);
+        if (waitForPublishQueue) {
+            propagationPublisher.propagate(dspConsensusResult, subscriberNodeTypes);
+        } else if (!propagationPublisher.tryPropagate(dspConsensusResult, subscriberNodeTypes)) {
+            log.warn("Publish queue is full. Dsp consensus result of transaction {} is not propagated", transactionHash);
+        }
         transactionHashToVotesListMapping.remove(transactionHash);
     }
 
@@ -170,7 +182,7 @@ public class DspVoteService extends BaseNodeDspVoteService {
     }
 
     public void publishDecision(Hash transactionHash) {
-        publishDecision(transactionHash, new HashMap<>(), true);
+        publishDecision(transactionHash, new HashMap<>(), true, true);
     }
 
     private boolean isPositiveMajorityAchieved(TransactionVoteData currentVotes) {
@@ -3,6 +3,7 @@ package io.coti.zerospend.services;
 import io.coti.basenode.data.Hash;
 import io.coti.basenode.data.TransactionData;
 import io.coti.basenode.data.TransactionType;
+import io.coti.basenode.services.SourceIndex;
 import io.coti.basenode.services.interfaces.IClusterHelper;
 import io.coti.basenode.services.interfaces.IClusterService;
 import lombok.extern.slf4j.Slf4j;
@@ -15,8 +16,6 @@ import java.time.Duration;
 import java.time.Instant;
 import java.util.Date;
 import java.util.LinkedList;
-import java.util.List;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
 @Slf4j
@@ -48,10 +47,10 @@ public class SourceStarvationService {
     }
 
     private void createNewGenesisZeroSpendTransactions() {
-        List<Set<TransactionData>> sourceListsByTrustScore = clusterService.getSourceListsByTrustScore();
+        SourceIndex sourceIndex = clusterService.getSourceIndex();
         boolean isTrustScoreRangeContainsSource = false;
         for (int i = 1; i <= 100; i++) {
-            if (!sourceListsByTrustScore.get(i).isEmpty()) {
+            if (sourceIndex.getNumberOfSources(i) > 0) {
                 isTrustScoreRangeContainsSource = true;
             }
             if (i % 10 == 0) {
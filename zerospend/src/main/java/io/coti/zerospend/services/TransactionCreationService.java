@@ -91,7 +91,9 @@ public class TransactionCreationService {
 
     private void sendTransactionToPublisher(TransactionData transactionData) {
         log.debug("Sending Zero Spend Transaction. transaction: Hash = {} , SenderTrustScore = {}", transactionData.getHash(), transactionData.getSenderTrustScore());
-        propagationPublisher.propagate(transactionData, Arrays.asList(NodeType.DspNode, NodeType.TrustScoreNode, NodeType.FinancialServer, NodeType.HistoryNode));
+        if (!propagationPublisher.tryPropagate(transactionData, Arrays.asList(NodeType.DspNode, NodeType.TrustScoreNode, NodeType.FinancialServer, NodeType.HistoryNode))) {
+            log.warn("Publish queue is full. Zero Spend Transaction {} is not propagated", transactionData.getHash());
+        }
 
     }
 